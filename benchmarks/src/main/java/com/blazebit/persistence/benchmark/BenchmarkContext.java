@@ -0,0 +1,111 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.benchmark;
+
+import com.blazebit.persistence.Criteria;
+import com.blazebit.persistence.CriteriaBuilderFactory;
+import com.blazebit.persistence.benchmark.model.Document;
+import com.blazebit.persistence.benchmark.model.Person;
+import com.blazebit.persistence.benchmark.view.DocumentView;
+import com.blazebit.persistence.benchmark.view.DocumentWithPeopleView;
+import com.blazebit.persistence.benchmark.view.PersonView;
+import com.blazebit.persistence.view.EntityViewManager;
+import com.blazebit.persistence.view.EntityViews;
+import com.blazebit.persistence.view.spi.EntityViewConfiguration;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+/**
+ * Shared benchmark state that bootstraps the persistence unit, the criteria builder factory and the entity view manager
+ * once per trial and populates the in-memory database with a small data set.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+@State(Scope.Benchmark)
+public class BenchmarkContext {
+
+    public static final int DOCUMENT_COUNT = 100;
+    public static final int PEOPLE_PER_DOCUMENT = 5;
+
+    private EntityManagerFactory emf;
+    private EntityManager em;
+    private CriteriaBuilderFactory cbf;
+    private EntityViewManager evm;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        emf = Persistence.createEntityManagerFactory("benchmark");
+        cbf = Criteria.getDefault().createCriteriaBuilderFactory(emf);
+
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.addEntityView(PersonView.class);
+        cfg.addEntityView(DocumentView.class);
+        cfg.addEntityView(DocumentWithPeopleView.class);
+        evm = cfg.createEntityViewManager(cbf);
+
+        em = emf.createEntityManager();
+        populate();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (em != null) {
+            em.close();
+        }
+        if (emf != null) {
+            emf.close();
+        }
+    }
+
+    private void populate() {
+        em.getTransaction().begin();
+        Person[] people = new Person[DOCUMENT_COUNT];
+        for (int i = 0; i < DOCUMENT_COUNT; i++) {
+            people[i] = new Person("Person " + i, 20 + i % 50);
+            em.persist(people[i]);
+        }
+        for (int i = 0; i < DOCUMENT_COUNT; i++) {
+            Document document = new Document("Document " + i, i, people[i]);
+            for (int j = 1; j <= PEOPLE_PER_DOCUMENT; j++) {
+                document.getPeople().add(people[(i + j) % DOCUMENT_COUNT]);
+            }
+            em.persist(document);
+        }
+        em.getTransaction().commit();
+        em.clear();
+    }
+
+    public EntityManager getEntityManager() {
+        return em;
+    }
+
+    public CriteriaBuilderFactory getCriteriaBuilderFactory() {
+        return cbf;
+    }
+
+    public EntityViewManager getEntityViewManager() {
+        return evm;
+    }
+}
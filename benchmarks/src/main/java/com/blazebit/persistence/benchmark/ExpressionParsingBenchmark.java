@@ -0,0 +1,81 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.benchmark;
+
+import com.blazebit.persistence.parser.expression.Expression;
+import com.blazebit.persistence.parser.expression.ExpressionFactory;
+import com.blazebit.persistence.parser.expression.ExpressionFactoryImpl;
+import com.blazebit.persistence.parser.expression.SimpleCachingExpressionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing an expression from scratch with retrieving it from a warm expression cache.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ExpressionParsingBenchmark {
+
+    @Param({
+        "d.name",
+        "d.owner.name",
+        "UPPER(d.name)",
+        "COALESCE(d.owner.age, 0) + d.age * 2",
+        "CASE WHEN d.age > 10 THEN d.name ELSE d.owner.name END"
+    })
+    private String expression;
+
+    private ExpressionFactory uncachedExpressionFactory;
+    private ExpressionFactory cachedExpressionFactory;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        uncachedExpressionFactory = new ExpressionFactoryImpl(new HashMap<String, Boolean>(), true, true);
+        cachedExpressionFactory = new SimpleCachingExpressionFactory(uncachedExpressionFactory);
+        cachedExpressionFactory.createSimpleExpression(expression, false, false, false);
+    }
+
+    @Benchmark
+    public Expression parseUncached() {
+        return uncachedExpressionFactory.createSimpleExpression(expression, false, false, false);
+    }
+
+    @Benchmark
+    public Expression parseCached() {
+        return cachedExpressionFactory.createSimpleExpression(expression, false, false, false);
+    }
+}
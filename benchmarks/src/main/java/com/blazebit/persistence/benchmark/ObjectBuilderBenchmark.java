@@ -0,0 +1,155 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.benchmark;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.benchmark.model.Document;
+import com.blazebit.persistence.benchmark.view.DocumentView;
+import com.blazebit.persistence.benchmark.view.DocumentWithPeopleView;
+import com.blazebit.persistence.parser.expression.ExpressionFactory;
+import com.blazebit.persistence.view.impl.EntityViewConfiguration;
+import com.blazebit.persistence.view.impl.EntityViewManagerImpl;
+import com.blazebit.persistence.view.impl.macro.MutableEmbeddingViewJpqlMacro;
+import com.blazebit.persistence.view.impl.metamodel.ManagedViewTypeImplementor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the materialization of entity views from tuples, excluding the database round trip.
+ * The tuples are fetched once during setup by running the JPQL query the object builder was applied to.
+ * The collection fetch of one million rows is simulated by replicating the fetched tuples with shifted document ids.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ObjectBuilderBenchmark {
+
+    public static final int LARGE_ROW_COUNT = 1_000_000;
+
+    private ObjectBuilder<Object> documentViewBuilder;
+    private List<Object[]> documentViewTuples;
+    private ObjectBuilder<Object> documentWithPeopleViewBuilder;
+    private List<Object[]> documentWithPeopleViewTuples;
+    private List<Object[]> largeDocumentWithPeopleViewTuples;
+
+    @Setup(Level.Trial)
+    public void setup(BenchmarkContext context) {
+        documentViewBuilder = createObjectBuilder(context, DocumentView.class);
+        documentViewTuples = fetchTuples(context, DocumentView.class);
+        documentWithPeopleViewBuilder = createObjectBuilder(context, DocumentWithPeopleView.class);
+        documentWithPeopleViewTuples = fetchTuples(context, DocumentWithPeopleView.class);
+        largeDocumentWithPeopleViewTuples = replicateDocuments(documentWithPeopleViewTuples, LARGE_ROW_COUNT);
+    }
+
+    @Benchmark
+    public List<Object> documentView() {
+        return materialize(documentViewBuilder, documentViewTuples);
+    }
+
+    @Benchmark
+    public List<Object> documentWithPeopleView() {
+        return materialize(documentWithPeopleViewBuilder, documentWithPeopleViewTuples);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Object> largeDocumentWithPeopleView() {
+        return materialize(documentWithPeopleViewBuilder, largeDocumentWithPeopleViewTuples);
+    }
+
+    private static List<Object> materialize(ObjectBuilder<Object> objectBuilder, List<Object[]> tuples) {
+        List<Object> list = new ArrayList<>(tuples.size());
+        for (Object[] tuple : tuples) {
+            // Object builders may modify the tuple in place, so we always work on a copy
+            list.add(objectBuilder.build(tuple.clone()));
+        }
+        return objectBuilder.buildList(list);
+    }
+
+    private static List<Object[]> replicateDocuments(List<Object[]> tuples, int rowCount) {
+        // The document id is the first tuple element, so we shift it by the highest id for every copy of the fetched tuples
+        long maxId = 0;
+        for (Object[] tuple : tuples) {
+            maxId = Math.max(maxId, (Long) tuple[0]);
+        }
+        List<Object[]> largeTuples = new ArrayList<>(rowCount);
+        for (long idOffset = 0; largeTuples.size() + tuples.size() <= rowCount; idOffset += maxId) {
+            for (Object[] tuple : tuples) {
+                Object[] largeTuple = tuple.clone();
+                largeTuple[0] = (Long) tuple[0] + idOffset;
+                largeTuples.add(largeTuple);
+            }
+        }
+        return largeTuples;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectBuilder<Object> createObjectBuilder(BenchmarkContext context, Class<?> entityViewClass) {
+        return (ObjectBuilder<Object>) createObjectBuilder(context, entityViewClass, createCriteriaBuilder(context));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object[]> fetchTuples(BenchmarkContext context, Class<?> entityViewClass) {
+        CriteriaBuilder<Document> cb = createCriteriaBuilder(context);
+        cb.selectNew(createObjectBuilder(context, entityViewClass, cb));
+        EntityManager em = context.getEntityManager();
+        List<Object[]> tuples = em.createQuery(cb.getQueryString()).getResultList();
+        em.clear();
+        return tuples;
+    }
+
+    private static CriteriaBuilder<Document> createCriteriaBuilder(BenchmarkContext context) {
+        return context.getCriteriaBuilderFactory().create(context.getEntityManager(), Document.class, "d")
+                .orderByAsc("d.id");
+    }
+
+    private static ObjectBuilder<?> createObjectBuilder(BenchmarkContext context, Class<?> entityViewClass, CriteriaBuilder<?> cb) {
+        EntityViewManagerImpl evm = (EntityViewManagerImpl) context.getEntityViewManager();
+        ManagedViewTypeImplementor<?> viewType = evm.getMetamodel().managedView(entityViewClass);
+        EntityViewConfiguration configuration = new EntityViewConfiguration(
+                cb,
+                cb.getService(ExpressionFactory.class),
+                new MutableEmbeddingViewJpqlMacro(),
+                Collections.<String, Object>emptyMap(),
+                Collections.<String, Object>emptyMap()
+        );
+        return evm.createObjectBuilder(viewType, null, entityViewClass.getSimpleName(), "d", null, cb, configuration, 0, 0);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.benchmark;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.CriteriaBuilderFactory;
+import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.benchmark.model.Document;
+import com.blazebit.persistence.benchmark.model.DocumentCte;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time it takes to build a query with the criteria builder API and render it to JPQL or SQL.
+ * Every benchmark creates a fresh builder so the measured time includes the whole builder life cycle.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QueryBuilderBenchmark {
+
+    @Benchmark
+    public String simpleSelect(BenchmarkContext context) {
+        return context.getCriteriaBuilderFactory().create(context.getEntityManager(), Document.class, "d")
+                .where("d.age").gt(10L)
+                .orderByAsc("d.id")
+                .getQueryString();
+    }
+
+    @Benchmark
+    public String joins(BenchmarkContext context) {
+        return context.getCriteriaBuilderFactory().create(context.getEntityManager(), Object[].class)
+                .from(Document.class, "d")
+                .leftJoin("d.people", "p")
+                .select("d.name")
+                .select("d.owner.name")
+                .select("p.name")
+                .where("p.age").ge(20L)
+                .where("d.owner.name").like().value("Person%").noEscape()
+                .orderByAsc("d.id")
+                .getQueryString();
+    }
+
+    @Benchmark
+    public String cte(BenchmarkContext context) {
+        return createCteCriteriaBuilder(context).getQueryString();
+    }
+
+    @Benchmark
+    public TypedQuery<DocumentCte> cteQuery(BenchmarkContext context) {
+        // Creating the query for a CTE builder also involves rendering and post-processing the SQL
+        return createCteCriteriaBuilder(context).getQuery();
+    }
+
+    @Benchmark
+    public String setOperation(BenchmarkContext context) {
+        return context.getCriteriaBuilderFactory().create(context.getEntityManager(), String.class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .where("d.age").lt(10L)
+                .union()
+                .from(Document.class, "d2")
+                .select("d2.name")
+                .where("d2.age").gt(90L)
+                .endSet()
+                .getQueryString();
+    }
+
+    @Benchmark
+    public String windowFunction(BenchmarkContext context) {
+        return context.getCriteriaBuilderFactory().create(context.getEntityManager(), Object[].class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .select("SUM(d.age) OVER (ORDER BY d.age ROWS BETWEEN UNBOUNDED PRECEDING AND CURRENT ROW)")
+                .select("ROW_NUMBER() OVER (PARTITION BY d.owner.id ORDER BY d.age)")
+                .getQueryString();
+    }
+
+    @Benchmark
+    public String keysetPagination(BenchmarkContext context) {
+        CriteriaBuilderFactory cbf = context.getCriteriaBuilderFactory();
+        EntityManager em = context.getEntityManager();
+        PaginatedCriteriaBuilder<Document> cb = cbf.create(em, Document.class, "d")
+                .leftJoinFetch("d.people", "p")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(0, 10)
+                .afterKeyset("Document 10", 10L);
+        return cb.getPageIdQueryString() + cb.getQueryString();
+    }
+
+    private static CriteriaBuilder<DocumentCte> createCteCriteriaBuilder(BenchmarkContext context) {
+        return context.getCriteriaBuilderFactory().create(context.getEntityManager(), DocumentCte.class)
+                .with(DocumentCte.class)
+                    .from(Document.class, "d")
+                    .bind("id").select("d.id")
+                    .bind("name").select("d.name")
+                    .where("d.age").lt(50L)
+                .end()
+                .from(DocumentCte.class, "c")
+                .orderByAsc("c.id");
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence;
+
+import java.util.List;
+
+/**
+ * An object builder that is aware of the result being built in chunks when scrolling through it via {@link Queryable#scroll(int)}.
+ * Chunks are only split between tuples that don't belong together, so that tuples which are reduced to a single object
+ * end up in the same chunk, given that such tuples are adjacent in the result.
+ *
+ * @param <T> The type that this builder produces
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public interface ChunkAwareObjectBuilder<T> extends ObjectBuilder<T> {
+
+    /**
+     * Returns whether the given adjacent tuples belong together and must thus be part of the same chunk.
+     *
+     * @param tuple The last tuple of the current chunk
+     * @param nextTuple The next tuple of the result
+     * @return true if the next tuple must be added to the current chunk, false otherwise
+     */
+    public boolean isSameChunk(Object[] tuple, Object[] nextTuple);
+
+    /**
+     * Like {@link #buildList(List)}, but transforms only a chunk of the result.
+     *
+     * @param chunk The chunk to be transformed
+     * @return The resulting list
+     */
+    public List<T> buildChunk(List<T> chunk);
+}
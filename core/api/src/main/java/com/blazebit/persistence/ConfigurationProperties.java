@@ -108,6 +108,16 @@ public final class ConfigurationProperties {
      */
     public static final String EXPRESSION_CACHE_CLASS = "com.blazebit.persistence.expression.cache_class";
 
+    /**
+     * The maximum number of entries per cache name for expression caches that support bounding like
+     * <code>com.blazebit.persistence.parser.expression.BoundedExpressionCache</code>.
+     * The limit for a specific cache name can be configured by suffixing this property name with a dot and the cache name.
+     * Default is <code>4096</code>
+     *
+     * @since 1.4.0
+     */
+    public static final String EXPRESSION_CACHE_MAX_SIZE = "com.blazebit.persistence.expression.cache_max_size";
+
     /**
      * If set to false, tuples of a VALUES clause with all null values won't be filtered out.
      * Valid values for this property are <code>true</code> or <code>false</code>.
@@ -119,6 +129,20 @@ public final class ConfigurationProperties {
      */
     public static final String VALUES_CLAUSE_FILTER_NULLS = "com.blazebit.persistence.values.filter_nulls";
 
+    /**
+     * The minimum number of elements of a VALUES clause at which the elements are loaded into a temporary table via JDBC batching
+     * instead of being bound as one parameter per element and attribute.
+     * A temporary table is only used if the DBMS supports temporary tables, the VALUES clause is part of the main query
+     * and all attributes of the VALUES clause are basic attributes with a single column.
+     * Valid values for this property are non-negative integers, <code>0</code> disables the use of temporary tables.
+     * Default is <code>0</code>
+     *
+     * The property can be changed for a criteria builder before constructing a query.
+     *
+     * @since 1.4.0
+     */
+    public static final String VALUES_CLAUSE_TEMPORARY_TABLE_THRESHOLD = "com.blazebit.persistence.values.temporary_table_threshold";
+
     /**
      * If set to false, parameters are always rendered as such, otherwise the values might get inlined when no type can be inferred.
      * Valid values for this property are <code>true</code> or <code>false</code>.
@@ -141,7 +165,132 @@ public final class ConfigurationProperties {
      * @since 1.2.0
      */
     public static final String OPTIMIZED_KEYSET_PREDICATE_RENDERING = "com.blazebit.persistence.optimized_keyset_predicate_rendering";
-    
+
+    /**
+     * If set to true, the JPQL of criteria builders is cached in a query plan cache on the criteria builder factory.
+     * The cache is keyed by a structural fingerprint of the builder, so building a query of an already known shape
+     * skips implicit joining, expression transformation and query string generation and only binds parameters.
+     * Builders that make use of CTEs, subqueries, VALUES clauses or keyset pagination are never cached.
+     * Valid values for this property are <code>true</code> or <code>false</code>.
+     * Default is <code>false</code>
+     *
+     * The property can be changed for a criteria builder before constructing a query.
+     *
+     * @since 1.4.0
+     */
+    public static final String QUERY_PLAN_CACHE_ENABLED = "com.blazebit.persistence.query_plan_cache_enabled";
+
+    /**
+     * The maximum number of entries in the query plan cache.
+     * Default is <code>2048</code>
+     *
+     * @since 1.4.0
+     */
+    public static final String QUERY_PLAN_CACHE_MAX_SIZE = "com.blazebit.persistence.query_plan_cache_max_size";
+
+    /**
+     * The maximum number of entries in the cache for the final SQL of select queries that make use of CTEs, VALUES clauses or entity functions.
+     * The SQL of such queries is post-processed after the JPA provider generated it, which is skipped when the cache already contains
+     * the result for the same provider SQL and query structure.
+     * Valid values for this property are non-negative integers, <code>0</code> disables the cache.
+     * Default is <code>1024</code>
+     *
+     * @since 1.4.0
+     */
+    public static final String CUSTOM_SQL_CACHE_MAX_SIZE = "com.blazebit.persistence.custom_sql_cache_max_size";
+
+    /**
+     * If set to true, a collection valued parameter of an IN predicate is bound as a single array parameter
+     * and the predicate is rendered as <code>= ANY(?)</code> instead of expanding the collection to one placeholder per element.
+     * This keeps the SQL independent of the collection size which is beneficial for statement caches.
+     * Array binding is only done if the DBMS and the JPA provider support array parameters, the predicate is not negated,
+     * the left hand side of the predicate is a basic attribute of type {@link String}, {@link Long}, {@link Integer} or {@link Short}
+     * and every other usage of the parameter in the same query builder qualifies for array binding as well.
+     * A parameter that is also used in a subquery, a CTE or any other position is expanded in all usages.
+     * Valid values for this property are <code>true</code> or <code>false</code>.
+     * Default is <code>false</code>
+     *
+     * The property can be changed for a criteria builder before constructing a query.
+     *
+     * @since 1.4.0
+     */
+    public static final String IN_LIST_ARRAY_BINDING = "com.blazebit.persistence.in_list_array_binding";
+
+    /**
+     * Defines how collection valued parameters of IN predicates are padded. Since a collection valued parameter is expanded
+     * to one placeholder per element, every collection size results in a different SQL. Padding the collection to a bucket size
+     * by repeating the last element reduces the number of distinct SQL statements which is beneficial for statement caches.
+     * The padding is applied to the parameters of normal queries, of queries using CTEs and to the id parameter of paginated queries.
+     * Valid values for this property are
+     * <ul>
+     *     <li><code>none</code> - no padding</li>
+     *     <li><code>power_of_two</code> - pads to the next power of two</li>
+     *     <li>a comma separated list of strictly ascending bucket sizes e.g. <code>10,50,100</code> - pads to the next bucket size,
+     *     or to the next multiple of the largest bucket size if the collection is bigger</li>
+     * </ul>
+     * Default is <code>none</code>
+     *
+     * The property can be changed for a criteria builder before constructing a query.
+     *
+     * @since 1.4.0
+     */
+    public static final String IN_LIST_PADDING = "com.blazebit.persistence.in_list_padding";
+
+    /**
+     * The number of rows between two keysets that are remembered as checkpoints for offset pagination.
+     * When a page is requested via {@link FullQueryBuilder#page(int, int)} for which a checkpoint of the same query is known,
+     * the query seeks from the checkpoint with a keyset predicate and a small offset instead of skipping all preceding rows.
+     * Checkpoints are only used and recorded if keyset extraction is enabled.
+     * Valid values for this property are non-negative integers, <code>0</code> disables checkpoints.
+     * Default is <code>0</code>
+     *
+     * @since 1.4.0
+     */
+    public static final String KEYSET_CHECKPOINT_INTERVAL = "com.blazebit.persistence.keyset_checkpoint_interval";
+
+    /**
+     * The full qualified keyset checkpoint cache implementation class name. The class must implement
+     * {@link com.blazebit.persistence.spi.KeysetCheckpointCache} and have a public constructor taking the checkpoint interval
+     * and the maximum size as <code>int</code> arguments or a public no-arg constructor.
+     * Default is <code>com.blazebit.persistence.impl.keyset.BoundedKeysetCheckpointCache</code>
+     *
+     * @since 1.4.0
+     */
+    public static final String KEYSET_CHECKPOINT_CACHE_CLASS = "com.blazebit.persistence.keyset_checkpoint_cache_class";
+
+    /**
+     * The maximum number of queries for which checkpoints are remembered by keyset checkpoint caches that support bounding like
+     * <code>com.blazebit.persistence.impl.keyset.BoundedKeysetCheckpointCache</code>.
+     * Default is <code>256</code>
+     *
+     * @since 1.4.0
+     */
+    public static final String KEYSET_CHECKPOINT_CACHE_MAX_SIZE = "com.blazebit.persistence.keyset_checkpoint_cache_max_size";
+
+    /**
+     * The number of threads that are used to extract the entity metamodel when creating a criteria builder factory.
+     * The entity types are extracted in parallel on a fork-join pool that only lives during the bootstrap.
+     * The extraction time is reported by {@link com.blazebit.persistence.spi.BootstrapStatistics}.
+     * Valid values for this property are positive integers, <code>1</code> disables parallel extraction.
+     * Default is the number of available processors if the persistence unit contains at least 32 entity types, otherwise <code>1</code>
+     *
+     * @since 1.4.0
+     */
+    public static final String METAMODEL_EXTRACTION_PARALLELISM = "com.blazebit.persistence.metamodel_extraction_parallelism";
+
+    /**
+     * The name of a class path resource that contains a snapshot of the entity metamodel which was created at build time
+     * by <code>com.blazebit.persistence.impl.EntityMetamodelSnapshotGenerator</code>.
+     * The information about attributes that is contained in the snapshot is used instead of determining it through the JPA provider
+     * when creating a criteria builder factory. If the snapshot doesn't match the entity metamodel, e.g. because an entity was changed
+     * after the snapshot was created, the snapshot is ignored and a warning is logged.
+     * Whether the snapshot was used is reported by {@link com.blazebit.persistence.spi.BootstrapStatistics}.
+     * Default is no snapshot
+     *
+     * @since 1.4.0
+     */
+    public static final String METAMODEL_SNAPSHOT = "com.blazebit.persistence.metamodel_snapshot";
+
     private ConfigurationProperties() {
     }
 }
@@ -43,6 +43,16 @@ public interface CriteriaBuilder<T> extends FullQueryBuilder<T, CriteriaBuilder<
      */
     public String getQueryRootCountQueryString();
 
+    /**
+     * Freezes the builder into an immutable and thread-safe query template that can be executed with any entity manager
+     * by only binding parameter values. Changes done to the builder after creating a template don't affect the template.
+     *
+     * @return A query template for the built query
+     * @throws IllegalStateException if the query requires SQL processing i.e. uses CTEs, VALUES clauses or entity functions
+     * @since 1.4.0
+     */
+    public QueryTemplate<T> toTemplate();
+
     @Override
     public <Y> CriteriaBuilder<Y> copy(Class<Y> resultClass);
 
@@ -41,6 +41,11 @@ class EmptyPagedList<T> implements PagedList<T> {
         return 0;
     }
 
+    @Override
+    public boolean isBoundedCountReached() {
+        return false;
+    }
+
     @Override
     public int getPage() {
         return 0;
@@ -33,6 +33,7 @@ public class PagedArrayList<T> extends ArrayList<T> implements PagedList<T> {
 
     private final KeysetPage keyset;
     private final long totalSize;
+    private final boolean boundedCountReached;
     private final int page;
     private final int totalPages;
     private final int firstResult;
@@ -47,8 +48,23 @@ public class PagedArrayList<T> extends ArrayList<T> implements PagedList<T> {
      * @param maxResults  The maximum result count for a page
      */
     public PagedArrayList(KeysetPage keyset, long totalSize, int firstResult, int maxResults) {
+        this(keyset, totalSize, false, firstResult, maxResults);
+    }
+
+    /**
+     * Constructs a new empty paged array list.
+     *
+     * @param keyset              The keyset page for this page
+     * @param totalSize           The total size of the result
+     * @param boundedCountReached Whether the total size is the reached bound of a bounded count query
+     * @param firstResult         The first result index within the overall result
+     * @param maxResults          The maximum result count for a page
+     * @since 1.4.0
+     */
+    public PagedArrayList(KeysetPage keyset, long totalSize, boolean boundedCountReached, int firstResult, int maxResults) {
         this.keyset = keyset;
         this.totalSize = totalSize;
+        this.boundedCountReached = boundedCountReached;
         this.page = (int) Math.floor((firstResult == -1 ? 0 : firstResult) * 1d / maxResults) + 1;
         this.totalPages = totalSize < 1 ? 0 : (int) Math.ceil(totalSize * 1d / maxResults);
         this.firstResult = firstResult;
@@ -65,9 +81,25 @@ public class PagedArrayList<T> extends ArrayList<T> implements PagedList<T> {
      * @param maxResults  The maximum result count for a page
      */
     public PagedArrayList(Collection<? extends T> collection, KeysetPage keyset, long totalSize, int firstResult, int maxResults) {
+        this(collection, keyset, totalSize, false, firstResult, maxResults);
+    }
+
+    /**
+     * Constructs a new paged array list from the given collection.
+     *
+     * @param collection          The collection of elements for this page
+     * @param keyset              The keyset page for this page
+     * @param totalSize           The total size of the result
+     * @param boundedCountReached Whether the total size is the reached bound of a bounded count query
+     * @param firstResult         The first result index within the overall result
+     * @param maxResults          The maximum result count for a page
+     * @since 1.4.0
+     */
+    public PagedArrayList(Collection<? extends T> collection, KeysetPage keyset, long totalSize, boolean boundedCountReached, int firstResult, int maxResults) {
         super(collection);
         this.keyset = keyset;
         this.totalSize = totalSize;
+        this.boundedCountReached = boundedCountReached;
         this.page = (int) Math.floor((firstResult == -1 ? 0 : firstResult) * 1d / maxResults) + 1;
         this.totalPages = totalSize < 1 ? 0 : (int) Math.ceil(totalSize * 1d / maxResults);
         this.firstResult = firstResult;
@@ -84,6 +116,11 @@ public class PagedArrayList<T> extends ArrayList<T> implements PagedList<T> {
         return totalSize;
     }
 
+    @Override
+    public boolean isBoundedCountReached() {
+        return boundedCountReached;
+    }
+
     @Override
     public int getPage() {
         return page;
@@ -45,11 +45,21 @@ public interface PagedList<T> extends List<T> {
 
     /**
      * Returns the total size of the list or <code>-1</code> if the count query was disabled via {@link PaginatedCriteriaBuilder#withCountQuery(boolean)}.
+     * If the count query was bounded via {@link PaginatedCriteriaBuilder#withBoundedCount(long)}, the total size is at most the bound.
      *
      * @return The total size or <code>-1</code> if the count query was disabled
      */
     public long getTotalSize();
 
+    /**
+     * Returns whether the count query was bounded via {@link PaginatedCriteriaBuilder#withBoundedCount(long)} and the bound was reached.
+     * If true, {@link #getTotalSize()} returns the bound and the actual total size is greater than or equal to it.
+     *
+     * @return true if the bound of the count query was reached, false otherwise
+     * @since 1.4.0
+     */
+    public boolean isBoundedCountReached();
+
     /**
      * Returns the number of this page, numbered from 1.
      * 
@@ -16,7 +16,9 @@
 
 package com.blazebit.persistence;
 
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.TypedQuery;
+import java.util.concurrent.Executor;
 
 /**
  * A builder for paginated criteria queries.
@@ -118,6 +120,78 @@ public interface PaginatedCriteriaBuilder<T> extends FullQueryBuilder<T, Paginat
      */
     public boolean isWithCountQuery();
 
+    /**
+     * Enables or disables inlining of the count query into the id query, or the object query if no id query is needed.
+     * When enabled, the total count is determined by a <code>COUNT(*) OVER ()</code> select item which saves a round trip to the database.
+     * The separate count query is only executed if the requested page turns out to be empty.
+     *
+     * Inlining is only done if the count query is enabled, the DBMS supports window functions and neither keyset pagination
+     * nor navigation to a reference entity via {@link FullQueryBuilder#pageAndNavigate(Object, int)} is used.
+     * Otherwise the separate count query is executed as usual.
+     *
+     * @param withInlineCountQuery true to enable, false to disable inlining of the count query
+     * @return The query builder for chaining calls
+     * @since 1.4.0
+     */
+    public PaginatedCriteriaBuilder<T> withInlineCountQuery(boolean withInlineCountQuery);
+
+    /**
+     * Returns whether inlining of the count query is enabled or not.
+     *
+     * @return true when enabled, false otherwise
+     * @since 1.4.0
+     */
+    public boolean isWithInlineCountQuery();
+
+    /**
+     * Bounds the count query so that it counts at most <code>maximumCount</code> elements.
+     * The count is determined over a subquery that is limited to <code>maximumCount</code> rows, which allows the DBMS
+     * to stop scanning early. If the bound is reached, {@link PagedList#getTotalSize()} returns <code>maximumCount</code>
+     * and {@link PagedList#isBoundedCountReached()} returns true.
+     *
+     * Bounding is only done if the DBMS supports limiting subqueries and no navigation to a reference entity
+     * via {@link FullQueryBuilder#pageAndNavigate(Object, int)} is used. When bounding is done, the count query is not inlined
+     * even if {@link #withInlineCountQuery(boolean)} is enabled.
+     *
+     * @param maximumCount the maximum count up to which to count, or {@link Long#MAX_VALUE} to disable bounding
+     * @return The query builder for chaining calls
+     * @since 1.4.0
+     */
+    public PaginatedCriteriaBuilder<T> withBoundedCount(long maximumCount);
+
+    /**
+     * Returns the maximum count up to which the count query counts, or {@link Long#MAX_VALUE} if the count query is not bounded.
+     *
+     * @return the maximum count up to which to count
+     * @since 1.4.0
+     */
+    public long getBoundedCount();
+
+    /**
+     * Executes the count query concurrently to the id and object queries on the given executor.
+     * The count query is run with a separate entity manager created from the given entity manager factory,
+     * so the latency of a page is roughly the maximum rather than the sum of the query latencies.
+     * Note that the count query therefore doesn't see uncommitted changes of the current transaction.
+     *
+     * Asynchronous execution is only done if the count query is enabled, not inlined and doesn't need SQL level processing
+     * i.e. no CTEs, VALUES clauses, entity functions or bounded counting are used and no navigation to a reference entity
+     * via {@link FullQueryBuilder#pageAndNavigate(Object, int)} is done. Otherwise the count query is executed as usual.
+     *
+     * @param executor The executor to run the count query on or <code>null</code> to disable asynchronous execution
+     * @param entityManagerFactory The entity manager factory to create the entity manager for the count query
+     * @return The query builder for chaining calls
+     * @since 1.4.0
+     */
+    public PaginatedCriteriaBuilder<T> withAsyncCountQuery(Executor executor, EntityManagerFactory entityManagerFactory);
+
+    /**
+     * Returns whether asynchronous count query execution is enabled or not.
+     *
+     * @return true when enabled, false otherwise
+     * @since 1.4.0
+     */
+    public boolean isWithAsyncCountQuery();
+
     /**
      * Forces the use of an id query even if the pagination would not need it.
      *
@@ -135,6 +209,31 @@ public interface PaginatedCriteriaBuilder<T> extends FullQueryBuilder<T, Paginat
      */
     public boolean isWithForceIdQuery();
 
+    /**
+     * Enables or disables inlining of the id query into the object query.
+     * When enabled, the object query restricts the elements by an id subquery that ranks the ids via <code>DENSE_RANK() OVER (ORDER BY ...)</code>
+     * and filters on the rank range of the requested page, which saves a round trip to the database and the binding of the ids.
+     * Keysets are then extracted from the object query.
+     *
+     * Inlining is only done if an id query would be needed, the DBMS supports window functions, the elements are identified by a single
+     * identifier expression and neither keyset pagination, extraction of all keysets, a highest keyset offset, group by
+     * nor navigation to a reference entity via {@link FullQueryBuilder#pageAndNavigate(Object, int)} is used.
+     * When inlining is done, the count query is not inlined even if {@link #withInlineCountQuery(boolean)} is enabled.
+     *
+     * @param withInlineIdQuery true to enable, false to disable inlining of the id query
+     * @return The query builder for chaining calls
+     * @since 1.4.0
+     */
+    public PaginatedCriteriaBuilder<T> withInlineIdQuery(boolean withInlineIdQuery);
+
+    /**
+     * Returns whether inlining of the id query is enabled or not.
+     *
+     * @return true when enabled, false otherwise
+     * @since 1.4.0
+     */
+    public boolean isWithInlineIdQuery();
+
     /**
      * Sets the offset for the highest keyset which influences which element of a page is returned by {@link KeysetPage#getHighest()}.
      * This is usually used when loading N + 1 rows to know there are further rows but only needing N rows.
@@ -153,6 +252,31 @@ public interface PaginatedCriteriaBuilder<T> extends FullQueryBuilder<T, Paginat
      */
     public int getHighestKeysetOffset();
 
+    /**
+     * Sets the number of pages that are fetched in addition to the requested page by the id query.
+     * The id query then fetches the ids and keysets of <code>pageSize * (1 + prefetchPages)</code> elements
+     * and the ones following the highest keyset are kept in the {@link PagedList#getKeysetPage() keyset page}.
+     * When the next page is queried with that keyset page via {@link FullQueryBuilder#page(KeysetPage, int, int)},
+     * the prefetched ids are used and the id query is skipped.
+     *
+     * Prefetching is only done if an id query is used, keyset extraction is enabled and the requested page is not the previous page
+     * of a keyset page. Prefetched ids are not serialized along with the keyset page and are only used if they suffice for the next page.
+     * Note that the prefetched ids are a snapshot, so elements that are inserted after the prefetching are not contained in the next pages.
+     *
+     * @param prefetchPages the number of pages to fetch in addition to the requested page, or <code>0</code> to disable prefetching
+     * @return The query builder for chaining calls
+     * @since 1.4.0
+     */
+    public PaginatedCriteriaBuilder<T> withPrefetchPages(int prefetchPages);
+
+    /**
+     * Returns the number of pages that are fetched in addition to the requested page by the id query.
+     *
+     * @return the number of pages to fetch in addition to the requested page
+     * @since 1.4.0
+     */
+    public int getPrefetchPages();
+
     /**
      * Execute the query and return the result as a type PagedList.
      *
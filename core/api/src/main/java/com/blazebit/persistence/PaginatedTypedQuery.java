@@ -30,6 +30,7 @@ public interface PaginatedTypedQuery<T> extends TypedQuery<T> {
 
     /**
      * Executes a query to calculate the total count of elements and returns that count.
+     * If the count query is bounded via {@link PaginatedCriteriaBuilder#withBoundedCount(long)}, the count is at most the bound.
      *
      * @return the total count of elements
      */
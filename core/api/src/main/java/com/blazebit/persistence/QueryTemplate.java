@@ -0,0 +1,87 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An immutable and thread-safe template of a query created via {@link CriteriaBuilder#toTemplate()}.
+ * The template contains the finished query string, the parameter layout and the object builder of the criteria builder,
+ * so executing a template only creates a query for the given entity manager and binds the parameters.
+ *
+ * Parameter values that were set on the criteria builder before creating the template are used as defaults
+ * and can be overridden via {@link #bind(String, Object)}. The object builder of the criteria builder is shared by
+ * all executions and thus must not hold state.
+ *
+ * @param <T> The query result type
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public interface QueryTemplate<T> {
+
+    /**
+     * Returns the query string of the template.
+     *
+     * @return The query string
+     */
+    public String getQueryString();
+
+    /**
+     * Returns the names of the parameters used in the query.
+     *
+     * @return The parameter names
+     */
+    public Set<String> getParameterNames();
+
+    /**
+     * Starts a new binding of parameter values for the template and binds the given value to the parameter with the given name.
+     * The returned binding is not thread-safe but the template can be used by multiple threads concurrently.
+     *
+     * @param name The name of the parameter
+     * @param value The value to bind
+     * @return A new binding for this template
+     * @throws IllegalArgumentException if the query has no parameter with the given name
+     */
+    public QueryTemplateBinding<T> bind(String name, Object value);
+
+    /**
+     * Creates a JPA typed query for the given entity manager that is parameterized with the default parameter values.
+     *
+     * @param entityManager The entity manager for which to create the query
+     * @return The typed query
+     */
+    public TypedQuery<T> createQuery(EntityManager entityManager);
+
+    /**
+     * Executes the query with the default parameter values in the given entity manager and returns the result as a type List.
+     *
+     * @param entityManager The entity manager in which to execute the query
+     * @return The list of the results
+     */
+    public List<T> getResultList(EntityManager entityManager);
+
+    /**
+     * Executes the query with the default parameter values in the given entity manager expecting a single result.
+     *
+     * @param entityManager The entity manager in which to execute the query
+     * @return The single result
+     */
+    public T getSingleResult(EntityManager entityManager);
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.List;
+
+/**
+ * A set of parameter values bound to a {@link QueryTemplate}.
+ * A binding is not thread-safe and is usually only used for a single execution.
+ *
+ * @param <T> The query result type
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public interface QueryTemplateBinding<T> {
+
+    /**
+     * Binds the given value to the parameter with the given name.
+     *
+     * @param name The name of the parameter
+     * @param value The value to bind
+     * @return This binding for chaining calls
+     * @throws IllegalArgumentException if the query has no parameter with the given name
+     */
+    public QueryTemplateBinding<T> bind(String name, Object value);
+
+    /**
+     * Creates a JPA typed query for the given entity manager that is parameterized with the bound parameter values.
+     *
+     * @param entityManager The entity manager for which to create the query
+     * @return The typed query
+     */
+    public TypedQuery<T> createQuery(EntityManager entityManager);
+
+    /**
+     * Executes the query with the bound parameter values in the given entity manager and returns the result as a type List.
+     *
+     * @param entityManager The entity manager in which to execute the query
+     * @return The list of the results
+     */
+    public List<T> getResultList(EntityManager entityManager);
+
+    /**
+     * Executes the query with the bound parameter values in the given entity manager expecting a single result.
+     *
+     * @param entityManager The entity manager in which to execute the query
+     * @return The single result
+     */
+    public T getSingleResult(EntityManager entityManager);
+}
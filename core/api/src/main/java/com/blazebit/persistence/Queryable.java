@@ -58,4 +58,20 @@ public interface Queryable<T, X extends Queryable<T, X>> {
      */
     public T getSingleResult();
 
+    /**
+     * Execute the query and return the results as iterator that fetches the rows from a database cursor.
+     * Rows are fetched from the database in chunks of <code>fetchSize</code> and only the current chunk is held in memory,
+     * which allows to process big results with constant memory consumption.
+     * If the query makes use of an {@link ObjectBuilder}, every tuple is built with {@link ObjectBuilder#build(Object[])}
+     * as it arrives and {@link ObjectBuilder#buildList(List)} is invoked for every chunk rather than for the whole result.
+     *
+     * If the JPA provider does not support cursors, the result list is fetched and iterated instead.
+     * The returned iterator must be closed if it is not fully consumed.
+     *
+     * @param fetchSize The number of rows to fetch from the database at once
+     * @return The iterator over the results
+     * @since 1.4.0
+     */
+    public CloseableIterator<T> scroll(int fetchSize);
+
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blazebit.persistence.spi;
+
+/**
+ * Statistics about the bootstrap of a criteria builder factory.
+ * An instance can be obtained via {@link com.blazebit.persistence.CriteriaBuilderFactory#getService(Class)}.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ * @see com.blazebit.persistence.ConfigurationProperties#METAMODEL_EXTRACTION_PARALLELISM
+ */
+public interface BootstrapStatistics {
+
+    /**
+     * Returns the time in milliseconds it took to load and register the JPQL functions with the JPA provider.
+     *
+     * @return The function registration time
+     */
+    public long getFunctionRegistrationTime();
+
+    /**
+     * Returns the time in milliseconds it took to extract the entity metamodel.
+     *
+     * @return The metamodel extraction time
+     */
+    public long getMetamodelExtractionTime();
+
+    /**
+     * Returns the time in milliseconds it took to create the criteria builder factory.
+     *
+     * @return The total bootstrap time
+     */
+    public long getTotalTime();
+
+    /**
+     * Returns the number of managed types of the entity metamodel.
+     *
+     * @return The managed type count
+     */
+    public int getManagedTypeCount();
+
+    /**
+     * Returns the number of threads that were used to extract the entity metamodel.
+     *
+     * @return The metamodel extraction parallelism
+     */
+    public int getMetamodelExtractionParallelism();
+
+    /**
+     * Returns whether the entity metamodel was initialized from a snapshot.
+     *
+     * @return true if a snapshot was used, false otherwise
+     * @see com.blazebit.persistence.ConfigurationProperties#METAMODEL_SNAPSHOT
+     */
+    public boolean isMetamodelSnapshotUsed();
+}
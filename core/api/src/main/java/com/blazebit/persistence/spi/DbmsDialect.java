@@ -307,6 +307,33 @@ public interface DbmsDialect {
      */
     public String cast(String expression, String sqlType);
 
+    /**
+     * Returns true if the dbms supports session scoped temporary tables which are required for the {@link ValuesStrategy#TEMPORARY_TABLE} strategy, false otherwise.
+     *
+     * @return Whether temporary tables are supported by the dbms
+     * @since 1.4.0
+     */
+    public boolean supportsTemporaryTables();
+
+    /**
+     * Returns the statement to create a session scoped temporary table with the given name and column definitions if it does not exist yet.
+     * The statement must not commit a running transaction.
+     *
+     * @param tableName The name of the temporary table
+     * @param columnDefinitions The comma separated column definitions
+     * @return The create statement
+     * @since 1.4.0
+     */
+    public String getCreateTemporaryTableStatement(String tableName, String columnDefinitions);
+
+    /**
+     * Returns true if the dbms supports binding a JDBC array as parameter and comparing against its elements via <code>= ANY(?)</code>, false otherwise.
+     *
+     * @return Whether array parameters are supported by the dbms
+     * @since 1.4.0
+     */
+    public boolean supportsArrayParameters();
+
     /**
      * Returns whether sql types for the returning columns need to be provided.
      *
@@ -16,6 +16,7 @@
 
 package com.blazebit.persistence.spi;
 
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.ReturningResult;
 
 import javax.persistence.EntityManager;
@@ -111,6 +112,20 @@ public interface ExtendedQuerySupport {
      */
     public Object getSingleResult(ServiceProvider serviceProvider, List<Query> participatingQueries, Query query, String sqlOverride);
 
+    /**
+     * Returns an iterator over the results of the Query backed by a database cursor by replacing the SQL with the given overriding SQL query.
+     * The elements of the iterator have the same form as the elements of {@link #getResultList(ServiceProvider, List, Query, String)}.
+     *
+     * @param serviceProvider The service provider to access {@linkplain EntityManager} and others
+     * @param participatingQueries The list of participating queries from which to combine parameters
+     * @param query The main query to execute
+     * @param sqlOverride The actual SQL query to execute instead of the query's original SQL
+     * @param fetchSize The JDBC fetch size to use for the cursor
+     * @return The iterator over the results of the query
+     * @since 1.4.0
+     */
+    public CloseableIterator<Object> scroll(ServiceProvider serviceProvider, List<Query> participatingQueries, Query query, String sqlOverride, int fetchSize);
+
     /**
      * Executes and returns the update count of the Query by replacing the SQL with the given overriding SQL query.
      *
@@ -134,4 +149,16 @@ public interface ExtendedQuerySupport {
      * @return The returning result of the query
      */
     public ReturningResult<Object[]> executeReturning(ServiceProvider serviceProvider, List<Query> participatingQueries, Query baseQuery, Query exampleQuery, String sqlOverride);
+
+    /**
+     * Executes the given SQL statement on the connection of the entity manager once for every argument row by making use of JDBC batching.
+     * If no argument rows are given, the statement is executed once without arguments.
+     *
+     * @param serviceProvider The service provider to access {@linkplain EntityManager} and others
+     * @param sql The SQL statement to execute
+     * @param arguments The argument rows for the statement executions
+     * @param batchSize The maximum number of argument rows per JDBC batch
+     * @since 1.4.0
+     */
+    public void executeBatch(ServiceProvider serviceProvider, String sql, List<Object[]> arguments, int batchSize);
 }
@@ -22,6 +22,7 @@ import javax.persistence.EntityManager;
 import javax.persistence.Query;
 import javax.persistence.metamodel.EntityType;
 import javax.persistence.metamodel.ManagedType;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -523,6 +524,25 @@ public interface JpaProvider {
      */
     public void setCacheable(Query query);
 
+    /**
+     * Whether the JPA provider supports binding a collection as single JDBC array parameter via {@link #setArrayParameter(Query, String, Collection, String)}.
+     *
+     * @return true if supported, else false
+     * @since 1.4.0
+     */
+    public boolean supportsArrayParameters();
+
+    /**
+     * Binds the given values as single JDBC array parameter with the given element sql type to the query.
+     *
+     * @param query The query on which to bind the parameter
+     * @param parameterName The name of the parameter
+     * @param values The values of the array
+     * @param elementSqlType The sql type of the array elements
+     * @since 1.4.0
+     */
+    public void setArrayParameter(Query query, String parameterName, Collection<?> values, String elementSqlType);
+
     /**
      * Get the identifier or unique key inverse properties of an association attribute.
      *
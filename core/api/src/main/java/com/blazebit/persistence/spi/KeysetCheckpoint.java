@@ -0,0 +1,44 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blazebit.persistence.spi;
+
+import com.blazebit.persistence.Keyset;
+
+/**
+ * The keyset of a row of an offset paginated query along with the position of the row.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ * @see KeysetCheckpointCache
+ */
+public interface KeysetCheckpoint {
+
+    /**
+     * Returns the zero-based position of the row.
+     *
+     * @return The position
+     */
+    public int getPosition();
+
+    /**
+     * Returns the keyset of the row.
+     *
+     * @return The keyset
+     */
+    public Keyset getKeyset();
+}
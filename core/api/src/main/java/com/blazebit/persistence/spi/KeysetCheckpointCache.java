@@ -0,0 +1,58 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blazebit.persistence.spi;
+
+import com.blazebit.persistence.Keyset;
+
+/**
+ * A cache for the keysets of rows of offset paginated queries that serve as checkpoints for seeking to deep pages.
+ * An instance can be obtained via {@link com.blazebit.persistence.CriteriaBuilderFactory#getService(Class)}.
+ *
+ * Implementations must be thread safe.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ * @see com.blazebit.persistence.ConfigurationProperties#KEYSET_CHECKPOINT_INTERVAL
+ */
+public interface KeysetCheckpointCache {
+
+    /**
+     * Returns the checkpoint with the highest position that is less than or equal to the given position for the given query key,
+     * or <code>null</code> if there is no such checkpoint.
+     *
+     * @param queryKey The key identifying the query and its parameter values
+     * @param position The zero-based row position
+     * @return The nearest preceding checkpoint or <code>null</code>
+     */
+    public KeysetCheckpoint get(String queryKey, int position);
+
+    /**
+     * Offers the keyset of the row at the given position of the query identified by the given key as checkpoint.
+     * Implementations may decide to not retain the keyset.
+     *
+     * @param queryKey The key identifying the query and its parameter values
+     * @param position The zero-based row position
+     * @param keyset The keyset of the row
+     */
+    public void put(String queryKey, int position, Keyset keyset);
+
+    /**
+     * Removes all checkpoints.
+     */
+    public void clear();
+}
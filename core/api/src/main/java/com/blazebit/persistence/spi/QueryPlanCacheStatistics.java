@@ -0,0 +1,61 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.spi;
+
+/**
+ * Statistics of the query plan cache of a criteria builder factory.
+ * An instance can be obtained via {@link com.blazebit.persistence.CriteriaBuilderFactory#getService(Class)}.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ * @see com.blazebit.persistence.ConfigurationProperties#QUERY_PLAN_CACHE_ENABLED
+ */
+public interface QueryPlanCacheStatistics {
+
+    /**
+     * Returns the number of lookups that were answered by a cached query plan.
+     *
+     * @return The hit count
+     */
+    public long getHitCount();
+
+    /**
+     * Returns the number of lookups for which no cached query plan existed.
+     *
+     * @return The miss count
+     */
+    public long getMissCount();
+
+    /**
+     * Returns the number of currently cached query plans.
+     *
+     * @return The current size
+     */
+    public int getSize();
+
+    /**
+     * Returns the maximum number of query plans that are cached.
+     *
+     * @return The maximum size
+     */
+    public int getMaxSize();
+
+    /**
+     * Removes all cached query plans and resets the statistics.
+     */
+    public void clear();
+}
@@ -25,8 +25,6 @@ package com.blazebit.persistence.spi;
 public enum ValuesStrategy {
     VALUES,
     SELECT_VALUES,
-    SELECT_UNION;
-
-    // NOTE: another possible strategy would be to use a temporary table
-    // CREATE TEMPORARY TABLE IF NOT EXISTS table2 AS (SELECT * FROM table1)
+    SELECT_UNION,
+    TEMPORARY_TABLE;
 }
@@ -19,6 +19,7 @@ package com.blazebit.persistence.impl;
 import com.blazebit.persistence.BaseSubqueryBuilder;
 import com.blazebit.persistence.CTEBuilder;
 import com.blazebit.persistence.CaseWhenStarterBuilder;
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.CriteriaBuilderFactory;
 import com.blazebit.persistence.From;
 import com.blazebit.persistence.FullQueryBuilder;
@@ -32,6 +33,7 @@ import com.blazebit.persistence.LeafOngoingFinalSetOperationCTECriteriaBuilder;
 import com.blazebit.persistence.MultipleSubqueryInitiator;
 import com.blazebit.persistence.ObjectBuilder;
 import com.blazebit.persistence.Path;
+import com.blazebit.persistence.QueryTemplate;
 import com.blazebit.persistence.RestrictionBuilder;
 import com.blazebit.persistence.ReturningModificationCriteriaBuilderFactory;
 import com.blazebit.persistence.SelectRecursiveCTECriteriaBuilder;
@@ -55,8 +57,11 @@ import com.blazebit.persistence.impl.query.CustomSQLQuery;
 import com.blazebit.persistence.impl.query.CustomSQLTypedQuery;
 import com.blazebit.persistence.impl.query.DefaultQuerySpecification;
 import com.blazebit.persistence.impl.query.EntityFunctionNode;
+import com.blazebit.persistence.impl.query.ListCloseableIterator;
+import com.blazebit.persistence.impl.query.ObjectBuilderCloseableIterator;
 import com.blazebit.persistence.impl.query.ObjectBuilderTypedQuery;
 import com.blazebit.persistence.impl.query.QuerySpecification;
+import com.blazebit.persistence.impl.query.ValuesTemporaryTable;
 import com.blazebit.persistence.impl.transform.ExpressionModifierVisitor;
 import com.blazebit.persistence.impl.transform.ExpressionTransformerGroup;
 import com.blazebit.persistence.impl.transform.OuterFunctionVisitor;
@@ -82,6 +87,7 @@ import com.blazebit.persistence.spi.DbmsModificationState;
 import com.blazebit.persistence.spi.DbmsStatementType;
 import com.blazebit.persistence.spi.ExtendedAttribute;
 import com.blazebit.persistence.spi.ExtendedManagedType;
+import com.blazebit.persistence.spi.ExtendedQuerySupport;
 import com.blazebit.persistence.spi.JpqlMacro;
 import com.blazebit.persistence.spi.ServiceProvider;
 import com.blazebit.persistence.spi.SetOperationType;
@@ -102,6 +108,7 @@ import javax.persistence.metamodel.MapAttribute;
 import javax.persistence.metamodel.PluralAttribute;
 import javax.persistence.metamodel.SingularAttribute;
 import java.io.Serializable;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
@@ -130,6 +137,12 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
 
     public static final String ID_PARAM_NAME = "ids";
 
+    private static final Set<Class<?>> TEMPORARY_TABLE_VALUE_TYPES = new HashSet<Class<?>>(Arrays.<Class<?>>asList(
+            String.class, Integer.class, Long.class, Short.class, Byte.class, Double.class, Float.class, BigDecimal.class, Boolean.class,
+            java.sql.Date.class, java.sql.Time.class, java.sql.Timestamp.class,
+            int.class, long.class, short.class, byte.class, double.class, float.class, boolean.class
+    ));
+
     protected final MainQuery mainQuery;
     protected final QueryContext queryContext;
     /* This might change when transitioning to a set operation */
@@ -147,8 +160,9 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
     protected final GroupByManager groupByManager;
     protected final OrderByManager orderByManager;
     protected final JoinManager joinManager;
-    protected final WindowManager<BuilderType> windowManager;
-    protected final KeysetManager keysetManager;
+    // The window and keyset managers are only needed by few queries and are created on first use
+    protected WindowManager<BuilderType> windowManager;
+    protected KeysetManager keysetManager;
     protected final ResolvingQueryGenerator queryGenerator;
     protected final SubqueryInitiatorFactory subqueryInitFactory;
     protected final EmbeddableSplittingVisitor embeddableSplittingVisitor;
@@ -167,7 +181,8 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
     protected int maxResults = Integer.MAX_VALUE;
     protected boolean fromClassExplicitlySet = false;
 
-    protected final List<ExpressionTransformerGroup<?>> transformerGroups;
+    // Created on first use when building the query
+    protected List<ExpressionTransformerGroup<?>> transformerGroups;
 
     // Cache
     protected String cachedQueryString;
@@ -200,9 +215,10 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         this.whereManager = (WhereManager<BuilderType>) builder.whereManager;
         this.havingManager = (HavingManager<BuilderType>) builder.havingManager;
         this.groupByManager = builder.groupByManager;
-        this.keysetManager = builder.keysetManager;
+        // Make sure the lazily created managers are shared with the original builder
+        this.keysetManager = builder.getKeysetManager();
         this.joinManager = builder.joinManager;
-        this.windowManager = (WindowManager<BuilderType>) builder.windowManager;
+        this.windowManager = (WindowManager<BuilderType>) builder.getWindowManager();
         this.queryGenerator = builder.queryGenerator;
         this.em = builder.em;
         this.finalSetOperationBuilder = (FinalSetReturn) builder.finalSetOperationBuilder;
@@ -211,7 +227,7 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         this.functionalDependencyAnalyzerVisitor = builder.functionalDependencyAnalyzerVisitor;
         this.aliasManager = builder.aliasManager;
         this.expressionFactory = builder.expressionFactory;
-        this.transformerGroups = builder.transformerGroups;
+        this.transformerGroups = builder.getTransformerGroups();
         this.resultType = builder.resultType;
     }
 
@@ -235,7 +251,7 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
 
         this.aliasManager = new AliasManager(queryContext.getParent().aliasManager);
         this.expressionFactory = builder.expressionFactory;
-        this.queryGenerator = new ResolvingQueryGenerator(this.aliasManager, parameterManager, mainQuery.parameterTransformerFactory, mainQuery.jpaProvider, mainQuery.registeredFunctions);
+        this.queryGenerator = new ResolvingQueryGenerator(mainQuery, this.aliasManager);
         this.joinManager = new JoinManager(mainQuery, this, queryGenerator, this.aliasManager, queryContext.getParent().joinManager, expressionFactory);
         this.fromClassExplicitlySet = builder.fromClassExplicitlySet;
 
@@ -245,20 +261,12 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         GroupByExpressionGatheringVisitor groupByExpressionGatheringVisitor = new GroupByExpressionGatheringVisitor(false, this.aliasManager, mainQuery.dbmsDialect);
         this.functionalDependencyAnalyzerVisitor = new FunctionalDependencyAnalyzerVisitor(mainQuery.metamodel, splittingVisitor, mainQuery.jpaProvider, this.aliasManager);
 
-        this.windowManager = new WindowManager<>(queryGenerator, parameterManager, subqueryInitFactory);
         this.whereManager = new WhereManager<>(queryGenerator, parameterManager, subqueryInitFactory, expressionFactory);
         this.groupByManager = new GroupByManager(queryGenerator, parameterManager, subqueryInitFactory, mainQuery.jpaProvider, this.aliasManager, embeddableSplittingVisitor, groupByExpressionGatheringVisitor);
         this.havingManager = new HavingManager<>(queryGenerator, parameterManager, subqueryInitFactory, expressionFactory, groupByExpressionGatheringVisitor);
 
         this.selectManager = new SelectManager<>(queryGenerator, parameterManager, this, this.joinManager, this.aliasManager, subqueryInitFactory, expressionFactory, mainQuery.jpaProvider, mainQuery, groupByExpressionGatheringVisitor, builder.resultType);
         this.orderByManager = new OrderByManager(queryGenerator, parameterManager, subqueryInitFactory, this.joinManager, this.aliasManager, embeddableSplittingVisitor, functionalDependencyAnalyzerVisitor, mainQuery.metamodel, mainQuery.jpaProvider, groupByExpressionGatheringVisitor);
-        this.keysetManager = new KeysetManager(this, queryGenerator, parameterManager, mainQuery.jpaProvider, mainQuery.dbmsDialect);
-
-        final SizeTransformationVisitor sizeTransformationVisitor = new SizeTransformationVisitor(mainQuery, subqueryInitFactory, joinManager, mainQuery.jpaProvider);
-        this.transformerGroups = Arrays.<ExpressionTransformerGroup<?>>asList(
-                new SimpleTransformerGroup(new OuterFunctionVisitor(joinManager)),
-                new SimpleTransformerGroup(new SubqueryRecursiveExpressionVisitor()),
-                new SizeTransformerGroup(sizeTransformationVisitor, orderByManager, selectManager, joinManager, groupByManager));
         this.resultType = builder.resultType;
 
         applyFrom(builder, true);
@@ -288,7 +296,7 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
 
         this.aliasManager = new AliasManager(aliasManager);
         this.expressionFactory = expressionFactory;
-        this.queryGenerator = new ResolvingQueryGenerator(this.aliasManager, parameterManager, mainQuery.parameterTransformerFactory, mainQuery.jpaProvider, mainQuery.registeredFunctions);
+        this.queryGenerator = new ResolvingQueryGenerator(mainQuery, this.aliasManager);
         this.joinManager = new JoinManager(mainQuery, this, queryGenerator, this.aliasManager, parentJoinManager, expressionFactory);
 
         if (implicitFromClause) {
@@ -316,20 +324,12 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         GroupByExpressionGatheringVisitor groupByExpressionGatheringVisitor = new GroupByExpressionGatheringVisitor(false, this.aliasManager, mainQuery.dbmsDialect);
         this.functionalDependencyAnalyzerVisitor = new FunctionalDependencyAnalyzerVisitor(mainQuery.metamodel, splittingVisitor, mainQuery.jpaProvider, this.aliasManager);
 
-        this.windowManager = new WindowManager<>(queryGenerator, parameterManager, subqueryInitFactory);
         this.whereManager = new WhereManager<>(queryGenerator, parameterManager, subqueryInitFactory, expressionFactory);
         this.groupByManager = new GroupByManager(queryGenerator, parameterManager, subqueryInitFactory, mainQuery.jpaProvider, this.aliasManager, embeddableSplittingVisitor, groupByExpressionGatheringVisitor);
         this.havingManager = new HavingManager<>(queryGenerator, parameterManager, subqueryInitFactory, expressionFactory, groupByExpressionGatheringVisitor);
 
         this.selectManager = new SelectManager<>(queryGenerator, parameterManager, this, this.joinManager, this.aliasManager, subqueryInitFactory, expressionFactory, mainQuery.jpaProvider, mainQuery, groupByExpressionGatheringVisitor, resultClazz);
         this.orderByManager = new OrderByManager(queryGenerator, parameterManager, subqueryInitFactory, this.joinManager, this.aliasManager, embeddableSplittingVisitor, functionalDependencyAnalyzerVisitor, mainQuery.metamodel, mainQuery.jpaProvider, groupByExpressionGatheringVisitor);
-        this.keysetManager = new KeysetManager(this, queryGenerator, parameterManager, mainQuery.jpaProvider, mainQuery.dbmsDialect);
-
-        final SizeTransformationVisitor sizeTransformationVisitor = new SizeTransformationVisitor(mainQuery, subqueryInitFactory, joinManager, mainQuery.jpaProvider);
-        this.transformerGroups = Arrays.<ExpressionTransformerGroup<?>>asList(
-                new SimpleTransformerGroup(new OuterFunctionVisitor(joinManager)),
-                new SimpleTransformerGroup(new SubqueryRecursiveExpressionVisitor()),
-                new SizeTransformerGroup(sizeTransformationVisitor, orderByManager, selectManager, joinManager, groupByManager));
         this.resultType = resultClazz;
         
         this.finalSetOperationBuilder = finalSetOperationBuilder;
@@ -356,7 +356,9 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         }
         aliasManager.applyFrom(builder.aliasManager);
         Map<JoinNode, JoinNode> nodeMapping = joinManager.applyFrom(builder.joinManager);
-        windowManager.applyFrom(builder.windowManager);
+        if (builder.windowManager != null) {
+            getWindowManager().applyFrom(builder.windowManager);
+        }
         whereManager.applyFrom(builder.whereManager);
         havingManager.applyFrom(builder.havingManager);
         groupByManager.applyFrom(builder.groupByManager);
@@ -383,6 +385,10 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         return statementType;
     }
 
+    public InListPadding getInListPadding() {
+        return mainQuery.getQueryConfiguration().getInListPadding();
+    }
+
     @SuppressWarnings("unchecked")
     public <T> T getService(Class<T> serviceClass) {
         if (CriteriaBuilderFactory.class.equals(serviceClass)) {
@@ -1495,7 +1501,14 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
     public WindowBuilder<BuilderType> window(String name) {
         prepareForModification(ClauseType.WINDOW);
         verifyBuilderEnded();
-        return windowManager.window(name, (BuilderType) this);
+        return getWindowManager().window(name, (BuilderType) this);
+    }
+
+    protected final WindowManager<BuilderType> getWindowManager() {
+        if (windowManager == null) {
+            windowManager = new WindowManager<>(queryGenerator, parameterManager, subqueryInitFactory);
+        }
+        return windowManager;
     }
 
     protected void verifySetBuilderEnded() {
@@ -1512,11 +1525,15 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         }
         
         whereManager.verifyBuilderEnded();
-        keysetManager.verifyBuilderEnded();
+        if (keysetManager != null) {
+            keysetManager.verifyBuilderEnded();
+        }
         havingManager.verifyBuilderEnded();
         selectManager.verifyBuilderEnded();
         joinManager.verifyBuilderEnded();
-        windowManager.verifyBuilderEnded();
+        if (windowManager != null) {
+            windowManager.verifyBuilderEnded();
+        }
     }
 
     /*
@@ -1842,6 +1859,7 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
 
         orderByManager.splitEmbeddables(joinVisitor);
 
+        List<ExpressionTransformerGroup<?>> transformerGroups = getTransformerGroups();
         int size = transformerGroups.size();
         for (int i = 0; i < size; i++) {
             @SuppressWarnings("unchecked")
@@ -1882,6 +1900,17 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         }
     }
 
+    protected final List<ExpressionTransformerGroup<?>> getTransformerGroups() {
+        if (transformerGroups == null) {
+            final SizeTransformationVisitor sizeTransformationVisitor = new SizeTransformationVisitor(mainQuery, subqueryInitFactory, joinManager, mainQuery.jpaProvider);
+            transformerGroups = Arrays.<ExpressionTransformerGroup<?>>asList(
+                    new SimpleTransformerGroup(new OuterFunctionVisitor(joinManager)),
+                    new SimpleTransformerGroup(new SubqueryRecursiveExpressionVisitor()),
+                    new SizeTransformerGroup(sizeTransformationVisitor, orderByManager, selectManager, joinManager, groupByManager));
+        }
+        return transformerGroups;
+    }
+
     public Class<QueryResultType> getResultType() {
         return resultType;
     }
@@ -1906,12 +1935,35 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
     }
 
     protected TypedQuery<QueryResultType> getTypedQuery() {
+        String queryPlanCacheKey = null;
+        if (needsCheck && mainQuery.getQueryConfiguration().isQueryPlanCacheEnabled()) {
+            queryPlanCacheKey = new QueryFingerprintGenerator(parameterManager).generate(this);
+            if (queryPlanCacheKey != null) {
+                QueryPlanCache.Entry entry = cbf.getQueryPlanCache().get(queryPlanCacheKey);
+                if (entry != null) {
+                    if (checkSetBuilderEnded) {
+                        verifySetBuilderEnded();
+                    }
+                    verifyBuilderEnded();
+                    TypedQuery<QueryResultType> baseQuery = getTypedQuery(entry.getQueryString());
+                    // Queries with array bound parameters are never cached, so a copied array binding must be reset
+                    parameterManager.applyArrayTransformers(this, Collections.<String, ArrayParameterTransformer>emptyMap());
+                    entry.applyTransformers(parameterManager, mainQuery.parameterTransformerFactory.getToIdTransformer());
+                    parameterManager.parameterizeQuery(baseQuery);
+                    return baseQuery;
+                }
+            }
+        }
+
         // NOTE: This must happen first because it generates implicit joins
         String baseQueryString = getBaseQueryStringWithCheck();
         // We can only use the query directly if we have no ctes, entity functions or hibernate bugs
         Set<JoinNode> keyRestrictedLeftJoins = joinManager.getKeyRestrictedLeftJoins();
         final boolean needsSqlReplacement = isMainQuery && mainQuery.cteManager.hasCtes() || joinManager.hasEntityFunctions() || !keyRestrictedLeftJoins.isEmpty() || !isMainQuery && hasLimit();
         if (!needsSqlReplacement) {
+            if (queryPlanCacheKey != null) {
+                putQueryPlanCacheEntry(queryPlanCacheKey, baseQueryString);
+            }
             TypedQuery<QueryResultType> baseQuery = getTypedQuery(baseQueryString);
             parameterManager.parameterizeQuery(baseQuery);
             return baseQuery;
@@ -1961,6 +2013,69 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         return applyObjectBuilder(query);
     }
 
+    protected QueryTemplate<QueryResultType> createQueryTemplate() {
+        // NOTE: This must happen first because it generates implicit joins
+        String baseQueryString = getBaseQueryStringWithCheck();
+        // The SQL replacement needs queries that are bound to an entity manager, so we can only support plain JPQL
+        Set<JoinNode> keyRestrictedLeftJoins = joinManager.getKeyRestrictedLeftJoins();
+        final boolean needsSqlReplacement = isMainQuery && mainQuery.cteManager.hasCtes() || joinManager.hasEntityFunctions() || !keyRestrictedLeftJoins.isEmpty() || !isMainQuery && hasLimit();
+        if (needsSqlReplacement) {
+            throw new IllegalStateException("Can't create a query template for a query that requires SQL processing i.e. uses CTEs, VALUES clauses or entity functions!");
+        }
+
+        return new QueryTemplateImpl<>(
+                baseQueryString,
+                selectManager.getExpectedQueryResultType(),
+                selectManager.getSelectObjectBuilder(),
+                parameterManager.getTemplateParameters(),
+                mainQuery.getQueryConfiguration().getInListPadding(),
+                mainQuery.jpaProvider,
+                isCacheable(),
+                firstResult,
+                maxResults
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    protected final CloseableIterator<QueryResultType> scrollQuery(TypedQuery<QueryResultType> query, int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("Invalid fetch size: " + fetchSize);
+        }
+        if (query instanceof ObjectBuilderTypedQuery<?>) {
+            ObjectBuilderTypedQuery<QueryResultType> objectBuilderQuery = (ObjectBuilderTypedQuery<QueryResultType>) query;
+            return new ObjectBuilderCloseableIterator<>(scrollTuples(objectBuilderQuery.getDelegate(), fetchSize), objectBuilderQuery.getObjectBuilder(), fetchSize);
+        }
+        return (CloseableIterator<QueryResultType>) scrollTuples(query, fetchSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CloseableIterator<Object> scrollTuples(Query query, int fetchSize) {
+        if (query instanceof CustomSQLTypedQuery<?>) {
+            return ((CustomSQLTypedQuery<Object>) query).scroll(fetchSize);
+        }
+        ExtendedQuerySupport extendedQuerySupport = cbf.getExtendedQuerySupport();
+        if (extendedQuerySupport != null && extendedQuerySupport.supportsAdvancedSql()) {
+            // Plain queries also go through the extended query support as JPA has no notion of cursors
+            return extendedQuerySupport.scroll(this, Collections.singletonList(query), query, extendedQuerySupport.getSql(em, query), fetchSize);
+        }
+        return new ListCloseableIterator<>(query.getResultList());
+    }
+
+    private void putQueryPlanCacheEntry(String queryPlanCacheKey, String baseQueryString) {
+        // Only the association to id transformer is stateless, other transformers might capture the entity manager
+        ParameterValueTransformer toIdTransformer = mainQuery.parameterTransformerFactory.getToIdTransformer();
+        Map<String, ParameterValueTransformer> transformers = parameterManager.getTransformers();
+        String[] toIdTransformedParameterNames = new String[transformers.size()];
+        int i = 0;
+        for (Map.Entry<String, ParameterValueTransformer> entry : transformers.entrySet()) {
+            if (entry.getValue() != toIdTransformer) {
+                return;
+            }
+            toIdTransformedParameterNames[i++] = entry.getKey();
+        }
+        cbf.getQueryPlanCache().put(queryPlanCacheKey, new QueryPlanCache.Entry(baseQueryString, toIdTransformedParameterNames));
+    }
+
     protected List<String> getKeyRestrictedLeftJoinAliases(Query baseQuery, Set<JoinNode> keyRestrictedLeftJoins, Set<ClauseType> clauseExclusions) {
         List<String> keyRestrictedLeftJoinAliases = new ArrayList<String>();
         if (!keyRestrictedLeftJoins.isEmpty()) {
@@ -1990,11 +2105,13 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
             String rootAlias = node.getAlias();
             String castedParameter = node.getValuesCastedParameter();
             String[] attributes = node.getValuesAttributes();
+            String[] temporaryTableColumnTypes = getValuesTemporaryTableColumnTypes(node);
+            ValuesStrategy nodeStrategy = temporaryTableColumnTypes == null ? strategy : ValuesStrategy.TEMPORARY_TABLE;
 
             // We construct an example query representing the values clause with a SELECT clause that selects the fields in the right order which we need to construct SQL
             // that uses proper aliases and filters null values which are there in the first place to pad up parameters in case we don't reach the desired value count
-            StringBuilder valuesSb = new StringBuilder(20 + valueCount * attributes.length * 3);
-            Query valuesExampleQuery = getValuesExampleQuery(clazz, valueCount, identifiableReference, valueClazzAttributeName, rootAlias, castedParameter, attributes, valuesSb, strategy, dummyTable, node);
+            StringBuilder valuesSb = new StringBuilder(temporaryTableColumnTypes == null ? 20 + valueCount * attributes.length * 3 : 0);
+            Query valuesExampleQuery = getValuesExampleQuery(clazz, valueCount, identifiableReference, valueClazzAttributeName, rootAlias, castedParameter, attributes, valuesSb, nodeStrategy, dummyTable, node);
 
             String exampleQuerySql = mainQuery.cbf.getExtendedQuerySupport().getSql(mainQuery.em, valuesExampleQuery);
             String exampleQuerySqlAlias = mainQuery.cbf.getExtendedQuerySupport().getSqlAlias(mainQuery.em, valuesExampleQuery, "e");
@@ -2002,35 +2119,46 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
             if (!node.isValueClazzAttributeSingular()) {
                 exampleQueryCollectionSqlAlias = mainQuery.cbf.getExtendedQuerySupport().getSqlAlias(mainQuery.em, valuesExampleQuery, node.getValueClazzAlias("e_"));
             }
-            StringBuilder whereClauseSb = new StringBuilder(exampleQuerySql.length());
-            String filterNullsTableAlias = "fltr_nulls_tbl_als_";
-            String valuesAliases = getValuesAliases(exampleQuerySqlAlias, attributes.length, exampleQuerySql, whereClauseSb, filterNullsTableAlias, strategy, dummyTable);
-
-            if (strategy == ValuesStrategy.SELECT_VALUES) {
-                valuesSb.insert(0, valuesAliases);
-                valuesSb.append(')');
-                valuesAliases = null;
-            } else if (strategy == ValuesStrategy.SELECT_UNION) {
-                valuesSb.insert(0, valuesAliases);
-                mainQuery.dbmsDialect.appendExtendedSql(valuesSb, DbmsStatementType.SELECT, true, true, null, Integer.toString(valueCount + 1), "1", null, null);
-                valuesSb.append(')');
-                valuesAliases = null;
-            }
-
-            boolean filterNulls = mainQuery.getQueryConfiguration().isValuesClauseFilterNullsEnabled();
-            if (filterNulls) {
-                valuesSb.insert(0, "(select * from ");
-                valuesSb.append(' ');
-                valuesSb.append(filterNullsTableAlias);
-                if (valuesAliases != null) {
-                    valuesSb.append(valuesAliases);
+            String valuesClause;
+            String valuesAliases;
+            ValuesTemporaryTable temporaryTable;
+            if (temporaryTableColumnTypes == null) {
+                StringBuilder whereClauseSb = new StringBuilder(exampleQuerySql.length());
+                String filterNullsTableAlias = "fltr_nulls_tbl_als_";
+                valuesAliases = getValuesAliases(exampleQuerySqlAlias, attributes.length, exampleQuerySql, whereClauseSb, filterNullsTableAlias, strategy, dummyTable);
+
+                if (strategy == ValuesStrategy.SELECT_VALUES) {
+                    valuesSb.insert(0, valuesAliases);
+                    valuesSb.append(')');
                     valuesAliases = null;
+                } else if (strategy == ValuesStrategy.SELECT_UNION) {
+                    valuesSb.insert(0, valuesAliases);
+                    mainQuery.dbmsDialect.appendExtendedSql(valuesSb, DbmsStatementType.SELECT, true, true, null, Integer.toString(valueCount + 1), "1", null, null);
+                    valuesSb.append(')');
+                    valuesAliases = null;
+                }
+
+                boolean filterNulls = mainQuery.getQueryConfiguration().isValuesClauseFilterNullsEnabled();
+                if (filterNulls) {
+                    valuesSb.insert(0, "(select * from ");
+                    valuesSb.append(' ');
+                    valuesSb.append(filterNullsTableAlias);
+                    if (valuesAliases != null) {
+                        valuesSb.append(valuesAliases);
+                        valuesAliases = null;
+                    }
+                    valuesSb.append(whereClauseSb);
+                    valuesSb.append(')');
                 }
-                valuesSb.append(whereClauseSb);
-                valuesSb.append(')');
+
+                valuesClause = valuesSb.toString();
+                temporaryTable = null;
+            } else {
+                temporaryTable = getValuesTemporaryTable(node, exampleQuerySql, temporaryTableColumnTypes);
+                valuesClause = temporaryTable.getTableName();
+                valuesAliases = null;
             }
 
-            String valuesClause = valuesSb.toString();
             String valuesTableSqlAlias = exampleQuerySqlAlias;
             String valuesTableJoin = null;
             String pluralCollectionTableAlias = null;
@@ -2058,11 +2186,90 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
                 }
             }
 
-            entityFunctionNodes.add(new EntityFunctionNode(valuesClause, valuesAliases, node.getInternalEntityType().getName(), valuesTableSqlAlias, pluralCollectionTableAlias, pluralTableAlias, valuesTableJoin, syntheticPredicate));
+            entityFunctionNodes.add(new EntityFunctionNode(valuesClause, valuesAliases, node.getInternalEntityType().getName(), valuesTableSqlAlias, pluralCollectionTableAlias, pluralTableAlias, valuesTableJoin, syntheticPredicate, temporaryTable));
         }
         return entityFunctionNodes;
     }
 
+    /**
+     * Returns the column types of the temporary table for the given VALUES clause node
+     * or <code>null</code> if the node should not use the {@link ValuesStrategy#TEMPORARY_TABLE} strategy.
+     *
+     * @param valuesNode The VALUES clause node
+     * @return The column types or <code>null</code>
+     */
+    String[] getValuesTemporaryTableColumnTypes(JoinNode valuesNode) {
+        int threshold = mainQuery.getQueryConfiguration().getValuesClauseTemporaryTableThreshold();
+        // The temporary table is populated by the executed query, so it's only possible to use it in the main query
+        // Since null values are skipped when loading the temporary table, we can't use it if nulls should not be filtered
+        if (threshold == 0 || valuesNode.getValueCount() < threshold || !isMainQuery || finalSetOperationBuilder != null
+                || !mainQuery.getQueryConfiguration().isValuesClauseFilterNullsEnabled() || !mainQuery.dbmsDialect.supportsTemporaryTables() || !valuesNode.isValueClazzAttributeSingular() || valuesNode.getQualificationExpression() != null) {
+            return null;
+        }
+
+        Class<?> clazz = valuesNode.getInternalEntityType().getJavaType();
+        String[] attributes = valuesNode.getValuesAttributes();
+        String[] columnTypes = new String[attributes.length];
+        if (clazz == ValuesEntity.class) {
+            Class<?> valueClass = valuesNode.getNodeType().getJavaType();
+            if (!TEMPORARY_TABLE_VALUE_TYPES.contains(valueClass)) {
+                return null;
+            }
+            columnTypes[0] = mainQuery.dbmsDialect.getSqlType(valueClass);
+        } else {
+            Map<String, ExtendedAttribute> mapping = mainQuery.metamodel.getManagedType(ExtendedManagedType.class, clazz).getAttributes();
+            for (int i = 0; i < attributes.length; i++) {
+                ExtendedAttribute entry;
+                if (valuesNode.isValueClazzSimpleValue()) {
+                    entry = mapping.get(valuesNode.getValuesLikeAttribute());
+                } else {
+                    entry = mapping.get(attributes[i]);
+                }
+                // Values are bound via plain JDBC, so we only support basic attributes that don't need any conversion
+                if (entry.getAttribute().getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC
+                        || entry.getColumnTypes().length != 1 || !TEMPORARY_TABLE_VALUE_TYPES.contains(entry.getElementClass())) {
+                    return null;
+                }
+                columnTypes[i] = entry.getColumnTypes()[0];
+            }
+        }
+
+        return columnTypes;
+    }
+
+    private ValuesTemporaryTable getValuesTemporaryTable(JoinNode valuesNode, String exampleQuerySql, String[] columnTypes) {
+        String[] columnNames = SqlUtils.getSelectItemColumns(exampleQuerySql, SqlUtils.indexOfSelect(exampleQuerySql));
+        StringBuilder columnDefinitionsSb = new StringBuilder(columnTypes.length * 20);
+        StringBuilder insertSb = new StringBuilder(columnTypes.length * 12 + 40);
+        for (int i = 0; i < columnTypes.length; i++) {
+            columnDefinitionsSb.append(columnNames[i]).append(' ').append(columnTypes[i]).append(',');
+            insertSb.append(columnNames[i]).append(',');
+        }
+        columnDefinitionsSb.setLength(columnDefinitionsSb.length() - 1);
+        insertSb.setLength(insertSb.length() - 1);
+
+        String columnDefinitions = columnDefinitionsSb.toString();
+        // The column definitions are encoded into the table name so that VALUES clauses with the same alias but different types use different tables
+        String tableName = "values_" + valuesNode.getAlias() + "_" + Integer.toHexString(columnDefinitions.hashCode());
+        insertSb.insert(0, " (");
+        insertSb.insert(0, tableName);
+        insertSb.insert(0, "insert into ");
+        insertSb.append(") values (");
+        for (int i = 0; i < columnTypes.length; i++) {
+            insertSb.append("?,");
+        }
+        insertSb.setCharAt(insertSb.length() - 1, ')');
+
+        return new ValuesTemporaryTable(
+                tableName,
+                valuesNode.getAlias(),
+                parameterManager.getValuesBinders().get(valuesNode.getAlias()),
+                mainQuery.dbmsDialect.getCreateTemporaryTableStatement(tableName, columnDefinitions),
+                "delete from " + tableName,
+                insertSb.toString()
+        );
+    }
+
     private String getValuesAliases(String tableAlias, int attributeCount, String exampleQuerySql, StringBuilder whereClauseSb, String filterNullsTableAlias, ValuesStrategy strategy, String dummyTable) {
         int startIndex =  SqlUtils.indexOfSelect(exampleQuerySql);
         int endIndex = exampleQuerySql.indexOf(" from ");
@@ -2232,6 +2439,11 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         sb.append(" WHERE ");
         joinManager.renderValuesClausePredicate(sb, valuesNode, "e", false);
 
+        if (strategy == ValuesStrategy.TEMPORARY_TABLE) {
+            // The values are loaded into the temporary table, so we only need the example query
+            return mainQuery.em.createQuery(sb.toString());
+        }
+
         if (strategy == ValuesStrategy.SELECT_VALUES || strategy == ValuesStrategy.VALUES) {
             valuesSb.append("(VALUES ");
         } else if (strategy == ValuesStrategy.SELECT_UNION) {
@@ -2433,6 +2645,7 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
     @SuppressWarnings("unchecked")
     public KeysetBuilder<BuilderType> beforeKeyset() {
         prepareForModification(ClauseType.WHERE);
+        KeysetManager keysetManager = getKeysetManager();
         return keysetManager.startBuilder(new KeysetBuilderImpl<BuilderType>((BuilderType) this, keysetManager, KeysetMode.PREVIOUS));
     }
 
@@ -2443,6 +2656,7 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
     @SuppressWarnings("unchecked")
     public BuilderType beforeKeyset(Keyset keyset) {
         prepareForModification(ClauseType.WHERE);
+        KeysetManager keysetManager = getKeysetManager();
         keysetManager.verifyBuilderEnded();
         keysetManager.setKeysetLink(new SimpleKeysetLink(keyset, KeysetMode.PREVIOUS));
         return (BuilderType) this;
@@ -2451,6 +2665,7 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
     @SuppressWarnings("unchecked")
     public KeysetBuilder<BuilderType> afterKeyset() {
         prepareForModification(ClauseType.WHERE);
+        KeysetManager keysetManager = getKeysetManager();
         return keysetManager.startBuilder(new KeysetBuilderImpl<BuilderType>((BuilderType) this, keysetManager, KeysetMode.NEXT));
     }
 
@@ -2461,11 +2676,23 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
     @SuppressWarnings("unchecked")
     public BuilderType afterKeyset(Keyset keyset) {
         prepareForModification(ClauseType.WHERE);
+        KeysetManager keysetManager = getKeysetManager();
         keysetManager.verifyBuilderEnded();
         keysetManager.setKeysetLink(new SimpleKeysetLink(keyset, KeysetMode.NEXT));
         return (BuilderType) this;
     }
 
+    protected final KeysetManager getKeysetManager() {
+        if (keysetManager == null) {
+            keysetManager = new KeysetManager(this, queryGenerator, parameterManager, mainQuery.jpaProvider, mainQuery.dbmsDialect);
+        }
+        return keysetManager;
+    }
+
+    protected final boolean hasKeyset() {
+        return keysetManager != null && keysetManager.hasKeyset();
+    }
+
     protected String getBaseQueryString() {
         if (cachedQueryString == null) {
             cachedQueryString = buildBaseQueryString(false);
@@ -2530,7 +2757,7 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         applyExpressionTransformersAndBuildGroupByClauses(false, joinVisitor);
         hasCollections = joinManager.hasCollections();
 
-        if (keysetManager.hasKeyset()) {
+        if (hasKeyset()) {
             // The last order by expression must be unique, otherwise keyset scrolling wouldn't work
             List<OrderByExpression> orderByExpressions = orderByManager.getOrderByExpressions(hasCollections, whereManager.rootPredicate.getPredicate(), hasGroupBy ? Arrays.asList(getGroupByIdentifierExpressions()) : Collections.<ResolvedExpression>emptyList(), joinVisitor);
             if (!orderByExpressions.get(orderByExpressions.size() - 1).isResultUnique()) {
@@ -2538,6 +2765,10 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
             }
             keysetManager.initialize(orderByExpressions);
         }
+        if (isMainQuery) {
+            // Array binding must be decided for all usages of a parameter before any of them is rendered
+            new ArrayParameterBindingVisitor(mainQuery).apply(this);
+        }
 
         // No need to do all that stuff again if no mutation occurs
         needsCheck = false;
@@ -2611,7 +2842,7 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
     }
 
     protected void appendWhereClause(StringBuilder sbSelectFrom, List<String> whereClauseConjuncts, List<String> optionalWhereClauseConjuncts, List<String> whereClauseEndConjuncts) {
-        KeysetLink keysetLink = keysetManager.getKeysetLink();
+        KeysetLink keysetLink = keysetManager == null ? null : keysetManager.getKeysetLink();
         if (keysetLink == null || keysetLink.getKeysetMode() == KeysetMode.NONE) {
             whereManager.buildClause(sbSelectFrom, whereClauseConjuncts, optionalWhereClauseConjuncts, whereClauseEndConjuncts);
         } else {
@@ -2639,7 +2870,7 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
     }
 
     protected void appendWindowClause(StringBuilder sbSelectFrom, boolean externalRepresentation) {
-        if (externalRepresentation) {
+        if (externalRepresentation && windowManager != null) {
             windowManager.buildWindow(sbSelectFrom);
         }
     }
@@ -2671,7 +2902,7 @@ public abstract class AbstractCommonQueryBuilder<QueryResultType, BuilderType, S
         if (query instanceof AbstractCustomQuery<?>) {
             return ((AbstractCustomQuery<?>) query).getQuerySpecification();
         }
-        return new DefaultQuerySpecification(statementType, query, em, parameterManager.getParameterListNames(query), cbf.getExtendedQuerySupport());
+        return new DefaultQuerySpecification(statementType, query, em, parameterManager.getParameterListNames(query), cbf.getExtendedQuerySupport(), mainQuery.getQueryConfiguration().getInListPadding());
     }
 
     protected boolean hasLimit() {
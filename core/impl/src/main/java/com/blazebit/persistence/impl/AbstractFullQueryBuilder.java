@@ -30,6 +30,7 @@ import com.blazebit.persistence.SimpleCaseWhenStarterBuilder;
 import com.blazebit.persistence.SubqueryBuilder;
 import com.blazebit.persistence.SubqueryInitiator;
 import com.blazebit.persistence.impl.function.count.AbstractCountFunction;
+import com.blazebit.persistence.impl.function.count.BoundedCountFunction;
 import com.blazebit.persistence.impl.query.CTENode;
 import com.blazebit.persistence.impl.query.CustomQuerySpecification;
 import com.blazebit.persistence.impl.query.CustomSQLTypedQuery;
@@ -147,13 +148,52 @@ public abstract class AbstractFullQueryBuilder<T, X extends FullQueryBuilder<T,
     }
 
     protected String buildPageCountQueryString(boolean externalRepresentation, boolean countAll) {
+        return buildPageCountQueryString(externalRepresentation, countAll, Long.MAX_VALUE);
+    }
+
+    protected String buildPageCountQueryString(boolean externalRepresentation, boolean countAll, long maximumCount) {
         StringBuilder sbSelectFrom = new StringBuilder();
         if (externalRepresentation && isMainQuery) {
             mainQuery.cteManager.buildClause(sbSelectFrom);
         }
+        if (maximumCount != Long.MAX_VALUE) {
+            return buildBoundedPageCountQueryString(sbSelectFrom, externalRepresentation, countAll && !hasGroupBy, maximumCount);
+        }
         return buildPageCountQueryString(sbSelectFrom, externalRepresentation, countAll && !hasGroupBy);
     }
 
+    private String buildBoundedPageCountQueryString(StringBuilder sbSelectFrom, boolean externalRepresentation, boolean countAll, long maximumCount) {
+        // Every row is rendered as constant, the limiting and counting of the rows is done by the BoundedCountQuerySpecification
+        sbSelectFrom.append("SELECT ");
+        sbSelectFrom.append(mainQuery.jpaProvider.getCustomFunctionInvocation(BoundedCountFunction.FUNCTION_NAME, 1));
+        sbSelectFrom.append(maximumCount).append(')');
+
+        List<String> whereClauseConjuncts = new ArrayList<>();
+        List<String> optionalWhereClauseConjuncts = new ArrayList<>();
+        // The count query does not have any fetch owners
+        Set<JoinNode> countNodesToFetch = Collections.emptySet();
+
+        if (countAll) {
+            joinManager.buildClause(sbSelectFrom, NO_CLAUSE_EXCLUSION, null, false, externalRepresentation, false, optionalWhereClauseConjuncts, whereClauseConjuncts, null, explicitVersionEntities, countNodesToFetch, Collections.EMPTY_SET);
+            whereManager.buildClause(sbSelectFrom, whereClauseConjuncts, optionalWhereClauseConjuncts, null);
+        } else {
+            Set<JoinNode> identifierExpressionsToUseNonRootJoinNodes = getIdentifierExpressionsToUseNonRootJoinNodes();
+            Set<JoinNode> collectionJoinNodes = joinManager.buildClause(sbSelectFrom, COUNT_QUERY_GROUP_BY_CLAUSE_EXCLUSIONS, null, true, externalRepresentation, true, optionalWhereClauseConjuncts, whereClauseConjuncts, null, explicitVersionEntities, countNodesToFetch, identifierExpressionsToUseNonRootJoinNodes);
+
+            whereManager.buildClause(sbSelectFrom, whereClauseConjuncts, optionalWhereClauseConjuncts, null);
+
+            // Instead of a count distinct, the rows are grouped by the identifiers unless they are result unique anyway
+            int groupByStartIdx = sbSelectFrom.length();
+            sbSelectFrom.append(" GROUP BY ");
+            boolean isResultUnique = appendIdentifierExpressions(sbSelectFrom);
+            if (collectionJoinNodes.isEmpty() && isResultUnique) {
+                sbSelectFrom.setLength(groupByStartIdx);
+            }
+        }
+
+        return sbSelectFrom.toString();
+    }
+
     protected final String buildPageCountQueryString(StringBuilder sbSelectFrom, boolean externalRepresentation, boolean countAll) {
         sbSelectFrom.append("SELECT ");
         int countStartIdx = sbSelectFrom.length();
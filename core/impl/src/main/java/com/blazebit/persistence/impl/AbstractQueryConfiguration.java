@@ -39,8 +39,18 @@ public abstract class AbstractQueryConfiguration implements QueryConfiguration {
             case ConfigurationProperties.IMPLICIT_GROUP_BY_FROM_ORDER_BY: return Boolean.toString(isImplicitGroupByFromOrderByEnabled());
             case ConfigurationProperties.EXPRESSION_OPTIMIZATION: return Boolean.toString(isExpressionOptimizationEnabled());
             case ConfigurationProperties.EXPRESSION_CACHE_CLASS: return getExpressionCacheClass();
+            case ConfigurationProperties.EXPRESSION_CACHE_MAX_SIZE: return Integer.toString(getExpressionCacheMaxSize());
             case ConfigurationProperties.VALUES_CLAUSE_FILTER_NULLS: return Boolean.toString(isValuesClauseFilterNullsEnabled());
+            case ConfigurationProperties.VALUES_CLAUSE_TEMPORARY_TABLE_THRESHOLD: return Integer.toString(getValuesClauseTemporaryTableThreshold());
             case ConfigurationProperties.OPTIMIZED_KEYSET_PREDICATE_RENDERING: return Boolean.toString(isOptimizedKeysetPredicateRenderingEnabled());
+            case ConfigurationProperties.QUERY_PLAN_CACHE_ENABLED: return Boolean.toString(isQueryPlanCacheEnabled());
+            case ConfigurationProperties.QUERY_PLAN_CACHE_MAX_SIZE: return Integer.toString(getQueryPlanCacheMaxSize());
+            case ConfigurationProperties.CUSTOM_SQL_CACHE_MAX_SIZE: return Integer.toString(getCustomSqlCacheMaxSize());
+            case ConfigurationProperties.KEYSET_CHECKPOINT_INTERVAL: return Integer.toString(getKeysetCheckpointInterval());
+            case ConfigurationProperties.KEYSET_CHECKPOINT_CACHE_CLASS: return getKeysetCheckpointCacheClass();
+            case ConfigurationProperties.KEYSET_CHECKPOINT_CACHE_MAX_SIZE: return Integer.toString(getKeysetCheckpointCacheMaxSize());
+            case ConfigurationProperties.IN_LIST_ARRAY_BINDING: return Boolean.toString(isInListArrayBindingEnabled());
+            case ConfigurationProperties.IN_LIST_PADDING: return getInListPadding() == null ? InListPadding.NONE : getInListPadding().toString();
             default: return null;
         }
     }
@@ -56,8 +66,18 @@ public abstract class AbstractQueryConfiguration implements QueryConfiguration {
         properties.put(ConfigurationProperties.IMPLICIT_GROUP_BY_FROM_ORDER_BY, Boolean.toString(isImplicitGroupByFromOrderByEnabled()));
         properties.put(ConfigurationProperties.EXPRESSION_OPTIMIZATION, Boolean.toString(isExpressionOptimizationEnabled()));
         properties.put(ConfigurationProperties.EXPRESSION_CACHE_CLASS, getExpressionCacheClass());
+        properties.put(ConfigurationProperties.EXPRESSION_CACHE_MAX_SIZE, Integer.toString(getExpressionCacheMaxSize()));
         properties.put(ConfigurationProperties.VALUES_CLAUSE_FILTER_NULLS, Boolean.toString(isValuesClauseFilterNullsEnabled()));
+        properties.put(ConfigurationProperties.VALUES_CLAUSE_TEMPORARY_TABLE_THRESHOLD, Integer.toString(getValuesClauseTemporaryTableThreshold()));
         properties.put(ConfigurationProperties.OPTIMIZED_KEYSET_PREDICATE_RENDERING, Boolean.toString(isOptimizedKeysetPredicateRenderingEnabled()));
+        properties.put(ConfigurationProperties.QUERY_PLAN_CACHE_ENABLED, Boolean.toString(isQueryPlanCacheEnabled()));
+        properties.put(ConfigurationProperties.QUERY_PLAN_CACHE_MAX_SIZE, Integer.toString(getQueryPlanCacheMaxSize()));
+        properties.put(ConfigurationProperties.CUSTOM_SQL_CACHE_MAX_SIZE, Integer.toString(getCustomSqlCacheMaxSize()));
+        properties.put(ConfigurationProperties.KEYSET_CHECKPOINT_INTERVAL, Integer.toString(getKeysetCheckpointInterval()));
+        properties.put(ConfigurationProperties.KEYSET_CHECKPOINT_CACHE_CLASS, getKeysetCheckpointCacheClass());
+        properties.put(ConfigurationProperties.KEYSET_CHECKPOINT_CACHE_MAX_SIZE, Integer.toString(getKeysetCheckpointCacheMaxSize()));
+        properties.put(ConfigurationProperties.IN_LIST_ARRAY_BINDING, Boolean.toString(isInListArrayBindingEnabled()));
+        properties.put(ConfigurationProperties.IN_LIST_PADDING, getInListPadding() == null ? InListPadding.NONE : getInListPadding().toString());
         return properties;
     }
 
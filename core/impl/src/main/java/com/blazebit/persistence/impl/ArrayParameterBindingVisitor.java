@@ -0,0 +1,138 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.parser.expression.Expression;
+import com.blazebit.persistence.parser.expression.ParameterExpression;
+import com.blazebit.persistence.parser.expression.PathExpression;
+import com.blazebit.persistence.parser.expression.VisitorAdapter;
+import com.blazebit.persistence.parser.predicate.InPredicate;
+import com.blazebit.reflection.ReflectionUtils;
+
+import javax.persistence.metamodel.Type;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decides which collection parameters of a query builder are bound as a single array parameter before the query is rendered.
+ * A parameter is only bound as array if every usage is an IN predicate that can be rendered as <code>= ANY(?)</code>
+ * with the same element type. All other parameters are rendered as expanded IN lists.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class ArrayParameterBindingVisitor extends VisitorAdapter {
+
+    private static final Set<Class<?>> ARRAY_PARAMETER_ELEMENT_TYPES;
+
+    private final MainQuery mainQuery;
+    private final Map<String, ArrayParameterTransformer> arrayTransformers = new HashMap<>();
+    private final Set<String> expandedParameters = new HashSet<>();
+
+    static {
+        Set<Class<?>> arrayParameterElementTypes = new HashSet<>();
+        arrayParameterElementTypes.add(String.class);
+        arrayParameterElementTypes.add(Long.class);
+        arrayParameterElementTypes.add(Integer.class);
+        arrayParameterElementTypes.add(Short.class);
+        ARRAY_PARAMETER_ELEMENT_TYPES = arrayParameterElementTypes;
+    }
+
+    public ArrayParameterBindingVisitor(MainQuery mainQuery) {
+        this.mainQuery = mainQuery;
+    }
+
+    /**
+     * Collects the parameter usages of the given query builder and sets or clears the array transformers of all collection parameters.
+     *
+     * @param queryBuilder The query builder for which to decide the array binding
+     */
+    public void apply(AbstractCommonQueryBuilder<?, ?, ?, ?, ?> queryBuilder) {
+        if (mainQuery.getQueryConfiguration().isInListArrayBindingEnabled() && mainQuery.dbmsDialect.supportsArrayParameters() && mainQuery.jpaProvider.supportsArrayParameters()) {
+            queryBuilder.applyVisitor(this);
+        }
+        mainQuery.parameterManager.applyArrayTransformers(queryBuilder, arrayTransformers);
+    }
+
+    @Override
+    public void visit(ParameterExpression expression) {
+        // Any usage outside of an array compatible IN predicate requires the expanded form
+        expandedParameters.add(expression.getName());
+        arrayTransformers.remove(expression.getName());
+    }
+
+    @Override
+    public void visit(InPredicate predicate) {
+        predicate.getLeft().accept(this);
+        ArrayParameterTransformer arrayTransformer = getArrayTransformer(predicate);
+        if (arrayTransformer == null) {
+            for (Expression right : predicate.getRight()) {
+                right.accept(this);
+            }
+            return;
+        }
+
+        String name = ((ParameterExpression) predicate.getRight().get(0)).getName();
+        if (!expandedParameters.contains(name)) {
+            ArrayParameterTransformer oldArrayTransformer = arrayTransformers.put(name, arrayTransformer);
+            // Different element types can't share one array parameter
+            if (oldArrayTransformer != null && !oldArrayTransformer.equals(arrayTransformer)) {
+                expandedParameters.add(name);
+                arrayTransformers.remove(name);
+            }
+        }
+    }
+
+    private ArrayParameterTransformer getArrayTransformer(InPredicate predicate) {
+        // Negated predicates are not supported as JPA providers push the negation into the comparison which would result in "<> ANY"
+        if (predicate.isNegated() || predicate.getRight().size() != 1 || !(predicate.getRight().get(0) instanceof ParameterExpression) || !(predicate.getLeft() instanceof PathExpression)) {
+            return null;
+        }
+        ParameterExpression parameterExpression = (ParameterExpression) predicate.getRight().get(0);
+        ParameterManager.ParameterImpl<?> parameter = mainQuery.parameterManager.getParameter(parameterExpression.getName());
+        if (parameter == null || parameter.getName() == null || !parameter.isCollectionValued() || parameter.getTranformer() != null) {
+            return null;
+        }
+        // Empty collections are rendered as boolean literal by the simple query generator
+        if (parameter.getValue() instanceof Collection<?> && ((Collection<?>) parameter.getValue()).isEmpty()) {
+            return null;
+        }
+        PathExpression left = (PathExpression) predicate.getLeft();
+        if (left.getPathReference() == null) {
+            return null;
+        }
+        Type<?> type = left.getPathReference().getType();
+        if (type == null || type.getPersistenceType() != Type.PersistenceType.BASIC) {
+            return null;
+        }
+        Class<?> elementType = type.getJavaType();
+        if (elementType.isPrimitive()) {
+            elementType = ReflectionUtils.getWrapperClassOfPrimitve(elementType);
+        }
+        if (!ARRAY_PARAMETER_ELEMENT_TYPES.contains(elementType)) {
+            return null;
+        }
+        String elementSqlType = mainQuery.dbmsDialect.getSqlType(elementType);
+        if (elementSqlType == null) {
+            return null;
+        }
+        return new ArrayParameterTransformer(mainQuery.jpaProvider, elementSqlType);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.impl.query.ArrayParameterValue;
+import com.blazebit.persistence.spi.JpaProvider;
+
+import javax.persistence.Query;
+import java.util.Collection;
+
+/**
+ * Wraps collection values into a {@link ArrayParameterValue} so that they are bound as single array parameter.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class ArrayParameterTransformer implements ParameterValueTransformer {
+
+    private final JpaProvider jpaProvider;
+    private final String elementSqlType;
+
+    public ArrayParameterTransformer(JpaProvider jpaProvider, String elementSqlType) {
+        this.jpaProvider = jpaProvider;
+        this.elementSqlType = elementSqlType;
+    }
+
+    @Override
+    public ParameterValueTransformer forQuery(Query query) {
+        return this;
+    }
+
+    @Override
+    public Object transform(Object originalValue) {
+        if (originalValue instanceof Collection<?>) {
+            return new ArrayParameterValue(jpaProvider, elementSqlType, (Collection<?>) originalValue);
+        }
+        return originalValue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ArrayParameterTransformer)) {
+            return false;
+        }
+
+        return elementSqlType.equals(((ArrayParameterTransformer) o).elementSqlType);
+    }
+
+    @Override
+    public int hashCode() {
+        return elementSqlType.hashCode();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.spi.JpaProvider;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Parameter;
+import javax.persistence.PersistenceException;
+import javax.persistence.TypedQuery;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Executes a count query on a separate entity manager through an executor.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class AsyncCountQuery {
+
+    private final String queryString;
+    // The parameters are copies that are never mutated after construction, so they can be safely bound in the executor thread
+    private final Map<String, ParameterManager.ParameterImpl<?>> parameters;
+    private final InListPadding inListPadding;
+    private final Executor executor;
+    private final EntityManagerFactory entityManagerFactory;
+    private final JpaProvider jpaProvider;
+    private final boolean cacheable;
+
+    public AsyncCountQuery(String queryString, Map<String, ParameterManager.ParameterImpl<?>> parameters, InListPadding inListPadding, Executor executor, EntityManagerFactory entityManagerFactory, JpaProvider jpaProvider, boolean cacheable) {
+        this.queryString = queryString;
+        this.parameters = parameters;
+        this.inListPadding = inListPadding;
+        this.executor = executor;
+        this.entityManagerFactory = entityManagerFactory;
+        this.jpaProvider = jpaProvider;
+        this.cacheable = cacheable;
+    }
+
+    public Future<Long> submit() {
+        FutureTask<Long> task = new FutureTask<>(new Callable<Long>() {
+            @Override
+            public Long call() {
+                EntityManager em = entityManagerFactory.createEntityManager();
+                try {
+                    return createQuery(em).getSingleResult();
+                } finally {
+                    em.close();
+                }
+            }
+        });
+        executor.execute(task);
+        return task;
+    }
+
+    private TypedQuery<Long> createQuery(EntityManager em) {
+        TypedQuery<Long> query = em.createQuery(queryString, Long.class);
+        if (cacheable) {
+            jpaProvider.setCacheable(query);
+        }
+
+        for (Parameter<?> p : query.getParameters()) {
+            String parameterName = p.getName();
+            // In case of positional parameters, we convert the position to a string and look it up instead
+            if (parameterName == null) {
+                parameterName = p.getPosition().toString();
+            }
+            ParameterManager.ParameterImpl<?> parameter = parameters.get(parameterName);
+            if (parameter != null) {
+                parameter.bind(query, inListPadding);
+            }
+        }
+        return query;
+    }
+
+    public static long getCount(Future<Long> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new PersistenceException("Interrupted while waiting for the count query", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new PersistenceException("Could not execute the count query", cause);
+        }
+    }
+}
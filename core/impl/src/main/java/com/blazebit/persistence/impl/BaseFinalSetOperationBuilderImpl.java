@@ -18,6 +18,7 @@ package com.blazebit.persistence.impl;
 
 import com.blazebit.persistence.BaseFinalSetOperationBuilder;
 import com.blazebit.persistence.BaseOngoingFinalSetOperationBuilder;
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.impl.query.CTENode;
 import com.blazebit.persistence.impl.query.CustomSQLQuery;
 import com.blazebit.persistence.impl.query.CustomSQLTypedQuery;
@@ -389,4 +390,8 @@ public abstract class BaseFinalSetOperationBuilderImpl<T, X extends BaseFinalSet
         return getTypedQuery().getSingleResult();
     }
 
+    public CloseableIterator<T> scroll(int fetchSize) {
+        return scrollQuery(getTypedQuery(), fetchSize);
+    }
+
 }
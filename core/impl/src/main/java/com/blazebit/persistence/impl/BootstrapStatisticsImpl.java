@@ -0,0 +1,86 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.spi.BootstrapStatistics;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class BootstrapStatisticsImpl implements BootstrapStatistics {
+
+    private final long functionRegistrationTime;
+    private final long metamodelExtractionTime;
+    private final long totalTime;
+    private final int managedTypeCount;
+    private final int metamodelExtractionParallelism;
+    private final boolean metamodelSnapshotUsed;
+
+    public BootstrapStatisticsImpl(long functionRegistrationTime, long metamodelExtractionTime, long totalTime, int managedTypeCount, int metamodelExtractionParallelism, boolean metamodelSnapshotUsed) {
+        this.functionRegistrationTime = functionRegistrationTime;
+        this.metamodelExtractionTime = metamodelExtractionTime;
+        this.totalTime = totalTime;
+        this.managedTypeCount = managedTypeCount;
+        this.metamodelExtractionParallelism = metamodelExtractionParallelism;
+        this.metamodelSnapshotUsed = metamodelSnapshotUsed;
+    }
+
+    @Override
+    public long getFunctionRegistrationTime() {
+        return functionRegistrationTime;
+    }
+
+    @Override
+    public long getMetamodelExtractionTime() {
+        return metamodelExtractionTime;
+    }
+
+    @Override
+    public long getTotalTime() {
+        return totalTime;
+    }
+
+    @Override
+    public int getManagedTypeCount() {
+        return managedTypeCount;
+    }
+
+    @Override
+    public int getMetamodelExtractionParallelism() {
+        return metamodelExtractionParallelism;
+    }
+
+    @Override
+    public boolean isMetamodelSnapshotUsed() {
+        return metamodelSnapshotUsed;
+    }
+
+    @Override
+    public String toString() {
+        return "BootstrapStatistics{" +
+                "functionRegistrationTime=" + functionRegistrationTime +
+                "ms, metamodelExtractionTime=" + metamodelExtractionTime +
+                "ms, totalTime=" + totalTime +
+                "ms, managedTypeCount=" + managedTypeCount +
+                ", metamodelExtractionParallelism=" + metamodelExtractionParallelism +
+                ", metamodelSnapshotUsed=" + metamodelSnapshotUsed +
+                '}';
+    }
+}
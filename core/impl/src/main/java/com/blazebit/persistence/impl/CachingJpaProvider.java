@@ -27,6 +27,7 @@ import javax.persistence.EntityManager;
 import javax.persistence.Query;
 import javax.persistence.metamodel.EntityType;
 import javax.persistence.metamodel.ManagedType;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -342,6 +343,16 @@ public final class CachingJpaProvider implements JpaProvider {
         jpaProvider.setCacheable(query);
     }
 
+    @Override
+    public boolean supportsArrayParameters() {
+        return jpaProvider.supportsArrayParameters();
+    }
+
+    @Override
+    public void setArrayParameter(Query query, String parameterName, Collection<?> values, String elementSqlType) {
+        jpaProvider.setArrayParameter(query, parameterName, values, elementSqlType);
+    }
+
     @Override
     public List<String> getIdentifierOrUniqueKeyEmbeddedPropertyNames(EntityType<?> owner, String attributeName) {
         // TODO: cache this via extended metamodel
@@ -298,6 +298,8 @@ import com.blazebit.persistence.impl.function.trunc.year.PostgreSQLTruncYearFunc
 import com.blazebit.persistence.parser.expression.ConcurrentHashMapExpressionCache;
 import com.blazebit.persistence.impl.function.cast.CastFunction;
 import com.blazebit.persistence.impl.function.count.AbstractCountFunction;
+import com.blazebit.persistence.impl.function.count.BoundedCountFunction;
+import com.blazebit.persistence.impl.function.array.ArrayAnyFunction;
 import com.blazebit.persistence.impl.function.count.CountTupleEmulationFunction;
 import com.blazebit.persistence.impl.function.count.CountTupleFunction;
 import com.blazebit.persistence.impl.function.count.MySQLCountTupleFunction;
@@ -403,6 +405,7 @@ import com.blazebit.persistence.impl.function.least.DefaultLeastFunction;
 import com.blazebit.persistence.impl.function.least.MinLeastFunction;
 import com.blazebit.persistence.impl.function.least.SelectMinUnionLeastFunction;
 import com.blazebit.persistence.impl.function.limit.LimitFunction;
+import com.blazebit.persistence.impl.function.pageids.PageIdsFunction;
 import com.blazebit.persistence.impl.function.pageposition.MySQLPagePositionFunction;
 import com.blazebit.persistence.impl.function.pageposition.OraclePagePositionFunction;
 import com.blazebit.persistence.impl.function.pageposition.PagePositionFunction;
@@ -415,10 +418,12 @@ import com.blazebit.persistence.impl.function.rowvalue.DB2RowValueComparisonFunc
 import com.blazebit.persistence.impl.function.rowvalue.RowValueComparisonFunction;
 import com.blazebit.persistence.impl.function.set.SetFunction;
 import com.blazebit.persistence.impl.function.treat.TreatFunction;
+import com.blazebit.persistence.impl.keyset.BoundedKeysetCheckpointCache;
 import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
 import com.blazebit.persistence.spi.DbmsDialect;
 import com.blazebit.persistence.spi.EntityManagerFactoryIntegrator;
 import com.blazebit.persistence.spi.ExtendedQuerySupport;
+import com.blazebit.persistence.spi.JpqlFunction;
 import com.blazebit.persistence.spi.JpqlFunctionGroup;
 import com.blazebit.persistence.spi.JpqlMacro;
 import com.blazebit.persistence.spi.PackageOpener;
@@ -449,6 +454,10 @@ import java.util.TimeZone;
  */
 public class CriteriaBuilderConfigurationImpl implements CriteriaBuilderConfiguration {
 
+    private static final String[] DBMS_WITH_SPECIFIC_FUNCTIONS = {
+        "mysql", "mysql8", "oracle", "db2", "sybase", "microsoft", "h2", "postgresql", "access", "derby", "sqlite", "hsql"
+    };
+
     private final Map<String, DbmsDialect> dbmsDialects = new HashMap<String, DbmsDialect>();
     private final Map<String, JpqlFunctionGroup> functions = new HashMap<String, JpqlFunctionGroup>();
     private final Map<String, Class<?>> treatTypes = new HashMap<String, Class<?>>();
@@ -457,6 +466,7 @@ public class CriteriaBuilderConfigurationImpl implements CriteriaBuilderConfigur
     private PackageOpener packageOpener;
     private Properties properties = new Properties();
     private ExtendedQuerySupport extendedQuerySupport;
+    private boolean functionsLoaded;
 
     public CriteriaBuilderConfigurationImpl(PackageOpener packageOpener) {
         this.packageOpener = packageOpener;
@@ -464,42 +474,86 @@ public class CriteriaBuilderConfigurationImpl implements CriteriaBuilderConfigur
         loadExtendedQuerySupport();
         loadEntityManagerIntegrator();
         loadDbmsDialects();
-        loadFunctions();
+        loadNamedTypes();
+    }
+
+    private void loadFunctionsIfNecessary() {
+        if (!functionsLoaded) {
+            functionsLoaded = true;
+            // Explicitly registered functions take precedence over the default functions
+            for (Map.Entry<String, JpqlFunctionGroup> entry : loadFunctions(null).entrySet()) {
+                if (!functions.containsKey(entry.getKey())) {
+                    functions.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
     }
 
+    private static void putFunction(Map<String, JpqlFunctionGroup> functions, JpqlFunctionGroup jpqlFunctionGroup) {
+        functions.put(jpqlFunctionGroup.getName().toLowerCase(), jpqlFunctionGroup);
+    }
+
+    private Map<String, DbmsDialect> getDbmsDialects(String dbms) {
+        if (dbms == null) {
+            return dbmsDialects;
+        }
+        Map<String, DbmsDialect> dialects = new HashMap<String, DbmsDialect>(2);
+        dialects.put(null, dbmsDialects.get(null));
+        if (dbmsDialects.containsKey(dbms)) {
+            dialects.put(dbms, dbmsDialects.get(dbms));
+        }
+        return dialects;
+    }
+
+    /**
+     * Creates the default functions. For a <code>null</code> dbms, the dbms specific implementations of all dbms are created.
+     * Otherwise only the default implementations and the implementations for the given dbms are created.
+     *
+     * @param dbms The dbms for which to create the functions or <code>null</code>
+     * @return The default functions
+     */
     // NOTE: When adding a function here, you might want to also add it in AbstractCoreTest so it is recognized
     @SuppressWarnings("checkstyle:methodlength")
-    private void loadFunctions() {
+    private Map<String, JpqlFunctionGroup> loadFunctions(String dbms) {
+        Map<String, JpqlFunctionGroup> defaultFunctions = new HashMap<String, JpqlFunctionGroup>();
+        Map<String, DbmsDialect> dialects = getDbmsDialects(dbms);
         JpqlFunctionGroup jpqlFunctionGroup;
         
         // limit
 
         jpqlFunctionGroup = new JpqlFunctionGroup("limit", false);
         jpqlFunctionGroup.add(null, new LimitFunction(dbmsDialects.get(null)));
-        jpqlFunctionGroup.add("mysql", new LimitFunction(dbmsDialects.get("mysql")));
-        jpqlFunctionGroup.add("mysql8", new LimitFunction(dbmsDialects.get("mysql8")));
-        jpqlFunctionGroup.add("oracle", new LimitFunction(dbmsDialects.get("oracle")));
-        jpqlFunctionGroup.add("db2", new LimitFunction(dbmsDialects.get("db2")));
-        jpqlFunctionGroup.add("sybase", null); // Does not support limit
-        jpqlFunctionGroup.add("microsoft", new LimitFunction(dbmsDialects.get("microsoft")));
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
         
         // page_position
 
         jpqlFunctionGroup = new JpqlFunctionGroup(PagePositionFunction.FUNCTION_NAME, false);
         jpqlFunctionGroup.add(null, new PagePositionFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLPagePositionFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLPagePositionFunction());
-        jpqlFunctionGroup.add("oracle", new OraclePagePositionFunction());
-        jpqlFunctionGroup.add("sybase", new TransactSQLPagePositionFunction());
-        jpqlFunctionGroup.add("microsoft", new TransactSQLPagePositionFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
+
+        // page_ids
+
+        jpqlFunctionGroup = new JpqlFunctionGroup(PageIdsFunction.FUNCTION_NAME, false);
+        jpqlFunctionGroup.add(null, new PageIdsFunction());
+        putFunction(defaultFunctions, jpqlFunctionGroup);
+
+        // bounded_count
+
+        jpqlFunctionGroup = new JpqlFunctionGroup(BoundedCountFunction.FUNCTION_NAME, false);
+        jpqlFunctionGroup.add(null, new BoundedCountFunction());
+        putFunction(defaultFunctions, jpqlFunctionGroup);
+
+        // array_any
+
+        jpqlFunctionGroup = new JpqlFunctionGroup(ArrayAnyFunction.FUNCTION_NAME, false);
+        jpqlFunctionGroup.add(null, new ArrayAnyFunction());
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // entity_function
 
         jpqlFunctionGroup = new JpqlFunctionGroup(EntityFunction.FUNCTION_NAME, false);
         jpqlFunctionGroup.add(null, new EntityFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
         
         // set operations
 
@@ -507,948 +561,997 @@ public class CriteriaBuilderConfigurationImpl implements CriteriaBuilderConfigur
             // Use a prefix because hibernate uses UNION as keyword
             jpqlFunctionGroup = new JpqlFunctionGroup("set_" + setType.name().toLowerCase(), false);
             
-            for (Map.Entry<String, DbmsDialect> dbmsDialectEntry : dbmsDialects.entrySet()) {
+            for (Map.Entry<String, DbmsDialect> dbmsDialectEntry : dialects.entrySet()) {
                 jpqlFunctionGroup.add(dbmsDialectEntry.getKey(), new SetFunction(setType, dbmsDialectEntry.getValue()));
             }
             
-            registerFunction(jpqlFunctionGroup);
+            putFunction(defaultFunctions, jpqlFunctionGroup);
         }
         
-        // treat
-
-        registerNamedType("Boolean", Boolean.class);
-        registerNamedType("Byte", Byte.class);
-        registerNamedType("Short", Short.class);
-        registerNamedType("Integer", Integer.class);
-        registerNamedType("Long", Long.class);
-        registerNamedType("Float", Float.class);
-        registerNamedType("Double", Double.class);
-
-        registerNamedType("Character", Character.class);
-        registerNamedType("String", String.class);
-
-        registerNamedType("BigInteger", BigInteger.class);
-        registerNamedType("BigDecimal", BigDecimal.class);
-
-        registerNamedType("Time", Time.class);
-        registerNamedType("Date", java.sql.Date.class);
-        registerNamedType("Timestamp", Timestamp.class);
-        registerNamedType("TimeZone", TimeZone.class);
-        registerNamedType("Calendar", Calendar.class);
-        registerNamedType("GregorianCalendar", GregorianCalendar.class);
-
-        registerNamedType("Class", java.lang.Class.class);
-        registerNamedType("Currency", java.util.Currency.class);
-        registerNamedType("Locale", java.util.Locale.class);
-        registerNamedType("UUID", java.util.UUID.class);
-        registerNamedType("URL", java.net.URL.class);
-
-        // Java 8 time types
-        try {
-            registerNamedType("LocalDate", Class.forName("java.time.LocalDate"));
-            registerNamedType("LocalTime", Class.forName("java.time.LocalTime"));
-            registerNamedType("LocalDateTime", Class.forName("java.time.LocalDateTime"));
-            registerNamedType("OffsetTime", Class.forName("java.time.OffsetTime"));
-            registerNamedType("OffsetDateTime", Class.forName("java.time.OffsetDateTime"));
-            registerNamedType("ZonedDateTime", Class.forName("java.time.ZonedDateTime"));
-            registerNamedType("Duration", Class.forName("java.time.Duration"));
-            registerNamedType("Instant", Class.forName("java.time.Instant"));
-            registerNamedType("MonthDay", Class.forName("java.time.MonthDay"));
-            registerNamedType("Year", Class.forName("java.time.Year"));
-            registerNamedType("YearMonth", Class.forName("java.time.YearMonth"));
-            registerNamedType("Period", Class.forName("java.time.Period"));
-            registerNamedType("ZoneId", Class.forName("java.time.ZoneId"));
-            registerNamedType("ZoneOffset", Class.forName("java.time.ZoneOffset"));
-        } catch (ClassNotFoundException ex) {
-            // If they aren't found, we ignore them
-        }
-
         // cast
 
-        registerFunction(new JpqlFunctionGroup("cast_boolean"));
-        registerFunction(new JpqlFunctionGroup("cast_byte"));
-        registerFunction(new JpqlFunctionGroup("cast_short"));
-        registerFunction(new JpqlFunctionGroup("cast_integer"));
-        registerFunction(new JpqlFunctionGroup("cast_long"));
-        registerFunction(new JpqlFunctionGroup("cast_float"));
-        registerFunction(new JpqlFunctionGroup("cast_double"));
-
-        registerFunction(new JpqlFunctionGroup("cast_character"));
-        registerFunction(new JpqlFunctionGroup("cast_string"));
-
-        registerFunction(new JpqlFunctionGroup("cast_biginteger"));
-        registerFunction(new JpqlFunctionGroup("cast_bigdecimal"));
-
-        registerFunction(new JpqlFunctionGroup("cast_time"));
-        registerFunction(new JpqlFunctionGroup("cast_date"));
-        registerFunction(new JpqlFunctionGroup("cast_timestamp"));
-        registerFunction(new JpqlFunctionGroup("cast_calendar"));
-
-        for (Map.Entry<String, DbmsDialect> dbmsDialectEntry : dbmsDialects.entrySet()) {
-            functions.get("cast_boolean").add(dbmsDialectEntry.getKey(), new CastFunction(Boolean.class, dbmsDialectEntry.getValue()));
-            functions.get("cast_byte").add(dbmsDialectEntry.getKey(), new CastFunction(Byte.class, dbmsDialectEntry.getValue()));
-            functions.get("cast_short").add(dbmsDialectEntry.getKey(), new CastFunction(Short.class, dbmsDialectEntry.getValue()));
-            functions.get("cast_integer").add(dbmsDialectEntry.getKey(), new CastFunction(Integer.class, dbmsDialectEntry.getValue()));
-            functions.get("cast_long").add(dbmsDialectEntry.getKey(), new CastFunction(Long.class, dbmsDialectEntry.getValue()));
-            functions.get("cast_float").add(dbmsDialectEntry.getKey(), new CastFunction(Float.class, dbmsDialectEntry.getValue()));
-            functions.get("cast_double").add(dbmsDialectEntry.getKey(), new CastFunction(Double.class, dbmsDialectEntry.getValue()));
-
-            functions.get("cast_character").add(dbmsDialectEntry.getKey(), new CastFunction(Character.class, dbmsDialectEntry.getValue()));
-            functions.get("cast_string").add(dbmsDialectEntry.getKey(), new CastFunction(String.class, dbmsDialectEntry.getValue()));
-
-            functions.get("cast_biginteger").add(dbmsDialectEntry.getKey(), new CastFunction(BigInteger.class, dbmsDialectEntry.getValue()));
-            functions.get("cast_bigdecimal").add(dbmsDialectEntry.getKey(), new CastFunction(BigDecimal.class, dbmsDialectEntry.getValue()));
-
-            functions.get("cast_time").add(dbmsDialectEntry.getKey(), new CastFunction(Time.class, dbmsDialectEntry.getValue()));
-            functions.get("cast_date").add(dbmsDialectEntry.getKey(), new CastFunction(java.sql.Date.class, dbmsDialectEntry.getValue()));
-            functions.get("cast_timestamp").add(dbmsDialectEntry.getKey(), new CastFunction(Timestamp.class, dbmsDialectEntry.getValue()));
-            functions.get("cast_calendar").add(dbmsDialectEntry.getKey(), new CastFunction(Calendar.class, dbmsDialectEntry.getValue()));
+        putFunction(defaultFunctions, new JpqlFunctionGroup("cast_boolean"));
+        putFunction(defaultFunctions, new JpqlFunctionGroup("cast_byte"));
+        putFunction(defaultFunctions, new JpqlFunctionGroup("cast_short"));
+        putFunction(defaultFunctions, new JpqlFunctionGroup("cast_integer"));
+        putFunction(defaultFunctions, new JpqlFunctionGroup("cast_long"));
+        putFunction(defaultFunctions, new JpqlFunctionGroup("cast_float"));
+        putFunction(defaultFunctions, new JpqlFunctionGroup("cast_double"));
+
+        putFunction(defaultFunctions, new JpqlFunctionGroup("cast_character"));
+        putFunction(defaultFunctions, new JpqlFunctionGroup("cast_string"));
+
+        putFunction(defaultFunctions, new JpqlFunctionGroup("cast_biginteger"));
+        putFunction(defaultFunctions, new JpqlFunctionGroup("cast_bigdecimal"));
+
+        putFunction(defaultFunctions, new JpqlFunctionGroup("cast_time"));
+        putFunction(defaultFunctions, new JpqlFunctionGroup("cast_date"));
+        putFunction(defaultFunctions, new JpqlFunctionGroup("cast_timestamp"));
+        putFunction(defaultFunctions, new JpqlFunctionGroup("cast_calendar"));
+
+        for (Map.Entry<String, DbmsDialect> dbmsDialectEntry : dialects.entrySet()) {
+            defaultFunctions.get("cast_boolean").add(dbmsDialectEntry.getKey(), new CastFunction(Boolean.class, dbmsDialectEntry.getValue()));
+            defaultFunctions.get("cast_byte").add(dbmsDialectEntry.getKey(), new CastFunction(Byte.class, dbmsDialectEntry.getValue()));
+            defaultFunctions.get("cast_short").add(dbmsDialectEntry.getKey(), new CastFunction(Short.class, dbmsDialectEntry.getValue()));
+            defaultFunctions.get("cast_integer").add(dbmsDialectEntry.getKey(), new CastFunction(Integer.class, dbmsDialectEntry.getValue()));
+            defaultFunctions.get("cast_long").add(dbmsDialectEntry.getKey(), new CastFunction(Long.class, dbmsDialectEntry.getValue()));
+            defaultFunctions.get("cast_float").add(dbmsDialectEntry.getKey(), new CastFunction(Float.class, dbmsDialectEntry.getValue()));
+            defaultFunctions.get("cast_double").add(dbmsDialectEntry.getKey(), new CastFunction(Double.class, dbmsDialectEntry.getValue()));
+
+            defaultFunctions.get("cast_character").add(dbmsDialectEntry.getKey(), new CastFunction(Character.class, dbmsDialectEntry.getValue()));
+            defaultFunctions.get("cast_string").add(dbmsDialectEntry.getKey(), new CastFunction(String.class, dbmsDialectEntry.getValue()));
+
+            defaultFunctions.get("cast_biginteger").add(dbmsDialectEntry.getKey(), new CastFunction(BigInteger.class, dbmsDialectEntry.getValue()));
+            defaultFunctions.get("cast_bigdecimal").add(dbmsDialectEntry.getKey(), new CastFunction(BigDecimal.class, dbmsDialectEntry.getValue()));
+
+            defaultFunctions.get("cast_time").add(dbmsDialectEntry.getKey(), new CastFunction(Time.class, dbmsDialectEntry.getValue()));
+            defaultFunctions.get("cast_date").add(dbmsDialectEntry.getKey(), new CastFunction(java.sql.Date.class, dbmsDialectEntry.getValue()));
+            defaultFunctions.get("cast_timestamp").add(dbmsDialectEntry.getKey(), new CastFunction(Timestamp.class, dbmsDialectEntry.getValue()));
+            defaultFunctions.get("cast_calendar").add(dbmsDialectEntry.getKey(), new CastFunction(Calendar.class, dbmsDialectEntry.getValue()));
         }
 
         // group_concat
         
-        jpqlFunctionGroup = new JpqlFunctionGroup("group_concat", true);
-        jpqlFunctionGroup.add("db2", new DB2GroupConcatFunction());
-        jpqlFunctionGroup.add("oracle", new OracleListaggGroupConcatFunction());
-        jpqlFunctionGroup.add("h2", new H2GroupConcatFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLGroupConcatFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLGroupConcatFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLGroupConcatFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, new JpqlFunctionGroup("group_concat", true));
 
         // window_group_concat
 
-        jpqlFunctionGroup = new JpqlFunctionGroup("window_group_concat", false);
-        jpqlFunctionGroup.add("db2", new DB2GroupConcatWindowFunction(dbmsDialects.get("db2")));
-        jpqlFunctionGroup.add("oracle", new OracleListaggGroupConcatWindowFunction(dbmsDialects.get("oracle")));
-        jpqlFunctionGroup.add("h2", new H2GroupConcatWindowFunction(dbmsDialects.get("h2")));
-        jpqlFunctionGroup.add("mysql", new MySQLGroupConcatWindowFunction(dbmsDialects.get("mysql")));
-        jpqlFunctionGroup.add("mysql8", new MySQLGroupConcatWindowFunction(dbmsDialects.get("mysql8")));
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLGroupConcatWindowFunction(dbmsDialects.get("postgresql")));
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, new JpqlFunctionGroup("window_group_concat", false));
         
         // datetime
 
         jpqlFunctionGroup = new JpqlFunctionGroup("year", false);
         jpqlFunctionGroup.add(null, new YearFunction());
-        jpqlFunctionGroup.add("access", new AccessYearFunction());
-        jpqlFunctionGroup.add("db2", new DB2YearFunction());
-        jpqlFunctionGroup.add("derby", new DerbyYearFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLYearFunction());
-        jpqlFunctionGroup.add("sybase", new SybaseYearFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("year_of_week", false);
         jpqlFunctionGroup.add(null, new YearOfWeekFunction());
-        jpqlFunctionGroup.add("db2", new DB2YearOfWeekFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLYearOfWeekFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLYearOfWeekFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLYearOfWeekFunction());
-        jpqlFunctionGroup.add("oracle", new OracleYearOfWeekFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("year_week", false);
         jpqlFunctionGroup.add(null, new YearWeekFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLYearWeekFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLYearWeekFunction());
-        jpqlFunctionGroup.add("db2", new DB2YearWeekFunction());
-        jpqlFunctionGroup.add("oracle", new OracleYearWeekFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLYearWeekFunction());
-        jpqlFunctionGroup.add("h2", new H2YearWeekFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLYearWeekFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("month", false);
         jpqlFunctionGroup.add(null, new MonthFunction());
-        jpqlFunctionGroup.add("access", new AccessMonthFunction());
-        jpqlFunctionGroup.add("db2", new DB2MonthFunction());
-        jpqlFunctionGroup.add("derby", new DerbyMonthFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLMonthFunction());
-        jpqlFunctionGroup.add("sybase", new SybaseMonthFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("week", false);
         jpqlFunctionGroup.add(null, new IsoWeekFunction());
-        jpqlFunctionGroup.add("access", new AccessIsoWeekFunction());
-        jpqlFunctionGroup.add("db2", new DB2IsoWeekFunction());
-        jpqlFunctionGroup.add("h2", new H2IsoWeekFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLIsoWeekFunction());
-        jpqlFunctionGroup.add("sybase", new SybaseIsoWeekFunction());
-        jpqlFunctionGroup.add("sqlite", new SqliteIsoWeekFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLIsoWeekFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLIsoWeekFunction());
-        jpqlFunctionGroup.add("oracle", new OracleIsoWeekFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("iso_week", false);
         jpqlFunctionGroup.add(null, new IsoWeekFunction());
-        jpqlFunctionGroup.add("access", new AccessIsoWeekFunction());
-        jpqlFunctionGroup.add("db2", new DB2IsoWeekFunction());
-        jpqlFunctionGroup.add("h2", new H2IsoWeekFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLIsoWeekFunction());
-        jpqlFunctionGroup.add("sybase", new SybaseIsoWeekFunction());
-        jpqlFunctionGroup.add("sqlite", new SqliteIsoWeekFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLIsoWeekFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLIsoWeekFunction());
-        jpqlFunctionGroup.add("oracle", new OracleIsoWeekFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("week_in_year", false);
         jpqlFunctionGroup.add(null, new WeekInYearFunction());
-        jpqlFunctionGroup.add("db2", new DB2WeekInYearFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLWeekInYearFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLWeekInYearFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLWeekInYearFunction());
-        jpqlFunctionGroup.add("oracle", new OracleWeekInYearFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("quarter", false);
         jpqlFunctionGroup.add(null, new QuarterFunction());
-        jpqlFunctionGroup.add("access", new AccessQuarterFunction());
-        jpqlFunctionGroup.add("db2", new DB2QuarterFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLQuarterFunction());
-        jpqlFunctionGroup.add("sybase", new SybaseQuarterFunction());
-        jpqlFunctionGroup.add("sqlite", new SqliteQuarterFunction());
-        jpqlFunctionGroup.add("oracle", new OracleQuarterFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("day", false);
         jpqlFunctionGroup.add(null, new DayFunction());
-        jpqlFunctionGroup.add("access", new AccessDayFunction());
-        jpqlFunctionGroup.add("db2", new DB2DayFunction());
-        jpqlFunctionGroup.add("derby", new DerbyDayFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLDayFunction());
-        jpqlFunctionGroup.add("sybase", new SybaseDayFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("dayofyear", false);
         jpqlFunctionGroup.add(null, new DayOfYearFunction());
-        jpqlFunctionGroup.add("postgresql", new DayOfYearFunction());
-        jpqlFunctionGroup.add("access", new AccessDayOfYearFunction());
-        jpqlFunctionGroup.add("db2", new DB2DayOfYearFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLDayOfYearFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLDayOfYearFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLDayOfYearFunction());
-        jpqlFunctionGroup.add("sybase", new SybaseDayOfYearFunction());
-        jpqlFunctionGroup.add("oracle", new OracleDayOfYearFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("dayofweek", false);
         jpqlFunctionGroup.add(null, new DayOfWeekFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLDayOfWeekFunction());
-        jpqlFunctionGroup.add("access", new AccessDayOfWeekFunction());
-        jpqlFunctionGroup.add("db2", new DB2DayOfWeekFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLDayOfWeekFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLDayOfWeekFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLDayOfWeekFunction());
-        jpqlFunctionGroup.add("sybase", new SybaseDayOfWeekFunction());
-        jpqlFunctionGroup.add("oracle", new OracleDayOfWeekFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("hour", false);
         jpqlFunctionGroup.add(null, new HourFunction());
-        jpqlFunctionGroup.add("access", new AccessHourFunction());
-        jpqlFunctionGroup.add("db2", new DB2HourFunction());
-        jpqlFunctionGroup.add("derby", new DerbyHourFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLHourFunction());
-        jpqlFunctionGroup.add("sybase", new SybaseHourFunction());
-        jpqlFunctionGroup.add("oracle", new OracleHourFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("minute", false);
         jpqlFunctionGroup.add(null, new MinuteFunction());
-        jpqlFunctionGroup.add("access", new AccessMinuteFunction());
-        jpqlFunctionGroup.add("db2", new DB2MinuteFunction());
-        jpqlFunctionGroup.add("derby", new DerbyMinuteFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLMinuteFunction());
-        jpqlFunctionGroup.add("sybase", new SybaseMinuteFunction());
-        jpqlFunctionGroup.add("oracle", new OracleMinuteFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("second", false);
         jpqlFunctionGroup.add(null, new SecondFunction());
-        jpqlFunctionGroup.add("access", new AccessSecondFunction());
-        jpqlFunctionGroup.add("db2", new DB2SecondFunction());
-        jpqlFunctionGroup.add("derby", new DerbySecondFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLSecondFunction());
-        jpqlFunctionGroup.add("sybase", new SybaseSecondFunction());
-        jpqlFunctionGroup.add("oracle", new OracleSecondFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("millisecond", false);
         jpqlFunctionGroup.add(null, new MillisecondFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLMillisecondFunction());
-        jpqlFunctionGroup.add("db2", new DB2MillisecondFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLMillisecondFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLMillisecondFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLMillisecondFunction());
-        jpqlFunctionGroup.add("sybase", new SybaseMillisecondFunction());
-        jpqlFunctionGroup.add("oracle", new OracleMillisecondFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("microsecond", false);
         jpqlFunctionGroup.add(null, new MicrosecondFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLMicrosecondFunction());
-        jpqlFunctionGroup.add("db2", new DB2MicrosecondFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLMicrosecondFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLMicrosecondFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLMicrosecondFunction());
-        jpqlFunctionGroup.add("sybase", new SybaseMicrosecondFunction());
-        jpqlFunctionGroup.add("oracle", new OracleMicrosecondFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("epoch", false);
         jpqlFunctionGroup.add(null, new DefaultEpochFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLEpochFunction());
-        jpqlFunctionGroup.add("oracle", new OracleEpochFunction());
-        jpqlFunctionGroup.add("db2", new DB2EpochFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLEpochFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLEpochFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("epoch_seconds", false);
         jpqlFunctionGroup.add(null, new DefaultEpochFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLEpochFunction());
-        jpqlFunctionGroup.add("oracle", new OracleEpochFunction());
-        jpqlFunctionGroup.add("db2", new DB2EpochFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLEpochFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLEpochFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("epoch_days", false);
         jpqlFunctionGroup.add(null, new DefaultEpochDayFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLEpochDayFunction());
-        jpqlFunctionGroup.add("oracle", new OracleEpochDayFunction());
-        jpqlFunctionGroup.add("db2", new DB2EpochDayFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLEpochDayFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLEpochDayFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("epoch_milliseconds", false);
         jpqlFunctionGroup.add(null, new DefaultEpochMillisecondFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLEpochMillisecondFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLEpochMillisecondFunction());
-        jpqlFunctionGroup.add("oracle", new OracleEpochMillisecondFunction());
-        jpqlFunctionGroup.add("db2", new DB2EpochMillisecondFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLEpochMillisecondFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLEpochMillisecondFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("epoch_microseconds", false);
         jpqlFunctionGroup.add(null, new DefaultEpochMicrosecondFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLEpochMicrosecondFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLEpochMicrosecondFunction());
-        jpqlFunctionGroup.add("oracle", new OracleEpochMicrosecondFunction());
-        jpqlFunctionGroup.add("db2", new DB2EpochMicrosecondFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLEpochMicrosecondFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLEpochMicrosecondFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // dateadd
 
         jpqlFunctionGroup = new JpqlFunctionGroup(DayAddFunction.NAME, false);
         jpqlFunctionGroup.add(null, new DayAddFunction());
-        jpqlFunctionGroup.add("db2", new DB2DayAddFunction());
-        jpqlFunctionGroup.add("h2", new H2DayAddFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLDayAddFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLDayAddFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLDayAddFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLDayAddFunction());
-        jpqlFunctionGroup.add("oracle", new OracleDayAddFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup(HourAddFunction.NAME, false);
         jpqlFunctionGroup.add(null, new HourAddFunction());
-        jpqlFunctionGroup.add("db2", new DB2HourAddFunction());
-        jpqlFunctionGroup.add("h2", new H2HourAddFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLHourAddFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLHourAddFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLHourAddFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLHourAddFunction());
-        jpqlFunctionGroup.add("oracle", new OracleHourAddFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup(MicrosecondsAddFunction.NAME, false);
         jpqlFunctionGroup.add(null, new MicrosecondsAddFunction());
-        jpqlFunctionGroup.add("db2", new DB2MicrosecondsAddFunction());
-        jpqlFunctionGroup.add("h2", new H2MicrosecondsAddFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLMicrosecondsAddFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLMicrosecondsAddFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLMicrosecondsAddFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLMicrosecondsAddFunction());
-        jpqlFunctionGroup.add("oracle", new OracleMicrosecondsAddFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup(MillisecondsAddFunction.NAME, false);
         jpqlFunctionGroup.add(null, new MillisecondsAddFunction());
-        jpqlFunctionGroup.add("db2", new DB2MillisecondsAddFunction());
-        jpqlFunctionGroup.add("h2", new H2MillisecondsAddFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLMillisecondsAddFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLMillisecondsAddFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLMillisecondsAddFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLMillisecondsAddFunction());
-        jpqlFunctionGroup.add("oracle", new OracleMillisecondsAddFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup(MinuteAddFunction.NAME, false);
         jpqlFunctionGroup.add(null, new MinuteAddFunction());
-        jpqlFunctionGroup.add("db2", new DB2MinuteAddFunction());
-        jpqlFunctionGroup.add("h2", new H2MinuteAddFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLMinuteAddFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLMinuteAddFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLMinuteAddFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLMinuteAddFunction());
-        jpqlFunctionGroup.add("oracle", new OracleMinuteAddFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup(MonthAddFunction.NAME, false);
         jpqlFunctionGroup.add(null, new MonthAddFunction());
-        jpqlFunctionGroup.add("db2", new DB2MonthAddFunction());
-        jpqlFunctionGroup.add("h2", new H2MonthAddFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLMonthAddFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLMonthAddFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLMonthAddFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLMonthAddFunction());
-        jpqlFunctionGroup.add("oracle", new OracleMonthAddFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup(QuarterAddFunction.NAME, false);
         jpqlFunctionGroup.add(null, new QuarterAddFunction());
-        jpqlFunctionGroup.add("db2", new DB2QuarterAddFunction());
-        jpqlFunctionGroup.add("h2", new H2QuarterAddFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLQuarterAddFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLQuarterAddFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLQuarterAddFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLQuarterAddFunction());
-        jpqlFunctionGroup.add("oracle", new OracleQuarterAddFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup(SecondAddFunction.NAME, false);
         jpqlFunctionGroup.add(null, new SecondAddFunction());
-        jpqlFunctionGroup.add("db2", new DB2SecondAddFunction());
-        jpqlFunctionGroup.add("h2", new H2SecondAddFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLSecondAddFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLSecondAddFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLSecondAddFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLSecondAddFunction());
-        jpqlFunctionGroup.add("oracle", new OracleSecondAddFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup(WeekAddFunction.NAME, false);
         jpqlFunctionGroup.add(null, new WeekAddFunction());
-        jpqlFunctionGroup.add("db2", new DB2WeekAddFunction());
-        jpqlFunctionGroup.add("h2", new H2WeekAddFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLWeekAddFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLWeekAddFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLWeekAddFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLWeekAddFunction());
-        jpqlFunctionGroup.add("oracle", new OracleWeekAddFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup(YearAddFunction.NAME, false);
         jpqlFunctionGroup.add(null, new YearAddFunction());
-        jpqlFunctionGroup.add("db2", new DB2YearAddFunction());
-        jpqlFunctionGroup.add("h2", new H2YearAddFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLYearAddFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLYearAddFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLYearAddFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLYearAddFunction());
-        jpqlFunctionGroup.add("oracle", new OracleYearAddFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // datediff
 
-        jpqlFunctionGroup = new JpqlFunctionGroup("year_diff", false);
-        jpqlFunctionGroup.add("access", new AccessYearDiffFunction());
-        jpqlFunctionGroup.add("db2", new DB2YearDiffFunction());
-        jpqlFunctionGroup.add("h2", new DefaultYearDiffFunction());
-        jpqlFunctionGroup.add("microsoft", new DefaultYearDiffFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLYearDiffFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLYearDiffFunction());
-        jpqlFunctionGroup.add("sybase", new DefaultYearDiffFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLYearDiffFunction());
-        jpqlFunctionGroup.add("oracle", new OracleYearDiffFunction());
-        registerFunction(jpqlFunctionGroup);
-
-        jpqlFunctionGroup = new JpqlFunctionGroup("month_diff", false);
-        jpqlFunctionGroup.add("access", new AccessMonthDiffFunction());
-        jpqlFunctionGroup.add("db2", new DB2MonthDiffFunction());
-        jpqlFunctionGroup.add("h2", new DefaultMonthDiffFunction());
-        jpqlFunctionGroup.add("microsoft", new DefaultMonthDiffFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLMonthDiffFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLMonthDiffFunction());
-        jpqlFunctionGroup.add("sybase", new DefaultMonthDiffFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLMonthDiffFunction());
-        jpqlFunctionGroup.add("oracle", new OracleMonthDiffFunction());
-        registerFunction(jpqlFunctionGroup);
-
-        jpqlFunctionGroup = new JpqlFunctionGroup("day_diff", false);
-        jpqlFunctionGroup.add("access", new AccessDayDiffFunction());
-        jpqlFunctionGroup.add("db2", new DB2DayDiffFunction());
-        jpqlFunctionGroup.add("h2", new DefaultDayDiffFunction());
-        jpqlFunctionGroup.add("microsoft", new DefaultDayDiffFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLDayDiffFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLDayDiffFunction());
-        jpqlFunctionGroup.add("sybase", new DefaultDayDiffFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLDayDiffFunction());
-        jpqlFunctionGroup.add("oracle", new OracleDayDiffFunction());
-        registerFunction(jpqlFunctionGroup);
-
-        jpqlFunctionGroup = new JpqlFunctionGroup("hour_diff", false);
-        jpqlFunctionGroup.add("access", new AccessHourDiffFunction());
-        jpqlFunctionGroup.add("db2", new DB2HourDiffFunction());
-        jpqlFunctionGroup.add("h2", new DefaultHourDiffFunction());
-        jpqlFunctionGroup.add("microsoft", new DefaultHourDiffFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLHourDiffFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLHourDiffFunction());
-        jpqlFunctionGroup.add("sybase", new DefaultHourDiffFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLHourDiffFunction());
-        jpqlFunctionGroup.add("oracle", new OracleHourDiffFunction());
-        registerFunction(jpqlFunctionGroup);
-
-        jpqlFunctionGroup = new JpqlFunctionGroup("minute_diff", false);
-        jpqlFunctionGroup.add("access", new AccessMinuteDiffFunction());
-        jpqlFunctionGroup.add("db2", new DB2MinuteDiffFunction());
-        jpqlFunctionGroup.add("h2", new DefaultMinuteDiffFunction());
-        jpqlFunctionGroup.add("microsoft", new DefaultMinuteDiffFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLMinuteDiffFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLMinuteDiffFunction());
-        jpqlFunctionGroup.add("sybase", new DefaultMinuteDiffFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLMinuteDiffFunction());
-        jpqlFunctionGroup.add("oracle", new OracleMinuteDiffFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, new JpqlFunctionGroup("year_diff", false));
+
+        putFunction(defaultFunctions, new JpqlFunctionGroup("month_diff", false));
+
+        putFunction(defaultFunctions, new JpqlFunctionGroup("day_diff", false));
+
+        putFunction(defaultFunctions, new JpqlFunctionGroup("hour_diff", false));
+
+        putFunction(defaultFunctions, new JpqlFunctionGroup("minute_diff", false));
 
         jpqlFunctionGroup = new JpqlFunctionGroup("second_diff", false);
         jpqlFunctionGroup.add(null, new DefaultSecondDiffFunction());
-        jpqlFunctionGroup.add("access", new AccessSecondDiffFunction());
-        jpqlFunctionGroup.add("db2", new DB2SecondDiffFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLSecondDiffFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLSecondDiffFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLSecondDiffFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLSecondDiffFunction());
-        jpqlFunctionGroup.add("oracle", new OracleSecondDiffFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("epoch_diff", false);
         jpqlFunctionGroup.add(null, new DefaultSecondDiffFunction());
-        jpqlFunctionGroup.add("access", new AccessSecondDiffFunction());
-        jpqlFunctionGroup.add("db2", new DB2SecondDiffFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLSecondDiffFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLSecondDiffFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLSecondDiffFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLSecondDiffFunction());
-        jpqlFunctionGroup.add("oracle", new OracleSecondDiffFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("millisecond_diff", false);
         jpqlFunctionGroup.add(null, new DefaultMillisecondDiffFunction());
-        jpqlFunctionGroup.add("access", new AccessMillisecondDiffFunction());
-        jpqlFunctionGroup.add("db2", new DB2MillisecondDiffFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLMillisecondDiffFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLMillisecondDiffFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLMillisecondDiffFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLMillisecondDiffFunction());
-        jpqlFunctionGroup.add("oracle", new OracleMillisecondDiffFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("microsecond_diff", false);
         jpqlFunctionGroup.add(null, new DefaultMicrosecondDiffFunction());
-        jpqlFunctionGroup.add("access", new AccessMicrosecondDiffFunction());
-        jpqlFunctionGroup.add("db2", new DB2MicrosecondDiffFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLMicrosecondDiffFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLMicrosecondDiffFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLMicrosecondDiffFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLMicrosecondDiffFunction());
-        jpqlFunctionGroup.add("oracle", new OracleMicrosecondDiffFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("week_diff", false);
         jpqlFunctionGroup.add(null, new DefaultWeekDiffFunction());
-        jpqlFunctionGroup.add("h2", new H2WeekDiffFunction());
-        jpqlFunctionGroup.add("db2", new DB2WeekDiffFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLWeekDiffFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLWeekDiffFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLWeekDiffFunction());
-        jpqlFunctionGroup.add("oracle", new OracleWeekDiffFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLWeekDiffFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("quarter_diff", false);
         jpqlFunctionGroup.add(null, new DefaultQuarterDiffFunction());
-        jpqlFunctionGroup.add("access", new AccessQuarterDiffFunction());
-        jpqlFunctionGroup.add("h2", new H2QuarterDiffFunction());
-        jpqlFunctionGroup.add("db2", new DB2QuarterDiffFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLQuarterDiffFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLQuarterDiffFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLQuarterDiffFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLQuarterDiffFunction());
-        jpqlFunctionGroup.add("oracle", new OracleQuarterDiffFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // date trunc
 
         jpqlFunctionGroup = new JpqlFunctionGroup(TruncDayFunction.NAME, false);
         jpqlFunctionGroup.add(null, new PostgreSQLTruncDayFunction());
-        jpqlFunctionGroup.add("db2", new DB2TruncDayFunction());
-        jpqlFunctionGroup.add("h2", new H2TruncDayFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLTruncDayFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLTruncDayFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLTruncDayFunction());
-        jpqlFunctionGroup.add("oracle", new OracleTruncDayFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLTruncDayFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup(TruncHourFunction.NAME, false);
         jpqlFunctionGroup.add(null, new PostgreSQLTruncHourFunction());
-        jpqlFunctionGroup.add("db2", new DB2TruncHourFunction());
-        jpqlFunctionGroup.add("h2", new H2TruncHourFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLTruncHourFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLTruncHourFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLTruncHourFunction());
-        jpqlFunctionGroup.add("oracle", new OracleTruncHourFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLTruncHourFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup(TruncMicrosecondsFunction.NAME, false);
         jpqlFunctionGroup.add(null, new PostgreSQLTruncMicrosecondsFunction());
-        jpqlFunctionGroup.add("db2", new DB2TruncMicrosecondsFunction());
-        jpqlFunctionGroup.add("h2", new H2TruncMicrosecondsFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLTruncMicrosecondsFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLTruncMicrosecondsFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLTruncMicrosecondsFunction());
-        jpqlFunctionGroup.add("oracle", new OracleTruncMicrosecondsFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLTruncMicrosecondsFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup(TruncMillisecondsFunction.NAME, false);
         jpqlFunctionGroup.add(null, new PostgreSQLTruncMillisecondsFunction());
-        jpqlFunctionGroup.add("db2", new DB2TruncMillisecondsFunction());
-        jpqlFunctionGroup.add("h2", new H2TruncMillisecondsFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLTruncMillisecondsFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLTruncMillisecondsFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLTruncMillisecondsFunction());
-        jpqlFunctionGroup.add("oracle", new OracleTruncMillisecondsFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLTruncMillisecondsFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup(TruncMinuteFunction.NAME, false);
         jpqlFunctionGroup.add(null, new PostgreSQLTruncMinuteFunction());
-        jpqlFunctionGroup.add("db2", new DB2TruncMinuteFunction());
-        jpqlFunctionGroup.add("h2", new H2TruncMinuteFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLTruncMinuteFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLTruncMinuteFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLTruncMinuteFunction());
-        jpqlFunctionGroup.add("oracle", new OracleTruncMinuteFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLTruncMinuteFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup(TruncMonthFunction.NAME, false);
         jpqlFunctionGroup.add(null, new PostgreSQLTruncMonthFunction());
-        jpqlFunctionGroup.add("db2", new DB2TruncMonthFunction());
-        jpqlFunctionGroup.add("h2", new H2TruncMonthFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLTruncMonthFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLTruncMonthFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLTruncMonthFunction());
-        jpqlFunctionGroup.add("oracle", new OracleTruncMonthFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLTruncMonthFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup(TruncQuarterFunction.NAME, false);
         jpqlFunctionGroup.add(null, new PostgreSQLTruncQuarterFunction());
-        jpqlFunctionGroup.add("db2", new DB2TruncQuarterFunction());
-        jpqlFunctionGroup.add("h2", new H2TruncQuarterFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLTruncQuarterFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLTruncQuarterFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLTruncQuarterFunction());
-        jpqlFunctionGroup.add("oracle", new OracleTruncQuarterFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLTruncQuarterFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup(TruncSecondFunction.NAME, false);
         jpqlFunctionGroup.add(null, new PostgreSQLTruncSecondFunction());
-        jpqlFunctionGroup.add("db2", new DB2TruncSecondFunction());
-        jpqlFunctionGroup.add("h2", new H2TruncSecondFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLTruncSecondFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLTruncSecondFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLTruncSecondFunction());
-        jpqlFunctionGroup.add("oracle", new OracleTruncSecondFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLTruncSecondFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup(TruncWeekFunction.NAME, false);
         jpqlFunctionGroup.add(null, new TruncWeekFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLTruncWeekFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLTruncWeekFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLTruncWeekFunction());
-        jpqlFunctionGroup.add("oracle", new OracleTruncWeekFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup(TruncYearFunction.NAME, false);
         jpqlFunctionGroup.add(null, new PostgreSQLTruncYearFunction());
-        jpqlFunctionGroup.add("db2", new DB2TruncYearFunction());
-        jpqlFunctionGroup.add("h2", new H2TruncYearFunction());
-        jpqlFunctionGroup.add("microsoft", new MSSQLTruncYearFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLTruncYearFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLTruncYearFunction());
-        jpqlFunctionGroup.add("oracle", new OracleTruncYearFunction());
-        jpqlFunctionGroup.add("postgresql", new PostgreSQLTruncYearFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // count
 
         jpqlFunctionGroup = new JpqlFunctionGroup(AbstractCountFunction.FUNCTION_NAME, true);
         jpqlFunctionGroup.add(null, new CountTupleFunction());
-        jpqlFunctionGroup.add("mysql", new MySQLCountTupleFunction());
-        jpqlFunctionGroup.add("mysql8", new MySQLCountTupleFunction());
-        jpqlFunctionGroup.add("db2", new CountTupleEmulationFunction());
-        jpqlFunctionGroup.add("microsoft", new CountTupleEmulationFunction("+", "varchar(max)"));
-        jpqlFunctionGroup.add("oracle", new CountTupleEmulationFunction());
-        jpqlFunctionGroup.add("hsql", new CountTupleEmulationFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // row values
         jpqlFunctionGroup = new JpqlFunctionGroup(RowValueComparisonFunction.FUNCTION_NAME, false);
         jpqlFunctionGroup.add(null, new RowValueComparisonFunction());
-        jpqlFunctionGroup.add("db2", new DB2RowValueComparisonFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // greatest
 
         jpqlFunctionGroup = new JpqlFunctionGroup(AbstractGreatestFunction.FUNCTION_NAME, false);
         jpqlFunctionGroup.add(null, new DefaultGreatestFunction());
-        jpqlFunctionGroup.add("db2", new MaxGreatestFunction());
-        jpqlFunctionGroup.add("microsoft", new SelectMaxUnionGreatestFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // least
 
         jpqlFunctionGroup = new JpqlFunctionGroup(AbstractLeastFunction.FUNCTION_NAME, false);
         jpqlFunctionGroup.add(null, new DefaultLeastFunction());
-        jpqlFunctionGroup.add("db2", new MinLeastFunction());
-        jpqlFunctionGroup.add("microsoft", new SelectMinUnionLeastFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // repeat
 
         jpqlFunctionGroup = new JpqlFunctionGroup(AbstractRepeatFunction.FUNCTION_NAME, false);
         jpqlFunctionGroup.add(null, new DefaultRepeatFunction());
-        jpqlFunctionGroup.add("oracle", new LpadRepeatFunction());
-        jpqlFunctionGroup.add("microsoft", new ReplicateRepeatFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // subquery
 
         jpqlFunctionGroup = new JpqlFunctionGroup(SubqueryFunction.FUNCTION_NAME, false);
         jpqlFunctionGroup.add(null, new SubqueryFunction());
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // every
 
         jpqlFunctionGroup = new JpqlFunctionGroup(EveryFunction.FUNCTION_NAME, true);
         jpqlFunctionGroup.add(null, EveryFunction.INSTANCE);
-        for (Map.Entry<String, DbmsDialect> dialectEntry : this.dbmsDialects.entrySet()) {
+        for (Map.Entry<String, DbmsDialect> dialectEntry : dialects.entrySet()) {
             jpqlFunctionGroup.add(dialectEntry.getKey(),
                     dialectEntry.getValue().supportsBooleanAggregation() ?
                             EveryFunction.INSTANCE :
                             FallbackEveryFunction.INSTANCE);
         }
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // andagg
 
         jpqlFunctionGroup = new JpqlFunctionGroup("AND_AGG", true);
         jpqlFunctionGroup.add(null, EveryFunction.INSTANCE);
-        for (Map.Entry<String, DbmsDialect> dialectEntry : this.dbmsDialects.entrySet()) {
+        for (Map.Entry<String, DbmsDialect> dialectEntry : dialects.entrySet()) {
             jpqlFunctionGroup.add(dialectEntry.getKey(),
                     dialectEntry.getValue().supportsBooleanAggregation() ?
                             EveryFunction.INSTANCE :
                             FallbackEveryFunction.INSTANCE);
         }
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // oragg
 
         jpqlFunctionGroup = new JpqlFunctionGroup(OrAggFunction.FUNCTION_NAME, true);
         jpqlFunctionGroup.add(null, OrAggFunction.INSTANCE);
-        for (Map.Entry<String, DbmsDialect> dialectEntry : this.dbmsDialects.entrySet()) {
+        for (Map.Entry<String, DbmsDialect> dialectEntry : dialects.entrySet()) {
             jpqlFunctionGroup.add(dialectEntry.getKey(),
                     dialectEntry.getValue().supportsBooleanAggregation() ?
                             OrAggFunction.INSTANCE :
                             FallbackOrAggFunction.INSTANCE);
         }
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         jpqlFunctionGroup = new JpqlFunctionGroup("OR_AGG", true);
         jpqlFunctionGroup.add(null, OrAggFunction.INSTANCE);
-        for (Map.Entry<String, DbmsDialect> dialectEntry : this.dbmsDialects.entrySet()) {
+        for (Map.Entry<String, DbmsDialect> dialectEntry : dialects.entrySet()) {
             jpqlFunctionGroup.add(dialectEntry.getKey(),
                     dialectEntry.getValue().supportsBooleanAggregation() ?
                             OrAggFunction.INSTANCE :
                             FallbackOrAggFunction.INSTANCE);
         }
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
 
         // window every
 
         jpqlFunctionGroup = new JpqlFunctionGroup(WindowEveryFunction.FUNCTION_NAME, false);
-        for (Map.Entry<String, DbmsDialect> dialectEntry : this.dbmsDialects.entrySet()) {
+        for (Map.Entry<String, DbmsDialect> dialectEntry : dialects.entrySet()) {
             jpqlFunctionGroup.add(dialectEntry.getKey(),
                     dialectEntry.getValue().supportsBooleanAggregation() ?
                             new WindowEveryFunction(dialectEntry.getValue()) :
                             new FallbackWindowEveryFunction(dialectEntry.getValue()));
         }
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // window andagg
 
         jpqlFunctionGroup = new JpqlFunctionGroup("AND_AGG", false);
-        for (Map.Entry<String, DbmsDialect> dialectEntry : this.dbmsDialects.entrySet()) {
+        for (Map.Entry<String, DbmsDialect> dialectEntry : dialects.entrySet()) {
             jpqlFunctionGroup.add(dialectEntry.getKey(),
                     dialectEntry.getValue().supportsBooleanAggregation() ?
                             new WindowEveryFunction(dialectEntry.getValue()) :
                             new FallbackWindowEveryFunction(dialectEntry.getValue()));
         }
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // window oragg
 
         jpqlFunctionGroup = new JpqlFunctionGroup(WindowOrAggFunction.FUNCTION_NAME, false);
-        for (Map.Entry<String, DbmsDialect> dialectEntry : this.dbmsDialects.entrySet()) {
+        for (Map.Entry<String, DbmsDialect> dialectEntry : dialects.entrySet()) {
             jpqlFunctionGroup.add(dialectEntry.getKey(),
                     dialectEntry.getValue().supportsBooleanAggregation() ?
                         new WindowOrAggFunction(dialectEntry.getValue()) :
                         new FallbackWindowOrAggFunction(dialectEntry.getValue()));
         }
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // window sum
 
         jpqlFunctionGroup = new JpqlFunctionGroup(SumFunction.FUNCTION_NAME, false);
-        for (Map.Entry<String, DbmsDialect> dialectEntry : this.dbmsDialects.entrySet()) {
+        for (Map.Entry<String, DbmsDialect> dialectEntry : dialects.entrySet()) {
             jpqlFunctionGroup.add(dialectEntry.getKey(), new SumFunction(dialectEntry.getValue()));
         }
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // window avg
 
         jpqlFunctionGroup = new JpqlFunctionGroup(AvgFunction.FUNCTION_NAME, false);
-        for (Map.Entry<String, DbmsDialect> dialectEntry : this.dbmsDialects.entrySet()) {
+        for (Map.Entry<String, DbmsDialect> dialectEntry : dialects.entrySet()) {
             jpqlFunctionGroup.add(dialectEntry.getKey(), new AvgFunction(dialectEntry.getValue()));
         }
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // window min
 
         jpqlFunctionGroup = new JpqlFunctionGroup(MinFunction.FUNCTION_NAME, false);
-        for (Map.Entry<String, DbmsDialect> dialectEntry : this.dbmsDialects.entrySet()) {
+        for (Map.Entry<String, DbmsDialect> dialectEntry : dialects.entrySet()) {
             jpqlFunctionGroup.add(dialectEntry.getKey(), new MinFunction(dialectEntry.getValue()));
         }
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // window max
 
         jpqlFunctionGroup = new JpqlFunctionGroup(MaxFunction.FUNCTION_NAME, false);
-        for (Map.Entry<String, DbmsDialect> dialectEntry : this.dbmsDialects.entrySet()) {
+        for (Map.Entry<String, DbmsDialect> dialectEntry : dialects.entrySet()) {
             jpqlFunctionGroup.add(dialectEntry.getKey(), new MaxFunction(dialectEntry.getValue()));
         }
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // window count
 
         jpqlFunctionGroup = new JpqlFunctionGroup(CountFunction.FUNCTION_NAME, false);
-        for (Map.Entry<String, DbmsDialect> dialectEntry : this.dbmsDialects.entrySet()) {
+        for (Map.Entry<String, DbmsDialect> dialectEntry : dialects.entrySet()) {
             jpqlFunctionGroup.add(dialectEntry.getKey(), new CountFunction(dialectEntry.getValue()));
         }
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // row number
 
         jpqlFunctionGroup = new JpqlFunctionGroup(RowNumberFunction.FUNCTION_NAME, false);
-        for (Map.Entry<String, DbmsDialect> dialectEntry : this.dbmsDialects.entrySet()) {
+        for (Map.Entry<String, DbmsDialect> dialectEntry : dialects.entrySet()) {
             jpqlFunctionGroup.add(dialectEntry.getKey(), new RowNumberFunction(dialectEntry.getValue()));
         }
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // rank
 
         jpqlFunctionGroup = new JpqlFunctionGroup(RankFunction.FUNCTION_NAME, false);
-        for (Map.Entry<String, DbmsDialect> dialectEntry : this.dbmsDialects.entrySet()) {
+        for (Map.Entry<String, DbmsDialect> dialectEntry : dialects.entrySet()) {
             jpqlFunctionGroup.add(dialectEntry.getKey(), new RankFunction(dialectEntry.getValue()));
         }
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // dense_rank
 
         jpqlFunctionGroup = new JpqlFunctionGroup(DenseRankFunction.FUNCTION_NAME, false);
-        for (Map.Entry<String, DbmsDialect> dialectEntry : this.dbmsDialects.entrySet()) {
+        for (Map.Entry<String, DbmsDialect> dialectEntry : dialects.entrySet()) {
             jpqlFunctionGroup.add(dialectEntry.getKey(), new DenseRankFunction(dialectEntry.getValue()));
         }
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // PERCENT_RANK
 
         jpqlFunctionGroup = new JpqlFunctionGroup(PercentRankFunction.FUNCTION_NAME, false);
-        for (Map.Entry<String, DbmsDialect> dialectEntry : this.dbmsDialects.entrySet()) {
+        for (Map.Entry<String, DbmsDialect> dialectEntry : dialects.entrySet()) {
             jpqlFunctionGroup.add(dialectEntry.getKey(), new PercentRankFunction(dialectEntry.getValue()));
         }
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // CUME_DIST
 
         jpqlFunctionGroup = new JpqlFunctionGroup(CumeDistFunction.FUNCTION_NAME, false);
-        for (Map.Entry<String, DbmsDialect> dialectEntry : this.dbmsDialects.entrySet()) {
+        for (Map.Entry<String, DbmsDialect> dialectEntry : dialects.entrySet()) {
             jpqlFunctionGroup.add(dialectEntry.getKey(), new CumeDistFunction(dialectEntry.getValue()));
         }
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // NTILE
 
         jpqlFunctionGroup = new JpqlFunctionGroup(NtileFunction.FUNCTION_NAME, false);
-        for (Map.Entry<String, DbmsDialect> dialectEntry : this.dbmsDialects.entrySet()) {
+        for (Map.Entry<String, DbmsDialect> dialectEntry : dialects.entrySet()) {
             jpqlFunctionGroup.add(dialectEntry.getKey(), new NtileFunction(dialectEntry.getValue()));
         }
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // LAG
 
         jpqlFunctionGroup = new JpqlFunctionGroup(LagFunction.FUNCTION_NAME, false);
-        for (Map.Entry<String, DbmsDialect> dialectEntry : this.dbmsDialects.entrySet()) {
+        for (Map.Entry<String, DbmsDialect> dialectEntry : dialects.entrySet()) {
             jpqlFunctionGroup.add(dialectEntry.getKey(), new LagFunction(dialectEntry.getValue()));
         }
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // LEAD
 
         jpqlFunctionGroup = new JpqlFunctionGroup(LeadFunction.FUNCTION_NAME, false);
-        for (Map.Entry<String, DbmsDialect> dialectEntry : this.dbmsDialects.entrySet()) {
+        for (Map.Entry<String, DbmsDialect> dialectEntry : dialects.entrySet()) {
             jpqlFunctionGroup.add(dialectEntry.getKey(), new LeadFunction(dialectEntry.getValue()));
         }
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // FIRST_VALUE
 
         jpqlFunctionGroup = new JpqlFunctionGroup(FirstValueFunction.FUNCTION_NAME, false);
-        for (Map.Entry<String, DbmsDialect> dialectEntry : this.dbmsDialects.entrySet()) {
+        for (Map.Entry<String, DbmsDialect> dialectEntry : dialects.entrySet()) {
             jpqlFunctionGroup.add(dialectEntry.getKey(), new FirstValueFunction(dialectEntry.getValue()));
         }
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // LAST_VALUE
 
         jpqlFunctionGroup = new JpqlFunctionGroup(LastValueFunction.FUNCTION_NAME, false);
-        for (Map.Entry<String, DbmsDialect> dialectEntry : this.dbmsDialects.entrySet()) {
+        for (Map.Entry<String, DbmsDialect> dialectEntry : dialects.entrySet()) {
             jpqlFunctionGroup.add(dialectEntry.getKey(), new LastValueFunction(dialectEntry.getValue()));
         }
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
 
         // NTH_VALUE
 
         jpqlFunctionGroup = new JpqlFunctionGroup(NthValueFunction.FUNCTION_NAME, false);
-        for (Map.Entry<String, DbmsDialect> dialectEntry : this.dbmsDialects.entrySet()) {
+        for (Map.Entry<String, DbmsDialect> dialectEntry : dialects.entrySet()) {
             jpqlFunctionGroup.add(dialectEntry.getKey(), new NthValueFunction(dialectEntry.getValue()));
         }
-        registerFunction(jpqlFunctionGroup);
+        putFunction(defaultFunctions, jpqlFunctionGroup);
+
+        if (dbms == null) {
+            for (String functionDbms : DBMS_WITH_SPECIFIC_FUNCTIONS) {
+                loadDbmsFunctions(defaultFunctions, functionDbms);
+            }
+        } else {
+            loadDbmsFunctions(defaultFunctions, dbms);
+        }
+
+        return defaultFunctions;
+    }
+
+    /**
+     * Adds the dbms specific implementations for the given dbms to the default functions, overriding the default implementations.
+     *
+     * @param functions The default functions
+     * @param dbms The dbms for which to add the implementations
+     */
+    private void loadDbmsFunctions(Map<String, JpqlFunctionGroup> functions, String dbms) {
+        switch (dbms) {
+            case "mysql":
+            case "mysql8":
+                loadMySQLFunctions(functions, dbms);
+                break;
+            case "oracle":
+                loadOracleFunctions(functions, dbms);
+                break;
+            case "db2":
+                loadDB2Functions(functions, dbms);
+                break;
+            case "sybase":
+                loadSybaseFunctions(functions, dbms);
+                break;
+            case "microsoft":
+                loadMSSQLFunctions(functions, dbms);
+                break;
+            case "h2":
+                loadH2Functions(functions, dbms);
+                break;
+            case "postgresql":
+                loadPostgreSQLFunctions(functions, dbms);
+                break;
+            case "access":
+                loadAccessFunctions(functions, dbms);
+                break;
+            case "derby":
+                loadDerbyFunctions(functions, dbms);
+                break;
+            case "sqlite":
+                loadSQLiteFunctions(functions, dbms);
+                break;
+            case "hsql":
+                loadHSQLFunctions(functions, dbms);
+                break;
+            default:
+                // No dbms specific implementations
+                break;
+        }
+    }
+
+    private static void addFunction(Map<String, JpqlFunctionGroup> functions, String name, String dbms, JpqlFunction function) {
+        functions.get(name.toLowerCase()).add(dbms, function);
+    }
+
+    private void loadMySQLFunctions(Map<String, JpqlFunctionGroup> functions, String dbms) {
+        addFunction(functions, "limit", dbms, new LimitFunction(dbmsDialects.get(dbms)));
+        addFunction(functions, PagePositionFunction.FUNCTION_NAME, dbms, new MySQLPagePositionFunction());
+        addFunction(functions, "group_concat", dbms, new MySQLGroupConcatFunction());
+        addFunction(functions, "window_group_concat", dbms, new MySQLGroupConcatWindowFunction(dbmsDialects.get(dbms)));
+        addFunction(functions, "year_of_week", dbms, new MySQLYearOfWeekFunction());
+        addFunction(functions, "year_week", dbms, new MySQLYearWeekFunction());
+        addFunction(functions, "week", dbms, new MySQLIsoWeekFunction());
+        addFunction(functions, "iso_week", dbms, new MySQLIsoWeekFunction());
+        addFunction(functions, "week_in_year", dbms, new MySQLWeekInYearFunction());
+        addFunction(functions, "dayofyear", dbms, new MySQLDayOfYearFunction());
+        addFunction(functions, "dayofweek", dbms, new MySQLDayOfWeekFunction());
+        addFunction(functions, "millisecond", dbms, new MySQLMillisecondFunction());
+        addFunction(functions, "microsecond", dbms, new MySQLMicrosecondFunction());
+        addFunction(functions, "epoch", dbms, new MySQLEpochFunction());
+        addFunction(functions, "epoch_seconds", dbms, new MySQLEpochFunction());
+        addFunction(functions, "epoch_days", dbms, new MySQLEpochDayFunction());
+        addFunction(functions, "epoch_milliseconds", dbms, new MySQLEpochMillisecondFunction());
+        addFunction(functions, "epoch_microseconds", dbms, new MySQLEpochMicrosecondFunction());
+        addFunction(functions, DayAddFunction.NAME, dbms, new MySQLDayAddFunction());
+        addFunction(functions, HourAddFunction.NAME, dbms, new MySQLHourAddFunction());
+        addFunction(functions, MicrosecondsAddFunction.NAME, dbms, new MySQLMicrosecondsAddFunction());
+        addFunction(functions, MillisecondsAddFunction.NAME, dbms, new MySQLMillisecondsAddFunction());
+        addFunction(functions, MinuteAddFunction.NAME, dbms, new MySQLMinuteAddFunction());
+        addFunction(functions, MonthAddFunction.NAME, dbms, new MySQLMonthAddFunction());
+        addFunction(functions, QuarterAddFunction.NAME, dbms, new MySQLQuarterAddFunction());
+        addFunction(functions, SecondAddFunction.NAME, dbms, new MySQLSecondAddFunction());
+        addFunction(functions, WeekAddFunction.NAME, dbms, new MySQLWeekAddFunction());
+        addFunction(functions, YearAddFunction.NAME, dbms, new MySQLYearAddFunction());
+        addFunction(functions, "year_diff", dbms, new MySQLYearDiffFunction());
+        addFunction(functions, "month_diff", dbms, new MySQLMonthDiffFunction());
+        addFunction(functions, "day_diff", dbms, new MySQLDayDiffFunction());
+        addFunction(functions, "hour_diff", dbms, new MySQLHourDiffFunction());
+        addFunction(functions, "minute_diff", dbms, new MySQLMinuteDiffFunction());
+        addFunction(functions, "second_diff", dbms, new MySQLSecondDiffFunction());
+        addFunction(functions, "epoch_diff", dbms, new MySQLSecondDiffFunction());
+        addFunction(functions, "millisecond_diff", dbms, new MySQLMillisecondDiffFunction());
+        addFunction(functions, "microsecond_diff", dbms, new MySQLMicrosecondDiffFunction());
+        addFunction(functions, "week_diff", dbms, new MySQLWeekDiffFunction());
+        addFunction(functions, "quarter_diff", dbms, new MySQLQuarterDiffFunction());
+        addFunction(functions, TruncDayFunction.NAME, dbms, new MySQLTruncDayFunction());
+        addFunction(functions, TruncHourFunction.NAME, dbms, new MySQLTruncHourFunction());
+        addFunction(functions, TruncMicrosecondsFunction.NAME, dbms, new MySQLTruncMicrosecondsFunction());
+        addFunction(functions, TruncMillisecondsFunction.NAME, dbms, new MySQLTruncMillisecondsFunction());
+        addFunction(functions, TruncMinuteFunction.NAME, dbms, new MySQLTruncMinuteFunction());
+        addFunction(functions, TruncMonthFunction.NAME, dbms, new MySQLTruncMonthFunction());
+        addFunction(functions, TruncQuarterFunction.NAME, dbms, new MySQLTruncQuarterFunction());
+        addFunction(functions, TruncSecondFunction.NAME, dbms, new MySQLTruncSecondFunction());
+        addFunction(functions, TruncWeekFunction.NAME, dbms, new MySQLTruncWeekFunction());
+        addFunction(functions, TruncYearFunction.NAME, dbms, new MySQLTruncYearFunction());
+        addFunction(functions, AbstractCountFunction.FUNCTION_NAME, dbms, new MySQLCountTupleFunction());
+    }
+
+    private void loadOracleFunctions(Map<String, JpqlFunctionGroup> functions, String dbms) {
+        addFunction(functions, "limit", dbms, new LimitFunction(dbmsDialects.get(dbms)));
+        addFunction(functions, PagePositionFunction.FUNCTION_NAME, dbms, new OraclePagePositionFunction());
+        addFunction(functions, "group_concat", dbms, new OracleListaggGroupConcatFunction());
+        addFunction(functions, "window_group_concat", dbms, new OracleListaggGroupConcatWindowFunction(dbmsDialects.get(dbms)));
+        addFunction(functions, "year_of_week", dbms, new OracleYearOfWeekFunction());
+        addFunction(functions, "year_week", dbms, new OracleYearWeekFunction());
+        addFunction(functions, "week", dbms, new OracleIsoWeekFunction());
+        addFunction(functions, "iso_week", dbms, new OracleIsoWeekFunction());
+        addFunction(functions, "week_in_year", dbms, new OracleWeekInYearFunction());
+        addFunction(functions, "quarter", dbms, new OracleQuarterFunction());
+        addFunction(functions, "dayofyear", dbms, new OracleDayOfYearFunction());
+        addFunction(functions, "dayofweek", dbms, new OracleDayOfWeekFunction());
+        addFunction(functions, "hour", dbms, new OracleHourFunction());
+        addFunction(functions, "minute", dbms, new OracleMinuteFunction());
+        addFunction(functions, "second", dbms, new OracleSecondFunction());
+        addFunction(functions, "millisecond", dbms, new OracleMillisecondFunction());
+        addFunction(functions, "microsecond", dbms, new OracleMicrosecondFunction());
+        addFunction(functions, "epoch", dbms, new OracleEpochFunction());
+        addFunction(functions, "epoch_seconds", dbms, new OracleEpochFunction());
+        addFunction(functions, "epoch_days", dbms, new OracleEpochDayFunction());
+        addFunction(functions, "epoch_milliseconds", dbms, new OracleEpochMillisecondFunction());
+        addFunction(functions, "epoch_microseconds", dbms, new OracleEpochMicrosecondFunction());
+        addFunction(functions, DayAddFunction.NAME, dbms, new OracleDayAddFunction());
+        addFunction(functions, HourAddFunction.NAME, dbms, new OracleHourAddFunction());
+        addFunction(functions, MicrosecondsAddFunction.NAME, dbms, new OracleMicrosecondsAddFunction());
+        addFunction(functions, MillisecondsAddFunction.NAME, dbms, new OracleMillisecondsAddFunction());
+        addFunction(functions, MinuteAddFunction.NAME, dbms, new OracleMinuteAddFunction());
+        addFunction(functions, MonthAddFunction.NAME, dbms, new OracleMonthAddFunction());
+        addFunction(functions, QuarterAddFunction.NAME, dbms, new OracleQuarterAddFunction());
+        addFunction(functions, SecondAddFunction.NAME, dbms, new OracleSecondAddFunction());
+        addFunction(functions, WeekAddFunction.NAME, dbms, new OracleWeekAddFunction());
+        addFunction(functions, YearAddFunction.NAME, dbms, new OracleYearAddFunction());
+        addFunction(functions, "year_diff", dbms, new OracleYearDiffFunction());
+        addFunction(functions, "month_diff", dbms, new OracleMonthDiffFunction());
+        addFunction(functions, "day_diff", dbms, new OracleDayDiffFunction());
+        addFunction(functions, "hour_diff", dbms, new OracleHourDiffFunction());
+        addFunction(functions, "minute_diff", dbms, new OracleMinuteDiffFunction());
+        addFunction(functions, "second_diff", dbms, new OracleSecondDiffFunction());
+        addFunction(functions, "epoch_diff", dbms, new OracleSecondDiffFunction());
+        addFunction(functions, "millisecond_diff", dbms, new OracleMillisecondDiffFunction());
+        addFunction(functions, "microsecond_diff", dbms, new OracleMicrosecondDiffFunction());
+        addFunction(functions, "week_diff", dbms, new OracleWeekDiffFunction());
+        addFunction(functions, "quarter_diff", dbms, new OracleQuarterDiffFunction());
+        addFunction(functions, TruncDayFunction.NAME, dbms, new OracleTruncDayFunction());
+        addFunction(functions, TruncHourFunction.NAME, dbms, new OracleTruncHourFunction());
+        addFunction(functions, TruncMicrosecondsFunction.NAME, dbms, new OracleTruncMicrosecondsFunction());
+        addFunction(functions, TruncMillisecondsFunction.NAME, dbms, new OracleTruncMillisecondsFunction());
+        addFunction(functions, TruncMinuteFunction.NAME, dbms, new OracleTruncMinuteFunction());
+        addFunction(functions, TruncMonthFunction.NAME, dbms, new OracleTruncMonthFunction());
+        addFunction(functions, TruncQuarterFunction.NAME, dbms, new OracleTruncQuarterFunction());
+        addFunction(functions, TruncSecondFunction.NAME, dbms, new OracleTruncSecondFunction());
+        addFunction(functions, TruncWeekFunction.NAME, dbms, new OracleTruncWeekFunction());
+        addFunction(functions, TruncYearFunction.NAME, dbms, new OracleTruncYearFunction());
+        addFunction(functions, AbstractCountFunction.FUNCTION_NAME, dbms, new CountTupleEmulationFunction());
+        addFunction(functions, AbstractRepeatFunction.FUNCTION_NAME, dbms, new LpadRepeatFunction());
+    }
+
+    private void loadDB2Functions(Map<String, JpqlFunctionGroup> functions, String dbms) {
+        addFunction(functions, "limit", dbms, new LimitFunction(dbmsDialects.get(dbms)));
+        addFunction(functions, "group_concat", dbms, new DB2GroupConcatFunction());
+        addFunction(functions, "window_group_concat", dbms, new DB2GroupConcatWindowFunction(dbmsDialects.get(dbms)));
+        addFunction(functions, "year", dbms, new DB2YearFunction());
+        addFunction(functions, "year_of_week", dbms, new DB2YearOfWeekFunction());
+        addFunction(functions, "year_week", dbms, new DB2YearWeekFunction());
+        addFunction(functions, "month", dbms, new DB2MonthFunction());
+        addFunction(functions, "week", dbms, new DB2IsoWeekFunction());
+        addFunction(functions, "iso_week", dbms, new DB2IsoWeekFunction());
+        addFunction(functions, "week_in_year", dbms, new DB2WeekInYearFunction());
+        addFunction(functions, "quarter", dbms, new DB2QuarterFunction());
+        addFunction(functions, "day", dbms, new DB2DayFunction());
+        addFunction(functions, "dayofyear", dbms, new DB2DayOfYearFunction());
+        addFunction(functions, "dayofweek", dbms, new DB2DayOfWeekFunction());
+        addFunction(functions, "hour", dbms, new DB2HourFunction());
+        addFunction(functions, "minute", dbms, new DB2MinuteFunction());
+        addFunction(functions, "second", dbms, new DB2SecondFunction());
+        addFunction(functions, "millisecond", dbms, new DB2MillisecondFunction());
+        addFunction(functions, "microsecond", dbms, new DB2MicrosecondFunction());
+        addFunction(functions, "epoch", dbms, new DB2EpochFunction());
+        addFunction(functions, "epoch_seconds", dbms, new DB2EpochFunction());
+        addFunction(functions, "epoch_days", dbms, new DB2EpochDayFunction());
+        addFunction(functions, "epoch_milliseconds", dbms, new DB2EpochMillisecondFunction());
+        addFunction(functions, "epoch_microseconds", dbms, new DB2EpochMicrosecondFunction());
+        addFunction(functions, DayAddFunction.NAME, dbms, new DB2DayAddFunction());
+        addFunction(functions, HourAddFunction.NAME, dbms, new DB2HourAddFunction());
+        addFunction(functions, MicrosecondsAddFunction.NAME, dbms, new DB2MicrosecondsAddFunction());
+        addFunction(functions, MillisecondsAddFunction.NAME, dbms, new DB2MillisecondsAddFunction());
+        addFunction(functions, MinuteAddFunction.NAME, dbms, new DB2MinuteAddFunction());
+        addFunction(functions, MonthAddFunction.NAME, dbms, new DB2MonthAddFunction());
+        addFunction(functions, QuarterAddFunction.NAME, dbms, new DB2QuarterAddFunction());
+        addFunction(functions, SecondAddFunction.NAME, dbms, new DB2SecondAddFunction());
+        addFunction(functions, WeekAddFunction.NAME, dbms, new DB2WeekAddFunction());
+        addFunction(functions, YearAddFunction.NAME, dbms, new DB2YearAddFunction());
+        addFunction(functions, "year_diff", dbms, new DB2YearDiffFunction());
+        addFunction(functions, "month_diff", dbms, new DB2MonthDiffFunction());
+        addFunction(functions, "day_diff", dbms, new DB2DayDiffFunction());
+        addFunction(functions, "hour_diff", dbms, new DB2HourDiffFunction());
+        addFunction(functions, "minute_diff", dbms, new DB2MinuteDiffFunction());
+        addFunction(functions, "second_diff", dbms, new DB2SecondDiffFunction());
+        addFunction(functions, "epoch_diff", dbms, new DB2SecondDiffFunction());
+        addFunction(functions, "millisecond_diff", dbms, new DB2MillisecondDiffFunction());
+        addFunction(functions, "microsecond_diff", dbms, new DB2MicrosecondDiffFunction());
+        addFunction(functions, "week_diff", dbms, new DB2WeekDiffFunction());
+        addFunction(functions, "quarter_diff", dbms, new DB2QuarterDiffFunction());
+        addFunction(functions, TruncDayFunction.NAME, dbms, new DB2TruncDayFunction());
+        addFunction(functions, TruncHourFunction.NAME, dbms, new DB2TruncHourFunction());
+        addFunction(functions, TruncMicrosecondsFunction.NAME, dbms, new DB2TruncMicrosecondsFunction());
+        addFunction(functions, TruncMillisecondsFunction.NAME, dbms, new DB2TruncMillisecondsFunction());
+        addFunction(functions, TruncMinuteFunction.NAME, dbms, new DB2TruncMinuteFunction());
+        addFunction(functions, TruncMonthFunction.NAME, dbms, new DB2TruncMonthFunction());
+        addFunction(functions, TruncQuarterFunction.NAME, dbms, new DB2TruncQuarterFunction());
+        addFunction(functions, TruncSecondFunction.NAME, dbms, new DB2TruncSecondFunction());
+        addFunction(functions, TruncYearFunction.NAME, dbms, new DB2TruncYearFunction());
+        addFunction(functions, AbstractCountFunction.FUNCTION_NAME, dbms, new CountTupleEmulationFunction());
+        addFunction(functions, RowValueComparisonFunction.FUNCTION_NAME, dbms, new DB2RowValueComparisonFunction());
+        addFunction(functions, AbstractGreatestFunction.FUNCTION_NAME, dbms, new MaxGreatestFunction());
+        addFunction(functions, AbstractLeastFunction.FUNCTION_NAME, dbms, new MinLeastFunction());
+    }
+
+    private void loadSybaseFunctions(Map<String, JpqlFunctionGroup> functions, String dbms) {
+        addFunction(functions, "limit", dbms, null); // Does not support limit
+        addFunction(functions, PagePositionFunction.FUNCTION_NAME, dbms, new TransactSQLPagePositionFunction());
+        addFunction(functions, "year", dbms, new SybaseYearFunction());
+        addFunction(functions, "month", dbms, new SybaseMonthFunction());
+        addFunction(functions, "week", dbms, new SybaseIsoWeekFunction());
+        addFunction(functions, "iso_week", dbms, new SybaseIsoWeekFunction());
+        addFunction(functions, "quarter", dbms, new SybaseQuarterFunction());
+        addFunction(functions, "day", dbms, new SybaseDayFunction());
+        addFunction(functions, "dayofyear", dbms, new SybaseDayOfYearFunction());
+        addFunction(functions, "dayofweek", dbms, new SybaseDayOfWeekFunction());
+        addFunction(functions, "hour", dbms, new SybaseHourFunction());
+        addFunction(functions, "minute", dbms, new SybaseMinuteFunction());
+        addFunction(functions, "second", dbms, new SybaseSecondFunction());
+        addFunction(functions, "millisecond", dbms, new SybaseMillisecondFunction());
+        addFunction(functions, "microsecond", dbms, new SybaseMicrosecondFunction());
+        addFunction(functions, "year_diff", dbms, new DefaultYearDiffFunction());
+        addFunction(functions, "month_diff", dbms, new DefaultMonthDiffFunction());
+        addFunction(functions, "day_diff", dbms, new DefaultDayDiffFunction());
+        addFunction(functions, "hour_diff", dbms, new DefaultHourDiffFunction());
+        addFunction(functions, "minute_diff", dbms, new DefaultMinuteDiffFunction());
+    }
+
+    private void loadMSSQLFunctions(Map<String, JpqlFunctionGroup> functions, String dbms) {
+        addFunction(functions, "limit", dbms, new LimitFunction(dbmsDialects.get(dbms)));
+        addFunction(functions, PagePositionFunction.FUNCTION_NAME, dbms, new TransactSQLPagePositionFunction());
+        addFunction(functions, "year", dbms, new MSSQLYearFunction());
+        addFunction(functions, "year_of_week", dbms, new MSSQLYearOfWeekFunction());
+        addFunction(functions, "year_week", dbms, new MSSQLYearWeekFunction());
+        addFunction(functions, "month", dbms, new MSSQLMonthFunction());
+        addFunction(functions, "week", dbms, new MSSQLIsoWeekFunction());
+        addFunction(functions, "iso_week", dbms, new MSSQLIsoWeekFunction());
+        addFunction(functions, "week_in_year", dbms, new MSSQLWeekInYearFunction());
+        addFunction(functions, "quarter", dbms, new MSSQLQuarterFunction());
+        addFunction(functions, "day", dbms, new MSSQLDayFunction());
+        addFunction(functions, "dayofyear", dbms, new MSSQLDayOfYearFunction());
+        addFunction(functions, "dayofweek", dbms, new MSSQLDayOfWeekFunction());
+        addFunction(functions, "hour", dbms, new MSSQLHourFunction());
+        addFunction(functions, "minute", dbms, new MSSQLMinuteFunction());
+        addFunction(functions, "second", dbms, new MSSQLSecondFunction());
+        addFunction(functions, "millisecond", dbms, new MSSQLMillisecondFunction());
+        addFunction(functions, "microsecond", dbms, new MSSQLMicrosecondFunction());
+        addFunction(functions, "epoch_milliseconds", dbms, new MSSQLEpochMillisecondFunction());
+        addFunction(functions, "epoch_microseconds", dbms, new MSSQLEpochMicrosecondFunction());
+        addFunction(functions, DayAddFunction.NAME, dbms, new MSSQLDayAddFunction());
+        addFunction(functions, HourAddFunction.NAME, dbms, new MSSQLHourAddFunction());
+        addFunction(functions, MicrosecondsAddFunction.NAME, dbms, new MSSQLMicrosecondsAddFunction());
+        addFunction(functions, MillisecondsAddFunction.NAME, dbms, new MSSQLMillisecondsAddFunction());
+        addFunction(functions, MinuteAddFunction.NAME, dbms, new MSSQLMinuteAddFunction());
+        addFunction(functions, MonthAddFunction.NAME, dbms, new MSSQLMonthAddFunction());
+        addFunction(functions, QuarterAddFunction.NAME, dbms, new MSSQLQuarterAddFunction());
+        addFunction(functions, SecondAddFunction.NAME, dbms, new MSSQLSecondAddFunction());
+        addFunction(functions, WeekAddFunction.NAME, dbms, new MSSQLWeekAddFunction());
+        addFunction(functions, YearAddFunction.NAME, dbms, new MSSQLYearAddFunction());
+        addFunction(functions, "year_diff", dbms, new DefaultYearDiffFunction());
+        addFunction(functions, "month_diff", dbms, new DefaultMonthDiffFunction());
+        addFunction(functions, "day_diff", dbms, new DefaultDayDiffFunction());
+        addFunction(functions, "hour_diff", dbms, new DefaultHourDiffFunction());
+        addFunction(functions, "minute_diff", dbms, new DefaultMinuteDiffFunction());
+        addFunction(functions, "second_diff", dbms, new MSSQLSecondDiffFunction());
+        addFunction(functions, "epoch_diff", dbms, new MSSQLSecondDiffFunction());
+        addFunction(functions, "millisecond_diff", dbms, new MSSQLMillisecondDiffFunction());
+        addFunction(functions, "microsecond_diff", dbms, new MSSQLMicrosecondDiffFunction());
+        addFunction(functions, "week_diff", dbms, new MSSQLWeekDiffFunction());
+        addFunction(functions, "quarter_diff", dbms, new MSSQLQuarterDiffFunction());
+        addFunction(functions, TruncDayFunction.NAME, dbms, new MSSQLTruncDayFunction());
+        addFunction(functions, TruncHourFunction.NAME, dbms, new MSSQLTruncHourFunction());
+        addFunction(functions, TruncMicrosecondsFunction.NAME, dbms, new MSSQLTruncMicrosecondsFunction());
+        addFunction(functions, TruncMillisecondsFunction.NAME, dbms, new MSSQLTruncMillisecondsFunction());
+        addFunction(functions, TruncMinuteFunction.NAME, dbms, new MSSQLTruncMinuteFunction());
+        addFunction(functions, TruncMonthFunction.NAME, dbms, new MSSQLTruncMonthFunction());
+        addFunction(functions, TruncQuarterFunction.NAME, dbms, new MSSQLTruncQuarterFunction());
+        addFunction(functions, TruncSecondFunction.NAME, dbms, new MSSQLTruncSecondFunction());
+        addFunction(functions, TruncWeekFunction.NAME, dbms, new MSSQLTruncWeekFunction());
+        addFunction(functions, TruncYearFunction.NAME, dbms, new MSSQLTruncYearFunction());
+        addFunction(functions, AbstractCountFunction.FUNCTION_NAME, dbms, new CountTupleEmulationFunction("+", "varchar(max)"));
+        addFunction(functions, AbstractGreatestFunction.FUNCTION_NAME, dbms, new SelectMaxUnionGreatestFunction());
+        addFunction(functions, AbstractLeastFunction.FUNCTION_NAME, dbms, new SelectMinUnionLeastFunction());
+        addFunction(functions, AbstractRepeatFunction.FUNCTION_NAME, dbms, new ReplicateRepeatFunction());
+    }
+
+    private void loadH2Functions(Map<String, JpqlFunctionGroup> functions, String dbms) {
+        addFunction(functions, "group_concat", dbms, new H2GroupConcatFunction());
+        addFunction(functions, "window_group_concat", dbms, new H2GroupConcatWindowFunction(dbmsDialects.get(dbms)));
+        addFunction(functions, "year_week", dbms, new H2YearWeekFunction());
+        addFunction(functions, "week", dbms, new H2IsoWeekFunction());
+        addFunction(functions, "iso_week", dbms, new H2IsoWeekFunction());
+        addFunction(functions, DayAddFunction.NAME, dbms, new H2DayAddFunction());
+        addFunction(functions, HourAddFunction.NAME, dbms, new H2HourAddFunction());
+        addFunction(functions, MicrosecondsAddFunction.NAME, dbms, new H2MicrosecondsAddFunction());
+        addFunction(functions, MillisecondsAddFunction.NAME, dbms, new H2MillisecondsAddFunction());
+        addFunction(functions, MinuteAddFunction.NAME, dbms, new H2MinuteAddFunction());
+        addFunction(functions, MonthAddFunction.NAME, dbms, new H2MonthAddFunction());
+        addFunction(functions, QuarterAddFunction.NAME, dbms, new H2QuarterAddFunction());
+        addFunction(functions, SecondAddFunction.NAME, dbms, new H2SecondAddFunction());
+        addFunction(functions, WeekAddFunction.NAME, dbms, new H2WeekAddFunction());
+        addFunction(functions, YearAddFunction.NAME, dbms, new H2YearAddFunction());
+        addFunction(functions, "year_diff", dbms, new DefaultYearDiffFunction());
+        addFunction(functions, "month_diff", dbms, new DefaultMonthDiffFunction());
+        addFunction(functions, "day_diff", dbms, new DefaultDayDiffFunction());
+        addFunction(functions, "hour_diff", dbms, new DefaultHourDiffFunction());
+        addFunction(functions, "minute_diff", dbms, new DefaultMinuteDiffFunction());
+        addFunction(functions, "week_diff", dbms, new H2WeekDiffFunction());
+        addFunction(functions, "quarter_diff", dbms, new H2QuarterDiffFunction());
+        addFunction(functions, TruncDayFunction.NAME, dbms, new H2TruncDayFunction());
+        addFunction(functions, TruncHourFunction.NAME, dbms, new H2TruncHourFunction());
+        addFunction(functions, TruncMicrosecondsFunction.NAME, dbms, new H2TruncMicrosecondsFunction());
+        addFunction(functions, TruncMillisecondsFunction.NAME, dbms, new H2TruncMillisecondsFunction());
+        addFunction(functions, TruncMinuteFunction.NAME, dbms, new H2TruncMinuteFunction());
+        addFunction(functions, TruncMonthFunction.NAME, dbms, new H2TruncMonthFunction());
+        addFunction(functions, TruncQuarterFunction.NAME, dbms, new H2TruncQuarterFunction());
+        addFunction(functions, TruncSecondFunction.NAME, dbms, new H2TruncSecondFunction());
+        addFunction(functions, TruncYearFunction.NAME, dbms, new H2TruncYearFunction());
+    }
+
+    private void loadPostgreSQLFunctions(Map<String, JpqlFunctionGroup> functions, String dbms) {
+        addFunction(functions, "group_concat", dbms, new PostgreSQLGroupConcatFunction());
+        addFunction(functions, "window_group_concat", dbms, new PostgreSQLGroupConcatWindowFunction(dbmsDialects.get(dbms)));
+        addFunction(functions, "year_week", dbms, new PostgreSQLYearWeekFunction());
+        addFunction(functions, "dayofyear", dbms, new DayOfYearFunction());
+        addFunction(functions, "dayofweek", dbms, new PostgreSQLDayOfWeekFunction());
+        addFunction(functions, "millisecond", dbms, new PostgreSQLMillisecondFunction());
+        addFunction(functions, "microsecond", dbms, new PostgreSQLMicrosecondFunction());
+        addFunction(functions, "epoch", dbms, new PostgreSQLEpochFunction());
+        addFunction(functions, "epoch_seconds", dbms, new PostgreSQLEpochFunction());
+        addFunction(functions, "epoch_days", dbms, new PostgreSQLEpochDayFunction());
+        addFunction(functions, "epoch_milliseconds", dbms, new PostgreSQLEpochMillisecondFunction());
+        addFunction(functions, "epoch_microseconds", dbms, new PostgreSQLEpochMicrosecondFunction());
+        addFunction(functions, DayAddFunction.NAME, dbms, new PostgreSQLDayAddFunction());
+        addFunction(functions, HourAddFunction.NAME, dbms, new PostgreSQLHourAddFunction());
+        addFunction(functions, MicrosecondsAddFunction.NAME, dbms, new PostgreSQLMicrosecondsAddFunction());
+        addFunction(functions, MillisecondsAddFunction.NAME, dbms, new PostgreSQLMillisecondsAddFunction());
+        addFunction(functions, MinuteAddFunction.NAME, dbms, new PostgreSQLMinuteAddFunction());
+        addFunction(functions, MonthAddFunction.NAME, dbms, new PostgreSQLMonthAddFunction());
+        addFunction(functions, QuarterAddFunction.NAME, dbms, new PostgreSQLQuarterAddFunction());
+        addFunction(functions, SecondAddFunction.NAME, dbms, new PostgreSQLSecondAddFunction());
+        addFunction(functions, WeekAddFunction.NAME, dbms, new PostgreSQLWeekAddFunction());
+        addFunction(functions, YearAddFunction.NAME, dbms, new PostgreSQLYearAddFunction());
+        addFunction(functions, "year_diff", dbms, new PostgreSQLYearDiffFunction());
+        addFunction(functions, "month_diff", dbms, new PostgreSQLMonthDiffFunction());
+        addFunction(functions, "day_diff", dbms, new PostgreSQLDayDiffFunction());
+        addFunction(functions, "hour_diff", dbms, new PostgreSQLHourDiffFunction());
+        addFunction(functions, "minute_diff", dbms, new PostgreSQLMinuteDiffFunction());
+        addFunction(functions, "second_diff", dbms, new PostgreSQLSecondDiffFunction());
+        addFunction(functions, "epoch_diff", dbms, new PostgreSQLSecondDiffFunction());
+        addFunction(functions, "millisecond_diff", dbms, new PostgreSQLMillisecondDiffFunction());
+        addFunction(functions, "microsecond_diff", dbms, new PostgreSQLMicrosecondDiffFunction());
+        addFunction(functions, "week_diff", dbms, new PostgreSQLWeekDiffFunction());
+        addFunction(functions, "quarter_diff", dbms, new PostgreSQLQuarterDiffFunction());
+        addFunction(functions, TruncDayFunction.NAME, dbms, new PostgreSQLTruncDayFunction());
+        addFunction(functions, TruncHourFunction.NAME, dbms, new PostgreSQLTruncHourFunction());
+        addFunction(functions, TruncMicrosecondsFunction.NAME, dbms, new PostgreSQLTruncMicrosecondsFunction());
+        addFunction(functions, TruncMillisecondsFunction.NAME, dbms, new PostgreSQLTruncMillisecondsFunction());
+        addFunction(functions, TruncMinuteFunction.NAME, dbms, new PostgreSQLTruncMinuteFunction());
+        addFunction(functions, TruncMonthFunction.NAME, dbms, new PostgreSQLTruncMonthFunction());
+        addFunction(functions, TruncQuarterFunction.NAME, dbms, new PostgreSQLTruncQuarterFunction());
+        addFunction(functions, TruncSecondFunction.NAME, dbms, new PostgreSQLTruncSecondFunction());
+        addFunction(functions, TruncYearFunction.NAME, dbms, new PostgreSQLTruncYearFunction());
+    }
+
+    private void loadAccessFunctions(Map<String, JpqlFunctionGroup> functions, String dbms) {
+        addFunction(functions, "year", dbms, new AccessYearFunction());
+        addFunction(functions, "month", dbms, new AccessMonthFunction());
+        addFunction(functions, "week", dbms, new AccessIsoWeekFunction());
+        addFunction(functions, "iso_week", dbms, new AccessIsoWeekFunction());
+        addFunction(functions, "quarter", dbms, new AccessQuarterFunction());
+        addFunction(functions, "day", dbms, new AccessDayFunction());
+        addFunction(functions, "dayofyear", dbms, new AccessDayOfYearFunction());
+        addFunction(functions, "dayofweek", dbms, new AccessDayOfWeekFunction());
+        addFunction(functions, "hour", dbms, new AccessHourFunction());
+        addFunction(functions, "minute", dbms, new AccessMinuteFunction());
+        addFunction(functions, "second", dbms, new AccessSecondFunction());
+        addFunction(functions, "year_diff", dbms, new AccessYearDiffFunction());
+        addFunction(functions, "month_diff", dbms, new AccessMonthDiffFunction());
+        addFunction(functions, "day_diff", dbms, new AccessDayDiffFunction());
+        addFunction(functions, "hour_diff", dbms, new AccessHourDiffFunction());
+        addFunction(functions, "minute_diff", dbms, new AccessMinuteDiffFunction());
+        addFunction(functions, "second_diff", dbms, new AccessSecondDiffFunction());
+        addFunction(functions, "epoch_diff", dbms, new AccessSecondDiffFunction());
+        addFunction(functions, "millisecond_diff", dbms, new AccessMillisecondDiffFunction());
+        addFunction(functions, "microsecond_diff", dbms, new AccessMicrosecondDiffFunction());
+        addFunction(functions, "quarter_diff", dbms, new AccessQuarterDiffFunction());
+    }
+
+    private void loadDerbyFunctions(Map<String, JpqlFunctionGroup> functions, String dbms) {
+        addFunction(functions, "year", dbms, new DerbyYearFunction());
+        addFunction(functions, "month", dbms, new DerbyMonthFunction());
+        addFunction(functions, "day", dbms, new DerbyDayFunction());
+        addFunction(functions, "hour", dbms, new DerbyHourFunction());
+        addFunction(functions, "minute", dbms, new DerbyMinuteFunction());
+        addFunction(functions, "second", dbms, new DerbySecondFunction());
+    }
+
+    private void loadSQLiteFunctions(Map<String, JpqlFunctionGroup> functions, String dbms) {
+        addFunction(functions, "week", dbms, new SqliteIsoWeekFunction());
+        addFunction(functions, "iso_week", dbms, new SqliteIsoWeekFunction());
+        addFunction(functions, "quarter", dbms, new SqliteQuarterFunction());
+    }
+
+    private void loadHSQLFunctions(Map<String, JpqlFunctionGroup> functions, String dbms) {
+        addFunction(functions, AbstractCountFunction.FUNCTION_NAME, dbms, new CountTupleEmulationFunction());
+    }
+
+    private void loadNamedTypes() {
+        registerNamedType("Boolean", Boolean.class);
+        registerNamedType("Byte", Byte.class);
+        registerNamedType("Short", Short.class);
+        registerNamedType("Integer", Integer.class);
+        registerNamedType("Long", Long.class);
+        registerNamedType("Float", Float.class);
+        registerNamedType("Double", Double.class);
+
+        registerNamedType("Character", Character.class);
+        registerNamedType("String", String.class);
+
+        registerNamedType("BigInteger", BigInteger.class);
+        registerNamedType("BigDecimal", BigDecimal.class);
+
+        registerNamedType("Time", Time.class);
+        registerNamedType("Date", java.sql.Date.class);
+        registerNamedType("Timestamp", Timestamp.class);
+        registerNamedType("TimeZone", TimeZone.class);
+        registerNamedType("Calendar", Calendar.class);
+        registerNamedType("GregorianCalendar", GregorianCalendar.class);
+
+        registerNamedType("Class", java.lang.Class.class);
+        registerNamedType("Currency", java.util.Currency.class);
+        registerNamedType("Locale", java.util.Locale.class);
+        registerNamedType("UUID", java.util.UUID.class);
+        registerNamedType("URL", java.net.URL.class);
+
+        // Java 8 time types
+        try {
+            registerNamedType("LocalDate", Class.forName("java.time.LocalDate"));
+            registerNamedType("LocalTime", Class.forName("java.time.LocalTime"));
+            registerNamedType("LocalDateTime", Class.forName("java.time.LocalDateTime"));
+            registerNamedType("OffsetTime", Class.forName("java.time.OffsetTime"));
+            registerNamedType("OffsetDateTime", Class.forName("java.time.OffsetDateTime"));
+            registerNamedType("ZonedDateTime", Class.forName("java.time.ZonedDateTime"));
+            registerNamedType("Duration", Class.forName("java.time.Duration"));
+            registerNamedType("Instant", Class.forName("java.time.Instant"));
+            registerNamedType("MonthDay", Class.forName("java.time.MonthDay"));
+            registerNamedType("Year", Class.forName("java.time.Year"));
+            registerNamedType("YearMonth", Class.forName("java.time.YearMonth"));
+            registerNamedType("Period", Class.forName("java.time.Period"));
+            registerNamedType("ZoneId", Class.forName("java.time.ZoneId"));
+            registerNamedType("ZoneOffset", Class.forName("java.time.ZoneOffset"));
+        } catch (ClassNotFoundException ex) {
+            // If they aren't found, we ignore them
+        }
     }
 
     private void loadDbmsDialects() {
@@ -1466,7 +1569,16 @@ public class CriteriaBuilderConfigurationImpl implements CriteriaBuilderConfigur
         properties.put(ConfigurationProperties.COMPATIBLE_MODE, "false");
         properties.put(ConfigurationProperties.RETURNING_CLAUSE_CASE_SENSITIVE, "true");
         properties.put(ConfigurationProperties.EXPRESSION_CACHE_CLASS, ConcurrentHashMapExpressionCache.class.getName());
+        properties.put(ConfigurationProperties.EXPRESSION_CACHE_MAX_SIZE, "4096");
         properties.put(ConfigurationProperties.OPTIMIZED_KEYSET_PREDICATE_RENDERING, "true");
+        properties.put(ConfigurationProperties.QUERY_PLAN_CACHE_ENABLED, "false");
+        properties.put(ConfigurationProperties.QUERY_PLAN_CACHE_MAX_SIZE, "2048");
+        properties.put(ConfigurationProperties.CUSTOM_SQL_CACHE_MAX_SIZE, "1024");
+        properties.put(ConfigurationProperties.KEYSET_CHECKPOINT_INTERVAL, "0");
+        properties.put(ConfigurationProperties.KEYSET_CHECKPOINT_CACHE_CLASS, BoundedKeysetCheckpointCache.class.getName());
+        properties.put(ConfigurationProperties.KEYSET_CHECKPOINT_CACHE_MAX_SIZE, "256");
+        properties.put(ConfigurationProperties.IN_LIST_ARRAY_BINDING, "false");
+        properties.put(ConfigurationProperties.IN_LIST_PADDING, InListPadding.NONE);
     }
 
     private void loadExtendedQuerySupport() {
@@ -1500,8 +1612,7 @@ public class CriteriaBuilderConfigurationImpl implements CriteriaBuilderConfigur
 
     @Override
     public CriteriaBuilderConfiguration registerFunction(JpqlFunctionGroup jpqlFunctionGroup) {
-        String functionName = jpqlFunctionGroup.getName().toLowerCase();
-        functions.put(functionName, jpqlFunctionGroup);
+        putFunction(functions, jpqlFunctionGroup);
         return this;
     }
 
@@ -1512,16 +1623,36 @@ public class CriteriaBuilderConfigurationImpl implements CriteriaBuilderConfigur
     }
 
     public Map<String, JpqlFunctionGroup> getFunctions() {
+        loadFunctionsIfNecessary();
         return functions;
     }
 
+    /**
+     * Returns the functions with only the implementations that are relevant for the given dbms.
+     * The dbms specific implementations of the default functions are only created for the given dbms,
+     * unless the functions were already loaded for all dbms.
+     *
+     * @param dbms The dbms for which to return the functions
+     * @return The functions
+     */
+    Map<String, JpqlFunctionGroup> getFunctions(String dbms) {
+        if (functionsLoaded) {
+            return functions;
+        }
+        Map<String, JpqlFunctionGroup> dbmsFunctions = loadFunctions(dbms);
+        dbmsFunctions.putAll(functions);
+        return dbmsFunctions;
+    }
+
     @Override
     public JpqlFunctionGroup getFunction(String name) {
+        loadFunctionsIfNecessary();
         return functions.get(name.toLowerCase());
     }
 
     @Override
     public Set<String> getFunctionNames() {
+        loadFunctionsIfNecessary();
         return functions.keySet();
     }
 
@@ -16,6 +16,7 @@
 
 package com.blazebit.persistence.impl;
 
+import com.blazebit.persistence.ConfigurationProperties;
 import com.blazebit.persistence.CriteriaBuilder;
 import com.blazebit.persistence.CriteriaBuilderFactory;
 import com.blazebit.persistence.DeleteCriteriaBuilder;
@@ -23,12 +24,15 @@ import com.blazebit.persistence.InsertCriteriaBuilder;
 import com.blazebit.persistence.LeafOngoingFinalSetOperationCriteriaBuilder;
 import com.blazebit.persistence.StartOngoingSetOperationCriteriaBuilder;
 import com.blazebit.persistence.UpdateCriteriaBuilder;
+import com.blazebit.persistence.impl.query.CustomQuerySqlCache;
+import com.blazebit.persistence.parser.expression.BoundedExpressionCache;
 import com.blazebit.persistence.parser.expression.ExpressionCache;
 import com.blazebit.persistence.parser.expression.ExpressionFactory;
 import com.blazebit.persistence.parser.expression.ExpressionFactoryImpl;
 import com.blazebit.persistence.parser.expression.MacroConfiguration;
 import com.blazebit.persistence.parser.expression.SimpleCachingExpressionFactory;
 import com.blazebit.persistence.parser.expression.SubqueryExpressionFactory;
+import com.blazebit.persistence.spi.BootstrapStatistics;
 import com.blazebit.persistence.spi.ConfigurationSource;
 import com.blazebit.persistence.spi.DbmsDialect;
 import com.blazebit.persistence.spi.EntityManagerFactoryIntegrator;
@@ -37,15 +41,23 @@ import com.blazebit.persistence.spi.JpaProvider;
 import com.blazebit.persistence.spi.JpaProviderFactory;
 import com.blazebit.persistence.spi.JpqlFunction;
 import com.blazebit.persistence.spi.JpqlFunctionGroup;
+import com.blazebit.persistence.spi.KeysetCheckpointCache;
 import com.blazebit.persistence.spi.PackageOpener;
+import com.blazebit.persistence.spi.QueryPlanCacheStatistics;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.metamodel.Metamodel;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  *
@@ -54,6 +66,10 @@ import java.util.Map;
  */
 public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
 
+    private static final Logger LOG = Logger.getLogger(CriteriaBuilderFactoryImpl.class.getName());
+    // Below this number of entity types, the overhead of a thread pool outweighs the gain of a parallel metamodel extraction by default
+    private static final int PARALLEL_METAMODEL_EXTRACTION_THRESHOLD = 32;
+
     private final PackageOpener packageOpener;
     private final EntityManagerFactory entityManagerFactory;
     private final EntityMetamodelImpl metamodel;
@@ -65,15 +81,21 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
     private final ExpressionFactory expressionFactory;
     private final ExpressionFactory subqueryExpressionFactory;
     private final QueryConfiguration queryConfiguration;
+    private final QueryPlanCache queryPlanCache;
+    private final CustomQuerySqlCache customQuerySqlCache;
+    private final KeysetCheckpointCache keysetCheckpointCache;
+    private final BootstrapStatistics bootstrapStatistics;
 
     private final MacroConfiguration macroConfiguration;
     private final String configuredDbms;
     private final DbmsDialect configuredDbmsDialect;
     private final Map<String, JpqlFunction> configuredRegisteredFunctions;
+    private final Map<String, String> configuredRegisteredFunctionsNames;
     private final JpaProviderFactory configuredJpaProviderFactory;
     private final JpaProvider jpaProvider;
 
     public CriteriaBuilderFactoryImpl(CriteriaBuilderConfigurationImpl config, EntityManagerFactory entityManagerFactory) {
+        long bootstrapStart = System.nanoTime();
         List<EntityManagerFactoryIntegrator> integrators = config.getEntityManagerIntegrators();
         if (integrators.size() < 1) {
             throw new IllegalArgumentException("No EntityManagerFactoryIntegrator was found on the classpath! Please check if an integration for your JPA provider is visible on the classpath!");
@@ -82,9 +104,13 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
             throw new IllegalArgumentException("Multiple EntityManagerFactoryIntegrator were found on the classpath! Please remove the wrong integrations from the classpath!");
         }
         EntityManagerFactoryIntegrator integrator = integrators.get(0);
-        EntityManagerFactory emf = integrator.registerFunctions(entityManagerFactory, config.getFunctions());
+        String dbms = integrator.getDbms(entityManagerFactory);
+        // The dbms specific implementations of the default functions are only created for the dbms in use, so this also accounts for their creation
+        long functionRegistrationStart = System.nanoTime();
+        Map<String, JpqlFunctionGroup> dbmsFunctions = config.getFunctions(dbms);
+        EntityManagerFactory emf = integrator.registerFunctions(entityManagerFactory, dbmsFunctions);
         Map<String, JpqlFunction> registeredFunctions = new HashMap<>(integrator.getRegisteredFunctions(emf));
-        String dbms = integrator.getDbms(emf);
+        long functionRegistrationTime = elapsedMillis(functionRegistrationStart);
         Map<String, DbmsDialect> dbmsDialects = config.getDbmsDialects();
         DbmsDialect dialect = dbmsDialects.get(dbms);
 
@@ -97,6 +123,7 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
         this.configuredDbms = dbms;
         this.configuredDbmsDialect = dialect;
         this.configuredRegisteredFunctions = registeredFunctions;
+        this.configuredRegisteredFunctionsNames = createRegisteredFunctionsNames(registeredFunctions);
         this.configuredJpaProviderFactory = integrator.getJpaProviderFactory(emf);
 
         this.queryConfiguration = new ImmutableQueryConfiguration((Map<String, String>) (Map<?, ?>) config.getProperties());
@@ -104,32 +131,143 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
         final boolean optimize = queryConfiguration.isExpressionOptimizationEnabled();
 
         this.entityManagerFactory = entityManagerFactory;
-        this.metamodel = new EntityMetamodelImpl(entityManagerFactory, configuredJpaProviderFactory);
+        int metamodelExtractionParallelism = resolveMetamodelExtractionParallelism((Map<String, String>) (Map<?, ?>) config.getProperties(), entityManagerFactory.getMetamodel().getEntities().size());
+        long metamodelExtractionStart = System.nanoTime();
+        String metamodelSnapshotName = config.getProperty(ConfigurationProperties.METAMODEL_SNAPSHOT);
+        EntityMetamodelSnapshot metamodelSnapshot = loadMetamodelSnapshot(metamodelSnapshotName);
+        this.metamodel = new EntityMetamodelImpl(entityManagerFactory, configuredJpaProviderFactory, dbms, metamodelExtractionParallelism, metamodelSnapshot);
+        long metamodelExtractionTime = elapsedMillis(metamodelExtractionStart);
+        if (metamodelSnapshot != null && !metamodel.isSnapshotUsed()) {
+            LOG.warning("The entity metamodel snapshot '" + metamodelSnapshotName + "' doesn't match the entity metamodel and is ignored. Please regenerate the snapshot!");
+        }
         this.jpaProvider = new CachingJpaProvider(metamodel);
 
         this.transientEntityParameterTransformerFactory = new TransientEntityAssociationParameterTransformerFactory(metamodel, new AssociationToIdParameterTransformer(jpaProvider));
         this.extendedQuerySupport = config.getExtendedQuerySupport();
-        this.functions = resolveFunctions(config.getFunctions(), configuredRegisteredFunctions);
+        this.functions = resolveFunctions(dbmsFunctions, configuredRegisteredFunctions);
         this.namedTypes = resolveNamedTypes(config.getNamedTypes());
+        this.queryPlanCache = new QueryPlanCache(queryConfiguration.getQueryPlanCacheMaxSize());
+        this.customQuerySqlCache = new CustomQuerySqlCache(queryConfiguration.getCustomSqlCacheMaxSize());
+        this.keysetCheckpointCache = createKeysetCheckpointCache(queryConfiguration.getKeysetCheckpointCacheClass(), queryConfiguration.getKeysetCheckpointInterval(), queryConfiguration.getKeysetCheckpointCacheMaxSize());
 
         ExpressionFactory originalExpressionFactory = new ExpressionFactoryImpl(functions, metamodel.getEntityTypes(), metamodel.getEnumTypes(), !compatibleMode, optimize);
-        this.expressionCache = createCache(queryConfiguration.getExpressionCacheClass());
+        this.expressionCache = createCache(queryConfiguration.getExpressionCacheClass(), queryConfiguration.getExpressionCacheMaxSize(), (Map<String, String>) (Map<?, ?>) config.getProperties());
+        // Subquery expressions are parsed differently, so they need a separate cache that is bounded the same way
+        ExpressionCache subqueryExpressionCache = createCache(queryConfiguration.getExpressionCacheClass(), queryConfiguration.getExpressionCacheMaxSize(), (Map<String, String>) (Map<?, ?>) config.getProperties());
         ExpressionFactory cachingExpressionFactory = new SimpleCachingExpressionFactory(originalExpressionFactory, expressionCache);
-        ExpressionFactory cachingSubqueryExpressionFactory = new SimpleCachingExpressionFactory(new SubqueryExpressionFactory(functions, metamodel.getEntityTypes(), metamodel.getEnumTypes(), !compatibleMode, optimize, originalExpressionFactory));
+        ExpressionFactory cachingSubqueryExpressionFactory = new SimpleCachingExpressionFactory(new SubqueryExpressionFactory(functions, metamodel.getEntityTypes(), metamodel.getEnumTypes(), !compatibleMode, optimize, originalExpressionFactory), subqueryExpressionCache);
         this.macroConfiguration = MacroConfiguration.of(JpqlMacroAdapter.createMacros(config.getMacros(), cachingExpressionFactory));
         JpqlMacroStorage macroStorage = new JpqlMacroStorage(null, macroConfiguration);
         this.expressionFactory = new JpqlMacroAwareExpressionFactory(cachingExpressionFactory, macroStorage);
         this.subqueryExpressionFactory = new JpqlMacroAwareExpressionFactory(cachingSubqueryExpressionFactory, macroStorage);
+        this.bootstrapStatistics = new BootstrapStatisticsImpl(
+                functionRegistrationTime,
+                metamodelExtractionTime,
+                elapsedMillis(bootstrapStart),
+                metamodel.getManagedTypes().size(),
+                metamodelExtractionParallelism,
+                metamodel.isSnapshotUsed()
+        );
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Created criteria builder factory: " + bootstrapStatistics);
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private static EntityMetamodelSnapshot loadMetamodelSnapshot(String resourceName) {
+        if (resourceName == null || resourceName.isEmpty()) {
+            return null;
+        }
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = CriteriaBuilderFactoryImpl.class.getClassLoader();
+        }
+        InputStream inputStream = classLoader.getResourceAsStream(resourceName);
+        if (inputStream == null) {
+            LOG.warning("Could not find the entity metamodel snapshot '" + resourceName + "'. The entity metamodel is extracted from the JPA provider instead.");
+            return null;
+        }
+        try {
+            return EntityMetamodelSnapshot.read(new BufferedInputStream(inputStream));
+        } catch (IOException ex) {
+            LOG.log(Level.WARNING, "Could not read the entity metamodel snapshot '" + resourceName + "'. The entity metamodel is extracted from the JPA provider instead.", ex);
+            return null;
+        } finally {
+            try {
+                inputStream.close();
+            } catch (IOException ex) {
+                // Ignore
+            }
+        }
+    }
+
+    private static int resolveMetamodelExtractionParallelism(Map<String, String> properties, int entityTypeCount) {
+        String value = properties.get(ConfigurationProperties.METAMODEL_EXTRACTION_PARALLELISM);
+        if (value == null || value.isEmpty()) {
+            if (entityTypeCount < PARALLEL_METAMODEL_EXTRACTION_THRESHOLD) {
+                return 1;
+            }
+            return Runtime.getRuntime().availableProcessors();
+        }
+        int parallelism;
+        try {
+            parallelism = Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Illegal value '" + value + "' for integer property '" + ConfigurationProperties.METAMODEL_EXTRACTION_PARALLELISM + "'", ex);
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Illegal value '" + value + "' for property '" + ConfigurationProperties.METAMODEL_EXTRACTION_PARALLELISM + "', must be a positive integer");
+        }
+        return parallelism;
     }
 
-    private ExpressionCache createCache(String className) {
+    private ExpressionCache createCache(String className, int maxSize, Map<String, String> properties) {
         try {
-            return (ExpressionCache) Class.forName(className).newInstance();
+            Class<?> cacheClass = Class.forName(className);
+            if (BoundedExpressionCache.class.isAssignableFrom(cacheClass)) {
+                return (ExpressionCache) cacheClass.getConstructor(int.class, Map.class).newInstance(maxSize, resolveExpressionCacheMaxSizes(properties));
+            }
+            return (ExpressionCache) cacheClass.newInstance();
         } catch (Exception ex) {
             throw new IllegalArgumentException("Could not instantiate expression cache: " + className, ex);
         }
     }
 
+    private KeysetCheckpointCache createKeysetCheckpointCache(String className, int interval, int maxSize) {
+        if (interval == 0) {
+            return null;
+        }
+        try {
+            Class<?> cacheClass = Class.forName(className);
+            try {
+                return (KeysetCheckpointCache) cacheClass.getConstructor(int.class, int.class).newInstance(interval, maxSize);
+            } catch (NoSuchMethodException ex) {
+                return (KeysetCheckpointCache) cacheClass.newInstance();
+            }
+        } catch (Exception ex) {
+            throw new IllegalArgumentException("Could not instantiate keyset checkpoint cache: " + className, ex);
+        }
+    }
+
+    private static Map<String, Integer> resolveExpressionCacheMaxSizes(Map<String, String> properties) {
+        String prefix = ConfigurationProperties.EXPRESSION_CACHE_MAX_SIZE + ".";
+        Map<String, Integer> maxSizes = new HashMap<>();
+        for (Map.Entry<String, String> entry : properties.entrySet()) {
+            if (entry.getKey().startsWith(prefix)) {
+                String cacheName = entry.getKey().substring(prefix.length());
+                try {
+                    maxSizes.put(cacheName, Integer.parseInt(entry.getValue()));
+                } catch (NumberFormatException ex) {
+                    throw new IllegalArgumentException("Illegal value '" + entry.getValue() + "' for integer property '" + entry.getKey() + "'", ex);
+                }
+            }
+        }
+        return maxSizes;
+    }
+
     private static Map<String, Boolean> resolveFunctions(Map<String, JpqlFunctionGroup> functions, Map<String, JpqlFunction> configuredFunctions) {
         Map<String, Boolean> map = new HashMap<>();
         for (Map.Entry<String, JpqlFunctionGroup> entry : functions.entrySet()) {
@@ -175,6 +313,14 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
         return transientEntityParameterTransformerFactory;
     }
 
+    public QueryPlanCache getQueryPlanCache() {
+        return queryPlanCache;
+    }
+
+    public KeysetCheckpointCache getKeysetCheckpointCache() {
+        return keysetCheckpointCache;
+    }
+
     public MacroConfiguration getMacroConfiguration() {
         return macroConfiguration;
     }
@@ -219,7 +365,16 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
     }
     
     public MainQuery createMainQuery(EntityManager entityManager) {
-        return MainQuery.create(this, entityManager, configuredDbms, configuredDbmsDialect, configuredRegisteredFunctions);
+        return MainQuery.create(this, entityManager, configuredDbms, configuredDbmsDialect, configuredRegisteredFunctions, configuredRegisteredFunctionsNames);
+    }
+
+    private static Map<String, String> createRegisteredFunctionsNames(Map<String, JpqlFunction> registeredFunctions) {
+        // Lower case function name index that is shared by all query generators
+        Map<String, String> registeredFunctionsNames = new HashMap<>(registeredFunctions.size());
+        for (String functionName : registeredFunctions.keySet()) {
+            registeredFunctionsNames.put(functionName.toLowerCase(), functionName);
+        }
+        return Collections.unmodifiableMap(registeredFunctionsNames);
     }
 
     @Override
@@ -335,8 +490,16 @@ public class CriteriaBuilderFactoryImpl implements CriteriaBuilderFactory {
             return (T) configuredJpaProviderFactory;
         } else if (JpaProvider.class.equals(serviceClass)) {
             return (T) jpaProvider;
-        } else if (ExpressionCache.class.equals(serviceClass)) {
+        } else if (ExpressionCache.class.equals(serviceClass) || ExpressionCache.class.isAssignableFrom(serviceClass) && serviceClass.isInstance(expressionCache)) {
             return (T) expressionCache;
+        } else if (QueryPlanCacheStatistics.class.equals(serviceClass)) {
+            return (T) queryPlanCache;
+        } else if (CustomQuerySqlCache.class.equals(serviceClass)) {
+            return (T) customQuerySqlCache;
+        } else if (KeysetCheckpointCache.class.equals(serviceClass)) {
+            return (T) keysetCheckpointCache;
+        } else if (BootstrapStatistics.class.equals(serviceClass)) {
+            return (T) bootstrapStatistics;
         } else if (Metamodel.class.isAssignableFrom(serviceClass)) {
             return (T) metamodel;
         } else if (EntityManagerFactory.class.equals(serviceClass)) {
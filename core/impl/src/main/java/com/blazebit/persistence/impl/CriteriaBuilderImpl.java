@@ -20,6 +20,7 @@ import com.blazebit.persistence.CriteriaBuilder;
 import com.blazebit.persistence.LeafOngoingFinalSetOperationCriteriaBuilder;
 import com.blazebit.persistence.LeafOngoingSetOperationCriteriaBuilder;
 import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.QueryTemplate;
 import com.blazebit.persistence.SelectObjectBuilder;
 import com.blazebit.persistence.StartOngoingSetOperationCriteriaBuilder;
 import com.blazebit.persistence.spi.SetOperationType;
@@ -78,6 +79,11 @@ public class CriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T, Criteria
         return cachedExternalQueryRootCountQueryString;
     }
 
+    @Override
+    public QueryTemplate<T> toTemplate() {
+        return createQueryTemplate();
+    }
+
     @Override
     public <Y> CriteriaBuilder<Y> copy(Class<Y> resultClass) {
         return (CriteriaBuilder<Y>) super.copy(resultClass);
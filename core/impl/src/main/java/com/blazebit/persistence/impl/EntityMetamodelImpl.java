@@ -48,12 +48,18 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * This is a wrapper around the JPA {@link Metamodel} allows additionally efficient access by other attributes than a Class.
@@ -63,6 +69,8 @@ import java.util.concurrent.ConcurrentMap;
  */
 public class EntityMetamodelImpl implements EntityMetamodel {
 
+    private final EntityManagerFactory emf;
+    private final String dbms;
     private final Metamodel delegate;
     private final JpaProvider jpaProvider;
     private final Map<String, EntityType<?>> entityNameMap;
@@ -72,9 +80,23 @@ public class EntityMetamodelImpl implements EntityMetamodel {
     private final ConcurrentMap<Class<?>, Type<?>> basicTypeMap = new ConcurrentHashMap<>();
     private final Map<Class<?>, ManagedType<?>> cteMap;
     private final Map<Object, ExtendedManagedTypeImpl<?>> extendedManagedTypes;
+    private final boolean snapshotUsed;
+    // Only set during the extraction of the metamodel
+    private EntityMetamodelSnapshot snapshot;
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
     public EntityMetamodelImpl(EntityManagerFactory emf, JpaProviderFactory jpaProviderFactory) {
+        this(emf, jpaProviderFactory, 1);
+    }
+
+    public EntityMetamodelImpl(EntityManagerFactory emf, JpaProviderFactory jpaProviderFactory, int parallelism) {
+        this(emf, jpaProviderFactory, null, parallelism, null);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public EntityMetamodelImpl(EntityManagerFactory emf, JpaProviderFactory jpaProviderFactory, String dbms, int parallelism, EntityMetamodelSnapshot snapshot) {
+        this.emf = emf;
+        this.dbms = dbms;
         this.delegate = emf.getMetamodel();
         Set<ManagedType<?>> managedTypes = delegate.getManagedTypes();
         Set<EntityType<?>> originalEntityTypes = delegate.getEntities();
@@ -91,6 +113,14 @@ public class EntityMetamodelImpl implements EntityMetamodel {
             em.close();
         }
 
+        // A snapshot that was created for a different metamodel is ignored
+        if (snapshot != null && snapshot.matches(emf, jpaProvider, dbms)) {
+            this.snapshot = snapshot;
+            this.snapshotUsed = true;
+        } else {
+            this.snapshotUsed = false;
+        }
+
         Set<Class<?>> seenTypesForEnumResolving = new HashSet<>();
         Map<String, TemporaryExtendedManagedType> temporaryExtendedManagedTypes = new HashMap<>();
 
@@ -107,15 +137,11 @@ public class EntityMetamodelImpl implements EntityMetamodel {
                     cteToType.put(e.getJavaType(), e);
                 }
             }
+        }
 
-            Set<Attribute<?, ?>> attributes = (Set<Attribute<?, ?>>) (Set) e.getAttributes();
-            Map<String, AttributeEntry<?, ?>> attributeMap = new TreeMap<>();
-            TemporaryExtendedManagedType extendedManagedType = new TemporaryExtendedManagedType(e, attributeMap);
-            temporaryExtendedManagedTypes.put(JpaMetamodelUtils.getTypeName(e), extendedManagedType);
-            if (e.getJavaType() != null) {
-                temporaryExtendedManagedTypes.put(e.getJavaType().getName(), extendedManagedType);
-            }
-            collectColumnNames(e, attributeMap, null, null, null, e, temporaryExtendedManagedTypes, seenTypesForEnumResolving, enumTypes);
+        // Entity types are extracted independently and merged in the iteration order of the entity types to get a deterministic result
+        for (EntityTypeExtraction extraction : extractEntityTypes(originalEntityTypes, seenTypesForEnumResolving, parallelism)) {
+            extraction.mergeInto(temporaryExtendedManagedTypes, enumTypes);
         }
 
         for (ManagedType<?> t : managedTypes) {
@@ -161,6 +187,89 @@ public class EntityMetamodelImpl implements EntityMetamodel {
         this.classMap = Collections.unmodifiableMap(classToType);
         this.cteMap = Collections.unmodifiableMap(cteToType);
         this.extendedManagedTypes = Collections.unmodifiableMap(extendedManagedTypes);
+        this.snapshot = null;
+    }
+
+    /**
+     * Returns whether the attributes were initialized from a snapshot.
+     *
+     * @return true if a snapshot was used, false otherwise
+     */
+    public boolean isSnapshotUsed() {
+        return snapshotUsed;
+    }
+
+    /**
+     * Creates a snapshot of the information about the attributes of this metamodel that is determined through the JPA provider.
+     *
+     * @return The snapshot
+     */
+    public EntityMetamodelSnapshot createSnapshot() {
+        Map<String, EntityMetamodelSnapshot.AttributeSnapshot> attributes = new TreeMap<>();
+        for (ExtendedManagedTypeImpl<?> managedType : new HashSet<>(extendedManagedTypes.values())) {
+            for (AttributeEntry<?, ?> attributeEntry : managedType.attributes.values()) {
+                // Attributes without owner don't need any information from the JPA provider
+                if (attributeEntry.ownerType == null) {
+                    continue;
+                }
+                attributes.put(EntityMetamodelSnapshot.key(attributeEntry.ownerType, attributeEntry.elementCollectionPath, attributeEntry.attributePathString), attributeEntry.toSnapshot());
+            }
+        }
+        return new EntityMetamodelSnapshot(EntityMetamodelSnapshot.computeFingerprint(emf, jpaProvider, dbms), attributes);
+    }
+
+    private List<EntityTypeExtraction> extractEntityTypes(Set<EntityType<?>> entityTypes, final Set<Class<?>> seenTypesForEnumResolving, int parallelism) {
+        List<EntityTypeExtraction> extractions = new ArrayList<>(entityTypes.size());
+        if (parallelism < 2 || entityTypes.size() < 2) {
+            for (EntityType<?> e : entityTypes) {
+                extractions.add(extractEntityType(e, seenTypesForEnumResolving));
+            }
+            return extractions;
+        }
+
+        List<Callable<EntityTypeExtraction>> tasks = new ArrayList<>(entityTypes.size());
+        for (final EntityType<?> e : entityTypes) {
+            tasks.add(new Callable<EntityTypeExtraction>() {
+                @Override
+                public EntityTypeExtraction call() {
+                    return extractEntityType(e, new HashSet<>(seenTypesForEnumResolving));
+                }
+            });
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (Future<EntityTypeExtraction> future : pool.invokeAll(tasks)) {
+                extractions.add(future.get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while extracting the entity metamodel", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+            throw new IllegalStateException("Could not extract the entity metamodel", ex.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return extractions;
+    }
+
+    private EntityTypeExtraction extractEntityType(EntityType<?> e, Set<Class<?>> seenTypesForEnumResolving) {
+        // All entity types are already seen, so enum discovery doesn't recurse into other entity types
+        EntityTypeExtraction extraction = new EntityTypeExtraction();
+        Map<String, AttributeEntry<?, ?>> attributeMap = new TreeMap<>();
+        TemporaryExtendedManagedType extendedManagedType = new TemporaryExtendedManagedType(e, attributeMap);
+        extraction.managedTypes.put(JpaMetamodelUtils.getTypeName(e), extendedManagedType);
+        if (e.getJavaType() != null) {
+            extraction.managedTypes.put(e.getJavaType().getName(), extendedManagedType);
+        }
+        collectColumnNames(e, attributeMap, null, null, null, e, extraction.managedTypes, seenTypesForEnumResolving, extraction.enumTypes);
+        return extraction;
     }
 
     private Map<String, AttributeEntry<?,?>> initAttributes(Map<String, AttributeEntry<?,?>> attributes) {
@@ -322,7 +431,7 @@ public class EntityMetamodelImpl implements EntityMetamodel {
                         }
                     }
                     // If this attribute is part of an element collection, we assume there are no inverse one-to-ones
-                } else if (isAssociation(attribute) && (elementCollectionPath != null || !jpaProvider.isForeignJoinColumn(e, attributeName))) {
+                } else if (isAssociation(attribute) && (elementCollectionPath != null || !isForeignJoinColumn(e, attributeName))) {
                     // We create an attribute entry for the id attribute of *ToOne relations if the columns reside on the Many side
                     collectIdColumns(e, attributeMap, attributeName, newParents, elementCollectionPath, fieldType, temporaryExtendedManagedTypes, seenTypesForEnumResolving, enumTypes);
                     if (e != type) {
@@ -331,7 +440,7 @@ public class EntityMetamodelImpl implements EntityMetamodel {
                             if (value.getAttributePathString().startsWith(prefix)) {
                                 String idPath = value.getAttributePathString().substring(parent.length() + 1);
                                 ArrayList<Attribute<?, ?>> idParents = new ArrayList<>(value.attributePath.subList(0, value.attributePath.size()));
-                                AttributeEntry attributeEntry = new AttributeEntry(jpaProvider, type, value.attribute, idPath, value.elementClass, idParents, null);
+                                AttributeEntry attributeEntry = createAttributeEntry(type, value.attribute, idPath, value.elementClass, idParents, null);
                                 managedTypeAttributes.put(idPath, attributeEntry);
                             }
                         }
@@ -344,11 +453,11 @@ public class EntityMetamodelImpl implements EntityMetamodel {
             if (e == null) {
                 // Never overwrite an existing attribute with one that has no owner
                 if (!managedTypeAttributes.containsKey(attribute.getName())) {
-                    attributeEntry = new AttributeEntry(jpaProvider, type, attribute, attributeName, fieldType, newParents, elementCollectionPath);
+                    attributeEntry = createAttributeEntry(type, attribute, attributeName, fieldType, newParents, elementCollectionPath);
                     managedTypeAttributes.put(attribute.getName(), attributeEntry);
                 }
             } else {
-                attributeEntry = new AttributeEntry(jpaProvider, e, attribute, attributeName, fieldType, newParents, elementCollectionPath);
+                attributeEntry = createAttributeEntry(e, attribute, attributeName, fieldType, newParents, elementCollectionPath);
                 attributeMap.put(attributeName, attributeEntry);
                 managedTypeAttributes.put(attribute.getName(), attributeEntry);
             }
@@ -369,7 +478,7 @@ public class EntityMetamodelImpl implements EntityMetamodel {
 
                         subParents.add(subAttribute);
 
-                        AttributeEntry subAttributeEntry = new AttributeEntry(jpaProvider, e, subAttribute, subAttributeName, fieldType, new ArrayList<>(subParents), attributeName);
+                        AttributeEntry subAttributeEntry = createAttributeEntry(e, subAttribute, subAttributeName, fieldType, new ArrayList<>(subParents), attributeName);
                         if (e != null) {
                             attributeMap.put(subAttributeName, subAttributeEntry);
                         }
@@ -405,7 +514,7 @@ public class EntityMetamodelImpl implements EntityMetamodel {
             ArrayList<Attribute<?, ?>> idParents = new ArrayList<>(newParents.size() + 1);
             idParents.addAll(newParents);
             idParents.add(idAttribute);
-            AttributeEntry attributeEntry = new AttributeEntry(jpaProvider, e, idAttribute, idPath, idType, idParents, elementCollectionPath);
+            AttributeEntry attributeEntry = createAttributeEntry(e, idAttribute, idPath, idType, idParents, elementCollectionPath);
             attributeMap.put(idPath, attributeEntry);
             if (isAssociation(idAttribute)) {
                 collectIdColumns(e, attributeMap, idPath, newParents, elementCollectionPath, idType, temporaryExtendedManagedTypes, seenTypesForEnumResolving, enumTypes);
@@ -413,7 +522,28 @@ public class EntityMetamodelImpl implements EntityMetamodel {
         }
     }
 
-    private boolean shouldReplaceOwner(String attributeName, String existingAttributeName) {
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private AttributeEntry<?, ?> createAttributeEntry(ManagedType<?> ownerType, Attribute<?, ?> attribute, String attributeName, Class<?> fieldType, List<Attribute<?, ?>> parents, String elementCollectionPath) {
+        if (snapshot != null && ownerType != null) {
+            EntityMetamodelSnapshot.AttributeSnapshot attributeSnapshot = snapshot.getAttribute(ownerType, elementCollectionPath, attributeName);
+            if (attributeSnapshot != null) {
+                return new AttributeEntry(jpaProvider, ownerType, attribute, attributeName, fieldType, parents, elementCollectionPath, attributeSnapshot);
+            }
+        }
+        return new AttributeEntry(jpaProvider, ownerType, attribute, attributeName, fieldType, parents, elementCollectionPath);
+    }
+
+    private boolean isForeignJoinColumn(EntityType<?> e, String attributeName) {
+        if (snapshot != null) {
+            EntityMetamodelSnapshot.AttributeSnapshot attributeSnapshot = snapshot.getAttribute(e, null, attributeName);
+            if (attributeSnapshot != null) {
+                return attributeSnapshot.isForeignJoinColumn;
+            }
+        }
+        return jpaProvider.isForeignJoinColumn(e, attributeName);
+    }
+
+    private static boolean shouldReplaceOwner(String attributeName, String existingAttributeName) {
         // We prefer less nested attributes, after that we prefer attributes with smaller name lengths
         int dotCount = 0;
         for (int i = 0; i < attributeName.length(); i++) {
@@ -591,6 +721,39 @@ public class EntityMetamodelImpl implements EntityMetamodel {
         return extendedManagedType;
     }
 
+    /**
+     * @author Christian Beikov
+     * @since 1.2.0
+     */
+    private static final class EntityTypeExtraction {
+        // Contains the extended managed type of the entity type and of the embeddable types reachable from it
+        private final Map<String, TemporaryExtendedManagedType> managedTypes = new LinkedHashMap<>();
+        private final Map<String, Class<Enum<?>>> enumTypes = new HashMap<>();
+
+        private void mergeInto(Map<String, TemporaryExtendedManagedType> temporaryExtendedManagedTypes, Map<String, Class<Enum<?>>> allEnumTypes) {
+            allEnumTypes.putAll(enumTypes);
+            for (TemporaryExtendedManagedType managedType : new LinkedHashSet<>(managedTypes.values())) {
+                String typeName = JpaMetamodelUtils.getTypeName(managedType.managedType);
+                TemporaryExtendedManagedType existing = temporaryExtendedManagedTypes.get(typeName);
+                if (existing == null) {
+                    temporaryExtendedManagedTypes.put(typeName, managedType);
+                    if (managedType.managedType.getJavaType() != null) {
+                        temporaryExtendedManagedTypes.put(managedType.managedType.getJavaType().getName(), managedType);
+                    }
+                } else {
+                    // An embeddable type reachable from multiple entity types gets the same state as if the entity types were extracted one after another
+                    existing.attributes.putAll(managedType.attributes);
+                    if (managedType.singularOwnerType != null && (existing.singularOwnerType == null || shouldReplaceOwner(managedType.singularOwnerType.getValue(), existing.singularOwnerType.getValue()))) {
+                        existing.singularOwnerType = managedType.singularOwnerType;
+                    }
+                    if (existing.pluralOwnerType == null) {
+                        existing.pluralOwnerType = managedType.pluralOwnerType;
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * @author Christian Beikov
      * @since 1.2.0
@@ -734,6 +897,7 @@ public class EntityMetamodelImpl implements EntityMetamodel {
         private final Attribute<X, Y> attribute;
         private final List<Attribute<?, ?>> attributePath;
         private final String attributePathString;
+        private final String elementCollectionPath;
         private final Class<Y> elementClass;
         private final boolean hasCascadeDeleteCycle;
         private final boolean isForeignJoinColumn;
@@ -756,6 +920,7 @@ public class EntityMetamodelImpl implements EntityMetamodel {
 
             this.attributePath = Collections.unmodifiableList(parents);
             this.attributePathString = attributeName;
+            this.elementCollectionPath = elementCollectionPath;
             this.elementClass = fieldType;
             if (elementCollectionPath == null) {
                 this.isOrphanRemoval = jpaProvider.isOrphanRemoval(ownerType, attributeName);
@@ -804,12 +969,34 @@ public class EntityMetamodelImpl implements EntityMetamodel {
             this.joinTypeIndexedRequiresTreatFilter = requiresTreatFilter;
         }
 
+        public AttributeEntry(JpaProvider jpaProvider, ManagedType<X> ownerType, Attribute<X, Y> attribute, String attributeName, Class<Y> fieldType, List<Attribute<?, ?>> parents, String elementCollectionPath, EntityMetamodelSnapshot.AttributeSnapshot snapshot) {
+            this.jpaProvider = jpaProvider;
+            this.ownerType = ownerType;
+            this.attribute = attribute;
+            this.attributePath = Collections.unmodifiableList(parents);
+            this.attributePathString = attributeName;
+            this.elementCollectionPath = elementCollectionPath;
+            this.elementClass = fieldType;
+            this.hasCascadeDeleteCycle = false;
+            this.isForeignJoinColumn = snapshot.isForeignJoinColumn;
+            this.isColumnShared = snapshot.isColumnShared;
+            this.isBag = snapshot.isBag;
+            this.isOrphanRemoval = snapshot.isOrphanRemoval;
+            this.isDeleteCascaded = snapshot.isDeleteCascaded;
+            this.joinTypeIndexedRequiresTreatFilter = snapshot.joinTypeIndexedRequiresTreatFilter;
+            this.mappedBy = snapshot.mappedBy;
+            this.joinTable = snapshot.joinTable;
+            this.columnNames = snapshot.columnNames;
+            this.columnTypes = snapshot.columnTypes;
+        }
+
         private AttributeEntry(AttributeEntry<X, Y> original, boolean hasCascadeDeleteCycle) {
             this.jpaProvider = original.jpaProvider;
             this.ownerType = original.ownerType;
             this.attribute = original.attribute;
             this.attributePath = original.attributePath;
             this.attributePathString = original.attributePathString;
+            this.elementCollectionPath = original.elementCollectionPath;
             this.elementClass = original.elementClass;
             this.hasCascadeDeleteCycle = hasCascadeDeleteCycle;
             this.isForeignJoinColumn = original.isForeignJoinColumn;
@@ -930,6 +1117,10 @@ public class EntityMetamodelImpl implements EntityMetamodel {
             }
         }
 
+        public EntityMetamodelSnapshot.AttributeSnapshot toSnapshot() {
+            return new EntityMetamodelSnapshot.AttributeSnapshot(isOrphanRemoval, isDeleteCascaded, isForeignJoinColumn, isColumnShared, isBag, joinTypeIndexedRequiresTreatFilter, mappedBy, joinTable, columnNames, columnTypes);
+        }
+
         public AttributeEntry<X, Y> withCascadingDeleteCycle() {
             if (hasCascadeDeleteCycle) {
                 return this;
@@ -0,0 +1,530 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.JoinType;
+import com.blazebit.persistence.parser.util.JpaMetamodelUtils;
+import com.blazebit.persistence.spi.JoinTable;
+import com.blazebit.persistence.spi.JpaProvider;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.Metamodel;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A snapshot of the information about the attributes of an entity metamodel that has to be determined through the JPA provider.
+ * The snapshot is written at build time and loaded when bootstrapping a criteria builder factory, so that the JPA provider is only asked
+ * for the information of attributes that are not contained in the snapshot.
+ *
+ * A snapshot carries a fingerprint of the JPA metamodel, the JPA provider, the dbms, the dialect, naming and quoting properties of the JPA provider,
+ * the class files of the managed types and the mapping files.
+ * A snapshot is only used if the fingerprint matches the fingerprint of the metamodel it is loaded for.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public final class EntityMetamodelSnapshot {
+
+    private static final int MAGIC = 0x42504D53;
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 8192;
+    private static final String PERSISTENCE_XML = "META-INF/persistence.xml";
+    private static final String DEFAULT_MAPPING_FILE = "META-INF/orm.xml";
+    private static final Pattern MAPPING_FILE_PATTERN = Pattern.compile("<mapping-file>\\s*([^<\\s]+)\\s*</mapping-file>");
+    // Properties of the JPA providers that influence the table and column names or the quoting of identifiers
+    private static final Set<String> MAPPING_PROPERTIES = new HashSet<>(Arrays.asList(
+            "hibernate.physical_naming_strategy",
+            "hibernate.implicit_naming_strategy",
+            "hibernate.ejb.naming_strategy",
+            "hibernate.globally_quoted_identifiers",
+            "hibernate.globally_quoted_identifiers_skip_column_definitions",
+            "hibernate.auto_quote_keyword",
+            "hibernate.default_schema",
+            "hibernate.default_catalog",
+            "eclipselink.jpa.uppercase-column-names",
+            "eclipselink.session.customizer",
+            "datanucleus.identifierFactory",
+            "datanucleus.identifier.case",
+            "openjpa.jdbc.MappingDefaults"
+    ));
+    private static final Comparator<ManagedType<?>> MANAGED_TYPE_COMPARATOR = new Comparator<ManagedType<?>>() {
+        @Override
+        public int compare(ManagedType<?> o1, ManagedType<?> o2) {
+            return JpaMetamodelUtils.getTypeName(o1).compareTo(JpaMetamodelUtils.getTypeName(o2));
+        }
+    };
+    private static final Comparator<Attribute<?, ?>> ATTRIBUTE_COMPARATOR = new Comparator<Attribute<?, ?>>() {
+        @Override
+        public int compare(Attribute<?, ?> o1, Attribute<?, ?> o2) {
+            return o1.getName().compareTo(o2.getName());
+        }
+    };
+
+    private final byte[] fingerprint;
+    private final Map<String, AttributeSnapshot> attributes;
+
+    EntityMetamodelSnapshot(byte[] fingerprint, Map<String, AttributeSnapshot> attributes) {
+        this.fingerprint = fingerprint;
+        this.attributes = attributes;
+    }
+
+    /**
+     * Reads a snapshot that was written by {@link #write(OutputStream)}.
+     *
+     * @param inputStream The input stream to read from
+     * @return The snapshot
+     * @throws IOException When the input stream can't be read or doesn't contain a snapshot
+     */
+    public static EntityMetamodelSnapshot read(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("The input is not an entity metamodel snapshot");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported entity metamodel snapshot version " + version + ", expected version " + VERSION);
+        }
+        byte[] fingerprint = new byte[in.readInt()];
+        in.readFully(fingerprint);
+        int size = in.readInt();
+        Map<String, AttributeSnapshot> attributes = new HashMap<>(size);
+        for (int i = 0; i < size; i++) {
+            String key = in.readUTF();
+            attributes.put(key, AttributeSnapshot.read(in));
+        }
+        return new EntityMetamodelSnapshot(fingerprint, attributes);
+    }
+
+    /**
+     * Writes this snapshot in a compact binary format to the given output stream.
+     *
+     * @param outputStream The output stream to write to
+     * @throws IOException When writing to the output stream fails
+     */
+    public void write(OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(fingerprint.length);
+        out.write(fingerprint);
+        out.writeInt(attributes.size());
+        for (Map.Entry<String, AttributeSnapshot> entry : attributes.entrySet()) {
+            out.writeUTF(entry.getKey());
+            entry.getValue().write(out);
+        }
+        out.flush();
+    }
+
+    /**
+     * Returns whether this snapshot was created for the given entity manager factory, JPA provider and dbms.
+     *
+     * @param emf The entity manager factory
+     * @param jpaProvider The JPA provider
+     * @param dbms The dbms
+     * @return true if the snapshot matches, false otherwise
+     */
+    public boolean matches(EntityManagerFactory emf, JpaProvider jpaProvider, String dbms) {
+        return Arrays.equals(fingerprint, computeFingerprint(emf, jpaProvider, dbms));
+    }
+
+    /**
+     * Returns the number of attributes contained in this snapshot.
+     *
+     * @return The number of attributes
+     */
+    public int size() {
+        return attributes.size();
+    }
+
+    AttributeSnapshot getAttribute(ManagedType<?> ownerType, String elementCollectionPath, String attributeName) {
+        return attributes.get(key(ownerType, elementCollectionPath, attributeName));
+    }
+
+    static String key(ManagedType<?> ownerType, String elementCollectionPath, String attributeName) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(JpaMetamodelUtils.getTypeName(ownerType)).append('#');
+        if (elementCollectionPath != null) {
+            sb.append(elementCollectionPath);
+        }
+        sb.append('#').append(attributeName);
+        return sb.toString();
+    }
+
+    static byte[] computeFingerprint(EntityManagerFactory emf, JpaProvider jpaProvider, String dbms) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not supported", ex);
+        }
+        update(digest, jpaProvider.getClass().getName());
+        // The column types are determined through the SQL dialect of the JPA provider
+        update(digest, dbms);
+        for (Map.Entry<String, String> entry : getMappingProperties(emf).entrySet()) {
+            update(digest, entry.getKey());
+            update(digest, entry.getValue());
+        }
+        updateMappingFiles(digest);
+        Metamodel metamodel = emf.getMetamodel();
+        List<ManagedType<?>> managedTypes = new ArrayList<>(metamodel.getManagedTypes());
+        Collections.sort(managedTypes, MANAGED_TYPE_COMPARATOR);
+        for (ManagedType<?> managedType : managedTypes) {
+            update(digest, JpaMetamodelUtils.getTypeName(managedType));
+            update(digest, managedType.getPersistenceType().name());
+            List<Attribute<?, ?>> attributes = new ArrayList<Attribute<?, ?>>(managedType.getAttributes());
+            Collections.sort(attributes, ATTRIBUTE_COMPARATOR);
+            for (Attribute<?, ?> attribute : attributes) {
+                update(digest, attribute.getName());
+                update(digest, attribute.getPersistentAttributeType().name());
+                update(digest, attribute.getJavaType() == null ? null : attribute.getJavaType().getName());
+            }
+            // The class file covers mapping annotations like column names that aren't visible through the JPA metamodel
+            updateTypeResource(digest, managedType.getJavaType(), ".class");
+            updateTypeResource(digest, managedType.getJavaType(), ".hbm.xml");
+        }
+        return digest.digest();
+    }
+
+    private static Map<String, String> getMappingProperties(EntityManagerFactory emf) {
+        Map<String, String> mappingProperties = new TreeMap<>();
+        for (Map.Entry<String, Object> entry : emf.getProperties().entrySet()) {
+            Object value = entry.getValue();
+            if (value != null && (entry.getKey().toLowerCase().contains("dialect") || MAPPING_PROPERTIES.contains(entry.getKey()))) {
+                if (value instanceof Class<?>) {
+                    mappingProperties.put(entry.getKey(), ((Class<?>) value).getName());
+                } else if (value instanceof String || value instanceof Boolean) {
+                    mappingProperties.put(entry.getKey(), value.toString());
+                } else {
+                    mappingProperties.put(entry.getKey(), value.getClass().getName());
+                }
+            }
+        }
+        return mappingProperties;
+    }
+
+    private static void updateMappingFiles(MessageDigest digest) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = EntityMetamodelSnapshot.class.getClassLoader();
+        }
+        Set<String> mappingFiles = new TreeSet<>();
+        mappingFiles.add(DEFAULT_MAPPING_FILE);
+        // The persistence units may contain provider properties like the dialect and list further mapping files
+        for (String persistenceXml : readResources(classLoader, PERSISTENCE_XML)) {
+            update(digest, persistenceXml);
+            Matcher matcher = MAPPING_FILE_PATTERN.matcher(persistenceXml);
+            while (matcher.find()) {
+                mappingFiles.add(matcher.group(1));
+            }
+        }
+        for (String mappingFile : mappingFiles) {
+            update(digest, mappingFile);
+            for (String content : readResources(classLoader, mappingFile)) {
+                update(digest, content);
+            }
+        }
+    }
+
+    private static List<String> readResources(ClassLoader classLoader, String resourceName) {
+        List<String> contents = new ArrayList<>();
+        try {
+            Enumeration<URL> urls = classLoader.getResources(resourceName);
+            while (urls.hasMoreElements()) {
+                InputStream inputStream = urls.nextElement().openStream();
+                try {
+                    contents.add(new String(readFully(inputStream), StandardCharsets.UTF_8));
+                } finally {
+                    inputStream.close();
+                }
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not read the resource " + resourceName, ex);
+        }
+        // The order of the resources depends on the class path, so we sort them to get a stable fingerprint
+        Collections.sort(contents);
+        return contents;
+    }
+
+    private static byte[] readFully(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+    }
+
+    private static void updateTypeResource(MessageDigest digest, Class<?> javaType, String suffix) {
+        if (javaType == null || javaType.getClassLoader() == null) {
+            return;
+        }
+        String resourceName = javaType.getName().replace('.', '/') + suffix;
+        InputStream inputStream = javaType.getClassLoader().getResourceAsStream(resourceName);
+        if (inputStream == null) {
+            return;
+        }
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not read the resource " + resourceName, ex);
+        } finally {
+            try {
+                inputStream.close();
+            } catch (IOException ex) {
+                // Ignore
+            }
+        }
+    }
+
+    /**
+     * The snapshot of the information about an attribute that is determined through the JPA provider.
+     *
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    static final class AttributeSnapshot {
+
+        private static final int ORPHAN_REMOVAL = 1;
+        private static final int DELETE_CASCADED = 1 << 1;
+        private static final int FOREIGN_JOIN_COLUMN = 1 << 2;
+        private static final int COLUMN_SHARED = 1 << 3;
+        private static final int BAG = 1 << 4;
+        private static final JpaProvider.ConstraintType[] CONSTRAINT_TYPES = JpaProvider.ConstraintType.values();
+
+        final boolean isOrphanRemoval;
+        final boolean isDeleteCascaded;
+        final boolean isForeignJoinColumn;
+        final boolean isColumnShared;
+        final boolean isBag;
+        final JpaProvider.ConstraintType[] joinTypeIndexedRequiresTreatFilter;
+        final String mappedBy;
+        final JoinTable joinTable;
+        final String[] columnNames;
+        final String[] columnTypes;
+
+        @SuppressWarnings("checkstyle:parameternumber")
+        AttributeSnapshot(boolean isOrphanRemoval, boolean isDeleteCascaded, boolean isForeignJoinColumn, boolean isColumnShared, boolean isBag, JpaProvider.ConstraintType[] joinTypeIndexedRequiresTreatFilter,
+                          String mappedBy, JoinTable joinTable, String[] columnNames, String[] columnTypes) {
+            this.isOrphanRemoval = isOrphanRemoval;
+            this.isDeleteCascaded = isDeleteCascaded;
+            this.isForeignJoinColumn = isForeignJoinColumn;
+            this.isColumnShared = isColumnShared;
+            this.isBag = isBag;
+            this.joinTypeIndexedRequiresTreatFilter = joinTypeIndexedRequiresTreatFilter;
+            this.mappedBy = mappedBy;
+            this.joinTable = joinTable;
+            this.columnNames = columnNames;
+            this.columnTypes = columnTypes;
+        }
+
+        static AttributeSnapshot read(DataInputStream in) throws IOException {
+            int flags = in.readByte();
+            JpaProvider.ConstraintType[] requiresTreatFilter = new JpaProvider.ConstraintType[JoinType.values().length];
+            int constraintTypeCount = in.readByte();
+            if (constraintTypeCount != requiresTreatFilter.length) {
+                throw new IOException("The entity metamodel snapshot was written for " + constraintTypeCount + " join types but there are " + requiresTreatFilter.length);
+            }
+            for (int i = 0; i < requiresTreatFilter.length; i++) {
+                int ordinal = in.readByte();
+                requiresTreatFilter[i] = ordinal == -1 ? null : CONSTRAINT_TYPES[ordinal];
+            }
+            String mappedBy = readString(in);
+            JoinTable joinTable = null;
+            if (in.readBoolean()) {
+                joinTable = new JoinTable(
+                        readString(in),
+                        readStringSet(in),
+                        readStringMap(in),
+                        readStringMap(in),
+                        readStringMap(in),
+                        readStringSet(in),
+                        readStringMap(in)
+                );
+            }
+            return new AttributeSnapshot(
+                    (flags & ORPHAN_REMOVAL) != 0,
+                    (flags & DELETE_CASCADED) != 0,
+                    (flags & FOREIGN_JOIN_COLUMN) != 0,
+                    (flags & COLUMN_SHARED) != 0,
+                    (flags & BAG) != 0,
+                    requiresTreatFilter,
+                    mappedBy,
+                    joinTable,
+                    readStringArray(in),
+                    readStringArray(in)
+            );
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            int flags = 0;
+            if (isOrphanRemoval) {
+                flags |= ORPHAN_REMOVAL;
+            }
+            if (isDeleteCascaded) {
+                flags |= DELETE_CASCADED;
+            }
+            if (isForeignJoinColumn) {
+                flags |= FOREIGN_JOIN_COLUMN;
+            }
+            if (isColumnShared) {
+                flags |= COLUMN_SHARED;
+            }
+            if (isBag) {
+                flags |= BAG;
+            }
+            out.writeByte(flags);
+            out.writeByte(joinTypeIndexedRequiresTreatFilter.length);
+            for (JpaProvider.ConstraintType constraintType : joinTypeIndexedRequiresTreatFilter) {
+                out.writeByte(constraintType == null ? -1 : constraintType.ordinal());
+            }
+            writeString(out, mappedBy);
+            out.writeBoolean(joinTable != null);
+            if (joinTable != null) {
+                writeString(out, joinTable.getTableName());
+                writeStringSet(out, joinTable.getIdAttributeNames());
+                writeStringMap(out, joinTable.getIdColumnMappings());
+                writeStringMap(out, joinTable.getKeyColumnMappings());
+                writeStringMap(out, joinTable.getKeyColumnTypes());
+                writeStringSet(out, joinTable.getTargetAttributeNames());
+                writeStringMap(out, joinTable.getTargetColumnMappings());
+            }
+            writeStringArray(out, columnNames);
+            writeStringArray(out, columnTypes);
+        }
+
+        private static String readString(DataInputStream in) throws IOException {
+            return in.readBoolean() ? in.readUTF() : null;
+        }
+
+        private static void writeString(DataOutputStream out, String value) throws IOException {
+            out.writeBoolean(value != null);
+            if (value != null) {
+                out.writeUTF(value);
+            }
+        }
+
+        private static String[] readStringArray(DataInputStream in) throws IOException {
+            int size = in.readInt();
+            if (size == -1) {
+                return null;
+            }
+            String[] array = new String[size];
+            for (int i = 0; i < size; i++) {
+                array[i] = readString(in);
+            }
+            return array;
+        }
+
+        private static void writeStringArray(DataOutputStream out, String[] array) throws IOException {
+            if (array == null) {
+                out.writeInt(-1);
+                return;
+            }
+            out.writeInt(array.length);
+            for (String value : array) {
+                writeString(out, value);
+            }
+        }
+
+        private static Set<String> readStringSet(DataInputStream in) throws IOException {
+            int size = in.readInt();
+            if (size == -1) {
+                return null;
+            }
+            Set<String> set = new LinkedHashSet<>(size);
+            for (int i = 0; i < size; i++) {
+                set.add(readString(in));
+            }
+            return set;
+        }
+
+        private static void writeStringSet(DataOutputStream out, Set<String> set) throws IOException {
+            if (set == null) {
+                out.writeInt(-1);
+                return;
+            }
+            out.writeInt(set.size());
+            for (String value : set) {
+                writeString(out, value);
+            }
+        }
+
+        private static Map<String, String> readStringMap(DataInputStream in) throws IOException {
+            int size = in.readInt();
+            if (size == -1) {
+                return null;
+            }
+            Map<String, String> map = new LinkedHashMap<>(size);
+            for (int i = 0; i < size; i++) {
+                map.put(readString(in), readString(in));
+            }
+            return map;
+        }
+
+        private static void writeStringMap(DataOutputStream out, Map<String, String> map) throws IOException {
+            if (map == null) {
+                out.writeInt(-1);
+                return;
+            }
+            out.writeInt(map.size());
+            for (Map.Entry<String, String> entry : map.entrySet()) {
+                writeString(out, entry.getKey());
+                writeString(out, entry.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.Criteria;
+import com.blazebit.persistence.CriteriaBuilderFactory;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import javax.persistence.metamodel.Metamodel;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes an {@link EntityMetamodelSnapshot} for a persistence unit at build time, e.g. through the exec-maven-plugin.
+ * The arguments are the name of the persistence unit and the file to write the snapshot to.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ * @see com.blazebit.persistence.ConfigurationProperties#METAMODEL_SNAPSHOT
+ */
+public final class EntityMetamodelSnapshotGenerator {
+
+    private EntityMetamodelSnapshotGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: " + EntityMetamodelSnapshotGenerator.class.getName() + " <persistence unit name> <output file>");
+        }
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory(args[0]);
+        try {
+            generate(Criteria.getDefault().createCriteriaBuilderFactory(emf), new File(args[1]));
+        } finally {
+            emf.close();
+        }
+    }
+
+    /**
+     * Writes the snapshot of the entity metamodel of the given criteria builder factory to the given file.
+     *
+     * @param criteriaBuilderFactory The criteria builder factory
+     * @param file The file to write the snapshot to
+     * @throws IOException When writing the file fails
+     */
+    public static void generate(CriteriaBuilderFactory criteriaBuilderFactory, File file) throws IOException {
+        EntityMetamodelImpl metamodel = (EntityMetamodelImpl) criteriaBuilderFactory.getService(Metamodel.class);
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Could not create the directory " + parent);
+        }
+        OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file));
+        try {
+            metamodel.createSnapshot().write(outputStream);
+        } finally {
+            outputStream.close();
+        }
+    }
+}
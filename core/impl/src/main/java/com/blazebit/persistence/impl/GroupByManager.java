@@ -193,6 +193,10 @@ public class GroupByManager extends AbstractManager<ExpressionModifier> {
         return groupByInfos.isEmpty();
     }
 
+    List<NodeInfo> getGroupByInfos() {
+        return groupByInfos;
+    }
+
     public void resetCollected() {
         groupByClauses.clear();
     }
@@ -17,6 +17,7 @@
 package com.blazebit.persistence.impl;
 
 import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.impl.keyset.BoundedKeysetCheckpointCache;
 import com.blazebit.persistence.impl.util.PropertyUtils;
 
 import java.util.HashMap;
@@ -32,6 +33,12 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
     private final boolean compatibleModeEnabled;
     private final boolean expressionOptimizationEnabled;
     private final String expressionCacheClass;
+    private final int expressionCacheMaxSize;
+    private final int queryPlanCacheMaxSize;
+    private final int customSqlCacheMaxSize;
+    private final int keysetCheckpointInterval;
+    private final String keysetCheckpointCacheClass;
+    private final int keysetCheckpointCacheMaxSize;
 
     private final boolean returningClauseCaseSensitive;
     private final boolean sizeToCountTransformationEnabled;
@@ -39,13 +46,25 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
     private final boolean implicitGroupByFromHavingEnabled;
     private final boolean implicitGroupByFromOrderByEnabled;
     private final boolean valuesClauseFilterNullsEnabled;
+    private final int valuesClauseTemporaryTableThreshold;
     private final boolean parameterAsLiteralRenderingEnabled;
     private final boolean optimizedKeysetPredicateRenderingEnabled;
+    private final boolean queryPlanCacheEnabled;
+    private final boolean inListArrayBindingEnabled;
+    private final InListPadding inListPadding;
 
     public ImmutableQueryConfiguration(Map<String, String> properties) {
         this.compatibleModeEnabled = PropertyUtils.getAsBooleanProperty(properties, ConfigurationProperties.COMPATIBLE_MODE, false);
         this.expressionOptimizationEnabled = PropertyUtils.getAsBooleanProperty(properties, ConfigurationProperties.EXPRESSION_OPTIMIZATION, true);
         this.expressionCacheClass = properties.get(ConfigurationProperties.EXPRESSION_CACHE_CLASS);
+        this.expressionCacheMaxSize = getIntegerProperty(properties, ConfigurationProperties.EXPRESSION_CACHE_MAX_SIZE, "4096");
+        this.queryPlanCacheMaxSize = getIntegerProperty(properties, ConfigurationProperties.QUERY_PLAN_CACHE_MAX_SIZE, "2048");
+        this.customSqlCacheMaxSize = getIntegerProperty(properties, ConfigurationProperties.CUSTOM_SQL_CACHE_MAX_SIZE, "1024");
+        this.keysetCheckpointInterval = getIntegerProperty(properties, ConfigurationProperties.KEYSET_CHECKPOINT_INTERVAL, "0");
+        this.keysetCheckpointCacheClass = getProperty(properties, ConfigurationProperties.KEYSET_CHECKPOINT_CACHE_CLASS, BoundedKeysetCheckpointCache.class.getName());
+        this.keysetCheckpointCacheMaxSize = getIntegerProperty(properties, ConfigurationProperties.KEYSET_CHECKPOINT_CACHE_MAX_SIZE, "256");
+        this.valuesClauseTemporaryTableThreshold = getIntegerProperty(properties, ConfigurationProperties.VALUES_CLAUSE_TEMPORARY_TABLE_THRESHOLD, "0");
+        this.inListPadding = InListPadding.parse(ConfigurationProperties.IN_LIST_PADDING, getProperty(properties, ConfigurationProperties.IN_LIST_PADDING, InListPadding.NONE));
 
         this.returningClauseCaseSensitive =                 getBooleanProperty(properties, ConfigurationProperties.RETURNING_CLAUSE_CASE_SENSITIVE,    "false");
         this.sizeToCountTransformationEnabled =             getBooleanProperty(properties, ConfigurationProperties.SIZE_TO_COUNT_TRANSFORMATION,       "true");
@@ -55,6 +74,8 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
         this.valuesClauseFilterNullsEnabled =               getBooleanProperty(properties, ConfigurationProperties.VALUES_CLAUSE_FILTER_NULLS,         "true");
         this.parameterAsLiteralRenderingEnabled =           getBooleanProperty(properties, ConfigurationProperties.PARAMETER_AS_LITERAL_RENDERING,     "true");
         this.optimizedKeysetPredicateRenderingEnabled =     getBooleanProperty(properties, ConfigurationProperties.OPTIMIZED_KEYSET_PREDICATE_RENDERING,     "true");
+        this.queryPlanCacheEnabled =                        getBooleanProperty(properties, ConfigurationProperties.QUERY_PLAN_CACHE_ENABLED,           "false");
+        this.inListArrayBindingEnabled =                    getBooleanProperty(properties, ConfigurationProperties.IN_LIST_ARRAY_BINDING,              "false");
     }
 
     @Override
@@ -77,6 +98,11 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
         return expressionCacheClass;
     }
 
+    @Override
+    public int getExpressionCacheMaxSize() {
+        return expressionCacheMaxSize;
+    }
+
     @Override
     public boolean isCountTransformationEnabled() {
         return sizeToCountTransformationEnabled;
@@ -102,6 +128,11 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
         return valuesClauseFilterNullsEnabled;
     }
 
+    @Override
+    public int getValuesClauseTemporaryTableThreshold() {
+        return valuesClauseTemporaryTableThreshold;
+    }
+
     @Override
     public boolean isParameterAsLiteralRenderingEnabled() {
         return parameterAsLiteralRenderingEnabled;
@@ -112,6 +143,46 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
         return optimizedKeysetPredicateRenderingEnabled;
     }
 
+    @Override
+    public boolean isQueryPlanCacheEnabled() {
+        return queryPlanCacheEnabled;
+    }
+
+    @Override
+    public boolean isInListArrayBindingEnabled() {
+        return inListArrayBindingEnabled;
+    }
+
+    @Override
+    public InListPadding getInListPadding() {
+        return inListPadding;
+    }
+
+    @Override
+    public int getQueryPlanCacheMaxSize() {
+        return queryPlanCacheMaxSize;
+    }
+
+    @Override
+    public int getCustomSqlCacheMaxSize() {
+        return customSqlCacheMaxSize;
+    }
+
+    @Override
+    public int getKeysetCheckpointInterval() {
+        return keysetCheckpointInterval;
+    }
+
+    @Override
+    public String getKeysetCheckpointCacheClass() {
+        return keysetCheckpointCacheClass;
+    }
+
+    @Override
+    public int getKeysetCheckpointCacheMaxSize() {
+        return keysetCheckpointCacheMaxSize;
+    }
+
     @Override
     public void setCacheable(boolean cacheable) {
         throw new UnsupportedOperationException("Can't set cacheable on immutable query configuration!");
@@ -133,9 +204,19 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
             case ConfigurationProperties.IMPLICIT_GROUP_BY_FROM_ORDER_BY: return Boolean.toString(implicitGroupByFromOrderByEnabled);
             case ConfigurationProperties.EXPRESSION_OPTIMIZATION: return Boolean.toString(expressionOptimizationEnabled);
             case ConfigurationProperties.EXPRESSION_CACHE_CLASS: return expressionCacheClass;
+            case ConfigurationProperties.EXPRESSION_CACHE_MAX_SIZE: return Integer.toString(expressionCacheMaxSize);
             case ConfigurationProperties.VALUES_CLAUSE_FILTER_NULLS: return Boolean.toString(valuesClauseFilterNullsEnabled);
+            case ConfigurationProperties.VALUES_CLAUSE_TEMPORARY_TABLE_THRESHOLD: return Integer.toString(valuesClauseTemporaryTableThreshold);
             case ConfigurationProperties.PARAMETER_AS_LITERAL_RENDERING: return Boolean.toString(parameterAsLiteralRenderingEnabled);
             case ConfigurationProperties.OPTIMIZED_KEYSET_PREDICATE_RENDERING: return Boolean.toString(optimizedKeysetPredicateRenderingEnabled);
+            case ConfigurationProperties.QUERY_PLAN_CACHE_ENABLED: return Boolean.toString(queryPlanCacheEnabled);
+            case ConfigurationProperties.QUERY_PLAN_CACHE_MAX_SIZE: return Integer.toString(queryPlanCacheMaxSize);
+            case ConfigurationProperties.CUSTOM_SQL_CACHE_MAX_SIZE: return Integer.toString(customSqlCacheMaxSize);
+            case ConfigurationProperties.KEYSET_CHECKPOINT_INTERVAL: return Integer.toString(keysetCheckpointInterval);
+            case ConfigurationProperties.KEYSET_CHECKPOINT_CACHE_CLASS: return keysetCheckpointCacheClass;
+            case ConfigurationProperties.KEYSET_CHECKPOINT_CACHE_MAX_SIZE: return Integer.toString(keysetCheckpointCacheMaxSize);
+            case ConfigurationProperties.IN_LIST_ARRAY_BINDING: return Boolean.toString(inListArrayBindingEnabled);
+            case ConfigurationProperties.IN_LIST_PADDING: return inListPadding == null ? InListPadding.NONE : inListPadding.toString();
             default: return null;
         }
     }
@@ -151,9 +232,19 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
         properties.put(ConfigurationProperties.IMPLICIT_GROUP_BY_FROM_ORDER_BY, Boolean.toString(implicitGroupByFromOrderByEnabled));
         properties.put(ConfigurationProperties.EXPRESSION_OPTIMIZATION, Boolean.toString(expressionOptimizationEnabled));
         properties.put(ConfigurationProperties.EXPRESSION_CACHE_CLASS, expressionCacheClass);
+        properties.put(ConfigurationProperties.EXPRESSION_CACHE_MAX_SIZE, Integer.toString(expressionCacheMaxSize));
         properties.put(ConfigurationProperties.VALUES_CLAUSE_FILTER_NULLS, Boolean.toString(valuesClauseFilterNullsEnabled));
+        properties.put(ConfigurationProperties.VALUES_CLAUSE_TEMPORARY_TABLE_THRESHOLD, Integer.toString(valuesClauseTemporaryTableThreshold));
         properties.put(ConfigurationProperties.PARAMETER_AS_LITERAL_RENDERING, Boolean.toString(parameterAsLiteralRenderingEnabled));
         properties.put(ConfigurationProperties.OPTIMIZED_KEYSET_PREDICATE_RENDERING, Boolean.toString(optimizedKeysetPredicateRenderingEnabled));
+        properties.put(ConfigurationProperties.QUERY_PLAN_CACHE_ENABLED, Boolean.toString(queryPlanCacheEnabled));
+        properties.put(ConfigurationProperties.QUERY_PLAN_CACHE_MAX_SIZE, Integer.toString(queryPlanCacheMaxSize));
+        properties.put(ConfigurationProperties.CUSTOM_SQL_CACHE_MAX_SIZE, Integer.toString(customSqlCacheMaxSize));
+        properties.put(ConfigurationProperties.KEYSET_CHECKPOINT_INTERVAL, Integer.toString(keysetCheckpointInterval));
+        properties.put(ConfigurationProperties.KEYSET_CHECKPOINT_CACHE_CLASS, keysetCheckpointCacheClass);
+        properties.put(ConfigurationProperties.KEYSET_CHECKPOINT_CACHE_MAX_SIZE, Integer.toString(keysetCheckpointCacheMaxSize));
+        properties.put(ConfigurationProperties.IN_LIST_ARRAY_BINDING, Boolean.toString(inListArrayBindingEnabled));
+        properties.put(ConfigurationProperties.IN_LIST_PADDING, inListPadding == null ? InListPadding.NONE : inListPadding.toString());
         return properties;
     }
 
@@ -173,6 +264,15 @@ public class ImmutableQueryConfiguration extends AbstractQueryConfiguration {
         return Boolean.parseBoolean(getProperty(properties, propertyName, defaultValue));
     }
 
+    private int getIntegerProperty(Map<String, String> properties, String propertyName, String defaultValue) {
+        String value = getProperty(properties, propertyName, defaultValue);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Illegal value '" + value + "' for integer property '" + propertyName + "'", ex);
+        }
+    }
+
     private String getProperty(Map<String, String> properties, String propertyName, String defaultValue) {
         String value = properties.get(propertyName);
         if (value == null) {
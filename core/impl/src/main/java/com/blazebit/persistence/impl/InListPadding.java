@@ -0,0 +1,174 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Pads collection values of IN predicates to a bucket size by repeating the last element
+ * so that the expanded SQL only differs for a few distinct collection sizes.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public final class InListPadding {
+
+    public static final String NONE = "none";
+    public static final String POWER_OF_TWO = "power_of_two";
+
+    private static final int MAX_POWER_OF_TWO = 1 << 30;
+
+    private final String specification;
+    // null means padding to the next power of two
+    private final int[] buckets;
+
+    private InListPadding(String specification, int[] buckets) {
+        this.specification = specification;
+        this.buckets = buckets;
+    }
+
+    /**
+     * Parses the given padding specification which is either <code>none</code>, <code>power_of_two</code>
+     * or a comma separated list of strictly ascending positive bucket sizes.
+     *
+     * @param propertyName The name of the property that holds the specification, used for error messages
+     * @param specification The padding specification
+     * @return The padding or <code>null</code> if no padding should be done
+     */
+    public static InListPadding parse(String propertyName, String specification) {
+        if (specification == null) {
+            return null;
+        }
+        String value = specification.trim();
+        if (value.isEmpty() || NONE.equalsIgnoreCase(value)) {
+            return null;
+        }
+        if (POWER_OF_TWO.equalsIgnoreCase(value)) {
+            return new InListPadding(POWER_OF_TWO, null);
+        }
+
+        String[] parts = value.split(",");
+        int[] buckets = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                buckets[i] = Integer.parseInt(parts[i].trim());
+            } catch (NumberFormatException ex) {
+                throw illegalValue(propertyName, specification);
+            }
+            if (buckets[i] < 1 || i > 0 && buckets[i] <= buckets[i - 1]) {
+                throw illegalValue(propertyName, specification);
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < buckets.length; i++) {
+            if (i != 0) {
+                sb.append(',');
+            }
+            sb.append(buckets[i]);
+        }
+        return new InListPadding(sb.toString(), buckets);
+    }
+
+    private static IllegalArgumentException illegalValue(String propertyName, String specification) {
+        return new IllegalArgumentException("Illegal value '" + specification + "' for IN list padding property '" + propertyName
+                + "'. Expected '" + NONE + "', '" + POWER_OF_TWO + "' or a comma separated list of strictly ascending positive integers!");
+    }
+
+    /**
+     * Returns the size to which a collection of the given size is padded.
+     * Sizes beyond the largest bucket are padded to the next multiple of the largest bucket.
+     *
+     * @param size The size of the collection
+     * @return The padded size
+     */
+    public int getPaddedSize(int size) {
+        if (size < 2) {
+            return size;
+        }
+        if (buckets == null) {
+            if (size > MAX_POWER_OF_TWO) {
+                return size;
+            }
+            return Integer.highestOneBit(size - 1) << 1;
+        }
+
+        int index = Arrays.binarySearch(buckets, size);
+        if (index >= 0) {
+            return size;
+        }
+        index = -index - 1;
+        if (index < buckets.length) {
+            return buckets[index];
+        }
+        int largestBucket = buckets[buckets.length - 1];
+        long paddedSize = ((long) size + largestBucket - 1) / largestBucket * largestBucket;
+        return paddedSize > Integer.MAX_VALUE ? size : (int) paddedSize;
+    }
+
+    /**
+     * Pads the given collection to the next bucket size by repeating the last element.
+     *
+     * @param values The collection to pad
+     * @return The given collection if no padding is necessary, otherwise a padded copy
+     */
+    public Collection<?> pad(Collection<?> values) {
+        int size = values.size();
+        int paddedSize = getPaddedSize(size);
+        if (paddedSize == size) {
+            return values;
+        }
+
+        List<Object> paddedValues = new ArrayList<>(paddedSize);
+        Object lastElement = null;
+        Iterator<?> iterator = values.iterator();
+        while (iterator.hasNext()) {
+            lastElement = iterator.next();
+            paddedValues.add(lastElement);
+        }
+        for (int i = size; i < paddedSize; i++) {
+            paddedValues.add(lastElement);
+        }
+        return paddedValues;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof InListPadding)) {
+            return false;
+        }
+
+        return specification.equals(((InListPadding) o).specification);
+    }
+
+    @Override
+    public int hashCode() {
+        return specification.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return specification;
+    }
+}
@@ -1026,9 +1026,15 @@ public class JoinManager extends AbstractManager<ExpressionModifier> {
             String valueClazzAttributeName = rootNode.getValuesLikeAttribute();
             String[] attributes = rootNode.getValuesAttributes();
             String prefix = rootNode.getAlias();
+            // Values of a temporary table are not bound as parameters, so we render a parameterless predicate once
+            boolean temporaryTable = queryBuilder.getValuesTemporaryTableColumnTypes(rootNode) != null;
+            if (temporaryTable) {
+                valueCount = 1;
+            }
 
             for (int i = 0; i < valueCount; i++) {
                 for (int j = 0; j < attributes.length; j++) {
+                    int pathStart = sb.length();
                     if (typeName != null) {
                         sb.append("TREAT_");
                         sb.append(typeName);
@@ -1063,6 +1069,14 @@ public class JoinManager extends AbstractManager<ExpressionModifier> {
                         }
                     }
 
+                    if (temporaryTable) {
+                        String path = sb.substring(pathStart);
+                        sb.append(" = ");
+                        sb.append(path);
+                        sb.append(" AND ");
+                        continue;
+                    }
+
                     sb.append(" = ");
 
                     sb.append(':');
@@ -1082,7 +1096,7 @@ public class JoinManager extends AbstractManager<ExpressionModifier> {
                 }
             }
 
-            sb.setLength(sb.length() - " OR ".length());
+            sb.setLength(sb.length() - (temporaryTable ? " AND ".length() : " OR ".length()));
         }
     }
 
@@ -241,7 +241,7 @@ public class JoinVisitor extends VisitorAdapter implements SelectInfoVisitor, Jo
         } else {
             super.visit(expression);
             if (expression.getWindowDefinition() != null) {
-                expression.setResolvedWindowDefinition(windowManager.resolve(expression.getWindowDefinition()));
+                expression.setResolvedWindowDefinition(WindowManager.resolve(windowManager, expression.getWindowDefinition()));
             }
         }
     }
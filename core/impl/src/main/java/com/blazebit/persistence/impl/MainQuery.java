@@ -41,13 +41,14 @@ public class MainQuery {
     final JpaProvider jpaProvider;
     final DbmsDialect dbmsDialect;
     final Map<String, JpqlFunction> registeredFunctions;
+    final Map<String, String> registeredFunctionsNames;
     final ParameterManager parameterManager;
     final CTEManager cteManager;
 
     private final JpqlMacroStorage macroStorage;
     private QueryConfiguration queryConfiguration;
 
-    private MainQuery(CriteriaBuilderFactoryImpl cbf, EntityManager em, JpaProvider jpaProvider, DbmsDialect dbmsDialect, Map<String, JpqlFunction> registeredFunctions, ParameterManager parameterManager) {
+    private MainQuery(CriteriaBuilderFactoryImpl cbf, EntityManager em, JpaProvider jpaProvider, DbmsDialect dbmsDialect, Map<String, JpqlFunction> registeredFunctions, Map<String, String> registeredFunctionsNames) {
         super();
         this.cbf = cbf;
         this.queryConfiguration = cbf.getQueryConfiguration();
@@ -60,7 +61,8 @@ public class MainQuery {
         this.jpaProvider = jpaProvider;
         this.dbmsDialect = dbmsDialect;
         this.registeredFunctions = registeredFunctions;
-        this.parameterManager = parameterManager;
+        this.registeredFunctionsNames = registeredFunctionsNames;
+        this.parameterManager = new ParameterManager(this);
         this.cteManager = new CTEManager(this);
 
         if (jpaProvider.supportsTransientEntityAsParameter()) {
@@ -70,16 +72,15 @@ public class MainQuery {
         }
     }
     
-    public static MainQuery create(CriteriaBuilderFactoryImpl cbf, EntityManager em, String dbms, DbmsDialect dbmsDialect, Map<String, JpqlFunction> registeredFunctions) {
+    public static MainQuery create(CriteriaBuilderFactoryImpl cbf, EntityManager em, String dbms, DbmsDialect dbmsDialect, Map<String, JpqlFunction> registeredFunctions, Map<String, String> registeredFunctionsNames) {
         if (cbf == null) {
             throw new NullPointerException("criteriaBuilderFactory");
         }
         if (em == null) {
             throw new NullPointerException("entityManager");
         }
-        
-        ParameterManager parameterManager = new ParameterManager();
-        return new MainQuery(cbf, em, cbf.getJpaProvider(), dbmsDialect, registeredFunctions, parameterManager);
+
+        return new MainQuery(cbf, em, cbf.getJpaProvider(), dbmsDialect, registeredFunctions, registeredFunctionsNames);
     }
 
     public final void registerMacro(String macroName, JpqlMacro jpqlMacro) {
@@ -30,6 +30,12 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
     private final boolean compatibleModeEnabled;
     private final boolean expressionOptimizationEnabled;
     private final String expressionCacheClass;
+    private final int expressionCacheMaxSize;
+    private final int queryPlanCacheMaxSize;
+    private final int customSqlCacheMaxSize;
+    private final int keysetCheckpointInterval;
+    private final String keysetCheckpointCacheClass;
+    private final int keysetCheckpointCacheMaxSize;
 
     private boolean returningClauseCaseSensitive;
     private boolean sizeToCountTransformationEnabled;
@@ -37,22 +43,36 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
     private boolean implicitGroupByFromHavingEnabled;
     private boolean implicitGroupByFromOrderByEnabled;
     private boolean valuesClauseFilterNullsEnabled;
+    private int valuesClauseTemporaryTableThreshold;
     private boolean parameterAsLiteralRenderingEnabled;
     private boolean optimizedKeysetPredicateRenderingEnabled;
+    private boolean queryPlanCacheEnabled;
+    private boolean inListArrayBindingEnabled;
+    private InListPadding inListPadding;
     private boolean cacheable;
 
     public MutableQueryConfiguration(QueryConfiguration queryConfiguration) {
         this.compatibleModeEnabled = queryConfiguration.isCompatibleModeEnabled();
         this.expressionOptimizationEnabled = queryConfiguration.isExpressionOptimizationEnabled();
         this.expressionCacheClass = queryConfiguration.getExpressionCacheClass();
+        this.expressionCacheMaxSize = queryConfiguration.getExpressionCacheMaxSize();
+        this.queryPlanCacheMaxSize = queryConfiguration.getQueryPlanCacheMaxSize();
+        this.customSqlCacheMaxSize = queryConfiguration.getCustomSqlCacheMaxSize();
+        this.keysetCheckpointInterval = queryConfiguration.getKeysetCheckpointInterval();
+        this.keysetCheckpointCacheClass = queryConfiguration.getKeysetCheckpointCacheClass();
+        this.keysetCheckpointCacheMaxSize = queryConfiguration.getKeysetCheckpointCacheMaxSize();
         this.returningClauseCaseSensitive = queryConfiguration.isReturningClauseCaseSensitive();
         this.sizeToCountTransformationEnabled = queryConfiguration.isCountTransformationEnabled();
         this.implicitGroupByFromSelectEnabled = queryConfiguration.isImplicitGroupByFromSelectEnabled();
         this.implicitGroupByFromHavingEnabled = queryConfiguration.isImplicitGroupByFromHavingEnabled();
         this.implicitGroupByFromOrderByEnabled = queryConfiguration.isImplicitGroupByFromOrderByEnabled();
         this.valuesClauseFilterNullsEnabled = queryConfiguration.isValuesClauseFilterNullsEnabled();
+        this.valuesClauseTemporaryTableThreshold = queryConfiguration.getValuesClauseTemporaryTableThreshold();
         this.parameterAsLiteralRenderingEnabled = queryConfiguration.isParameterAsLiteralRenderingEnabled();
         this.optimizedKeysetPredicateRenderingEnabled = queryConfiguration.isOptimizedKeysetPredicateRenderingEnabled();
+        this.queryPlanCacheEnabled = queryConfiguration.isQueryPlanCacheEnabled();
+        this.inListArrayBindingEnabled = queryConfiguration.isInListArrayBindingEnabled();
+        this.inListPadding = queryConfiguration.getInListPadding();
         this.cacheable = queryConfiguration.isCacheable();
     }
 
@@ -76,6 +96,11 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
         return expressionCacheClass;
     }
 
+    @Override
+    public int getExpressionCacheMaxSize() {
+        return expressionCacheMaxSize;
+    }
+
     @Override
     public boolean isCountTransformationEnabled() {
         return sizeToCountTransformationEnabled;
@@ -101,6 +126,11 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
         return valuesClauseFilterNullsEnabled;
     }
 
+    @Override
+    public int getValuesClauseTemporaryTableThreshold() {
+        return valuesClauseTemporaryTableThreshold;
+    }
+
     @Override
     public boolean isParameterAsLiteralRenderingEnabled() {
         return parameterAsLiteralRenderingEnabled;
@@ -111,6 +141,46 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
         return optimizedKeysetPredicateRenderingEnabled;
     }
 
+    @Override
+    public boolean isQueryPlanCacheEnabled() {
+        return queryPlanCacheEnabled;
+    }
+
+    @Override
+    public boolean isInListArrayBindingEnabled() {
+        return inListArrayBindingEnabled;
+    }
+
+    @Override
+    public InListPadding getInListPadding() {
+        return inListPadding;
+    }
+
+    @Override
+    public int getQueryPlanCacheMaxSize() {
+        return queryPlanCacheMaxSize;
+    }
+
+    @Override
+    public int getCustomSqlCacheMaxSize() {
+        return customSqlCacheMaxSize;
+    }
+
+    @Override
+    public int getKeysetCheckpointInterval() {
+        return keysetCheckpointInterval;
+    }
+
+    @Override
+    public String getKeysetCheckpointCacheClass() {
+        return keysetCheckpointCacheClass;
+    }
+
+    @Override
+    public int getKeysetCheckpointCacheMaxSize() {
+        return keysetCheckpointCacheMaxSize;
+    }
+
     @Override
     public void setCacheable(boolean cacheable) {
         this.cacheable = cacheable;
@@ -140,9 +210,19 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
             case ConfigurationProperties.IMPLICIT_GROUP_BY_FROM_ORDER_BY:       implicitGroupByFromOrderByEnabled = booleanOrFail(propertyName, propertyValue); break;
             case ConfigurationProperties.EXPRESSION_OPTIMIZATION:               throw propertySetNotAllowed(propertyName);
             case ConfigurationProperties.EXPRESSION_CACHE_CLASS:                throw propertySetNotAllowed(propertyName);
+            case ConfigurationProperties.EXPRESSION_CACHE_MAX_SIZE:             throw propertySetNotAllowed(propertyName);
             case ConfigurationProperties.VALUES_CLAUSE_FILTER_NULLS:            valuesClauseFilterNullsEnabled = booleanOrFail(propertyName, propertyValue); break;
+            case ConfigurationProperties.VALUES_CLAUSE_TEMPORARY_TABLE_THRESHOLD: valuesClauseTemporaryTableThreshold = nonNegativeIntegerOrFail(propertyName, propertyValue); break;
             case ConfigurationProperties.PARAMETER_AS_LITERAL_RENDERING:        parameterAsLiteralRenderingEnabled = booleanOrFail(propertyName, propertyValue); break;
             case ConfigurationProperties.OPTIMIZED_KEYSET_PREDICATE_RENDERING:  optimizedKeysetPredicateRenderingEnabled = booleanOrFail(propertyName, propertyValue); break;
+            case ConfigurationProperties.QUERY_PLAN_CACHE_ENABLED:              queryPlanCacheEnabled = booleanOrFail(propertyName, propertyValue); break;
+            case ConfigurationProperties.QUERY_PLAN_CACHE_MAX_SIZE:             throw propertySetNotAllowed(propertyName);
+            case ConfigurationProperties.CUSTOM_SQL_CACHE_MAX_SIZE:             throw propertySetNotAllowed(propertyName);
+            case ConfigurationProperties.KEYSET_CHECKPOINT_INTERVAL:            throw propertySetNotAllowed(propertyName);
+            case ConfigurationProperties.KEYSET_CHECKPOINT_CACHE_CLASS:         throw propertySetNotAllowed(propertyName);
+            case ConfigurationProperties.KEYSET_CHECKPOINT_CACHE_MAX_SIZE:      throw propertySetNotAllowed(propertyName);
+            case ConfigurationProperties.IN_LIST_ARRAY_BINDING:                 inListArrayBindingEnabled = booleanOrFail(propertyName, propertyValue); break;
+            case ConfigurationProperties.IN_LIST_PADDING:                       inListPadding = InListPadding.parse(propertyName, propertyValue); break;
             default: break;
         }
         // CHECKSTYLE:ON: OneStatementPerLine
@@ -161,4 +241,17 @@ public class MutableQueryConfiguration extends AbstractQueryConfiguration {
 
         throw new IllegalArgumentException("Illegal value '" + propertyValue + "' for boolean property '" + propertyName + "'");
     }
+
+    private int nonNegativeIntegerOrFail(String propertyName, String propertyValue) {
+        try {
+            int value = Integer.parseInt(propertyValue);
+            if (value >= 0) {
+                return value;
+            }
+        } catch (NumberFormatException ex) {
+            // Fall through to the exception below
+        }
+
+        throw new IllegalArgumentException("Illegal value '" + propertyValue + "' for non-negative integer property '" + propertyName + "'");
+    }
 }
@@ -71,6 +71,10 @@ public class OrderByManager extends AbstractManager<ExpressionModifier> {
         return ClauseType.ORDER_BY;
     }
 
+    List<OrderByInfo> getOrderByInfos() {
+        return orderByInfos;
+    }
+
     public boolean containsOrderBySelectAlias(String alias) {
         if (alias == null || orderByInfos.isEmpty()) {
             return false;
@@ -496,7 +500,7 @@ public class OrderByManager extends AbstractManager<ExpressionModifier> {
      * @author Christian Beikov
      * @since 1.2.0
      */
-    private static class OrderByInfo extends NodeInfo {
+    static class OrderByInfo extends NodeInfo {
 
         private String expressionString;
         private boolean ascending;
@@ -513,6 +517,14 @@ public class OrderByManager extends AbstractManager<ExpressionModifier> {
             return expressionString;
         }
 
+        public boolean isAscending() {
+            return ascending;
+        }
+
+        public boolean isNullFirst() {
+            return nullFirst;
+        }
+
         @Override
         public void setExpression(Expression expression) {
             super.setExpression(expression);
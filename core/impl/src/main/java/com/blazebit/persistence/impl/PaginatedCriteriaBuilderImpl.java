@@ -17,6 +17,7 @@
 package com.blazebit.persistence.impl;
 
 import com.blazebit.persistence.CaseWhenStarterBuilder;
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.FullQueryBuilder;
 import com.blazebit.persistence.HavingOrBuilder;
 import com.blazebit.persistence.KeysetPage;
@@ -29,22 +30,31 @@ import com.blazebit.persistence.SelectObjectBuilder;
 import com.blazebit.persistence.SimpleCaseWhenStarterBuilder;
 import com.blazebit.persistence.SubqueryBuilder;
 import com.blazebit.persistence.SubqueryInitiator;
+import com.blazebit.persistence.impl.builder.object.CountExtractionObjectBuilder;
 import com.blazebit.persistence.impl.builder.object.DelegatingKeysetExtractionObjectBuilder;
 import com.blazebit.persistence.impl.builder.object.KeysetExtractionObjectBuilder;
+import com.blazebit.persistence.impl.function.pageids.PageIdsFunction;
 import com.blazebit.persistence.impl.function.pageposition.PagePositionFunction;
 import com.blazebit.persistence.impl.keyset.KeysetMode;
 import com.blazebit.persistence.impl.keyset.KeysetPaginationHelper;
 import com.blazebit.persistence.impl.keyset.SimpleKeysetLink;
 import com.blazebit.persistence.impl.query.CTENode;
+import com.blazebit.persistence.impl.query.BoundedCountQuerySpecification;
 import com.blazebit.persistence.impl.query.CustomQuerySpecification;
 import com.blazebit.persistence.impl.query.CustomSQLTypedQuery;
 import com.blazebit.persistence.impl.query.EntityFunctionNode;
+import com.blazebit.persistence.impl.query.ListCloseableIterator;
 import com.blazebit.persistence.impl.query.ObjectBuilderTypedQuery;
 import com.blazebit.persistence.impl.query.QuerySpecification;
+import com.blazebit.persistence.parser.expression.AggregateExpression;
+import com.blazebit.persistence.parser.expression.Expression;
+import com.blazebit.persistence.parser.expression.WindowDefinition;
+import com.blazebit.persistence.spi.KeysetCheckpoint;
+import com.blazebit.persistence.spi.KeysetCheckpointCache;
 
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.Parameter;
 import javax.persistence.TypedQuery;
-import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -54,6 +64,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
 
 /**
  *
@@ -63,8 +75,11 @@ import java.util.Set;
  */
 public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T, PaginatedCriteriaBuilder<T>, PaginatedCriteriaBuilderImpl<T>, PaginatedCriteriaBuilderImpl<T>, BaseFinalSetOperationBuilderImpl<T, ?, ?>> implements PaginatedCriteriaBuilder<T> {
 
+    private static final String PAGE_IDS_FIRST_RANK_PARAMETER_NAME = "_pageIdsFirstRankParameter";
+    private static final String PAGE_IDS_LAST_RANK_PARAMETER_NAME = "_pageIdsLastRankParameter";
     private static final String ENTITY_PAGE_POSITION_PARAMETER_NAME = "_entityPagePositionParameter";
     private static final String PAGE_POSITION_ID_QUERY_ALIAS_PREFIX = "_page_position_";
+    private static final String PAGE_IDS_ID_QUERY_ALIAS_PREFIX = "_page_ids_";
     private static final Set<ClauseType> ID_QUERY_CLAUSE_EXCLUSIONS = EnumSet.of(ClauseType.SELECT);
     private static final Set<ClauseType> ID_QUERY_GROUP_BY_CLAUSE_EXCLUSIONS = EnumSet.of(ClauseType.SELECT, ClauseType.GROUP_BY);
     private static final Set<ClauseType> OBJECT_QUERY_CLAUSE_EXCLUSIONS = EnumSet.complementOf(EnumSet.of(ClauseType.ORDER_BY, ClauseType.SELECT));
@@ -73,8 +88,14 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
     private boolean keysetExtraction;
     private boolean withExtractAllKeysets = false;
     private boolean withCountQuery = true;
+    private boolean withInlineCountQuery = false;
+    private long boundedCount = Long.MAX_VALUE;
+    private Executor countQueryExecutor;
+    private EntityManagerFactory countQueryEntityManagerFactory;
     private boolean withForceIdQuery = false;
+    private boolean withInlineIdQuery = false;
     private int highestOffset = 0;
+    private int prefetchPages = 0;
     private final KeysetPage keysetPage;
     private final ResolvedExpression[] identifierExpressions;
 
@@ -84,10 +105,12 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
     private int[] keysetToSelectIndexMapping;
     private String[] identifierToUseSelectAliases;
     private KeysetMode keysetMode;
+    private KeysetCheckpoint appliedKeysetCheckpoint;
 
     // Cache
     private String cachedIdQueryString;
     private String cachedExternalIdQueryString;
+    private String cachedPrefetchIdQueryString;
 
     public PaginatedCriteriaBuilderImpl(AbstractFullQueryBuilder<T, ? extends FullQueryBuilder<T, ?>, ?, ?, ?> baseBuilder, boolean keysetExtraction, Object entityId, int pageSize, ResolvedExpression[] identifierExpressions) {
         super(baseBuilder);
@@ -134,8 +157,13 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         builder.withKeysetExtraction(keysetExtraction);
         builder.withExtractAllKeysets(withExtractAllKeysets);
         builder.withCountQuery(withCountQuery);
+        builder.withInlineCountQuery(withInlineCountQuery);
+        builder.withBoundedCount(boundedCount);
+        builder.withAsyncCountQuery(countQueryExecutor, countQueryEntityManagerFactory);
         builder.withForceIdQuery(withForceIdQuery);
+        builder.withInlineIdQuery(withInlineIdQuery);
         builder.withHighestKeysetOffset(highestOffset);
+        builder.withPrefetchPages(prefetchPages);
         return builder;
     }
 
@@ -155,13 +183,16 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
 
     private void updateKeysetMode() {
         KeysetMode oldMode = this.keysetMode;
+        this.appliedKeysetCheckpoint = null;
         this.keysetMode = KeysetPaginationHelper.getKeysetMode(keysetPage, entityId, firstResult, maxResults);
         if (keysetMode == KeysetMode.NONE) {
-            this.keysetManager.setKeysetLink(null);
+            if (keysetManager != null) {
+                keysetManager.setKeysetLink(null);
+            }
         } else if (keysetMode == KeysetMode.NEXT) {
-            this.keysetManager.setKeysetLink(new SimpleKeysetLink(keysetPage.getHighest(), keysetMode));
+            getKeysetManager().setKeysetLink(new SimpleKeysetLink(keysetPage.getHighest(), keysetMode));
         } else {
-            this.keysetManager.setKeysetLink(new SimpleKeysetLink(keysetPage.getLowest(), keysetMode));
+            getKeysetManager().setKeysetLink(new SimpleKeysetLink(keysetPage.getLowest(), keysetMode));
         }
 
         if (keysetMode != oldMode) {
@@ -199,6 +230,10 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
 
     @Override
     public PaginatedCriteriaBuilder<T> withCountQuery(boolean withCountQuery) {
+        if (this.withCountQuery != withCountQuery && withInlineCountQuery) {
+            // The inlined count select item depends on this
+            prepareForModification(ClauseType.SELECT);
+        }
         this.withCountQuery = withCountQuery;
         return this;
     }
@@ -208,6 +243,98 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         return withCountQuery;
     }
 
+    @Override
+    public PaginatedCriteriaBuilder<T> withInlineCountQuery(boolean withInlineCountQuery) {
+        if (this.withInlineCountQuery != withInlineCountQuery) {
+            prepareForModification(ClauseType.SELECT);
+        }
+        this.withInlineCountQuery = withInlineCountQuery;
+        return this;
+    }
+
+    @Override
+    public boolean isWithInlineCountQuery() {
+        return withInlineCountQuery;
+    }
+
+    private boolean isInlineCountQuery() {
+        // The count must not be restricted by the keyset predicate and the page position needs the separate count query
+        // An inlined id query would make the count select item count the object query rows rather than the elements
+        // The window function is evaluated before DISTINCT and would also count duplicate rows, so a distinct select needs the separate count query
+        return withInlineCountQuery && withCountQuery && entityId == null && keysetMode == KeysetMode.NONE && !isBoundedCountQuery() && !isInlineIdQuery()
+                && !selectManager.isDistinct()
+                && mainQuery.dbmsDialect.supportsWindowFunctions() && mainQuery.jpaProvider.supportsCustomFunctions();
+    }
+
+    @Override
+    public PaginatedCriteriaBuilder<T> withBoundedCount(long maximumCount) {
+        if (maximumCount <= 0) {
+            throw new IllegalArgumentException("maximumCount may not be zero or negative");
+        }
+        if (this.boundedCount != maximumCount) {
+            prepareForModification(ClauseType.SELECT);
+        }
+        this.boundedCount = maximumCount;
+        return this;
+    }
+
+    @Override
+    public long getBoundedCount() {
+        return boundedCount;
+    }
+
+    @Override
+    public PaginatedCriteriaBuilder<T> withAsyncCountQuery(Executor executor, EntityManagerFactory entityManagerFactory) {
+        if (executor != null && entityManagerFactory == null) {
+            throw new IllegalArgumentException("An entity manager factory is required for the asynchronous count query execution");
+        }
+        this.countQueryExecutor = executor;
+        this.countQueryEntityManagerFactory = executor == null ? null : entityManagerFactory;
+        return this;
+    }
+
+    @Override
+    public boolean isWithAsyncCountQuery() {
+        return countQueryExecutor != null;
+    }
+
+    private AsyncCountQuery getAsyncCountQuery(String countQueryString, TypedQuery<?> countQuery) {
+        // The count query can only be recreated on a different entity manager if it is plain JPQL and the parameter values don't depend on the entity manager
+        if (countQueryExecutor == null || !withCountQuery || entityId != null || isInlineCountQuery() || countQuery instanceof CustomSQLTypedQuery<?>
+                || parameterManager.hasEntityManagerDependentParameters()) {
+            return null;
+        }
+        return new AsyncCountQuery(
+                countQueryString,
+                parameterManager.getTemplateParameters(),
+                mainQuery.getQueryConfiguration().getInListPadding(),
+                countQueryExecutor,
+                countQueryEntityManagerFactory,
+                mainQuery.jpaProvider,
+                isCacheable()
+        );
+    }
+
+    private boolean isBoundedCountQuery() {
+        // The page position query needs the unbounded count
+        return boundedCount != Long.MAX_VALUE && entityId == null
+                && mainQuery.jpaProvider.supportsCustomFunctions() && mainQuery.dbmsDialect.createLimitHandler().supportsLimit();
+    }
+
+    private long getEffectiveBoundedCount() {
+        return isBoundedCountQuery() ? boundedCount : Long.MAX_VALUE;
+    }
+
+    private void appendInlineCountSelectItem(StringBuilder sbSelectFrom) {
+        AggregateExpression countExpression = new AggregateExpression(false, "COUNT", Collections.<Expression>emptyList());
+        countExpression.setResolvedWindowDefinition(new WindowDefinition(null, null));
+        sbSelectFrom.append(", ");
+        queryGenerator.setQueryBuffer(sbSelectFrom);
+        queryGenerator.setClauseType(ClauseType.SELECT);
+        countExpression.accept(queryGenerator);
+        queryGenerator.setClauseType(null);
+    }
+
     @Override
     public PaginatedCriteriaBuilder<T> withForceIdQuery(boolean withForceIdQuery) {
         this.withForceIdQuery = withForceIdQuery;
@@ -219,6 +346,31 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         return withForceIdQuery;
     }
 
+    @Override
+    public PaginatedCriteriaBuilder<T> withInlineIdQuery(boolean withInlineIdQuery) {
+        if (this.withInlineIdQuery != withInlineIdQuery) {
+            prepareForModification(ClauseType.WHERE);
+        }
+        this.withInlineIdQuery = withInlineIdQuery;
+        return this;
+    }
+
+    @Override
+    public boolean isWithInlineIdQuery() {
+        return withInlineIdQuery;
+    }
+
+    private boolean isInlineIdQuery() {
+        // Keysets are extracted from the object query rows, so only the first and last keyset of an offset based page can be determined
+        return withInlineIdQuery && hasCollections && !withForceIdQuery && entityId == null && keysetMode == KeysetMode.NONE && !hasGroupBy
+                && !withExtractAllKeysets && highestOffset == 0 && getIdentifierExpressionsToUse().length == 1
+                && mainQuery.dbmsDialect.supportsWindowFunctions() && mainQuery.jpaProvider.supportsCustomFunctions();
+    }
+
+    private boolean needsIdQuery() {
+        return (hasCollections || withForceIdQuery) && !isInlineIdQuery();
+    }
+
     @Override
     public PaginatedCriteriaBuilder<T> withHighestKeysetOffset(int offset) {
         this.highestOffset = offset;
@@ -230,6 +382,20 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         return highestOffset;
     }
 
+    @Override
+    public PaginatedCriteriaBuilder<T> withPrefetchPages(int prefetchPages) {
+        if (prefetchPages < 0) {
+            throw new IllegalArgumentException("prefetchPages may not be negative");
+        }
+        this.prefetchPages = prefetchPages;
+        return this;
+    }
+
+    @Override
+    public int getPrefetchPages() {
+        return prefetchPages;
+    }
+
     @Override
     protected ResolvedExpression[] getIdentifierExpressions() {
         if (identifierExpressions != null) {
@@ -242,7 +408,9 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
     }
 
     private <X> TypedQuery<X> getCountQuery(String countQueryString, Class<X> resultType, boolean normalQueryMode, Set<JoinNode> keyRestrictedLeftJoins) {
-        if (normalQueryMode && isEmpty(keyRestrictedLeftJoins, COUNT_QUERY_CLAUSE_EXCLUSIONS)) {
+        boolean boundedCountQuery = isBoundedCountQuery();
+        // The bounded count query always needs the SQL replacement
+        if (normalQueryMode && !boundedCountQuery && isEmpty(keyRestrictedLeftJoins, COUNT_QUERY_CLAUSE_EXCLUSIONS)) {
             TypedQuery<X> countQuery = em.createQuery(countQueryString, resultType);
             if (isCacheable()) {
                 mainQuery.jpaProvider.setCacheable(countQuery);
@@ -257,9 +425,16 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         List<EntityFunctionNode> entityFunctionNodes = getEntityFunctionNodes(baseQuery);
         boolean shouldRenderCteNodes = renderCteNodes(false);
         List<CTENode> ctes = shouldRenderCteNodes ? getCteNodes(false) : Collections.EMPTY_LIST;
-        QuerySpecification querySpecification = new CustomQuerySpecification(
-                this, baseQuery, parameterManager.getParameters(), parameterListNames, null, null, keyRestrictedLeftJoinAliases, entityFunctionNodes, mainQuery.cteManager.isRecursive(), ctes, shouldRenderCteNodes
-        );
+        QuerySpecification querySpecification;
+        if (boundedCountQuery) {
+            querySpecification = new BoundedCountQuerySpecification(
+                    this, baseQuery, parameterManager.getParameters(), parameterListNames, boundedCount, keyRestrictedLeftJoinAliases, entityFunctionNodes, mainQuery.cteManager.isRecursive(), ctes, shouldRenderCteNodes
+            );
+        } else {
+            querySpecification = new CustomQuerySpecification(
+                    this, baseQuery, parameterManager.getParameters(), parameterListNames, null, null, keyRestrictedLeftJoinAliases, entityFunctionNodes, mainQuery.cteManager.isRecursive(), ctes, shouldRenderCteNodes
+            );
+        }
 
         TypedQuery<X> countQuery = new CustomSQLTypedQuery<X>(
                 querySpecification,
@@ -275,10 +450,11 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
 
     @Override
     public PaginatedTypedQueryImpl<T> getQuery() {
+        String checkpointKey = getKeysetCheckpointKey();
+        PaginatedTypedQueryImpl.KeysetCheckpointFallback<T> checkpointFallback = applyKeysetCheckpoint(checkpointKey);
         prepareAndCheck();
-        // We can only use the query directly if we have no ctes, entity functions or hibernate bugs
         Set<JoinNode> keyRestrictedLeftJoins = joinManager.getKeyRestrictedLeftJoins();
-        boolean normalQueryMode = !isMainQuery || (!mainQuery.cteManager.hasCtes() && !joinManager.hasEntityFunctions() && keyRestrictedLeftJoins.isEmpty());
+        boolean normalQueryMode = isNormalQueryMode(keyRestrictedLeftJoins);
         TypedQuery<?> countQuery = null;
         String countQueryString = getPageCountQueryStringWithoutCheck();
 
@@ -292,23 +468,30 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         TypedQuery<?> idQuery = null;
         TypedQuery<T> objectQuery;
         KeysetExtractionObjectBuilder<T> objectBuilder;
-        if (hasCollections || withForceIdQuery) {
+        CountExtractionObjectBuilder<T> countExtractionObjectBuilder;
+        String prefetchIdQueryString = getPrefetchIdQueryString();
+        if (needsIdQuery()) {
             String idQueryString = getPageIdQueryStringWithoutCheck();
             idQuery = getIdQuery(idQueryString, normalQueryMode, keyRestrictedLeftJoins);
             objectQuery = getObjectQueryById(normalQueryMode, keyRestrictedLeftJoins);
             objectBuilder = null;
+            countExtractionObjectBuilder = null;
         } else {
-            Map.Entry<TypedQuery<T>, KeysetExtractionObjectBuilder<T>> entry = getObjectQuery(normalQueryMode, keyRestrictedLeftJoins);
-            objectQuery = entry.getKey();
-            objectBuilder = entry.getValue();
+            ObjectQuery<T> paginatedObjectQuery = getObjectQuery(normalQueryMode, keyRestrictedLeftJoins);
+            objectQuery = paginatedObjectQuery.query;
+            objectBuilder = paginatedObjectQuery.keysetExtractionObjectBuilder;
+            countExtractionObjectBuilder = paginatedObjectQuery.countExtractionObjectBuilder;
         }
         PaginatedTypedQueryImpl<T> query = new PaginatedTypedQueryImpl<>(
-                withExtractAllKeysets, withCountQuery,
+                withExtractAllKeysets, withCountQuery, isInlineCountQuery(), isInlineIdQuery(), getEffectiveBoundedCount(),
                 highestOffset,
+                prefetchPages,
                 countQuery,
+                getAsyncCountQuery(countQueryString, countQuery),
                 idQuery,
                 objectQuery,
                 objectBuilder,
+                countExtractionObjectBuilder,
                 parameterManager.getParameters(),
                 entityId,
                 firstResult,
@@ -317,16 +500,98 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
                 needsNewIdList,
                 keysetToSelectIndexMapping,
                 keysetMode,
-                keysetPage
+                keysetPage,
+                getInListPadding(),
+                checkpointKey == null ? null : cbf.getKeysetCheckpointCache(),
+                checkpointKey,
+                appliedKeysetCheckpoint == null ? 0 : firstResult - appliedKeysetCheckpoint.getPosition() - 1,
+                checkpointFallback,
+                prefetchIdQueryString,
+                getPrefetchParameterValues(prefetchIdQueryString)
         );
         return query;
     }
 
+    private String getKeysetCheckpointKey() {
+        // A checkpoint applied for a previous query must not influence the key
+        if (appliedKeysetCheckpoint != null) {
+            updateKeysetMode();
+        }
+        KeysetCheckpointCache keysetCheckpointCache = cbf.getKeysetCheckpointCache();
+        if (keysetCheckpointCache == null || !keysetExtraction || keysetMode != KeysetMode.NONE || entityId != null || !isMainQuery
+                || mainQuery.cteManager.hasCtes() || joinManager.hasEntityFunctions()) {
+            return null;
+        }
+
+        prepareAndCheck();
+        if (isInlineIdQuery()) {
+            return null;
+        }
+        return getCheckpointKey(needsIdQuery() ? getPageIdQueryStringWithoutCheck() : getBaseQueryString());
+    }
+
+    private PaginatedTypedQueryImpl.KeysetCheckpointFallback<T> applyKeysetCheckpoint(String checkpointKey) {
+        if (checkpointKey == null || firstResult == 0) {
+            return null;
+        }
+
+        // Seek from the nearest checkpoint before the first row of the page with a keyset predicate and the remaining offset
+        KeysetCheckpoint checkpoint = cbf.getKeysetCheckpointCache().get(checkpointKey, firstResult - 1);
+        if (checkpoint == null) {
+            return null;
+        }
+
+        // Parameters set on the query might invalidate the checkpoint, so the query for offset pagination is created as fallback
+        Set<JoinNode> keyRestrictedLeftJoins = joinManager.getKeyRestrictedLeftJoins();
+        boolean normalQueryMode = isNormalQueryMode(keyRestrictedLeftJoins);
+        PaginatedTypedQueryImpl.KeysetCheckpointFallback<T> checkpointFallback;
+        if (needsIdQuery()) {
+            checkpointFallback = new PaginatedTypedQueryImpl.KeysetCheckpointFallback<>(getIdQuery(getPageIdQueryStringWithoutCheck(), normalQueryMode, keyRestrictedLeftJoins));
+        } else {
+            ObjectQuery<T> objectQuery = getObjectQuery(normalQueryMode, keyRestrictedLeftJoins);
+            checkpointFallback = new PaginatedTypedQueryImpl.KeysetCheckpointFallback<>(objectQuery.query, objectQuery.keysetExtractionObjectBuilder, objectQuery.countExtractionObjectBuilder);
+        }
+
+        keysetMode = KeysetMode.NEXT;
+        appliedKeysetCheckpoint = checkpoint;
+        getKeysetManager().setKeysetLink(new SimpleKeysetLink(checkpoint.getKeyset(), KeysetMode.NEXT));
+        prepareForModification(ClauseType.WHERE);
+        return checkpointFallback;
+    }
+
+    private boolean isNormalQueryMode(Set<JoinNode> keyRestrictedLeftJoins) {
+        // We can only use the query directly if we have no ctes, entity functions or hibernate bugs
+        return !isMainQuery || (!mainQuery.cteManager.hasCtes() && !joinManager.hasEntityFunctions() && keyRestrictedLeftJoins.isEmpty());
+    }
+
+    private String getCheckpointKey(String queryString) {
+        Map<String, Object> parameterValues = new TreeMap<>();
+        for (Parameter<?> parameter : parameterManager.getParameters()) {
+            String parameterName = parameter.getName() == null ? parameter.getPosition().toString() : parameter.getName();
+            String parameterReference = parameter.getName() == null ? "?" + parameterName : ":" + parameterName;
+            if (queryString.contains(parameterReference)) {
+                ParameterManager.ParameterImpl<?> parameterImpl = (ParameterManager.ParameterImpl<?>) parameter;
+                // Parameters that are set on the query later could change the rows before a checkpoint
+                if (!parameterImpl.isValueSet()) {
+                    return null;
+                }
+                parameterValues.put(parameterName, parameterImpl.getValue());
+            }
+        }
+        return KeysetPaginationHelper.getCheckpointKey(queryString, parameterValues);
+    }
+
     @Override
     public PagedList<T> getResultList() {
         return getQuery().getResultList();
     }
 
+    @Override
+    public CloseableIterator<T> scroll(int fetchSize) {
+        // A page is bounded by the page size, so there is no need for a cursor
+        return new ListCloseableIterator<>(getResultList());
+    }
+
     @Override
     public String getCountQueryString() {
         return getPageCountQueryString();
@@ -335,9 +600,8 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
     @Override
     public TypedQuery<Long> getCountQuery() {
         prepareAndCheck();
-        // We can only use the query directly if we have no ctes, entity functions or hibernate bugs
         Set<JoinNode> keyRestrictedLeftJoins = joinManager.getKeyRestrictedLeftJoins();
-        boolean normalQueryMode = !isMainQuery || (!mainQuery.cteManager.hasCtes() && !joinManager.hasEntityFunctions() && keyRestrictedLeftJoins.isEmpty());
+        boolean normalQueryMode = isNormalQueryMode(keyRestrictedLeftJoins);
         String countQueryString = getPageCountQueryStringWithoutCheck();
         return getCountQuery(countQueryString, Long.class, normalQueryMode, keyRestrictedLeftJoins);
     }
@@ -350,7 +614,7 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
 
     private String getPageCountQueryStringWithoutCheck() {
         if (cachedCountQueryString == null) {
-            cachedCountQueryString = buildPageCountQueryString(false, false);
+            cachedCountQueryString = buildPageCountQueryString(false, false, getEffectiveBoundedCount());
         }
 
         return cachedCountQueryString;
@@ -358,7 +622,7 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
 
     protected String getExternalPageCountQueryString() {
         if (cachedExternalCountQueryString == null) {
-            cachedExternalCountQueryString = buildPageCountQueryString(true, false);
+            cachedExternalCountQueryString = buildPageCountQueryString(true, false, getEffectiveBoundedCount());
         }
 
         return cachedExternalCountQueryString;
@@ -371,15 +635,41 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
     }
 
     private String getPageIdQueryStringWithoutCheck() {
-        if (cachedIdQueryString == null && (hasCollections || withForceIdQuery)) {
+        if (cachedIdQueryString == null && needsIdQuery()) {
             cachedIdQueryString = buildPageIdQueryString(false);
         }
 
         return cachedIdQueryString;
     }
 
+    private String getPrefetchIdQueryString() {
+        if (cachedPrefetchIdQueryString == null && prefetchPages > 0 && needsIdQuery()) {
+            StringBuilder sbSelectFrom = new StringBuilder();
+            buildPageIdQueryString(sbSelectFrom, false, true);
+            cachedPrefetchIdQueryString = sbSelectFrom.toString();
+        }
+
+        return cachedPrefetchIdQueryString;
+    }
+
+    private Map<String, Object> getPrefetchParameterValues(String prefetchIdQueryString) {
+        if (prefetchIdQueryString == null) {
+            return null;
+        }
+        Map<String, Object> parameterValues = new TreeMap<>();
+        for (Parameter<?> parameter : parameterManager.getParameters()) {
+            String parameterName = parameter.getName() == null ? parameter.getPosition().toString() : parameter.getName();
+            String parameterReference = parameter.getName() == null ? "?" + parameterName : ":" + parameterName;
+            if (prefetchIdQueryString.contains(parameterReference)) {
+                ParameterManager.ParameterImpl<?> parameterImpl = (ParameterManager.ParameterImpl<?>) parameter;
+                parameterValues.put(parameterName, parameterImpl.isValueSet() ? parameterImpl.getValue() : null);
+            }
+        }
+        return parameterValues;
+    }
+
     protected String getExternalPageIdQueryString() {
-        if (cachedExternalIdQueryString == null && (hasCollections || withForceIdQuery)) {
+        if (cachedExternalIdQueryString == null && needsIdQuery()) {
             cachedExternalIdQueryString = buildPageIdQueryString(true);
         }
 
@@ -422,6 +712,7 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         super.prepareForModification(changedClause);
         cachedIdQueryString = null;
         cachedExternalIdQueryString = null;
+        cachedPrefetchIdQueryString = null;
     }
 
     @Override
@@ -469,12 +760,12 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
             throw new IllegalStateException("The order by items of the query builder are not guaranteed to produce unique tuples! Consider also ordering by the entity identifier!");
         }
 
-        if (keysetManager.hasKeyset()) {
+        if (hasKeyset()) {
             keysetManager.initialize(orderByExpressions);
         }
 
         // initialize index mappings that we use to avoid putting keyset expressions into select clauses multiple times
-        if (hasCollections || withForceIdQuery) {
+        if (needsIdQuery()) {
             ResolvedExpression[] identifierExpressionsToUse = getIdentifierExpressionsToUse();
             Map<String, Integer> identifierExpressionStringMap = new HashMap<>(identifierExpressionsToUse.length);
 
@@ -564,20 +855,31 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
     }
 
     @SuppressWarnings("unchecked")
-    private Map.Entry<TypedQuery<T>, KeysetExtractionObjectBuilder<T>> getObjectQuery(boolean normalQueryMode, Set<JoinNode> keyRestrictedLeftJoins) {
+    private ObjectQuery<T> getObjectQuery(boolean normalQueryMode, Set<JoinNode> keyRestrictedLeftJoins) {
         String queryString = getBaseQueryString();
         Class<?> expectedResultType;
 
-        // When the keyset is included the query obviously produces an array
-        if (keysetExtraction) {
+        boolean inlineCountQuery = isInlineCountQuery();
+        // When the keyset or the count is included the query obviously produces an array
+        if (keysetExtraction || inlineCountQuery) {
             expectedResultType = Object[].class;
         } else {
             expectedResultType = selectManager.getExpectedQueryResultType();
         }
 
         TypedQuery<T> query;
+        Set<ClauseType> clauseExclusions;
+        if (isInlineIdQuery()) {
+            parameterManager.addParameterMapping(PAGE_IDS_FIRST_RANK_PARAMETER_NAME, firstResult + 1, ClauseType.WHERE, this);
+            // Clamp the last rank as the sum overflows for huge page sizes
+            int lastRank = (int) Math.min((long) firstResult + maxResults, Integer.MAX_VALUE);
+            parameterManager.addParameterMapping(PAGE_IDS_LAST_RANK_PARAMETER_NAME, lastRank, ClauseType.WHERE, this);
+            clauseExclusions = OBJECT_QUERY_CLAUSE_EXCLUSIONS;
+        } else {
+            clauseExclusions = hasGroupBy ? NO_CLAUSE_EXCLUSION : OBJECT_QUERY_WITHOUT_GROUP_BY_EXCLUSIONS;
+        }
 
-        if (normalQueryMode && isEmpty(keyRestrictedLeftJoins, hasGroupBy ? NO_CLAUSE_EXCLUSION : OBJECT_QUERY_WITHOUT_GROUP_BY_EXCLUSIONS)) {
+        if (normalQueryMode && isEmpty(keyRestrictedLeftJoins, clauseExclusions)) {
             query = (TypedQuery<T>) em.createQuery(queryString, expectedResultType);
             if (isCacheable()) {
                 mainQuery.jpaProvider.setCacheable(query);
@@ -587,7 +889,7 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
             TypedQuery<T> baseQuery = (TypedQuery<T>) em.createQuery(queryString, expectedResultType);
             Set<String> parameterListNames = parameterManager.getParameterListNames(baseQuery);
 
-            List<String> keyRestrictedLeftJoinAliases = getKeyRestrictedLeftJoinAliases(baseQuery, keyRestrictedLeftJoins, hasGroupBy ? NO_CLAUSE_EXCLUSION : OBJECT_QUERY_WITHOUT_GROUP_BY_EXCLUSIONS);
+            List<String> keyRestrictedLeftJoinAliases = getKeyRestrictedLeftJoinAliases(baseQuery, keyRestrictedLeftJoins, clauseExclusions);
             List<EntityFunctionNode> entityFunctionNodes = getEntityFunctionNodes(baseQuery);
             boolean shouldRenderCteNodes = renderCteNodes(false);
             List<CTENode> ctes = shouldRenderCteNodes ? getCteNodes(false) : Collections.EMPTY_LIST;
@@ -618,11 +920,18 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
             transformerObjectBuilder = objectBuilder;
         }
 
+        CountExtractionObjectBuilder<T> countExtractionObjectBuilder = null;
+        if (inlineCountQuery) {
+            boolean unwrap = transformerObjectBuilder == null && selectManager.getExpectedQueryResultType() != Object[].class;
+            countExtractionObjectBuilder = new CountExtractionObjectBuilder<T>(transformerObjectBuilder, unwrap);
+            transformerObjectBuilder = countExtractionObjectBuilder;
+        }
+
         if (transformerObjectBuilder != null) {
             query = new ObjectBuilderTypedQuery<>(query, transformerObjectBuilder);
         }
 
-        return new AbstractMap.SimpleEntry<TypedQuery<T>, KeysetExtractionObjectBuilder<T>>(query, objectBuilder);
+        return new ObjectQuery<T>(query, objectBuilder, countExtractionObjectBuilder);
     }
 
     private TypedQuery<Object[]> getIdQuery(String idQueryString, boolean normalQueryMode, Set<JoinNode> keyRestrictedLeftJoins) {
@@ -719,8 +1028,25 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         }
     }
 
+    private void appendPageIdsSubqueryString(StringBuilder sbSelectFrom) {
+        // The rank range of the page is parameterized so that the SQL is the same for every page
+        // The values are bound when executing the query because the query string is cached across pages
+        sbSelectFrom.append(mainQuery.jpaProvider.getCustomFunctionInvocation(PageIdsFunction.FUNCTION_NAME, 3));
+        sbSelectFrom.append('(');
+        appendSimplePageIdQueryString(sbSelectFrom, PAGE_IDS_ID_QUERY_ALIAS_PREFIX);
+        sbSelectFrom.append("),");
+        sbSelectFrom.append(':').append(PAGE_IDS_FIRST_RANK_PARAMETER_NAME);
+        sbSelectFrom.append(',');
+        sbSelectFrom.append(':').append(PAGE_IDS_LAST_RANK_PARAMETER_NAME);
+        sbSelectFrom.append(')');
+    }
+
     private String appendSimplePageIdQueryString(StringBuilder sbSelectFrom) {
-        queryGenerator.setAliasPrefix(PAGE_POSITION_ID_QUERY_ALIAS_PREFIX);
+        return appendSimplePageIdQueryString(sbSelectFrom, PAGE_POSITION_ID_QUERY_ALIAS_PREFIX);
+    }
+
+    private String appendSimplePageIdQueryString(StringBuilder sbSelectFrom, String aliasPrefix) {
+        queryGenerator.setAliasPrefix(aliasPrefix);
 
         sbSelectFrom.append("SELECT ");
         appendIdentifierExpressions(sbSelectFrom);
@@ -734,7 +1060,7 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         // Note that we always exclude the nodes with group by dependency. We consider just the ones from the identifiers
         Set<JoinNode> idNodesToFetch = Collections.emptySet();
         Set<JoinNode> identifierExpressionsToUseNonRootJoinNodes = getIdentifierExpressionsToUseNonRootJoinNodes();
-        joinManager.buildClause(sbSelectFrom, ID_QUERY_CLAUSE_EXCLUSIONS, PAGE_POSITION_ID_QUERY_ALIAS_PREFIX, false, false, true, optionalWhereClauseConjuncts, whereClauseConjuncts, null, explicitVersionEntities, idNodesToFetch, identifierExpressionsToUseNonRootJoinNodes);
+        joinManager.buildClause(sbSelectFrom, ID_QUERY_CLAUSE_EXCLUSIONS, aliasPrefix, false, false, true, optionalWhereClauseConjuncts, whereClauseConjuncts, null, explicitVersionEntities, idNodesToFetch, identifierExpressionsToUseNonRootJoinNodes);
         whereManager.buildClause(sbSelectFrom, whereClauseConjuncts, optionalWhereClauseConjuncts, null);
 
         boolean inverseOrder = false;
@@ -759,6 +1085,12 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
     }
 
     private String buildPageIdQueryString(StringBuilder sbSelectFrom, boolean externalRepresentation) {
+        return buildPageIdQueryString(sbSelectFrom, externalRepresentation, false);
+    }
+
+    private String buildPageIdQueryString(StringBuilder sbSelectFrom, boolean externalRepresentation, boolean prefetchKey) {
+        // The key for prefetched ids must be the same for every page, so it leaves out the keyset predicate and the inline count
+        KeysetMode idQueryKeysetMode = prefetchKey ? KeysetMode.NONE : keysetMode;
         sbSelectFrom.append("SELECT ");
         queryGenerator.setQueryBuffer(sbSelectFrom);
         queryGenerator.setClauseType(ClauseType.SELECT);
@@ -778,6 +1110,10 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
             orderByManager.buildSelectClauses(sbSelectFrom, keysetExtraction, keysetToSelectIndexMapping);
         }
 
+        if (!prefetchKey && isInlineCountQuery()) {
+            appendInlineCountSelectItem(sbSelectFrom);
+        }
+
         List<String> whereClauseConjuncts = new ArrayList<>();
         List<String> optionalWhereClauseConjuncts = new ArrayList<>();
         // The id query does not have any fetch owners
@@ -786,7 +1122,7 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         Set<JoinNode> identifierExpressionsToUseNonRootJoinNodes = getIdentifierExpressionsToUseNonRootJoinNodes();
         joinManager.buildClause(sbSelectFrom, ID_QUERY_GROUP_BY_CLAUSE_EXCLUSIONS, null, false, externalRepresentation, true, optionalWhereClauseConjuncts, whereClauseConjuncts, null, explicitVersionEntities, idNodesToFetch, identifierExpressionsToUseNonRootJoinNodes);
 
-        if (keysetMode == KeysetMode.NONE) {
+        if (idQueryKeysetMode == KeysetMode.NONE) {
             whereManager.buildClause(sbSelectFrom, whereClauseConjuncts, optionalWhereClauseConjuncts, null);
         } else {
             sbSelectFrom.append(" WHERE ");
@@ -804,7 +1140,7 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
             }
         }
 
-        boolean inverseOrder = keysetMode == KeysetMode.PREVIOUS;
+        boolean inverseOrder = idQueryKeysetMode == KeysetMode.PREVIOUS;
 
         // TODO: Think about optimizing this here
         // We could avoid rendering the group by clause if the collection joins aren't referenced
@@ -836,6 +1172,11 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
     protected void buildBaseQueryString(StringBuilder sbSelectFrom, boolean externalRepresentation) {
         selectManager.buildSelect(sbSelectFrom, false, externalRepresentation);
 
+        boolean inlineIdQuery = isInlineIdQuery();
+        if (inlineIdQuery && keysetExtraction) {
+            orderByManager.buildSelectClauses(sbSelectFrom, true, keysetToSelectIndexMapping);
+        }
+
         /**
          * we have already selected the IDs so now we only need so select the
          * fields and apply the ordering all other clauses are not required any
@@ -856,7 +1197,12 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
         }
 
         queryGenerator.setQueryBuffer(sbSelectFrom);
-        if (identifierExpressions.length == 1) {
+        if (inlineIdQuery) {
+            identifierExpressions[0].getExpression().accept(queryGenerator);
+            sbSelectFrom.append(" IN (");
+            appendPageIdsSubqueryString(sbSelectFrom);
+            sbSelectFrom.append(')');
+        } else if (identifierExpressions.length == 1) {
             identifierExpressions[0].getExpression().accept(queryGenerator);
             sbSelectFrom.append(" IN :").append(ID_PARAM_NAME);
         } else {
@@ -904,6 +1250,10 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
             orderByManager.buildSelectClauses(sbSelectFrom, true, keysetToSelectIndexMapping);
         }
 
+        if (isInlineCountQuery()) {
+            appendInlineCountSelectItem(sbSelectFrom);
+        }
+
         List<String> whereClauseConjuncts = new ArrayList<>();
         List<String> optionalWhereClauseConjuncts = new ArrayList<>();
         joinManager.buildClause(sbSelectFrom, hasGroupBy ? NO_CLAUSE_EXCLUSION : OBJECT_QUERY_WITHOUT_GROUP_BY_EXCLUSIONS, null, false, externalRepresentation, false, optionalWhereClauseConjuncts, whereClauseConjuncts, null, explicitVersionEntities, nodesToFetch, Collections.EMPTY_SET);
@@ -1028,4 +1378,20 @@ public class PaginatedCriteriaBuilderImpl<T> extends AbstractFullQueryBuilder<T,
     public <Y> PaginatedCriteriaBuilder<Y> selectNew(ObjectBuilder<Y> builder) {
         return (PaginatedCriteriaBuilder<Y>) super.selectNew(builder);
     }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static final class ObjectQuery<T> {
+        private final TypedQuery<T> query;
+        private final KeysetExtractionObjectBuilder<T> keysetExtractionObjectBuilder;
+        private final CountExtractionObjectBuilder<T> countExtractionObjectBuilder;
+
+        public ObjectQuery(TypedQuery<T> query, KeysetExtractionObjectBuilder<T> keysetExtractionObjectBuilder, CountExtractionObjectBuilder<T> countExtractionObjectBuilder) {
+            this.query = query;
+            this.keysetExtractionObjectBuilder = keysetExtractionObjectBuilder;
+            this.countExtractionObjectBuilder = countExtractionObjectBuilder;
+        }
+    }
 }
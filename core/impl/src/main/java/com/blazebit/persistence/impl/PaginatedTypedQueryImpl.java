@@ -20,11 +20,14 @@ import com.blazebit.persistence.KeysetPage;
 import com.blazebit.persistence.PagedArrayList;
 import com.blazebit.persistence.PagedList;
 import com.blazebit.persistence.PaginatedTypedQuery;
+import com.blazebit.persistence.impl.builder.object.CountExtractionObjectBuilder;
 import com.blazebit.persistence.impl.builder.object.KeysetExtractionObjectBuilder;
 import com.blazebit.persistence.impl.keyset.KeysetMode;
 import com.blazebit.persistence.impl.keyset.KeysetPageImpl;
+import com.blazebit.persistence.impl.keyset.KeysetImpl;
 import com.blazebit.persistence.impl.keyset.KeysetPaginationHelper;
 import com.blazebit.persistence.impl.util.SetView;
+import com.blazebit.persistence.spi.KeysetCheckpointCache;
 
 import javax.persistence.FlushModeType;
 import javax.persistence.LockModeType;
@@ -39,6 +42,7 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -46,6 +50,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Future;
 
 /**
  * @author Christian Beikov
@@ -55,11 +60,17 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
 
     private final boolean withExtractAllKeysets;
     private final boolean withCount;
+    private final boolean withInlineCount;
+    private final boolean withInlineIdQuery;
+    private final long boundedCount;
     private final int highestOffset;
+    private final int prefetchPages;
     private final TypedQuery<?> countQuery;
-    private final TypedQuery<?> idQuery;
-    private final TypedQuery<X> objectQuery;
-    private final KeysetExtractionObjectBuilder<X> objectBuilder;
+    private AsyncCountQuery asyncCountQuery;
+    private TypedQuery<?> idQuery;
+    private TypedQuery<X> objectQuery;
+    private KeysetExtractionObjectBuilder<X> objectBuilder;
+    private CountExtractionObjectBuilder<X> countExtractionObjectBuilder;
     private final Map<String, Parameter<?>> parameters;
     private final Map<String, ParameterLocation> parameterToQuery;
     private final Object entityId;
@@ -70,18 +81,35 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
     private final boolean needsNewIdList;
     private final int[] keysetToSelectIndexMapping;
     private final int keysetSuffix;
-    private final KeysetMode keysetMode;
+    private KeysetMode keysetMode;
     private final KeysetPage keysetPage;
-
-    public PaginatedTypedQueryImpl(boolean withExtractAllKeysets, boolean withCount, int highestOffset, TypedQuery<?> countQuery, TypedQuery<?> idQuery, TypedQuery<X> objectQuery, KeysetExtractionObjectBuilder<X> objectBuilder, Set<Parameter<?>> parameters,
-                                   Object entityId, int firstResult, int pageSize, int identifierCount, boolean needsNewIdList, int[] keysetToSelectIndexMapping, KeysetMode keysetMode, KeysetPage keysetPage) {
+    private final InListPadding inListPadding;
+    private final KeysetCheckpointCache keysetCheckpointCache;
+    private String checkpointKey;
+    private final int checkpointOffset;
+    private KeysetCheckpointFallback<X> checkpointFallback;
+    private final String prefetchIdQueryString;
+    private final Map<String, Object> prefetchParameterValues;
+
+    @SuppressWarnings("checkstyle:parameternumber")
+    public PaginatedTypedQueryImpl(boolean withExtractAllKeysets, boolean withCount, boolean withInlineCount, boolean withInlineIdQuery, long boundedCount, int highestOffset, int prefetchPages, TypedQuery<?> countQuery, AsyncCountQuery asyncCountQuery, TypedQuery<?> idQuery, TypedQuery<X> objectQuery, KeysetExtractionObjectBuilder<X> objectBuilder,
+                                   CountExtractionObjectBuilder<X> countExtractionObjectBuilder, Set<Parameter<?>> parameters,
+                                   Object entityId, int firstResult, int pageSize, int identifierCount, boolean needsNewIdList, int[] keysetToSelectIndexMapping, KeysetMode keysetMode, KeysetPage keysetPage,
+                                   InListPadding inListPadding, KeysetCheckpointCache keysetCheckpointCache, String checkpointKey, int checkpointOffset, KeysetCheckpointFallback<X> checkpointFallback,
+                                   String prefetchIdQueryString, Map<String, Object> prefetchParameterValues) {
         this.withExtractAllKeysets = withExtractAllKeysets;
         this.withCount = withCount;
+        this.withInlineCount = withInlineCount;
+        this.withInlineIdQuery = withInlineIdQuery;
+        this.boundedCount = boundedCount;
         this.highestOffset = highestOffset;
+        this.prefetchPages = prefetchPages;
         this.countQuery = countQuery;
+        this.asyncCountQuery = asyncCountQuery;
         this.idQuery = idQuery;
         this.objectQuery = objectQuery;
         this.objectBuilder = objectBuilder;
+        this.countExtractionObjectBuilder = countExtractionObjectBuilder;
         this.parameterToQuery = new HashMap<>(parameters.size());
         this.entityId = entityId;
         this.firstResult = firstResult;
@@ -91,6 +119,13 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
         this.keysetToSelectIndexMapping = keysetToSelectIndexMapping;
         this.keysetMode = keysetMode;
         this.keysetPage = keysetPage;
+        this.inListPadding = inListPadding;
+        this.keysetCheckpointCache = keysetCheckpointCache;
+        this.checkpointKey = checkpointKey;
+        this.checkpointOffset = checkpointOffset;
+        this.checkpointFallback = checkpointFallback;
+        this.prefetchIdQueryString = prefetchIdQueryString;
+        this.prefetchParameterValues = prefetchParameterValues;
 
         Map<String, Parameter<?>> params = new HashMap<>(parameters.size());
         for (Parameter<?> parameter : parameters) {
@@ -155,7 +190,7 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
     public List<X> getPageResultList() {
         int queryFirstResult = firstResult;
         int firstRow = firstResult;
-        return getResultList(queryFirstResult, firstRow, -1L);
+        return getResultList(queryFirstResult, firstRow, -1L, false);
     }
 
     @Override
@@ -165,7 +200,11 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
         int firstRow = firstResult;
         long totalSize = -1L;
         if (withCount) {
-            if (entityId == null) {
+            if (withInlineCount) {
+                return getResultList(queryFirstResult, firstRow, totalSize, true);
+            } else if (asyncCountQuery != null) {
+                return getResultListWithAsyncCount(queryFirstResult, firstRow);
+            } else if (entityId == null) {
                 totalSize = ((Number) countQuery.getSingleResult()).longValue();
             } else {
                 Object[] result = (Object[]) countQuery.getSingleResult();
@@ -187,20 +226,72 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
             return new PagedArrayList<X>(null, totalSize, queryFirstResult, pageSize);
         }
 
-        return getResultList(queryFirstResult, firstRow, totalSize);
+        return getResultList(queryFirstResult, firstRow, totalSize, false);
+    }
+
+    private PagedList<X> getResultListWithAsyncCount(int queryFirstResult, int firstRow) {
+        Future<Long> countFuture = asyncCountQuery.submit();
+        PagedList<X> resultList;
+        try {
+            resultList = getResultList(queryFirstResult, firstRow, -1L, false);
+        } catch (RuntimeException ex) {
+            countFuture.cancel(true);
+            throw ex;
+        }
+
+        long totalSize = AsyncCountQuery.getCount(countFuture);
+        return new PagedArrayList<X>(resultList, resultList.getKeysetPage(), totalSize, totalSize >= boundedCount, queryFirstResult, pageSize);
     }
 
-    private PagedList<X> getResultList(int queryFirstResult, int firstRow, long totalSize) {
+    private PagedList<X> getResultList(int queryFirstResult, int firstRow, long totalSize, boolean extractInlineCount) {
         if (idQuery != null) {
-            idQuery.setMaxResults(pageSize);
+            String prefetchKey = getPrefetchKey();
+            boolean prefetch = prefetchKey != null && isPrefetch();
+            List<?> ids = prefetch ? getPrefetchedIds(prefetchKey) : null;
+            boolean prefetchComplete;
+
+            if (ids == null) {
+                int maxResults = prefetch ? pageSize * (1 + prefetchPages) : pageSize;
+                idQuery.setMaxResults(maxResults);
+
+                if (keysetMode == KeysetMode.NONE) {
+                    idQuery.setFirstResult(firstRow);
+                } else {
+                    idQuery.setFirstResult(checkpointOffset);
+                }
 
-            if (keysetMode == KeysetMode.NONE) {
-                idQuery.setFirstResult(firstRow);
+                ids = idQuery.getResultList();
+                prefetchComplete = ids.size() < maxResults;
             } else {
-                idQuery.setFirstResult(0);
+                // The ids of this page were already fetched along with the page for which the keyset page was created
+                prefetchComplete = ((KeysetPageImpl) keysetPage).isPrefetchComplete();
             }
 
-            List<?> ids = idQuery.getResultList();
+            if (withInlineCount) {
+                if (extractInlineCount) {
+                    if (ids.isEmpty()) {
+                        totalSize = getEmptyPageTotalCount(firstRow);
+                    } else {
+                        Object[] firstTuple = (Object[]) ids.get(0);
+                        totalSize = ((Number) firstTuple[firstTuple.length - 1]).longValue();
+                    }
+                }
+                ids = removeInlineCount(ids);
+            }
+
+            List<?> prefetchedIds = null;
+            if (prefetch) {
+                // The next page starts after the highest keyset, so the rows after it are kept for the next page
+                int keysetPageSize = pageSize - highestOffset;
+                if (ids.size() > keysetPageSize) {
+                    prefetchedIds = new ArrayList<>(ids.subList(keysetPageSize, ids.size()));
+                } else if (prefetchComplete) {
+                    prefetchedIds = Collections.emptyList();
+                }
+                if (ids.size() > pageSize) {
+                    ids = ids.subList(0, pageSize);
+                }
+            }
 
             if (ids.isEmpty()) {
                 KeysetPage newKeysetPage = null;
@@ -209,7 +300,7 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                     newKeysetPage = keysetPage;
                 }
 
-                return new PagedArrayList<X>(newKeysetPage, totalSize, queryFirstResult, pageSize);
+                return new PagedArrayList<X>(newKeysetPage, totalSize, totalSize >= boundedCount, queryFirstResult, pageSize);
             }
 
             Serializable[] lowest = null;
@@ -305,30 +396,41 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                     }
                 }
             } else {
-                objectQuery.setParameter(AbstractCommonQueryBuilder.ID_PARAM_NAME, ids);
+                objectQuery.setParameter(AbstractCommonQueryBuilder.ID_PARAM_NAME, inListPadding == null ? ids : inListPadding.pad(ids));
             }
 
             KeysetPage newKeyset = null;
 
             if (keysetToSelectIndexMapping != null) {
-                newKeyset = new KeysetPageImpl(firstRow, pageSize, lowest, highest, keysets);
+                newKeyset = new KeysetPageImpl(firstRow, pageSize, lowest, highest, keysets, prefetchKey, prefetchedIds, prefetchComplete);
+                if (checkpointKey != null) {
+                    int keysetPageSize = pageSize - highestOffset;
+                    putCheckpoints(firstRow, lowest, highest, firstRow + Math.min(ids.size(), keysetPageSize) - 1, keysets);
+                }
             }
 
             List<X> queryResultList = objectQuery.getResultList();
 
-            PagedList<X> pagedResultList = new PagedArrayList<X>(queryResultList, newKeyset, totalSize, queryFirstResult, pageSize);
+            PagedList<X> pagedResultList = new PagedArrayList<X>(queryResultList, newKeyset, totalSize, totalSize >= boundedCount, queryFirstResult, pageSize);
             return pagedResultList;
         } else {
-            objectQuery.setMaxResults(pageSize);
+            // An inlined id query already restricts the object query to the ids of the page
+            if (!withInlineIdQuery) {
+                objectQuery.setMaxResults(pageSize);
 
-            if (keysetMode == KeysetMode.NONE) {
-                objectQuery.setFirstResult(firstRow);
-            } else {
-                objectQuery.setFirstResult(0);
+                if (keysetMode == KeysetMode.NONE) {
+                    objectQuery.setFirstResult(firstRow);
+                } else {
+                    objectQuery.setFirstResult(checkpointOffset);
+                }
             }
 
             List<X> result = objectQuery.getResultList();
 
+            if (extractInlineCount) {
+                totalSize = result.isEmpty() ? getEmptyPageTotalCount(firstRow) : countExtractionObjectBuilder.getCount();
+            }
+
             if (result.isEmpty()) {
                 KeysetPage newKeysetPage = null;
                 if (keysetMode == KeysetMode.NEXT) {
@@ -336,7 +438,7 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                     newKeysetPage = keysetPage;
                 }
 
-                return new PagedArrayList<X>(newKeysetPage, totalSize, queryFirstResult, pageSize);
+                return new PagedArrayList<X>(newKeysetPage, totalSize, totalSize >= boundedCount, queryFirstResult, pageSize);
             }
 
             if (keysetMode == KeysetMode.PREVIOUS) {
@@ -350,13 +452,83 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
                 Serializable[] highest = objectBuilder.getHighest();
                 Serializable[][] keysets = objectBuilder.getKeysets();
                 newKeyset = new KeysetPageImpl(firstRow, pageSize, lowest, highest, keysets);
+                // With an inlined id query, the rows of the object query don't necessarily correspond to the elements
+                if (checkpointKey != null) {
+                    putCheckpoints(firstRow, lowest, withInlineIdQuery ? null : highest, firstRow + result.size() - 1, keysets);
+                }
             }
 
-            PagedList<X> pagedResultList = new PagedArrayList<X>(result, newKeyset, totalSize, queryFirstResult, pageSize);
+            PagedList<X> pagedResultList = new PagedArrayList<X>(result, newKeyset, totalSize, totalSize >= boundedCount, queryFirstResult, pageSize);
             return pagedResultList;
         }
     }
 
+    private void putCheckpoints(int firstRow, Serializable[] lowest, Serializable[] highest, int highestRow, Serializable[][] keysets) {
+        keysetCheckpointCache.put(checkpointKey, firstRow, new KeysetImpl(lowest));
+        if (highest != null) {
+            keysetCheckpointCache.put(checkpointKey, highestRow, new KeysetImpl(highest));
+        }
+        if (keysets != null) {
+            for (int i = 0; i < keysets.length; i++) {
+                if (keysets[i] != null) {
+                    keysetCheckpointCache.put(checkpointKey, firstRow + i, new KeysetImpl(keysets[i]));
+                }
+            }
+        }
+    }
+
+    private boolean isPrefetch() {
+        // Rows are only prefetched in the order of the next pages
+        return prefetchPages > 0 && keysetToSelectIndexMapping != null && keysetMode != KeysetMode.PREVIOUS && keysetMode != KeysetMode.SAME;
+    }
+
+    private String getPrefetchKey() {
+        if (prefetchIdQueryString == null) {
+            return null;
+        }
+        // Prefetched rows may only be used for the same id query with the same parameter values and page size
+        return KeysetPaginationHelper.getCheckpointKey(prefetchIdQueryString + "|pageSize=" + pageSize, prefetchParameterValues);
+    }
+
+    private List<?> getPrefetchedIds(String prefetchKey) {
+        // The prefetched rows follow the highest keyset of the keyset page which is exactly what the next page is based on
+        if (keysetMode != KeysetMode.NEXT || !(keysetPage instanceof KeysetPageImpl)) {
+            return null;
+        }
+
+        KeysetPageImpl prefetchKeysetPage = (KeysetPageImpl) keysetPage;
+        if (!prefetchKey.equals(prefetchKeysetPage.getPrefetchKey())) {
+            return null;
+        }
+        List<?> prefetchedIds = prefetchKeysetPage.getPrefetchedIds();
+        if (prefetchedIds == null || prefetchedIds.size() < pageSize && !prefetchKeysetPage.isPrefetchComplete()) {
+            return null;
+        }
+
+        return prefetchedIds;
+    }
+
+    private long getEmptyPageTotalCount(int firstRow) {
+        // Without keyset pagination, an empty first page means there are no rows at all
+        if (firstRow == 0) {
+            return 0L;
+        }
+        return getTotalCount();
+    }
+
+    private static List<?> removeInlineCount(List<?> ids) {
+        List<Object> newIds = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Object[] tuple = (Object[]) ids.get(i);
+            if (tuple.length == 2) {
+                newIds.add(tuple[0]);
+            } else {
+                newIds.add(Arrays.copyOf(tuple, tuple.length - 1));
+            }
+        }
+        return newIds;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public X getSingleResult() {
@@ -412,20 +584,48 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
         throw new UnsupportedOperationException("Not yet implemented!");
     }
 
+    private List<Query> getQueriesForParameter(String parameterName) {
+        // The checkpoints are only valid for the parameter values that are part of the checkpoint key
+        checkpointKey = null;
+        if (checkpointFallback != null) {
+            // The applied checkpoint might not be valid for the new parameter value, so we fall back to offset pagination
+            if (checkpointFallback.idQuery == null) {
+                objectQuery = checkpointFallback.objectQuery;
+                objectBuilder = checkpointFallback.objectBuilder;
+                countExtractionObjectBuilder = checkpointFallback.countExtractionObjectBuilder;
+            } else {
+                idQuery = checkpointFallback.idQuery;
+            }
+            keysetMode = KeysetMode.NONE;
+            checkpointFallback = null;
+        }
+        List<Query> queries = parameterToQuery.get(parameterName).getQueries(countQuery, idQuery, objectQuery);
+        if (asyncCountQuery != null && queries.contains(countQuery)) {
+            // The asynchronous count query uses the parameter values captured at creation time, so we fall back to the synchronous count query
+            asyncCountQuery = null;
+        }
+        return queries;
+    }
+
     @Override
+    @SuppressWarnings("unchecked")
     public <T> TypedQuery<X> setParameter(Parameter<T> param, T value) {
+        setPrefetchParameterValue(param, value);
+        if (inListPadding != null && value instanceof Collection<?>) {
+            value = (T) inListPadding.pad((Collection<?>) value);
+        }
         if (param.getName() == null) {
-            List<Query> queries = parameterToQuery.get(Integer.toString(param.getPosition())).getQueries(countQuery, idQuery, objectQuery);
+            List<Query> queries = getQueriesForParameter(Integer.toString(param.getPosition()));
             for (Query query : queries) {
                 query.setParameter(param.getPosition(), value);
             }
         } else if (Character.isDigit(param.getName().charAt(0))) {
-            List<Query> queries = parameterToQuery.get(param.getName()).getQueries(countQuery, idQuery, objectQuery);
+            List<Query> queries = getQueriesForParameter(param.getName());
             for (Query query : queries) {
                 query.setParameter(Integer.parseInt(param.getName()), value);
             }
         } else {
-            List<Query> queries = parameterToQuery.get(param.getName()).getQueries(countQuery, idQuery, objectQuery);
+            List<Query> queries = getQueriesForParameter(param.getName());
             for (Query query : queries) {
                 query.setParameter(param.getName(), value);
             }
@@ -435,18 +635,19 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
 
     @Override
     public TypedQuery<X> setParameter(Parameter<Calendar> param, Calendar value, TemporalType temporalType) {
+        setPrefetchParameterValue(param, value);
         if (param.getName() == null) {
-            List<Query> queries = parameterToQuery.get(Integer.toString(param.getPosition())).getQueries(countQuery, idQuery, objectQuery);
+            List<Query> queries = getQueriesForParameter(Integer.toString(param.getPosition()));
             for (Query query : queries) {
                 query.setParameter(param.getPosition(), value, temporalType);
             }
         } else if (Character.isDigit(param.getName().charAt(0))) {
-            List<Query> queries = parameterToQuery.get(param.getName()).getQueries(countQuery, idQuery, objectQuery);
+            List<Query> queries = getQueriesForParameter(param.getName());
             for (Query query : queries) {
                 query.setParameter(Integer.parseInt(param.getName()), value, temporalType);
             }
         } else {
-            List<Query> queries = parameterToQuery.get(param.getName()).getQueries(countQuery, idQuery, objectQuery);
+            List<Query> queries = getQueriesForParameter(param.getName());
             for (Query query : queries) {
                 query.setParameter(param.getName(), value, temporalType);
             }
@@ -456,18 +657,19 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
 
     @Override
     public TypedQuery<X> setParameter(Parameter<Date> param, Date value, TemporalType temporalType) {
+        setPrefetchParameterValue(param, value);
         if (param.getName() == null) {
-            List<Query> queries = parameterToQuery.get(Integer.toString(param.getPosition())).getQueries(countQuery, idQuery, objectQuery);
+            List<Query> queries = getQueriesForParameter(Integer.toString(param.getPosition()));
             for (Query query : queries) {
                 query.setParameter(param.getPosition(), value, temporalType);
             }
         } else if (Character.isDigit(param.getName().charAt(0))) {
-            List<Query> queries = parameterToQuery.get(param.getName()).getQueries(countQuery, idQuery, objectQuery);
+            List<Query> queries = getQueriesForParameter(param.getName());
             for (Query query : queries) {
                 query.setParameter(Integer.parseInt(param.getName()), value, temporalType);
             }
         } else {
-            List<Query> queries = parameterToQuery.get(param.getName()).getQueries(countQuery, idQuery, objectQuery);
+            List<Query> queries = getQueriesForParameter(param.getName());
             for (Query query : queries) {
                 query.setParameter(param.getName(), value, temporalType);
             }
@@ -475,6 +677,15 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
         return this;
     }
 
+    private void setPrefetchParameterValue(Parameter<?> param, Object value) {
+        if (prefetchParameterValues != null) {
+            String name = getParameterName(param);
+            if (prefetchParameterValues.containsKey(name)) {
+                prefetchParameterValues.put(name, value);
+            }
+        }
+    }
+
     @Override
     public TypedQuery<X> setParameter(String name, Object value) {
         return setParameter((Parameter<Object>) getParameter(name), value);
@@ -616,6 +827,36 @@ public class PaginatedTypedQueryImpl<X> implements PaginatedTypedQuery<X> {
         throw new PersistenceException("Unsupported unwrap: " + cls.getName());
     }
 
+    /**
+     * The query that is used instead of the one seeking from a keyset checkpoint when a parameter is set on the paginated query.
+     * It uses offset pagination and has the parameter values of the criteria builder bound.
+     *
+     * @param <X> The result type
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    static final class KeysetCheckpointFallback<X> {
+
+        private final TypedQuery<?> idQuery;
+        private final TypedQuery<X> objectQuery;
+        private final KeysetExtractionObjectBuilder<X> objectBuilder;
+        private final CountExtractionObjectBuilder<X> countExtractionObjectBuilder;
+
+        KeysetCheckpointFallback(TypedQuery<?> idQuery) {
+            this.idQuery = idQuery;
+            this.objectQuery = null;
+            this.objectBuilder = null;
+            this.countExtractionObjectBuilder = null;
+        }
+
+        KeysetCheckpointFallback(TypedQuery<X> objectQuery, KeysetExtractionObjectBuilder<X> objectBuilder, CountExtractionObjectBuilder<X> countExtractionObjectBuilder) {
+            this.idQuery = null;
+            this.objectQuery = objectQuery;
+            this.objectBuilder = objectBuilder;
+            this.countExtractionObjectBuilder = countExtractionObjectBuilder;
+        }
+    }
+
     /**
      * @author Christian Beikov
      * @since 1.2.0
@@ -16,6 +16,7 @@
 
 package com.blazebit.persistence.impl;
 
+import com.blazebit.persistence.impl.query.ArrayParameterValue;
 import com.blazebit.persistence.parser.expression.Expression;
 import com.blazebit.persistence.parser.expression.ParameterExpression;
 import com.blazebit.reflection.PropertyPathExpression;
@@ -45,6 +46,7 @@ import java.util.Set;
 public class ParameterManager {
 
     private static final String PREFIX = "param_";
+    private final MainQuery mainQuery;
     private int counter;
     private final Map<String, ParameterImpl<?>> parameters = new HashMap<>();
     private final Map<String, String> valuesParameters = new HashMap<>();
@@ -52,7 +54,8 @@ public class ParameterManager {
     private final ParameterUnregistrationVisitor parameterUnregistrationVisitor;
     private int positionalOffset = -1; // Records the last positional parameter index that was used
 
-    public ParameterManager() {
+    public ParameterManager(MainQuery mainQuery) {
+        this.mainQuery = mainQuery;
         this.parameterRegistrationVisitor = new ParameterRegistrationVisitor(this);
         this.parameterUnregistrationVisitor = new ParameterUnregistrationVisitor(this);
     }
@@ -180,6 +183,34 @@ public class ParameterManager {
         }
     }
 
+    boolean hasEntityManagerDependentParameters() {
+        ParameterValueTransformer toIdTransformer = mainQuery.parameterTransformerFactory.getToIdTransformer();
+        for (ParameterImpl<?> parameter : parameters.values()) {
+            if (isEntityManagerDependent(parameter, toIdTransformer)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    Map<String, ParameterImpl<?>> getTemplateParameters() {
+        ParameterValueTransformer toIdTransformer = mainQuery.parameterTransformerFactory.getToIdTransformer();
+        Map<String, ParameterImpl<?>> templateParameters = new HashMap<>(parameters.size());
+        for (Map.Entry<String, ParameterImpl<?>> entry : parameters.entrySet()) {
+            ParameterImpl<?> parameter = entry.getValue();
+            if (isEntityManagerDependent(parameter, toIdTransformer)) {
+                throw new IllegalStateException("Can't create a query template because the parameter '" + entry.getKey() + "' requires a value transformer that depends on the entity manager!");
+            }
+            templateParameters.put(entry.getKey(), parameter.copy());
+        }
+        return templateParameters;
+    }
+
+    private static boolean isEntityManagerDependent(ParameterImpl<?> parameter, ParameterValueTransformer toIdTransformer) {
+        // Only the association to id transformer is stateless, other transformers might capture the entity manager
+        return parameter.getTranformer() != null && parameter.getTranformer() != toIdTransformer;
+    }
+
     Set<String> getParameterListNames(Query q) {
         return getParameterListNames(q, null);
     }
@@ -204,7 +235,7 @@ public class ParameterManager {
                 continue;
             }
             ParameterImpl<?> parameter = getParameter(name);
-            if (parameter != null && parameter.isCollectionValued()) {
+            if (parameter != null && parameter.isCollectionValued() && parameter.getArrayTransformer() == null) {
                 parameterListNames.add(name);
             }
         }
@@ -215,6 +246,7 @@ public class ParameterManager {
     }
 
     void parameterizeQuery(Query q, String skippedParameterPrefix) {
+        InListPadding inListPadding = mainQuery.getQueryConfiguration().getInListPadding();
         Set<String> requestedValueParameters = new HashSet<String>();
         for (Parameter<?> p : q.getParameters()) {
             String parameterName = p.getName();
@@ -242,13 +274,13 @@ public class ParameterManager {
                     q.setParameter(parameterName, parameter.getValue());
                 }
             } else {
-                parameter.bind(q);
+                parameter.bind(q, inListPadding);
             }
         }
 
         for (String parameterName : requestedValueParameters) {
             ParameterImpl<?> parameter = parameters.get(parameterName);
-            parameter.bind(q);
+            parameter.bind(q, inListPadding);
         }
     }
 
@@ -274,6 +306,9 @@ public class ParameterManager {
         Map<String, ParameterValueTransformer> transformers = new HashMap<>();
         for (Map.Entry<String, ParameterImpl<?>> entry : parameters.entrySet()) {
             ParameterValueTransformer transformer = entry.getValue().getTranformer();
+            if (transformer == null) {
+                transformer = entry.getValue().getArrayTransformer();
+            }
             if (transformer != null) {
                 transformers.put(entry.getKey(), transformer);
             }
@@ -281,6 +316,19 @@ public class ParameterManager {
         return transformers;
     }
 
+    void applyArrayTransformers(AbstractCommonQueryBuilder<?, ?, ?, ?, ?> queryBuilder, Map<String, ArrayParameterTransformer> arrayTransformers) {
+        for (ParameterImpl<?> parameter : parameters.values()) {
+            if (parameter.isCollectionValued()) {
+                ArrayParameterTransformer arrayTransformer = arrayTransformers.get(parameter.getName());
+                // Usages in other query builders like subqueries or CTEs are not known, so these parameters are never bound as array
+                if (arrayTransformer != null && !parameter.isUsedOnlyBy(queryBuilder)) {
+                    arrayTransformer = null;
+                }
+                parameter.setArrayTransformer(arrayTransformer);
+            }
+        }
+    }
+
     public Map<String, ValuesParameterBinder> getValuesBinders() {
         Map<String, ValuesParameterBinder> binders = new HashMap<>();
         for (Map.Entry<String, ParameterImpl<?>> entry : parameters.entrySet()) {
@@ -490,6 +538,7 @@ public class ParameterManager {
         private T value;
         private boolean valueSet;
         private ParameterValueTransformer tranformer;
+        private ArrayParameterTransformer arrayTransformer;
 
         public ParameterImpl(String name, boolean collectionValued, ClauseType clause, AbstractCommonQueryBuilder<?, ?, ?, ?, ?> queryBuilder) {
             this.name = name;
@@ -630,7 +679,47 @@ public class ParameterManager {
             }
         }
 
-        public void bind(Query q) {
+        public ArrayParameterTransformer getArrayTransformer() {
+            return arrayTransformer;
+        }
+
+        public void setArrayTransformer(ArrayParameterTransformer arrayTransformer) {
+            this.arrayTransformer = arrayTransformer;
+        }
+
+        boolean isUsedOnlyBy(AbstractCommonQueryBuilder<?, ?, ?, ?, ?> queryBuilder) {
+            for (Set<AbstractCommonQueryBuilder<?, ?, ?, ?, ?>> builders : clauseTypes.values()) {
+                for (AbstractCommonQueryBuilder<?, ?, ?, ?, ?> builder : builders) {
+                    // Builders like the paginated criteria builder share the managers and thus the parameter usages of the builder they wrap
+                    if (builder.joinManager != queryBuilder.joinManager) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        public ParameterImpl<T> copy() {
+            ParameterImpl<T> parameter;
+            if (name == null) {
+                parameter = new ParameterImpl<>(position, collectionValued, null, null);
+            } else {
+                parameter = new ParameterImpl<>(name, collectionValued, null, null);
+            }
+            parameter.parameterType = parameterType;
+            parameter.tranformer = tranformer;
+            parameter.arrayTransformer = arrayTransformer;
+            parameter.valueSet = valueSet;
+            if (value instanceof ParameterValue) {
+                parameter.value = (T) ((ParameterValue) value).copy();
+            } else {
+                parameter.value = value;
+            }
+            return parameter;
+        }
+
+        public void bind(Query q, InListPadding inListPadding) {
             if (valueSet) {
                 if (value instanceof ParameterValue) {
                     if (name == null) {
@@ -638,6 +727,14 @@ public class ParameterManager {
                     } else {
                         ((ParameterValue) value).bind(q, name);
                     }
+                } else if (arrayTransformer != null && value instanceof Collection<?>) {
+                    ((ArrayParameterValue) arrayTransformer.transform(value)).bind(q, name);
+                } else if (inListPadding != null && value instanceof Collection<?>) {
+                    if (name == null) {
+                        q.setParameter(position, inListPadding.pad((Collection<?>) value));
+                    } else {
+                        q.setParameter(name, inListPadding.pad((Collection<?>) value));
+                    }
                 } else {
                     if (name == null) {
                         q.setParameter(position, value);
@@ -33,6 +33,8 @@ public interface QueryConfiguration {
 
     public String getExpressionCacheClass();
 
+    public int getExpressionCacheMaxSize();
+
     public boolean isCountTransformationEnabled();
 
     public boolean isImplicitGroupByFromSelectEnabled();
@@ -43,10 +45,28 @@ public interface QueryConfiguration {
 
     public boolean isValuesClauseFilterNullsEnabled();
 
+    public int getValuesClauseTemporaryTableThreshold();
+
     public boolean isParameterAsLiteralRenderingEnabled();
 
     public boolean isOptimizedKeysetPredicateRenderingEnabled();
 
+    public boolean isQueryPlanCacheEnabled();
+
+    public boolean isInListArrayBindingEnabled();
+
+    public InListPadding getInListPadding();
+
+    public int getQueryPlanCacheMaxSize();
+
+    public int getCustomSqlCacheMaxSize();
+
+    public int getKeysetCheckpointInterval();
+
+    public String getKeysetCheckpointCacheClass();
+
+    public int getKeysetCheckpointCacheMaxSize();
+
     public String getProperty(String name);
 
     public Map<String, String> getProperties();
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.parser.SimpleQueryGenerator;
+import com.blazebit.persistence.parser.expression.ParameterExpression;
+import com.blazebit.persistence.parser.expression.SubqueryExpression;
+import com.blazebit.persistence.parser.predicate.Predicate;
+import com.blazebit.persistence.parser.util.JpaMetamodelUtils;
+import com.blazebit.persistence.parser.util.TypeConverter;
+import com.blazebit.persistence.parser.util.TypeUtils;
+import com.blazebit.persistence.spi.DbmsStatementType;
+
+import javax.persistence.metamodel.EntityType;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders a structural fingerprint of a query builder that is used as key for the {@link QueryPlanCache}.
+ * Two builders with the same fingerprint are guaranteed to produce the same JPQL, so the fingerprint contains
+ * the raw expressions of all clauses, the explicit join tree and everything else that influences query rendering.
+ * Parameters are rendered as placeholders except for the SELECT clause, where values might get inlined as literals.
+ *
+ * Builders that contain constructs which depend on state outside of the builder, like subqueries, CTEs, VALUES clauses
+ * or keyset pagination, are considered not cacheable and produce no fingerprint.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class QueryFingerprintGenerator extends SimpleQueryGenerator {
+
+    private final ParameterManager parameterManager;
+    private boolean cacheable;
+    private boolean literalParameters;
+
+    public QueryFingerprintGenerator(ParameterManager parameterManager) {
+        this.parameterManager = parameterManager;
+    }
+
+    /**
+     * Returns the fingerprint of the given query builder or <code>null</code> if the builder is not cacheable.
+     *
+     * @param builder The query builder
+     * @return The fingerprint or <code>null</code>
+     */
+    public String generate(AbstractCommonQueryBuilder<?, ?, ?, ?, ?> builder) {
+        MainQuery mainQuery = builder.mainQuery;
+        if (!builder.isMainQuery || builder.statementType != DbmsStatementType.SELECT || builder.finalSetOperationBuilder != null
+                || mainQuery.cteManager.hasCtes() || builder.joinManager.hasEntityFunctions() || builder.hasKeyset()
+                || builder.windowManager != null && !builder.windowManager.getWindows().isEmpty()) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder(256);
+        setQueryBuffer(sb);
+        this.cacheable = true;
+        this.literalParameters = false;
+
+        sb.append(builder.getClass().getName()).append('|').append(builder.resultType.getName());
+        appendConfiguration(sb, mainQuery.getQueryConfiguration());
+
+        // SELECT
+        SelectManager<?> selectManager = builder.selectManager;
+        sb.append("|S");
+        if (selectManager.isDistinct()) {
+            sb.append('D');
+        }
+        if (selectManager.getSelectObjectBuilder() != null) {
+            sb.append('[').append(selectManager.getSelectObjectBuilder().getClass().getName()).append(']');
+        }
+        this.literalParameters = mainQuery.getQueryConfiguration().isParameterAsLiteralRenderingEnabled();
+        List<SelectInfo> selectInfos = selectManager.getSelectInfos();
+        for (int i = 0; i < selectInfos.size(); i++) {
+            SelectInfo selectInfo = selectInfos.get(i);
+            sb.append(',');
+            selectInfo.getExpression().accept(this);
+            if (selectInfo.getAlias() != null) {
+                sb.append(" AS ").append(selectInfo.getAlias());
+            }
+        }
+        this.literalParameters = false;
+
+        // FROM
+        sb.append("|F");
+        for (JoinNode rootNode : builder.joinManager.getRoots()) {
+            if (rootNode.getCorrelationParent() != null) {
+                return null;
+            }
+            appendJoinNode(sb, rootNode);
+        }
+
+        // WHERE
+        sb.append("|W");
+        appendPredicate(builder.whereManager.rootPredicate.getPredicate());
+
+        // GROUP BY
+        sb.append("|G");
+        List<NodeInfo> groupByInfos = builder.groupByManager.getGroupByInfos();
+        for (int i = 0; i < groupByInfos.size(); i++) {
+            sb.append(',');
+            groupByInfos.get(i).getExpression().accept(this);
+        }
+
+        // HAVING
+        sb.append("|H");
+        appendPredicate(builder.havingManager.rootPredicate.getPredicate());
+
+        // ORDER BY
+        sb.append("|O");
+        List<OrderByManager.OrderByInfo> orderByInfos = builder.orderByManager.getOrderByInfos();
+        for (int i = 0; i < orderByInfos.size(); i++) {
+            OrderByManager.OrderByInfo orderByInfo = orderByInfos.get(i);
+            sb.append(',');
+            orderByInfo.getExpression().accept(this);
+            sb.append(orderByInfo.isAscending() ? " A" : " D");
+            sb.append(orderByInfo.isNullFirst() ? 'F' : 'L');
+        }
+
+        if (!cacheable) {
+            return null;
+        }
+        return sb.toString();
+    }
+
+    private static void appendConfiguration(StringBuilder sb, QueryConfiguration queryConfiguration) {
+        sb.append('|');
+        sb.append(queryConfiguration.isCountTransformationEnabled() ? '1' : '0');
+        sb.append(queryConfiguration.isImplicitGroupByFromSelectEnabled() ? '1' : '0');
+        sb.append(queryConfiguration.isImplicitGroupByFromHavingEnabled() ? '1' : '0');
+        sb.append(queryConfiguration.isImplicitGroupByFromOrderByEnabled() ? '1' : '0');
+        sb.append(queryConfiguration.isParameterAsLiteralRenderingEnabled() ? '1' : '0');
+        sb.append(queryConfiguration.isValuesClauseFilterNullsEnabled() ? '1' : '0');
+    }
+
+    private void appendPredicate(Predicate predicate) {
+        if (predicate != null) {
+            predicate.accept(this);
+        }
+    }
+
+    private void appendJoinNode(StringBuilder sb, JoinNode node) {
+        sb.append('(');
+        if (node.getParentTreeNode() == null) {
+            sb.append(JpaMetamodelUtils.getTypeName(node.getNodeType()));
+        } else {
+            sb.append(node.getJoinType());
+            if (node.isFetch()) {
+                sb.append(" FETCH");
+            }
+            sb.append(' ').append(node.getParentTreeNode().getRelationName());
+            if (node.getParentTreeNode().getDefaultNode() == node) {
+                sb.append('!');
+            }
+        }
+        if (node.getQualificationExpression() != null) {
+            sb.append(' ').append(node.getQualificationExpression());
+        }
+        EntityType<?> treatType = node.getTreatType();
+        if (treatType != null) {
+            sb.append(" TREAT ").append(treatType.getName());
+        }
+        sb.append(' ').append(node.getAlias());
+        if (node.getAliasInfo().isImplicit()) {
+            sb.append('~');
+        }
+        if (node.getOnPredicate() != null) {
+            sb.append(" ON ");
+            node.getOnPredicate().accept(this);
+        }
+
+        for (Map.Entry<String, JoinTreeNode> treeNodeEntry : node.getNodes().entrySet()) {
+            for (JoinNode childNode : treeNodeEntry.getValue().getJoinNodes().values()) {
+                appendJoinNode(sb, childNode);
+            }
+        }
+        for (JoinNode treatedNode : node.getTreatedJoinNodes().values()) {
+            appendJoinNode(sb, treatedNode);
+        }
+        for (JoinNode entityJoinNode : node.getEntityJoinNodes()) {
+            sb.append('E');
+            sb.append(entityJoinNode.getJoinType()).append(' ');
+            appendJoinNode(sb, entityJoinNode);
+        }
+        sb.append(')');
+    }
+
+    @Override
+    public void visit(SubqueryExpression expression) {
+        // Subqueries may be correlated and have their own lifecycle, so we don't cache queries containing them
+        cacheable = false;
+    }
+
+    @Override
+    public void visit(ParameterExpression expression) {
+        super.visit(expression);
+        if (literalParameters) {
+            String literalValue = getLiteralValue(expression);
+            if (literalValue != null) {
+                sb.append('=').append(literalValue);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private String getLiteralValue(ParameterExpression expression) {
+        Object value = expression.getValue();
+        if (value == null) {
+            value = parameterManager.getParameterValue(expression.getName());
+        }
+
+        if (value != null) {
+            final TypeConverter<Object> converter = (TypeConverter<Object>) TypeUtils.getConverter(value.getClass());
+            if (converter != null) {
+                return converter.toString(value);
+            }
+        }
+
+        return null;
+    }
+}
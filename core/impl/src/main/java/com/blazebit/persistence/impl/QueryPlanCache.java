@@ -0,0 +1,118 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.impl.util.BoundedConcurrentCache;
+import com.blazebit.persistence.spi.QueryPlanCacheStatistics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A criteria builder factory level cache for the JPQL of query builders keyed by the structural fingerprint
+ * produced by {@link QueryFingerprintGenerator}. The cache is bounded and evicts the least recently used entries
+ * when the maximum size is exceeded. Lookups are lock free.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class QueryPlanCache implements QueryPlanCacheStatistics {
+
+    private final BoundedConcurrentCache<String, Entry> cache;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public QueryPlanCache(int maxSize) {
+        this.cache = new BoundedConcurrentCache<>(maxSize);
+    }
+
+    public Entry get(String key) {
+        Entry entry = cache.get(key);
+        if (entry == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+        return entry;
+    }
+
+    public void put(String key, Entry entry) {
+        cache.putIfAbsent(key, entry);
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    @Override
+    public int getSize() {
+        return cache.size();
+    }
+
+    @Override
+    public int getMaxSize() {
+        return cache.getMaxSize();
+    }
+
+    @Override
+    public void clear() {
+        cache.clear();
+        hitCount.set(0);
+        missCount.set(0);
+    }
+
+    /**
+     * A compiled query plan that can be applied to a fresh builder of the same shape.
+     *
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    public static final class Entry {
+
+        private final String queryString;
+        private final String[] toIdTransformedParameterNames;
+
+        public Entry(String queryString, String[] toIdTransformedParameterNames) {
+            this.queryString = queryString;
+            this.toIdTransformedParameterNames = toIdTransformedParameterNames;
+        }
+
+        public String getQueryString() {
+            return queryString;
+        }
+
+        /**
+         * Registers the association to id transformers that were registered while rendering the query string.
+         *
+         * @param parameterManager The parameter manager of the builder
+         * @param toIdTransformer The association to id transformer
+         */
+        public void applyTransformers(ParameterManager parameterManager, ParameterValueTransformer toIdTransformer) {
+            for (int i = 0; i < toIdTransformedParameterNames.length; i++) {
+                ParameterManager.ParameterImpl<?> parameter = parameterManager.getParameter(toIdTransformedParameterNames[i]);
+                if (parameter != null) {
+                    parameter.setTranformer(toIdTransformer);
+                }
+            }
+        }
+    }
+}
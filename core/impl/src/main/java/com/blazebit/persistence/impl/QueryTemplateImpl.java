@@ -0,0 +1,175 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.QueryTemplate;
+import com.blazebit.persistence.QueryTemplateBinding;
+import com.blazebit.persistence.impl.query.ObjectBuilderTypedQuery;
+import com.blazebit.persistence.spi.JpaProvider;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Parameter;
+import javax.persistence.TypedQuery;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ *
+ * @param <T> The query result type
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class QueryTemplateImpl<T> implements QueryTemplate<T> {
+
+    private final String queryString;
+    private final Class<?> expectedResultType;
+    private final ObjectBuilder<T> objectBuilder;
+    // The parameters are never mutated after construction, a binding works on copies
+    private final Map<String, ParameterManager.ParameterImpl<?>> parameters;
+    private final InListPadding inListPadding;
+    private final JpaProvider jpaProvider;
+    private final boolean cacheable;
+    private final int firstResult;
+    private final int maxResults;
+
+    public QueryTemplateImpl(String queryString, Class<?> expectedResultType, ObjectBuilder<T> objectBuilder, Map<String, ParameterManager.ParameterImpl<?>> parameters, InListPadding inListPadding, JpaProvider jpaProvider, boolean cacheable, int firstResult, int maxResults) {
+        this.queryString = queryString;
+        this.expectedResultType = expectedResultType;
+        this.objectBuilder = objectBuilder;
+        this.parameters = parameters;
+        this.inListPadding = inListPadding;
+        this.jpaProvider = jpaProvider;
+        this.cacheable = cacheable;
+        this.firstResult = firstResult;
+        this.maxResults = maxResults;
+    }
+
+    @Override
+    public String getQueryString() {
+        return queryString;
+    }
+
+    @Override
+    public Set<String> getParameterNames() {
+        return Collections.unmodifiableSet(parameters.keySet());
+    }
+
+    @Override
+    public QueryTemplateBinding<T> bind(String name, Object value) {
+        return new Binding<>(this).bind(name, value);
+    }
+
+    @Override
+    public TypedQuery<T> createQuery(EntityManager entityManager) {
+        return createQuery(entityManager, Collections.<String, ParameterManager.ParameterImpl<?>>emptyMap());
+    }
+
+    @Override
+    public List<T> getResultList(EntityManager entityManager) {
+        return createQuery(entityManager).getResultList();
+    }
+
+    @Override
+    public T getSingleResult(EntityManager entityManager) {
+        return createQuery(entityManager).getSingleResult();
+    }
+
+    @SuppressWarnings("unchecked")
+    TypedQuery<T> createQuery(EntityManager entityManager, Map<String, ParameterManager.ParameterImpl<?>> boundParameters) {
+        TypedQuery<?> query = entityManager.createQuery(queryString, expectedResultType);
+        if (firstResult != 0) {
+            query.setFirstResult(firstResult);
+        }
+        if (maxResults != Integer.MAX_VALUE) {
+            query.setMaxResults(maxResults);
+        }
+        if (cacheable) {
+            jpaProvider.setCacheable(query);
+        }
+
+        for (Parameter<?> p : query.getParameters()) {
+            String parameterName = p.getName();
+            // In case of positional parameters, we convert the position to a string and look it up instead
+            if (parameterName == null) {
+                parameterName = p.getPosition().toString();
+            }
+            ParameterManager.ParameterImpl<?> parameter = boundParameters.get(parameterName);
+            if (parameter == null) {
+                parameter = parameters.get(parameterName);
+                if (parameter == null) {
+                    throw new IllegalArgumentException(String.format("Parameter name \"%s\" does not exist", parameterName));
+                }
+            }
+            parameter.bind(query, inListPadding);
+        }
+
+        if (objectBuilder == null) {
+            return (TypedQuery<T>) query;
+        }
+        return new ObjectBuilderTypedQuery<>(query, objectBuilder);
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static final class Binding<T> implements QueryTemplateBinding<T> {
+
+        private final QueryTemplateImpl<T> template;
+        private final Map<String, ParameterManager.ParameterImpl<?>> boundParameters;
+
+        public Binding(QueryTemplateImpl<T> template) {
+            this.template = template;
+            this.boundParameters = new HashMap<>(template.parameters.size());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public QueryTemplateBinding<T> bind(String name, Object value) {
+            ParameterManager.ParameterImpl<Object> parameter = (ParameterManager.ParameterImpl<Object>) boundParameters.get(name);
+            if (parameter == null) {
+                ParameterManager.ParameterImpl<?> templateParameter = template.parameters.get(name);
+                if (templateParameter == null) {
+                    throw new IllegalArgumentException(String.format("Parameter name \"%s\" does not exist", name));
+                }
+                parameter = (ParameterManager.ParameterImpl<Object>) templateParameter.copy();
+                boundParameters.put(name, parameter);
+            }
+            parameter.setValue(value);
+            return this;
+        }
+
+        @Override
+        public TypedQuery<T> createQuery(EntityManager entityManager) {
+            return template.createQuery(entityManager, boundParameters);
+        }
+
+        @Override
+        public List<T> getResultList(EntityManager entityManager) {
+            return createQuery(entityManager).getResultList();
+        }
+
+        @Override
+        public T getSingleResult(EntityManager entityManager) {
+            return createQuery(entityManager).getSingleResult();
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package com.blazebit.persistence.impl;
 
 import com.blazebit.persistence.BaseFinalSetOperationBuilder;
+import com.blazebit.persistence.impl.function.array.ArrayAnyFunction;
 import com.blazebit.persistence.impl.query.EntityFunctionNode;
 import com.blazebit.persistence.parser.SimpleQueryGenerator;
 import com.blazebit.persistence.parser.expression.AggregateExpression;
@@ -64,7 +65,6 @@ import javax.persistence.metamodel.ManagedType;
 import javax.persistence.metamodel.Type;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -88,6 +88,7 @@ public class ResolvingQueryGenerator extends SimpleQueryGenerator {
     private ClauseType clauseType;
     private Map<JoinNode, Boolean> treatedJoinNodesForConstraints;
     private final Set<String> currentlyResolvingAliases;
+    private final MainQuery mainQuery;
     private final AliasManager aliasManager;
     private final ParameterManager parameterManager;
     private final AssociationParameterTransformerFactory parameterTransformerFactory;
@@ -121,17 +122,15 @@ public class ResolvingQueryGenerator extends SimpleQueryGenerator {
         BUILT_IN_FUNCTIONS = functions;
     }
 
-    public ResolvingQueryGenerator(AliasManager aliasManager, ParameterManager parameterManager, AssociationParameterTransformerFactory parameterTransformerFactory, JpaProvider jpaProvider, Map<String, JpqlFunction> registeredFunctions) {
+    public ResolvingQueryGenerator(MainQuery mainQuery, AliasManager aliasManager) {
+        this.mainQuery = mainQuery;
         this.aliasManager = aliasManager;
-        this.parameterManager = parameterManager;
-        this.parameterTransformerFactory = parameterTransformerFactory;
-        this.jpaProvider = jpaProvider;
-        this.registeredFunctions = registeredFunctions;
+        this.parameterManager = mainQuery.parameterManager;
+        this.parameterTransformerFactory = mainQuery.parameterTransformerFactory;
+        this.jpaProvider = mainQuery.jpaProvider;
+        this.registeredFunctions = mainQuery.registeredFunctions;
+        this.registeredFunctionsNames = mainQuery.registeredFunctionsNames;
         this.currentlyResolvingAliases = new HashSet<>();
-        this.registeredFunctionsNames = new HashMap<>(registeredFunctions.size());
-        for (Map.Entry<String, JpqlFunction> registeredFunctionEntry : registeredFunctions.entrySet()) {
-            registeredFunctionsNames.put(registeredFunctionEntry.getKey().toLowerCase(), registeredFunctionEntry.getKey());
-        }
     }
 
     @Override
@@ -729,6 +728,9 @@ public class ResolvingQueryGenerator extends SimpleQueryGenerator {
 
     @Override
     public void visit(InPredicate predicate) {
+        if (renderArrayParameterComparisonIfPossible(predicate)) {
+            return;
+        }
         if (predicate.getRight().size() == 1 && jpaProvider.needsAssociationToIdRewriteInOnClause() && clauseType == ClauseType.JOIN) {
             Expression right = predicate.getRight().get(0);
             if (right instanceof ParameterExpression) {
@@ -751,6 +753,28 @@ public class ResolvingQueryGenerator extends SimpleQueryGenerator {
         }
     }
 
+    private boolean renderArrayParameterComparisonIfPossible(InPredicate predicate) {
+        if (externalRepresentation || predicate.isNegated() || predicate.getRight().size() != 1 || !(predicate.getRight().get(0) instanceof ParameterExpression) || !(predicate.getLeft() instanceof PathExpression)) {
+            return false;
+        }
+        ParameterExpression parameterExpression = (ParameterExpression) predicate.getRight().get(0);
+        ParameterManager.ParameterImpl<?> parameter = parameterManager.getParameter(parameterExpression.getName());
+        // The array binding is decided by the ArrayParameterBindingVisitor before rendering
+        if (parameter == null || parameter.getArrayTransformer() == null) {
+            return false;
+        }
+
+        PathExpression left = (PathExpression) predicate.getLeft();
+        BooleanLiteralRenderingContext oldBooleanLiteralRenderingContext = setBooleanLiteralRenderingContext(BooleanLiteralRenderingContext.PLAIN);
+        ParameterRenderingMode oldParameterRenderingMode = setParameterRenderingMode(ParameterRenderingMode.PLACEHOLDER);
+        left.accept(this);
+        sb.append(" = ");
+        renderFunctionFunction(resolveRenderedFunctionName(ArrayAnyFunction.FUNCTION_NAME), Collections.<Expression>singletonList(parameterExpression), null);
+        setBooleanLiteralRenderingContext(oldBooleanLiteralRenderingContext);
+        setParameterRenderingMode(oldParameterRenderingMode);
+        return true;
+    }
+
     private Type<?> getAssociationType(Expression expression1, Expression expression2) {
         if (expression1 instanceof PathExpression) {
             return ((PathExpression) expression1).getPathReference().getType();
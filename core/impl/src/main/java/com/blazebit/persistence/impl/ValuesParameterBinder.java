@@ -19,8 +19,10 @@ package com.blazebit.persistence.impl;
 import com.blazebit.reflection.PropertyPathExpression;
 
 import javax.persistence.Query;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 
 /**
  *
@@ -57,6 +59,25 @@ public class ValuesParameterBinder {
         }
     }
 
+    public List<Object[]> getArguments(Collection<Object> value) {
+        List<Object[]> arguments = new ArrayList<>(value.size());
+        for (Object element : value) {
+            // Null elements are treated like padding and are thus skipped
+            if (element != null) {
+                Object[] row = new Object[pathExpressions.length];
+                for (int j = 0; j < pathExpressions.length; j++) {
+                    if (pathExpressions[j] == null) {
+                        row[j] = element;
+                    } else {
+                        row[j] = pathExpressions[j].getNullSafeValue(element);
+                    }
+                }
+                arguments.add(row);
+            }
+        }
+        return arguments;
+    }
+
     public String[][] getParameterNames() {
         return parameterNames;
     }
@@ -51,12 +51,13 @@ public class WindowManager<T> extends AbstractManager<ExpressionModifier> {
     public void apply(ExpressionModifierVisitor<? super ExpressionModifier> visitor) {
     }
 
-    public WindowDefinition resolve(WindowDefinition windowDefinition) {
+    public static WindowDefinition resolve(WindowManager<?> windowManager, WindowDefinition windowDefinition) {
         if (windowDefinition.getWindowName() == null) {
             return windowDefinition;
         }
 
-        WindowDefinition baseWindowDefinition = windows.get(windowDefinition.getWindowName());
+        // The window manager is only created when a named window is registered
+        WindowDefinition baseWindowDefinition = windowManager == null ? null : windowManager.windows.get(windowDefinition.getWindowName());
         // See https://www.postgresql.org/docs/current/sql-select.html
         if (baseWindowDefinition == null) {
             throw new IllegalArgumentException("There is no window named '" + windowDefinition.getWindowName() + "' registered!");
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl.builder.object;
+
+import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.SelectBuilder;
+
+import java.util.List;
+
+/**
+ * Extracts the total count from the last element of a tuple which is produced by an inlined <code>COUNT(*) OVER ()</code>
+ * select item and passes the remaining tuple on to the delegate object builder.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class CountExtractionObjectBuilder<T> implements ObjectBuilder<T> {
+
+    private final ObjectBuilder<T> objectBuilder;
+    private final boolean unwrap;
+    private long count = -1L;
+
+    public CountExtractionObjectBuilder(ObjectBuilder<T> objectBuilder, boolean unwrap) {
+        this.objectBuilder = objectBuilder;
+        this.unwrap = unwrap;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T build(Object[] tuple) {
+        int size = tuple.length - 1;
+        count = ((Number) tuple[size]).longValue();
+        if (objectBuilder == null && unwrap) {
+            return (T) tuple[0];
+        }
+
+        Object[] newTuple = new Object[size];
+        System.arraycopy(tuple, 0, newTuple, 0, size);
+        if (objectBuilder == null) {
+            return (T) newTuple;
+        }
+        return objectBuilder.build(newTuple);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public List<T> buildList(List<T> list) {
+        if (objectBuilder == null) {
+            return list;
+        }
+        return objectBuilder.buildList(list);
+    }
+
+    @Override
+    public <X extends SelectBuilder<X>> void applySelects(X selectBuilder) {
+        if (objectBuilder != null) {
+            objectBuilder.applySelects(selectBuilder);
+        }
+    }
+
+}
@@ -490,6 +490,21 @@ public class DefaultDbmsDialect implements DbmsDialect {
         return "cast(" + expression + " as " + sqlType + ")";
     }
 
+    @Override
+    public boolean supportsTemporaryTables() {
+        return false;
+    }
+
+    @Override
+    public String getCreateTemporaryTableStatement(String tableName, String columnDefinitions) {
+        throw new UnsupportedOperationException("Temporary tables are not supported!");
+    }
+
+    @Override
+    public boolean supportsArrayParameters() {
+        return false;
+    }
+
     @Override
     public boolean needsReturningSqlTypes() {
         return false;
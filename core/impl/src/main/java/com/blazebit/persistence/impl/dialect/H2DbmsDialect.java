@@ -91,6 +91,22 @@ public class H2DbmsDialect extends DefaultDbmsDialect {
         return ValuesStrategy.SELECT_VALUES;
     }
 
+    @Override
+    public boolean supportsTemporaryTables() {
+        return true;
+    }
+
+    @Override
+    public String getCreateTemporaryTableStatement(String tableName, String columnDefinitions) {
+        // Without TRANSACTIONAL, H2 would commit the running transaction
+        return "create local temporary table if not exists " + tableName + " (" + columnDefinitions + ") transactional";
+    }
+
+    @Override
+    public boolean supportsArrayParameters() {
+        return true;
+    }
+
     @Override
     public boolean supportsBooleanAggregation() {
         return true;
@@ -118,6 +118,16 @@ public class MySQLDbmsDialect extends DefaultDbmsDialect {
         return ValuesStrategy.SELECT_UNION;
     }
 
+    @Override
+    public boolean supportsTemporaryTables() {
+        return true;
+    }
+
+    @Override
+    public String getCreateTemporaryTableStatement(String tableName, String columnDefinitions) {
+        return "create temporary table if not exists " + tableName + " (" + columnDefinitions + ")";
+    }
+
     @Override
     public boolean needsCastParameters() {
         return false;
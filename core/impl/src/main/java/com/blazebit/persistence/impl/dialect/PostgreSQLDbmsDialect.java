@@ -85,6 +85,21 @@ public class PostgreSQLDbmsDialect extends DefaultDbmsDialect {
         return new PostgreSQLDbmsLimitHandler();
     }
 
+    @Override
+    public boolean supportsTemporaryTables() {
+        return true;
+    }
+
+    @Override
+    public String getCreateTemporaryTableStatement(String tableName, String columnDefinitions) {
+        return "create temporary table if not exists " + tableName + " (" + columnDefinitions + ")";
+    }
+
+    @Override
+    public boolean supportsArrayParameters() {
+        return true;
+    }
+
     @Override
     public Map<String, String> appendExtendedSql(StringBuilder sqlSb, DbmsStatementType statementType, boolean isSubquery, boolean isEmbedded, StringBuilder withClause, String limit, String offset, String[] returningColumns, Map<DbmsModificationState, String> includedModificationStates) {
         // since changes in PostgreSQL won't be visible to other queries, we need to create the new state if required
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl.function.array;
+
+import com.blazebit.persistence.spi.FunctionRenderContext;
+import com.blazebit.persistence.spi.JpqlFunction;
+
+/**
+ * Renders the quantified comparison operand <code>ANY(array)</code> for an array parameter,
+ * which is used for rendering IN predicates with array bound collection parameters.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class ArrayAnyFunction implements JpqlFunction {
+
+    public static final String FUNCTION_NAME = "array_any";
+
+    @Override
+    public boolean hasArguments() {
+        return true;
+    }
+
+    @Override
+    public boolean hasParenthesesIfNoArguments() {
+        return true;
+    }
+
+    @Override
+    public Class<?> getReturnType(Class<?> firstArgumentType) {
+        return firstArgumentType == null ? null : firstArgumentType.getComponentType();
+    }
+
+    @Override
+    public void render(FunctionRenderContext functionRenderContext) {
+        if (functionRenderContext.getArgumentsSize() != 1) {
+            throw new RuntimeException("The array_any function needs exactly one argument <array>! args=" + functionRenderContext);
+        }
+
+        functionRenderContext.addChunk("any(");
+        functionRenderContext.addArgument(0);
+        functionRenderContext.addChunk(")");
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blazebit.persistence.impl.function.pageids;
+
+import com.blazebit.persistence.impl.util.SqlUtils;
+import com.blazebit.persistence.spi.FunctionRenderContext;
+import com.blazebit.persistence.spi.JpqlFunction;
+
+/**
+ * Renders the ids of a page of an ordered id subquery so that the object query of a pagination can be restricted without an id query round trip.
+ * The ORDER BY clause of the id subquery is moved into a <code>DENSE_RANK()</code> window function and the page range is filtered by the rank.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class PageIdsFunction implements JpqlFunction {
+
+    public static final String FUNCTION_NAME = "page_ids";
+
+    @Override
+    public boolean hasArguments() {
+        return true;
+    }
+
+    @Override
+    public boolean hasParenthesesIfNoArguments() {
+        return true;
+    }
+
+    @Override
+    public Class<?> getReturnType(Class<?> firstArgumentType) {
+        return firstArgumentType;
+    }
+
+    @Override
+    public void render(FunctionRenderContext context) {
+        if (context.getArgumentsSize() != 3) {
+            throw new RuntimeException("The page ids function needs exactly three arguments <id_subquery>, <first_rank> and <last_rank>! args=" + context);
+        }
+
+        String subquery = context.getArgument(0);
+        if (!startsWithIgnoreCase(subquery, "(select ")) {
+            throw new IllegalArgumentException("Expected a subquery as the first parameter but was: " + subquery);
+        }
+        subquery = subquery.substring(1, subquery.length() - (subquery.charAt(subquery.length() - 1) == ')' ? 1 : 0));
+
+        String[] selectItems = SqlUtils.getSelectItemExpressions(subquery, 0);
+        if (selectItems.length != 1) {
+            throw new IllegalArgumentException("Expected a subquery with a simple id but it was composite: " + subquery);
+        }
+        int fromIndex = SqlUtils.indexOfFrom(subquery);
+        int orderByIndex = SqlUtils.indexOfOrderBy(subquery);
+        if (orderByIndex == -1) {
+            throw new IllegalArgumentException("Expected a subquery with an order by clause but was: " + subquery);
+        }
+
+        StringBuilder sb = new StringBuilder(subquery.length() + 200);
+        sb.append("select page_ids_.page_id_ from (select ");
+        sb.append(selectItems[0]);
+        sb.append(" as page_id_, dense_rank() over (");
+        sb.append(subquery, orderByIndex + 1, subquery.length());
+        sb.append(") as page_rank_");
+        sb.append(subquery, fromIndex, orderByIndex);
+        sb.append(") page_ids_ where page_ids_.page_rank_ between ");
+        context.addChunk(sb.toString());
+        context.addArgument(1);
+        context.addChunk(" and ");
+        context.addArgument(2);
+    }
+
+    private static boolean startsWithIgnoreCase(String s1, String s2) {
+        return s1.regionMatches(true, 0, s2, 0, s2.length());
+    }
+}
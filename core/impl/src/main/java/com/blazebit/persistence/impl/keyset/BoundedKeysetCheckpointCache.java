@@ -0,0 +1,109 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blazebit.persistence.impl.keyset;
+
+import com.blazebit.persistence.Keyset;
+import com.blazebit.persistence.impl.util.BoundedConcurrentCache;
+import com.blazebit.persistence.spi.KeysetCheckpoint;
+import com.blazebit.persistence.spi.KeysetCheckpointCache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * A keyset checkpoint cache that retains at most one checkpoint per interval of rows, the one with the highest position,
+ * for a bounded number of queries. When the maximum number of queries is exceeded, the checkpoints of the least recently
+ * used queries are evicted. Neither lookups nor updates acquire a global lock.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class BoundedKeysetCheckpointCache implements KeysetCheckpointCache {
+
+    private final int interval;
+    private final BoundedConcurrentCache<String, ConcurrentNavigableMap<Integer, KeysetCheckpoint>> cache;
+
+    public BoundedKeysetCheckpointCache(int interval, int maxSize) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("The checkpoint interval must be positive but was: " + interval);
+        }
+        this.interval = interval;
+        this.cache = new BoundedConcurrentCache<>(maxSize);
+    }
+
+    @Override
+    public KeysetCheckpoint get(String queryKey, int position) {
+        ConcurrentNavigableMap<Integer, KeysetCheckpoint> checkpoints = cache.get(queryKey);
+        if (checkpoints == null) {
+            return null;
+        }
+        Integer bucket = position / interval;
+        Map.Entry<Integer, KeysetCheckpoint> entry = checkpoints.floorEntry(bucket);
+        // The checkpoint of the bucket of the position might be located after the position
+        if (entry != null && entry.getValue().getPosition() > position) {
+            entry = checkpoints.lowerEntry(bucket);
+        }
+        return entry == null ? null : entry.getValue();
+    }
+
+    @Override
+    public void put(String queryKey, int position, Keyset keyset) {
+        ConcurrentNavigableMap<Integer, KeysetCheckpoint> checkpoints = cache.get(queryKey);
+        if (checkpoints == null) {
+            checkpoints = cache.putIfAbsent(queryKey, new ConcurrentSkipListMap<Integer, KeysetCheckpoint>());
+        }
+        Integer bucket = position / interval;
+        KeysetCheckpoint checkpoint = new KeysetCheckpointImpl(position, keyset);
+        KeysetCheckpoint existing = checkpoints.putIfAbsent(bucket, checkpoint);
+        // Retry until the checkpoint with the highest position of the bucket is retained
+        while (existing != null && existing.getPosition() < position && !checkpoints.replace(bucket, existing, checkpoint)) {
+            existing = checkpoints.putIfAbsent(bucket, checkpoint);
+        }
+    }
+
+    @Override
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static final class KeysetCheckpointImpl implements KeysetCheckpoint {
+
+        private final int position;
+        private final Keyset keyset;
+
+        public KeysetCheckpointImpl(int position, Keyset keyset) {
+            this.position = position;
+            this.keyset = keyset;
+        }
+
+        @Override
+        public int getPosition() {
+            return position;
+        }
+
+        @Override
+        public Keyset getKeyset() {
+            return keyset;
+        }
+    }
+}
@@ -77,18 +77,24 @@ public class KeysetManager extends AbstractKeysetBuilderEndedListener {
 
         boolean hasNullableOrderBys = false;
         boolean hasParameterInOrderBy = false; // TODO: Determine if order by expression has parameter as that will ruin reordering of expressions in row value constructor
+        boolean hasMixedOrdering = false;
+        extractedNonNullableExpression = orderByExpressions.get(0);
         for (OrderByExpression orderByExpression : orderByExpressions) {
             if (orderByExpression.isNullable()) {
                 hasNullableOrderBys = true;
                 break;
             }
+            if (orderByExpression.isDescending() != extractedNonNullableExpression.isDescending()) {
+                hasMixedOrdering = true;
+            }
         }
 
-        extractedNonNullableExpression = orderByExpressions.get(0);
-
         // We can only use row value based keyset predicates if the dbms supports row values and row value comparison and
         // if all order bys are non-nullable because null elements would break the row value comparison.
-        if (hasNullableOrderBys || hasParameterInOrderBy || !dbmsDialect.supportsFullRowValueComparison() || !jpaProvider.supportsCustomFunctions()) {
+        // A row value comparison with mixed ordering would have to compare a mix of expressions and parameters which can't use an index,
+        // so we rather use the optimized predicate in that case.
+        if (hasNullableOrderBys || hasParameterInOrderBy || hasMixedOrdering || orderByExpressions.size() == 1
+                || !dbmsDialect.supportsFullRowValueComparison() || !jpaProvider.supportsCustomFunctions()) {
             // Under certain conditions, we cannot render an optimized form because we would need to include
             // null checks involving disjunction on the top predicate level which would contradict the main idea of the
             // optimization.
@@ -108,41 +114,30 @@ public class KeysetManager extends AbstractKeysetBuilderEndedListener {
                 buildKeysetPredicate0(keysetMode, key, sb, orderByExpressions, positionalOffset);
             }
         } else {
-            // we can use row value constructor syntax
-            // the rendering is heavily bound to the way this is parsed in RowValueComparisonFunction
-            queryGenerator.setClauseType(ClauseType.WHERE);
-            queryGenerator.setQueryBuffer(sb);
-            queryGenerator.setClauseType(null);
+            // Some DBMS like H2 or MySQL only use a row value comparison as filter predicate,
+            // so we also render a range predicate for the first expression which can be used to access an index
+            applyOptimizedKeysetNotNullItem(extractedNonNullableExpression, sb, 0, key[0], keysetMode, false, positionalOffset);
+            sb.append(" AND ");
 
+            // we can use row value constructor syntax i.e. (a, b) > (:a, :b)
+            // the rendering is heavily bound to the way this is parsed in RowValueComparisonFunction
+            String operator = extractedNonNullableExpression.isDescending() == (keysetMode == KeysetMode.PREVIOUS) ? ">" : "<";
+            if (keysetMode == KeysetMode.SAME) {
+                operator += "=";
+            }
             sb.append(jpaProvider.getCustomFunctionInvocation(RowValueComparisonFunction.FUNCTION_NAME, 1))
-                    .append('\'').append(keysetMode == KeysetMode.SAME ? "<=" : "<").append('\'');
+                    .append('\'').append(operator).append('\'');
 
+            queryGenerator.setClauseType(ClauseType.WHERE);
+            queryGenerator.setQueryBuffer(sb);
             for (int i = 0; i < orderByExpressions.size(); i++) {
-                OrderByExpression orderByExpression = orderByExpressions.get(i);
-
                 sb.append(",CASE WHEN (1=NULLIF(1,1) AND ");
-                if (orderByExpression.isDescending() && keysetMode != KeysetMode.PREVIOUS || orderByExpression.isAscending() && keysetMode == KeysetMode.PREVIOUS) {
-                    // Placeholder is needed as we need to render the parameter at the end to retain JDBC parameter order
-                    sb.append("1=NULLIF(1,1)");
-                } else {
-                    applyKeysetParameter(sb, i, key[i], positionalOffset);
-                    sb.append('=');
-                    queryGenerator.generate(orderByExpression.getExpression());
-                }
+                queryGenerator.generate(orderByExpressions.get(i).getExpression());
+                sb.append('=');
+                applyKeysetParameter(sb, i, key[i], positionalOffset);
                 sb.append(") THEN 1 ELSE 0 END");
             }
-            // We have to render right hand side parameters at the end to retain the correct order
-            for (int i = 0; i < orderByExpressions.size(); i++) {
-                OrderByExpression orderByExpression = orderByExpressions.get(i);
-
-                if (orderByExpression.isDescending() && keysetMode != KeysetMode.PREVIOUS || orderByExpression.isAscending() && keysetMode == KeysetMode.PREVIOUS) {
-                    sb.append(",CASE WHEN (1=NULLIF(1,1) AND ");
-                    queryGenerator.generate(orderByExpression.getExpression());
-                    sb.append('=');
-                    applyKeysetParameter(sb, i, key[i], positionalOffset);
-                    sb.append(") THEN 1 ELSE 0 END");
-                }
-            }
+            queryGenerator.setClauseType(null);
 
             sb.append(") = true");
         }
@@ -38,11 +38,26 @@ public class KeysetPageImpl implements KeysetPage {
     private final Keyset lowest;
     private final Keyset highest;
     private final List<Keyset> keysets;
+    // Prefetched rows are only an optimization for the same session, so they are not serialized
+    private final transient String prefetchKey;
+    private final transient List<?> prefetchedIds;
+    private final boolean prefetchComplete;
 
     public KeysetPageImpl(int firstResult, int maxResults, Serializable[] lowest, Serializable[] highest, Serializable[][] keysets) {
         this(firstResult, maxResults, new KeysetImpl(lowest), new KeysetImpl(highest), keysets(keysets));
     }
 
+    public KeysetPageImpl(int firstResult, int maxResults, Serializable[] lowest, Serializable[] highest, Serializable[][] keysets, String prefetchKey, List<?> prefetchedIds, boolean prefetchComplete) {
+        this.firstResult = firstResult;
+        this.maxResults = maxResults;
+        this.lowest = new KeysetImpl(lowest);
+        this.highest = new KeysetImpl(highest);
+        this.keysets = keysets(keysets);
+        this.prefetchKey = prefetchKey;
+        this.prefetchedIds = prefetchedIds;
+        this.prefetchComplete = prefetchComplete;
+    }
+
     public KeysetPageImpl(int firstResult, int maxResults, Keyset lowest, Keyset highest) {
         this.firstResult = firstResult;
         this.maxResults = maxResults;
@@ -56,6 +71,9 @@ public class KeysetPageImpl implements KeysetPage {
             keysets.add(highest);
         }
         this.keysets = keysets;
+        this.prefetchKey = null;
+        this.prefetchedIds = null;
+        this.prefetchComplete = false;
     }
 
     public KeysetPageImpl(int firstResult, int maxResults, Keyset lowest, Keyset highest, List<Keyset> keysets) {
@@ -64,6 +82,9 @@ public class KeysetPageImpl implements KeysetPage {
         this.lowest = lowest;
         this.highest = highest;
         this.keysets = keysets;
+        this.prefetchKey = null;
+        this.prefetchedIds = null;
+        this.prefetchComplete = false;
     }
 
     private static List<Keyset> keysets(Serializable[][] keysets) {
@@ -102,4 +123,34 @@ public class KeysetPageImpl implements KeysetPage {
     public List<Keyset> getKeysets() {
         return keysets;
     }
+
+    /**
+     * Returns the key of the id query and its parameter values for which the ids were prefetched, or <code>null</code> if nothing was prefetched.
+     *
+     * @return the key of the prefetched rows
+     * @since 1.4.0
+     */
+    public String getPrefetchKey() {
+        return prefetchKey;
+    }
+
+    /**
+     * Returns the rows of the id query that follow the highest keyset of this page, or <code>null</code> if nothing was prefetched.
+     *
+     * @return the prefetched rows of the id query
+     * @since 1.4.0
+     */
+    public List<?> getPrefetchedIds() {
+        return prefetchedIds;
+    }
+
+    /**
+     * Returns whether the prefetched rows contain all rows that follow the highest keyset of this page.
+     *
+     * @return true if there are no further rows after the prefetched rows, false otherwise
+     * @since 1.4.0
+     */
+    public boolean isPrefetchComplete() {
+        return prefetchComplete;
+    }
 }
@@ -17,6 +17,12 @@
 package com.blazebit.persistence.impl.keyset;
 
 import java.io.Serializable;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
 
 import com.blazebit.persistence.Keyset;
 import com.blazebit.persistence.KeysetPage;
@@ -92,6 +98,64 @@ public class KeysetPaginationHelper {
         }
     }
 
+    /**
+     * Builds the key under which the keyset checkpoints of a query are stored, or returns <code>null</code> if a parameter value
+     * has no stable representation in which case no checkpoints can be used.
+     *
+     * @param queryString The query string of the query without keyset predicate
+     * @param parameterValues The values of the parameters used in the query string, sorted by parameter name
+     * @return The checkpoint key or <code>null</code>
+     */
+    public static String getCheckpointKey(String queryString, Map<String, Object> parameterValues) {
+        StringBuilder sb = new StringBuilder(queryString.length() + parameterValues.size() * 32);
+        sb.append(queryString);
+        for (Map.Entry<String, Object> entry : parameterValues.entrySet()) {
+            sb.append('|').append(entry.getKey()).append('=');
+            if (!appendCheckpointKeyValue(sb, entry.getValue())) {
+                return null;
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean appendCheckpointKeyValue(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append("null");
+            return true;
+        }
+        if (value instanceof Collection<?>) {
+            sb.append('[');
+            for (Object element : (Collection<?>) value) {
+                if (!appendCheckpointKeyValue(sb, element)) {
+                    return false;
+                }
+                sb.append(',');
+            }
+            sb.append(']');
+            return true;
+        }
+
+        sb.append(value.getClass().getName()).append(':');
+        if (value instanceof String) {
+            // The length prefix makes the key unambiguous regardless of the characters in the string
+            String string = (String) value;
+            sb.append(string.length()).append(':').append(string);
+        } else if (value instanceof Timestamp) {
+            sb.append(((Timestamp) value).getTime()).append('.').append(((Timestamp) value).getNanos());
+        } else if (value instanceof Date) {
+            sb.append(((Date) value).getTime());
+        } else if (value instanceof Calendar) {
+            sb.append(((Calendar) value).getTimeInMillis()).append('@').append(((Calendar) value).getTimeZone().getID());
+        } else if (value instanceof Enum<?>) {
+            sb.append(((Enum<?>) value).name());
+        } else if (value instanceof Number || value instanceof Boolean || value instanceof Character || value instanceof UUID || value.getClass().getName().startsWith("java.time.")) {
+            sb.append(value);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
     private static boolean isValidKey(Keyset keyset) {
         if (keyset == null) {
             return false;
@@ -16,9 +16,11 @@
 
 package com.blazebit.persistence.impl.plan;
 
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.ReturningObjectBuilder;
 import com.blazebit.persistence.ReturningResult;
 import com.blazebit.persistence.impl.DefaultReturningResult;
+import com.blazebit.persistence.impl.query.ListCloseableIterator;
 import com.blazebit.persistence.spi.DbmsDialect;
 import com.blazebit.persistence.spi.ExtendedQuerySupport;
 import com.blazebit.persistence.spi.ServiceProvider;
@@ -75,6 +77,11 @@ public class CustomReturningModificationQueryPlan<T> implements ModificationQuer
         return Arrays.asList(getSingleResult());
     }
 
+    @Override
+    public CloseableIterator<ReturningResult<T>> scroll(int fetchSize) {
+        return new ListCloseableIterator<>(getResultList());
+    }
+
     @Override
     public ReturningResult<T> getSingleResult() {
         Query baseQuery = participatingQueries.get(0);
@@ -16,6 +16,9 @@
 
 package com.blazebit.persistence.impl.plan;
 
+import com.blazebit.persistence.CloseableIterator;
+import com.blazebit.persistence.impl.query.ListCloseableIterator;
+
 import javax.persistence.Query;
 import java.util.List;
 
@@ -49,4 +52,9 @@ public class DefaultSelectQueryPlan<T> implements SelectQueryPlan<T> {
         query.setMaxResults(maxResults);
         return (T) query.getSingleResult();
     }
+
+    @Override
+    public CloseableIterator<T> scroll(int fetchSize) {
+        return new ListCloseableIterator<>(getResultList());
+    }
 }
@@ -16,6 +16,8 @@
 
 package com.blazebit.persistence.impl.plan;
 
+import com.blazebit.persistence.CloseableIterator;
+
 import java.util.List;
 
 /**
@@ -29,4 +31,6 @@ public interface SelectQueryPlan<T> {
 
     public T getSingleResult();
 
+    public CloseableIterator<T> scroll(int fetchSize);
+
 }
@@ -164,6 +164,18 @@ public abstract class AbstractCustomQuery<T> implements Query, CteQueryWrapper {
                 throw new IllegalArgumentException("The following parameters have not been set: " + missingParameters);
             }
         }
+
+        if (!valuesParameters.isEmpty()) {
+            populateTemporaryTables();
+        }
+    }
+
+    protected void populateTemporaryTables() {
+        Map<String, Collection<Object>> valuesParameterValues = new HashMap<>(valuesParameters.size());
+        for (ValuesParameter valuesParameter : valuesParameters.values()) {
+            valuesParameterValues.put(valuesParameter.getName(), (Collection<Object>) valuesParameter.getValue());
+        }
+        querySpecification.populateTemporaryTables(valuesParameterValues);
     }
 
     @Override
@@ -196,7 +208,7 @@ public abstract class AbstractCustomQuery<T> implements Query, CteQueryWrapper {
                 value = transformer.transform(value);
             }
             if (value instanceof Collection<?>) {
-                querySpecification.onCollectionParameterChange(name, (Collection<?>) value);
+                value = querySpecification.onCollectionParameterChange(name, (Collection<?>) value);
             }
             valueBinders.put(name, new DefaultValueBinder(value));
         } else {
@@ -323,11 +335,18 @@ public abstract class AbstractCustomQuery<T> implements Query, CteQueryWrapper {
 
         @Override
         public void bind(Query query, String name) {
-            query.setParameter(name, value);
+            if (value instanceof ArrayParameterValue) {
+                ((ArrayParameterValue) value).bind(query, name);
+            } else {
+                query.setParameter(name, value);
+            }
         }
 
         @Override
         public Object getValue() {
+            if (value instanceof ArrayParameterValue) {
+                return ((ArrayParameterValue) value).getValues();
+            }
             return value;
         }
     }
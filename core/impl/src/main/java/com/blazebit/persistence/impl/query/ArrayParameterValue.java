@@ -0,0 +1,54 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl.query;
+
+import com.blazebit.persistence.spi.JpaProvider;
+
+import javax.persistence.Query;
+import java.util.Collection;
+
+/**
+ * A collection parameter value that is bound as single JDBC array parameter.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class ArrayParameterValue {
+
+    private final JpaProvider jpaProvider;
+    private final String elementSqlType;
+    private final Collection<?> values;
+
+    public ArrayParameterValue(JpaProvider jpaProvider, String elementSqlType, Collection<?> values) {
+        this.jpaProvider = jpaProvider;
+        this.elementSqlType = elementSqlType;
+        this.values = values;
+    }
+
+    public Collection<?> getValues() {
+        return values;
+    }
+
+    public void bind(Query query, String name) {
+        if (query instanceof AbstractCustomQuery<?>) {
+            // The custom query binds the array to the participating queries
+            query.setParameter(name, this);
+        } else {
+            jpaProvider.setArrayParameter(query, name, values, elementSqlType);
+        }
+    }
+}
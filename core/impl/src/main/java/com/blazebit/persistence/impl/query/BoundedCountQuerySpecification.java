@@ -0,0 +1,60 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blazebit.persistence.impl.query;
+
+import com.blazebit.persistence.impl.AbstractCommonQueryBuilder;
+import com.blazebit.persistence.impl.util.SqlUtils;
+
+import javax.persistence.Parameter;
+import javax.persistence.Query;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A query specification for count queries that count at most up to a maximum count.
+ * The rows of the base query are limited in a subquery and counted by a wrapping query, so the DBMS can stop scanning early.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class BoundedCountQuerySpecification<T> extends CustomQuerySpecification<T> {
+
+    public BoundedCountQuerySpecification(AbstractCommonQueryBuilder<?, ?, ?, ?, ?> commonQueryBuilder, Query baseQuery, Set<Parameter<?>> parameters, Set<String> listParameters, long maximumCount,
+                                          List<String> keyRestrictedLeftJoinAliases, List<EntityFunctionNode> entityFunctionNodes, boolean recursive, List<CTENode> ctes, boolean shouldRenderCtes) {
+        super(commonQueryBuilder, baseQuery, parameters, listParameters, Long.toString(maximumCount), null, keyRestrictedLeftJoinAliases, entityFunctionNodes, recursive, ctes, shouldRenderCtes);
+    }
+
+    @Override
+    protected CustomQuerySqlCache.Entry renderSql(StringBuilder sqlSb, List<Query> participatingQueries) {
+        StringBuilder withClause = applyCtes(sqlSb, baseQuery, participatingQueries);
+
+        // The count is read through the select item alias of the base query
+        String countAlias = SqlUtils.getSelectItemAliases(sqlSb, SqlUtils.indexOfSelect(sqlSb))[0];
+        // Limit the base query like a subquery and count the remaining rows
+        dbmsDialect.appendExtendedSql(sqlSb, statementType, true, false, null, limit, null, null, null);
+        sqlSb.insert(0, " from ");
+        sqlSb.insert(0, countAlias);
+        sqlSb.insert(0, "select count(*) as ");
+        sqlSb.append(" bounded_count_");
+
+        Map<String, String> addedCtes = dbmsDialect.appendExtendedSql(sqlSb, statementType, false, false, withClause, null, null, null, null);
+        return new CustomQuerySqlCache.Entry(sqlSb.toString(), addedCtes);
+    }
+
+}
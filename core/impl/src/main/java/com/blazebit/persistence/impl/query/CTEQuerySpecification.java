@@ -21,11 +21,8 @@ import com.blazebit.persistence.impl.plan.SelectQueryPlan;
 
 import javax.persistence.Parameter;
 import javax.persistence.Query;
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -46,21 +43,10 @@ public class CTEQuerySpecification extends CustomQuerySpecification<Object> {
     }
 
     @Override
-    protected void initialize() {
-        List<Query> participatingQueries = new ArrayList<Query>();
-        for (Map.Entry<String, Collection<?>> entry : listParameters.entrySet()) {
-            baseQuery.setParameter(entry.getKey(), entry.getValue());
-        }
-
-        String sqlQuery = extendedQuerySupport.getSql(em, baseQuery);
-        StringBuilder sqlSb = applySqlTransformations(sqlQuery);
+    protected CustomQuerySqlCache.Entry renderSql(StringBuilder sqlSb, List<Query> participatingQueries) {
         // Need to inline LIMIT and OFFSET
         dbmsDialect.appendExtendedSql(sqlSb, statementType, false, true, null, limit, offset, null, null);
-        participatingQueries.add(baseQuery);
-
-        this.sql = sqlSb.toString();
-        this.participatingQueries = participatingQueries;
-        this.dirty = false;
+        return new CustomQuerySqlCache.Entry(sqlSb.toString(), null);
     }
 
     @Override
@@ -17,6 +17,7 @@
 package com.blazebit.persistence.impl.query;
 
 import com.blazebit.persistence.impl.AbstractCommonQueryBuilder;
+import com.blazebit.persistence.impl.InListPadding;
 import com.blazebit.persistence.impl.plan.CustomSelectQueryPlan;
 import com.blazebit.persistence.impl.plan.ModificationQueryPlan;
 import com.blazebit.persistence.impl.plan.SelectQueryPlan;
@@ -31,6 +32,7 @@ import javax.persistence.EntityManager;
 import javax.persistence.Parameter;
 import javax.persistence.Query;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -46,12 +48,16 @@ import java.util.Set;
  */
 public class CustomQuerySpecification<T> implements QuerySpecification<T> {
 
+    private static final int TEMPORARY_TABLE_BATCH_SIZE = 1000;
+
     protected final EntityManager em;
     protected final DbmsDialect dbmsDialect;
     protected final ServiceProvider serviceProvider;
     protected final ExtendedQuerySupport extendedQuerySupport;
 
     protected final DbmsStatementType statementType;
+    protected final InListPadding inListPadding;
+    protected final CustomQuerySqlCache sqlCache;
     protected final Query baseQuery;
     protected final Set<Parameter<?>> parameters;
     protected final Map<String, Collection<?>> listParameters;
@@ -76,6 +82,8 @@ public class CustomQuerySpecification<T> implements QuerySpecification<T> {
         this.serviceProvider = commonQueryBuilder;
         this.extendedQuerySupport = commonQueryBuilder.getService(ExtendedQuerySupport.class);
         this.statementType = commonQueryBuilder.getStatementType();
+        this.inListPadding = commonQueryBuilder.getInListPadding();
+        this.sqlCache = commonQueryBuilder.getService(CustomQuerySqlCache.class);
         this.baseQuery = baseQuery;
         this.parameters = parameters;
         this.listParameters = new HashMap<>();
@@ -141,31 +149,176 @@ public class CustomQuerySpecification<T> implements QuerySpecification<T> {
     }
 
     @Override
-    public void onCollectionParameterChange(String parameterName, Collection<?> value) {
+    public Collection<?> onCollectionParameterChange(String parameterName, Collection<?> value) {
+        if (inListPadding != null) {
+            value = inListPadding.pad(value);
+        }
         Collection<?> listParameterValue = listParameters.get(parameterName);
         if (listParameterValue != null && listParameterValue.size() != value.size()) {
             dirty = true;
             listParameters.put(parameterName, value);
         }
+        return value;
+    }
+
+    @Override
+    public void populateTemporaryTables(Map<String, Collection<Object>> valuesParameterValues) {
+        for (EntityFunctionNode node : entityFunctionNodes) {
+            ValuesTemporaryTable temporaryTable = node.getTemporaryTable();
+            if (temporaryTable != null) {
+                Collection<Object> value = valuesParameterValues.get(temporaryTable.getParameterName());
+                if (value == null) {
+                    throw new IllegalArgumentException("No values are bound for parameter with name: " + temporaryTable.getParameterName());
+                }
+
+                // The table is session scoped, so we have to clear rows of previous executions before loading the current values
+                List<Object[]> noArguments = Collections.emptyList();
+                extendedQuerySupport.executeBatch(serviceProvider, temporaryTable.getCreateStatement(), noArguments, 1);
+                extendedQuerySupport.executeBatch(serviceProvider, temporaryTable.getDeleteStatement(), noArguments, 1);
+                List<Object[]> arguments = temporaryTable.getBinder().getArguments(value);
+                if (!arguments.isEmpty()) {
+                    extendedQuerySupport.executeBatch(serviceProvider, temporaryTable.getInsertStatement(), arguments, TEMPORARY_TABLE_BATCH_SIZE);
+                }
+            }
+        }
     }
 
     protected void initialize() {
         List<Query> participatingQueries = new ArrayList<>();
+        initializeSql(participatingQueries);
+        participatingQueries.add(baseQuery);
 
+        this.participatingQueries = participatingQueries;
+        this.dirty = false;
+    }
+
+    /**
+     * Binds the list parameters to the base query and initializes the SQL and the added CTEs of this query specification.
+     * The result of {@link #renderSql(StringBuilder, List)} is taken from the {@link CustomQuerySqlCache} if possible.
+     *
+     * @param participatingQueries The list to which the queries of the CTEs are added
+     */
+    protected void initializeSql(List<Query> participatingQueries) {
         for (Map.Entry<String, Collection<?>> entry : listParameters.entrySet()) {
             baseQuery.setParameter(entry.getKey(), entry.getValue());
         }
 
         String sqlQuery = extendedQuerySupport.getSql(em, baseQuery);
-        StringBuilder sqlSb = applySqlTransformations(sqlQuery);
+        String cacheKey = getSqlCacheKey(sqlQuery);
+        CustomQuerySqlCache.Entry cacheEntry = cacheKey == null ? null : sqlCache.get(cacheKey);
+        if (cacheEntry == null) {
+            cacheEntry = renderSql(applySqlTransformations(sqlQuery), participatingQueries);
+            if (cacheKey != null) {
+                sqlCache.put(cacheKey, cacheEntry);
+            }
+        } else {
+            addCteParticipatingQueries(participatingQueries);
+        }
+
+        this.sql = cacheEntry.getSql();
+        this.addedCtes = cacheEntry.getAddedCtes();
+    }
+
+    /**
+     * Renders the final SQL and the added CTEs based on the transformed SQL of the base query.
+     *
+     * @param sqlSb The SQL of the base query with the SQL transformations applied
+     * @param participatingQueries The list to which the queries of the CTEs are added
+     * @return The final SQL along with the added CTEs
+     */
+    protected CustomQuerySqlCache.Entry renderSql(StringBuilder sqlSb, List<Query> participatingQueries) {
         StringBuilder withClause = applyCtes(sqlSb, baseQuery, participatingQueries);
         Map<String, String> addedCtes = applyExtendedSql(sqlSb, false, false, withClause, null, null);
-        participatingQueries.add(baseQuery);
+        return new CustomQuerySqlCache.Entry(sqlSb.toString(), addedCtes);
+    }
 
-        this.sql = sqlSb.toString();
-        this.participatingQueries = participatingQueries;
-        this.addedCtes = addedCtes;
-        this.dirty = false;
+    /**
+     * Returns the key for the {@link CustomQuerySqlCache} under which the post-processed SQL for the given SQL of the base query is cached,
+     * or <code>null</code> if the SQL must not be cached.
+     * Only select statements with select CTEs are cached, as these never contribute cascading deletes which would change the participating queries.
+     *
+     * @param sqlQuery The SQL of the base query
+     * @return The cache key or <code>null</code>
+     */
+    protected String getSqlCacheKey(String sqlQuery) {
+        if (sqlCache == null || !sqlCache.isEnabled() || statementType != DbmsStatementType.SELECT) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(sqlQuery.length() + 200);
+        appendSqlCacheKeyPart(sb, getClass().getName());
+        appendSqlCacheKeyPart(sb, dbmsDialect.getClass().getName());
+        appendSqlCacheKeyPart(sb, limit);
+        appendSqlCacheKeyPart(sb, offset);
+        appendSqlCacheKeyPart(sb, Boolean.toString(recursive));
+        appendSqlCacheKeyPart(sb, Boolean.toString(shouldRenderCtes));
+        for (String keyRestrictedLeftJoinAlias : keyRestrictedLeftJoinAliases) {
+            appendSqlCacheKeyPart(sb, keyRestrictedLeftJoinAlias);
+        }
+        for (EntityFunctionNode node : entityFunctionNodes) {
+            appendSqlCacheKeyPart(sb, node.getValuesClause());
+            appendSqlCacheKeyPart(sb, node.getValuesAliases());
+            appendSqlCacheKeyPart(sb, node.getEntityName());
+            appendSqlCacheKeyPart(sb, node.getTableAlias());
+            appendSqlCacheKeyPart(sb, node.getPluralCollectionTableAlias());
+            appendSqlCacheKeyPart(sb, node.getPluralTableAlias());
+            appendSqlCacheKeyPart(sb, node.getPluralTableJoin());
+            appendSqlCacheKeyPart(sb, node.getSyntheticPredicate());
+        }
+        if (shouldRenderCtes) {
+            for (CTENode cteInfo : ctes) {
+                if (!isSelect(cteInfo.getNonRecursiveQuerySpecification()) || cteInfo.isRecursive() && !isSelect(cteInfo.getRecursiveQuerySpecification())) {
+                    return null;
+                }
+                appendSqlCacheKeyPart(sb, cteInfo.getName());
+                appendSqlCacheKeyPart(sb, cteInfo.getEntityName());
+                appendSqlCacheKeyPart(sb, cteInfo.getHead());
+                appendSqlCacheKeyPart(sb, cteInfo.getAliases() == null ? null : Arrays.toString(cteInfo.getAliases()));
+                appendSqlCacheKeyPart(sb, Boolean.toString(cteInfo.isUnionAll()));
+                appendSqlCacheKeyPart(sb, cteInfo.getNonRecursiveWithClauseSuffix());
+                appendSqlCacheKeyPart(sb, String.valueOf(cteInfo.getNonRecursiveTableNameRemappings()));
+                appendSqlCacheKeyPart(sb, String.valueOf(cteInfo.getRecursiveTableNameRemappings()));
+                appendSqlCacheKeyPart(sb, cteInfo.getNonRecursiveQuerySpecification().getSql());
+                appendSqlCacheKeyPart(sb, String.valueOf(cteInfo.getNonRecursiveQuerySpecification().getAddedCtes()));
+                if (cteInfo.isRecursive()) {
+                    appendSqlCacheKeyPart(sb, cteInfo.getRecursiveQuerySpecification().getSql());
+                    appendSqlCacheKeyPart(sb, String.valueOf(cteInfo.getRecursiveQuerySpecification().getAddedCtes()));
+                }
+            }
+        }
+        sb.append(sqlQuery);
+        return sb.toString();
+    }
+
+    private static void appendSqlCacheKeyPart(StringBuilder sb, String part) {
+        if (part != null) {
+            sb.append(part);
+        }
+        sb.append('\u0000');
+    }
+
+    private static boolean isSelect(QuerySpecification<?> querySpecification) {
+        if (querySpecification instanceof CustomQuerySpecification<?>) {
+            return ((CustomQuerySpecification<?>) querySpecification).statementType == DbmsStatementType.SELECT;
+        }
+        return querySpecification instanceof DefaultQuerySpecification && ((DefaultQuerySpecification) querySpecification).getStatementType() == DbmsStatementType.SELECT;
+    }
+
+    /**
+     * Adds the participating queries of the CTEs like {@link #applyCtes(StringBuilder, Query, List)} does for select statements,
+     * without rendering the CTEs.
+     *
+     * @param participatingQueries The list to which to add the participating queries
+     */
+    protected void addCteParticipatingQueries(List<Query> participatingQueries) {
+        if (!shouldRenderCtes) {
+            return;
+        }
+        for (CTENode cteInfo : ctes) {
+            participatingQueries.addAll(cteInfo.getNonRecursiveQuerySpecification().getParticipatingQueries());
+            if (cteInfo.isRecursive()) {
+                participatingQueries.addAll(cteInfo.getRecursiveQuerySpecification().getParticipatingQueries());
+            }
+        }
     }
 
     protected Map<String, String> applyExtendedSql(StringBuilder sqlSb, boolean isSubquery, boolean isEmbedded, StringBuilder withClause, String[] returningColumns, Map<DbmsModificationState, String> includedModificationStates) {
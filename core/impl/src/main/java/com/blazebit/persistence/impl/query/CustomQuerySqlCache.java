@@ -0,0 +1,106 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl.query;
+
+import com.blazebit.persistence.impl.util.BoundedConcurrentCache;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A criteria builder factory level cache for the final SQL of {@link CustomQuerySpecification} instances keyed by
+ * the SQL of the JPA provider and the structure that drives the post-processing. The cache is bounded and evicts the least
+ * recently used entries when the maximum size is exceeded. Lookups are lock free.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class CustomQuerySqlCache {
+
+    private final BoundedConcurrentCache<String, Entry> cache;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public CustomQuerySqlCache(int maxSize) {
+        this.cache = new BoundedConcurrentCache<>(maxSize);
+    }
+
+    public boolean isEnabled() {
+        return cache.getMaxSize() > 0;
+    }
+
+    public Entry get(String key) {
+        Entry entry = cache.get(key);
+        if (entry == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+        return entry;
+    }
+
+    public void put(String key, Entry entry) {
+        cache.putIfAbsent(key, entry);
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public int getSize() {
+        return cache.size();
+    }
+
+    public int getMaxSize() {
+        return cache.getMaxSize();
+    }
+
+    public void clear() {
+        cache.clear();
+        hitCount.set(0);
+        missCount.set(0);
+    }
+
+    /**
+     * The post-processed SQL of a query specification along with the CTEs that were added by the DBMS dialect.
+     *
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    public static final class Entry {
+
+        private final String sql;
+        private final Map<String, String> addedCtes;
+
+        public Entry(String sql, Map<String, String> addedCtes) {
+            this.sql = sql;
+            this.addedCtes = addedCtes;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public Map<String, String> getAddedCtes() {
+            return addedCtes;
+        }
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.blazebit.persistence.impl.query;
 
+import com.blazebit.persistence.impl.InListPadding;
 import com.blazebit.persistence.impl.plan.DefaultModificationQueryPlan;
 import com.blazebit.persistence.impl.plan.DefaultSelectQueryPlan;
 import com.blazebit.persistence.impl.plan.ModificationQueryPlan;
@@ -44,13 +45,19 @@ public class DefaultQuerySpecification implements QuerySpecification {
     private final EntityManager em;
     private final Set<String> parameterListNames;
     private final ExtendedQuerySupport extendedQuerySupport;
+    private final InListPadding inListPadding;
 
-    public DefaultQuerySpecification(DbmsStatementType statementType, Query query, EntityManager em, Set<String> parameterListNames, ExtendedQuerySupport extendedQuerySupport) {
+    public DefaultQuerySpecification(DbmsStatementType statementType, Query query, EntityManager em, Set<String> parameterListNames, ExtendedQuerySupport extendedQuerySupport, InListPadding inListPadding) {
         this.statementType = statementType;
         this.query = query;
         this.em = em;
         this.parameterListNames = parameterListNames;
         this.extendedQuerySupport = extendedQuerySupport;
+        this.inListPadding = inListPadding;
+    }
+
+    public DbmsStatementType getStatementType() {
+        return statementType;
     }
 
     @Override
@@ -89,9 +96,18 @@ public class DefaultQuerySpecification implements QuerySpecification {
     }
 
     @Override
-    public void onCollectionParameterChange(String parameterName, Collection value) {
+    public Collection onCollectionParameterChange(String parameterName, Collection value) {
+        if (inListPadding != null) {
+            value = inListPadding.pad(value);
+        }
         if (parameterListNames.contains(parameterName)) {
             query.setParameter(parameterName, value);
         }
+        return value;
+    }
+
+    @Override
+    public void populateTemporaryTables(Map valuesParameterValues) {
+        // A query without entity functions never uses temporary tables
     }
 }
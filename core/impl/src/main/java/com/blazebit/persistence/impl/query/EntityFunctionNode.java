@@ -31,8 +31,9 @@ public class EntityFunctionNode {
     private final String pluralTableAlias;
     private final String pluralTableJoin;
     private final String syntheticPredicate;
+    private final ValuesTemporaryTable temporaryTable;
 
-    public EntityFunctionNode(String valuesClause, String valuesAliases, String entityName, String tableAlias, String pluralCollectionTableAlias, String pluralTableAlias, String pluralTableJoin, String syntheticPredicate) {
+    public EntityFunctionNode(String valuesClause, String valuesAliases, String entityName, String tableAlias, String pluralCollectionTableAlias, String pluralTableAlias, String pluralTableJoin, String syntheticPredicate, ValuesTemporaryTable temporaryTable) {
         this.valuesClause = valuesClause;
         this.valuesAliases = valuesAliases;
         this.entityName = entityName;
@@ -41,6 +42,7 @@ public class EntityFunctionNode {
         this.pluralTableAlias = pluralTableAlias;
         this.pluralTableJoin = pluralTableJoin;
         this.syntheticPredicate = syntheticPredicate;
+        this.temporaryTable = temporaryTable;
     }
 
     public String getValuesClause() {
@@ -74,4 +76,8 @@ public class EntityFunctionNode {
     public String getSyntheticPredicate() {
         return syntheticPredicate;
     }
+
+    public ValuesTemporaryTable getTemporaryTable() {
+        return temporaryTable;
+    }
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl.query;
+
+import com.blazebit.persistence.ChunkAwareObjectBuilder;
+import com.blazebit.persistence.CloseableIterator;
+import com.blazebit.persistence.ObjectBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A closeable iterator that builds the objects of an object builder for the tuples of a database cursor.
+ * Every tuple is built as it arrives and {@link ObjectBuilder#buildList(List)} is invoked for chunks of tuples,
+ * so that list post-processing like the tuple transformation of entity views keeps working.
+ * If the object builder is a {@link ChunkAwareObjectBuilder}, a chunk is extended beyond the chunk size by the tuples that belong together
+ * with the last tuple of the chunk and is transformed via {@link ChunkAwareObjectBuilder#buildChunk(List)}.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class ObjectBuilderCloseableIterator<X> implements CloseableIterator<X> {
+
+    private final CloseableIterator<Object> delegate;
+    private final ObjectBuilder<X> builder;
+    private final ChunkAwareObjectBuilder<X> chunkAwareBuilder;
+    private final int chunkSize;
+    private List<X> chunk;
+    private int index;
+    // The tuple that was read ahead to determine the end of the previous chunk
+    private Object[] nextTuple;
+
+    @SuppressWarnings("unchecked")
+    public ObjectBuilderCloseableIterator(CloseableIterator<Object> delegate, ObjectBuilder<X> builder, int chunkSize) {
+        this.delegate = delegate;
+        this.builder = builder;
+        this.chunkAwareBuilder = builder instanceof ChunkAwareObjectBuilder<?> ? (ChunkAwareObjectBuilder<X>) builder : null;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (chunk != null && index < chunk.size()) {
+            return true;
+        }
+        return fetchChunk();
+    }
+
+    @Override
+    public X next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return chunk.get(index++);
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() {
+        chunk = null;
+        nextTuple = null;
+        delegate.close();
+    }
+
+    private boolean fetchChunk() {
+        if (chunkAwareBuilder != null) {
+            return fetchGroupedChunk();
+        }
+        while (delegate.hasNext()) {
+            List<X> newChunk = new ArrayList<>(chunkSize);
+            do {
+                newChunk.add(builder.build(nextTuple()));
+            } while (newChunk.size() < chunkSize && delegate.hasNext());
+
+            chunk = builder.buildList(newChunk);
+            index = 0;
+            // The builder might filter out all elements of a chunk
+            if (!chunk.isEmpty()) {
+                return true;
+            }
+        }
+
+        chunk = null;
+        return false;
+    }
+
+    private boolean fetchGroupedChunk() {
+        while (nextTuple != null || delegate.hasNext()) {
+            List<X> newChunk = new ArrayList<>(chunkSize);
+            Object[] lastTuple = null;
+            while (nextTuple != null || delegate.hasNext()) {
+                Object[] tuple = nextTuple == null ? nextTuple() : nextTuple;
+                nextTuple = null;
+                if (newChunk.size() >= chunkSize && !chunkAwareBuilder.isSameChunk(lastTuple, tuple)) {
+                    nextTuple = tuple;
+                    break;
+                }
+                newChunk.add(builder.build(tuple));
+                lastTuple = tuple;
+            }
+
+            chunk = chunkAwareBuilder.buildChunk(newChunk);
+            index = 0;
+            // The builder might filter out all elements of a chunk
+            if (!chunk.isEmpty()) {
+                return true;
+            }
+        }
+
+        chunk = null;
+        return false;
+    }
+
+    private Object[] nextTuple() {
+        Object tuple = delegate.next();
+        if (tuple instanceof Object[]) {
+            return (Object[]) tuple;
+        }
+        return new Object[]{ tuple };
+    }
+}
@@ -40,6 +40,10 @@ public class ObjectBuilderTypedQuery<X> extends TypedQueryWrapper<X> {
         this.builder = builder;
     }
 
+    public ObjectBuilder<X> getObjectBuilder() {
+        return builder;
+    }
+
     @Override
     public X getSingleResult() {
         List<X> list = getResultList();
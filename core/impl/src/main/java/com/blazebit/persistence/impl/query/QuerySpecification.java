@@ -47,6 +47,15 @@ public interface QuerySpecification<T> {
 
     public Query getBaseQuery();
 
-    public void onCollectionParameterChange(String parameterName, Collection<?> value);
+    /**
+     * Notifies the specification about a new value for a collection valued parameter.
+     *
+     * @param parameterName The name of the parameter
+     * @param value The new collection value
+     * @return The collection value that should be bound, which might be padded
+     */
+    public Collection<?> onCollectionParameterChange(String parameterName, Collection<?> value);
+
+    public void populateTemporaryTables(Map<String, Collection<Object>> valuesParameterValues);
 
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl.query;
+
+import com.blazebit.persistence.impl.ValuesParameterBinder;
+
+/**
+ * The temporary table that is used for a VALUES clause with the {@link com.blazebit.persistence.spi.ValuesStrategy#TEMPORARY_TABLE} strategy.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class ValuesTemporaryTable {
+
+    private final String tableName;
+    private final String parameterName;
+    private final ValuesParameterBinder binder;
+    private final String createStatement;
+    private final String deleteStatement;
+    private final String insertStatement;
+
+    public ValuesTemporaryTable(String tableName, String parameterName, ValuesParameterBinder binder, String createStatement, String deleteStatement, String insertStatement) {
+        this.tableName = tableName;
+        this.parameterName = parameterName;
+        this.binder = binder;
+        this.createStatement = createStatement;
+        this.deleteStatement = deleteStatement;
+        this.insertStatement = insertStatement;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getParameterName() {
+        return parameterName;
+    }
+
+    public ValuesParameterBinder getBinder() {
+        return binder;
+    }
+
+    public String getCreateStatement() {
+        return createStatement;
+    }
+
+    public String getDeleteStatement() {
+        return deleteStatement;
+    }
+
+    public String getInsertStatement() {
+        return insertStatement;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache backed by a {@link ConcurrentHashMap} that holds at most a configurable number of entries.
+ * Lookups don't acquire a lock but only record a logical access time. When the cache overflows, the least recently used
+ * entries are evicted in a batch so that the cost of eviction is amortized over many insertions.
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class BoundedConcurrentCache<K, V> {
+
+    private static final Comparator<EvictionCandidate<?, ?>> LEAST_RECENTLY_USED_FIRST = new Comparator<EvictionCandidate<?, ?>>() {
+        @Override
+        public int compare(EvictionCandidate<?, ?> o1, EvictionCandidate<?, ?> o2) {
+            return Long.compare(o1.lastAccess, o2.lastAccess);
+        }
+    };
+
+    private final ConcurrentMap<K, CacheEntry<V>> map = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final AtomicLong clock = new AtomicLong();
+
+    public BoundedConcurrentCache(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Invalid max size " + maxSize + ". The max size must not be negative!");
+        }
+        this.maxSize = maxSize;
+    }
+
+    public V get(K key) {
+        CacheEntry<V> entry = map.get(key);
+        if (entry == null) {
+            return null;
+        }
+        entry.lastAccess = clock.incrementAndGet();
+        return entry.value;
+    }
+
+    /**
+     * Puts the given value into the cache if there is no value for the given key yet.
+     *
+     * @param key The key
+     * @param value The value
+     * @return The value that is associated with the key after this call
+     */
+    public V putIfAbsent(K key, V value) {
+        CacheEntry<V> oldEntry = map.putIfAbsent(key, new CacheEntry<>(value, clock.incrementAndGet()));
+        if (oldEntry != null) {
+            return oldEntry.value;
+        }
+
+        if (map.size() > maxSize) {
+            evict();
+        }
+
+        return value;
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void clear() {
+        map.clear();
+    }
+
+    private synchronized void evict() {
+        int size = map.size();
+        if (size <= maxSize) {
+            return;
+        }
+
+        // Evict a batch of entries down to 90% of the max size to amortize the sorting
+        // The access time is captured up front as concurrent lookups could otherwise change the order while sorting
+        int toEvict = size - maxSize + maxSize / 10;
+        List<EvictionCandidate<K, V>> candidates = new ArrayList<>(size);
+        for (Map.Entry<K, CacheEntry<V>> entry : map.entrySet()) {
+            candidates.add(new EvictionCandidate<>(entry.getKey(), entry.getValue()));
+        }
+        Collections.sort(candidates, LEAST_RECENTLY_USED_FIRST);
+        for (int i = 0; i < toEvict && i < candidates.size(); i++) {
+            EvictionCandidate<K, V> candidate = candidates.get(i);
+            map.remove(candidate.key, candidate.entry);
+        }
+    }
+
+    /**
+     * A cache value along with the logical time of the last access.
+     *
+     * @param <V> The value type
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static final class CacheEntry<V> {
+
+        private final V value;
+        private volatile long lastAccess;
+
+        public CacheEntry(V value, long lastAccess) {
+            this.value = value;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * A snapshot of a cache entry used for determining the entries to evict.
+     *
+     * @param <K> The key type
+     * @param <V> The value type
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static final class EvictionCandidate<K, V> {
+
+        private final K key;
+        private final CacheEntry<V> entry;
+        private final long lastAccess;
+
+        public EvictionCandidate(K key, CacheEntry<V> entry) {
+            this.key = key;
+            this.entry = entry;
+            this.lastAccess = entry.lastAccess;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl;
+
+import com.blazebit.persistence.impl.function.datetime.year.YearFunction;
+import com.blazebit.persistence.spi.JpqlFunctionGroup;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class CriteriaBuilderConfigurationFunctionsTest {
+
+    @Test
+    public void createsOnlyImplementationsOfDbms() {
+        CriteriaBuilderConfigurationImpl config = new CriteriaBuilderConfigurationImpl(null);
+        Map<String, JpqlFunctionGroup> functions = config.getFunctions("h2");
+
+        JpqlFunctionGroup limit = functions.get("limit");
+        Assert.assertNotNull(limit.get(null));
+        Assert.assertFalse(limit.contains("mysql"));
+        Assert.assertFalse(limit.contains("sybase"));
+        JpqlFunctionGroup groupConcat = functions.get("group_concat");
+        Assert.assertNotNull(groupConcat.get("h2"));
+        Assert.assertFalse(groupConcat.contains("postgresql"));
+        Assert.assertEquals(config.getFunctions().keySet(), functions.keySet());
+    }
+
+    @Test
+    public void registeredFunctionsTakePrecedence() {
+        CriteriaBuilderConfigurationImpl config = new CriteriaBuilderConfigurationImpl(null);
+        JpqlFunctionGroup year = new JpqlFunctionGroup("year", new YearFunction());
+        config.registerFunction(year);
+
+        Assert.assertSame(year, config.getFunctions("h2").get("year"));
+        Assert.assertSame(year, config.getFunction("year"));
+        Assert.assertFalse(config.getNamedTypes().isEmpty());
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class InListPaddingTest {
+
+    @Test
+    public void noPadding() {
+        Assert.assertNull(InListPadding.parse("p", null));
+        Assert.assertNull(InListPadding.parse("p", ""));
+        Assert.assertNull(InListPadding.parse("p", "none"));
+    }
+
+    @Test
+    public void powerOfTwo() {
+        InListPadding padding = InListPadding.parse("p", "power_of_two");
+        Assert.assertEquals(0, padding.getPaddedSize(0));
+        Assert.assertEquals(1, padding.getPaddedSize(1));
+        Assert.assertEquals(2, padding.getPaddedSize(2));
+        Assert.assertEquals(4, padding.getPaddedSize(3));
+        Assert.assertEquals(4, padding.getPaddedSize(4));
+        Assert.assertEquals(8, padding.getPaddedSize(5));
+        Assert.assertEquals(1024, padding.getPaddedSize(1000));
+        Assert.assertEquals("power_of_two", padding.toString());
+    }
+
+    @Test
+    public void buckets() {
+        InListPadding padding = InListPadding.parse("p", " 5, 10 ,50");
+        Assert.assertEquals(1, padding.getPaddedSize(1));
+        Assert.assertEquals(5, padding.getPaddedSize(2));
+        Assert.assertEquals(5, padding.getPaddedSize(5));
+        Assert.assertEquals(10, padding.getPaddedSize(6));
+        Assert.assertEquals(50, padding.getPaddedSize(11));
+        Assert.assertEquals(100, padding.getPaddedSize(51));
+        Assert.assertEquals(150, padding.getPaddedSize(101));
+        Assert.assertEquals("5,10,50", padding.toString());
+    }
+
+    @Test
+    public void padRepeatsLastElement() {
+        InListPadding padding = InListPadding.parse("p", "power_of_two");
+        List<Integer> values = Arrays.asList(1, 2, 3);
+        Assert.assertEquals(Arrays.asList(1, 2, 3, 3), padding.pad(values));
+        List<Integer> exactValues = Arrays.asList(1, 2);
+        Assert.assertSame(exactValues, padding.pad(exactValues));
+        Assert.assertEquals(Collections.emptyList(), padding.pad(Collections.emptyList()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidBucket() {
+        InListPadding.parse("p", "5,abc");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonAscendingBuckets() {
+        InListPadding.parse("p", "10,5");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveBucket() {
+        InListPadding.parse("p", "0,5");
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class QueryPlanCacheEvictionTest {
+
+    @Test
+    public void evictsLeastRecentlyUsedEntry() {
+        QueryPlanCache cache = new QueryPlanCache(2);
+        QueryPlanCache.Entry a = new QueryPlanCache.Entry("a", new String[0]);
+        QueryPlanCache.Entry b = new QueryPlanCache.Entry("b", new String[0]);
+        QueryPlanCache.Entry c = new QueryPlanCache.Entry("c", new String[0]);
+        cache.put("a", a);
+        cache.put("b", b);
+        // Accessing a makes b the least recently used entry
+        Assert.assertSame(a, cache.get("a"));
+        cache.put("c", c);
+
+        Assert.assertEquals(2, cache.getSize());
+        Assert.assertSame(a, cache.get("a"));
+        Assert.assertNull(cache.get("b"));
+        Assert.assertSame(c, cache.get("c"));
+    }
+
+    @Test
+    public void keepsExistingEntry() {
+        QueryPlanCache cache = new QueryPlanCache(2);
+        QueryPlanCache.Entry a = new QueryPlanCache.Entry("a", new String[0]);
+        cache.put("a", a);
+        cache.put("a", new QueryPlanCache.Entry("a", new String[0]));
+
+        Assert.assertEquals(1, cache.getSize());
+        Assert.assertSame(a, cache.get("a"));
+    }
+}
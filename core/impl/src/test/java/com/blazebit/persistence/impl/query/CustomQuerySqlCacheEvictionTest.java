@@ -0,0 +1,48 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.impl.query;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class CustomQuerySqlCacheEvictionTest {
+
+    @Test
+    public void evictsLeastRecentlyUsedEntry() {
+        CustomQuerySqlCache cache = new CustomQuerySqlCache(2);
+        CustomQuerySqlCache.Entry a = new CustomQuerySqlCache.Entry("a", Collections.<String, String>emptyMap());
+        CustomQuerySqlCache.Entry b = new CustomQuerySqlCache.Entry("b", Collections.<String, String>emptyMap());
+        CustomQuerySqlCache.Entry c = new CustomQuerySqlCache.Entry("c", Collections.<String, String>emptyMap());
+        cache.put("a", a);
+        cache.put("b", b);
+        // Accessing a makes b the least recently used entry
+        Assert.assertSame(a, cache.get("a"));
+        cache.put("c", c);
+
+        Assert.assertEquals(2, cache.getSize());
+        Assert.assertSame(a, cache.get("a"));
+        Assert.assertNull(cache.get("b"));
+        Assert.assertSame(c, cache.get("c"));
+    }
+}
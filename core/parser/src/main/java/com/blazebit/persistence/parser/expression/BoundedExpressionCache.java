@@ -0,0 +1,251 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.parser.expression;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An expression cache that holds at most a configurable number of entries per cache name.
+ * When a cache region overflows, the least recently used entries are evicted in a batch so that the cost of eviction
+ * is amortized over many insertions and lookups don't need to acquire a lock.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class BoundedExpressionCache<T> implements ExpressionCache<T> {
+
+    public static final int DEFAULT_MAX_SIZE = 4096;
+
+    private static final Comparator<EvictionCandidate<?>> LEAST_RECENTLY_USED_FIRST = new Comparator<EvictionCandidate<?>>() {
+        @Override
+        public int compare(EvictionCandidate<?> o1, EvictionCandidate<?> o2) {
+            return Long.compare(o1.lastAccess, o2.lastAccess);
+        }
+    };
+
+    private final ConcurrentMap<String, CacheRegion<T>> cacheManager;
+    private final int defaultMaxSize;
+    private final Map<String, Integer> maxSizes;
+
+    public BoundedExpressionCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public BoundedExpressionCache(int defaultMaxSize) {
+        this(defaultMaxSize, Collections.<String, Integer>emptyMap());
+    }
+
+    public BoundedExpressionCache(int defaultMaxSize, Map<String, Integer> maxSizes) {
+        if (defaultMaxSize < 1) {
+            throw new IllegalArgumentException("Invalid max size " + defaultMaxSize + ". The max size must be positive!");
+        }
+        this.cacheManager = new ConcurrentHashMap<>();
+        this.defaultMaxSize = defaultMaxSize;
+        this.maxSizes = new HashMap<>(maxSizes);
+    }
+
+    @Override
+    public T get(String cacheName, Key key) {
+        return getOrCreateCache(cacheName).get(key);
+    }
+
+    @Override
+    public T putIfAbsent(String cacheName, Key key, T value) {
+        return getOrCreateCache(cacheName).putIfAbsent(key, value);
+    }
+
+    private CacheRegion<T> getOrCreateCache(String cacheName) {
+        CacheRegion<T> cache = cacheManager.get(cacheName);
+
+        if (cache == null) {
+            cache = new CacheRegion<>(getMaxSize(cacheName));
+            CacheRegion<T> oldCache = cacheManager.putIfAbsent(cacheName, cache);
+
+            if (oldCache != null) {
+                cache = oldCache;
+            }
+        }
+
+        return cache;
+    }
+
+    public long getHitCount(String cacheName) {
+        CacheRegion<T> cache = cacheManager.get(cacheName);
+        return cache == null ? 0L : cache.hitCount.get();
+    }
+
+    public long getMissCount(String cacheName) {
+        CacheRegion<T> cache = cacheManager.get(cacheName);
+        return cache == null ? 0L : cache.missCount.get();
+    }
+
+    public long getEvictionCount(String cacheName) {
+        CacheRegion<T> cache = cacheManager.get(cacheName);
+        return cache == null ? 0L : cache.evictionCount.get();
+    }
+
+    public int getSize(String cacheName) {
+        CacheRegion<T> cache = cacheManager.get(cacheName);
+        return cache == null ? 0 : cache.map.size();
+    }
+
+    public int getMaxSize(String cacheName) {
+        Integer maxSize = maxSizes.get(cacheName);
+        return maxSize == null ? defaultMaxSize : maxSize;
+    }
+
+    public long getHitCount() {
+        long count = 0L;
+        for (CacheRegion<T> cache : cacheManager.values()) {
+            count += cache.hitCount.get();
+        }
+        return count;
+    }
+
+    public long getMissCount() {
+        long count = 0L;
+        for (CacheRegion<T> cache : cacheManager.values()) {
+            count += cache.missCount.get();
+        }
+        return count;
+    }
+
+    public long getEvictionCount() {
+        long count = 0L;
+        for (CacheRegion<T> cache : cacheManager.values()) {
+            count += cache.evictionCount.get();
+        }
+        return count;
+    }
+
+    public void clear() {
+        cacheManager.clear();
+    }
+
+    /**
+     * A bounded cache for a single cache name.
+     *
+     * @param <T> The value type
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static final class CacheRegion<T> {
+
+        private final ConcurrentMap<Key, CacheEntry<T>> map = new ConcurrentHashMap<>();
+        private final int maxSize;
+        private final AtomicLong clock = new AtomicLong();
+        private final AtomicLong hitCount = new AtomicLong();
+        private final AtomicLong missCount = new AtomicLong();
+        private final AtomicLong evictionCount = new AtomicLong();
+
+        public CacheRegion(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public T get(Key key) {
+            CacheEntry<T> entry = map.get(key);
+            if (entry == null) {
+                missCount.incrementAndGet();
+                return null;
+            }
+            hitCount.incrementAndGet();
+            entry.lastAccess = clock.incrementAndGet();
+            return entry.value;
+        }
+
+        public T putIfAbsent(Key key, T value) {
+            CacheEntry<T> oldEntry = map.putIfAbsent(key, new CacheEntry<>(value, clock.incrementAndGet()));
+            if (oldEntry != null) {
+                return oldEntry.value;
+            }
+
+            if (map.size() > maxSize) {
+                evict();
+            }
+
+            return value;
+        }
+
+        private synchronized void evict() {
+            int size = map.size();
+            if (size <= maxSize) {
+                return;
+            }
+
+            // Evict a batch of entries down to 90% of the max size to amortize the sorting
+            // The access time is captured up front as concurrent lookups could otherwise change the order while sorting
+            int toEvict = size - maxSize + maxSize / 10;
+            List<EvictionCandidate<T>> candidates = new ArrayList<>(size);
+            for (Map.Entry<Key, CacheEntry<T>> entry : map.entrySet()) {
+                candidates.add(new EvictionCandidate<>(entry.getKey(), entry.getValue()));
+            }
+            Collections.sort(candidates, LEAST_RECENTLY_USED_FIRST);
+            for (int i = 0; i < toEvict && i < candidates.size(); i++) {
+                EvictionCandidate<T> candidate = candidates.get(i);
+                if (map.remove(candidate.key, candidate.entry)) {
+                    evictionCount.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * A cache value along with the logical time of the last access.
+     *
+     * @param <T> The value type
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static final class CacheEntry<T> {
+
+        private final T value;
+        private volatile long lastAccess;
+
+        public CacheEntry(T value, long lastAccess) {
+            this.value = value;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * A snapshot of a cache entry used for determining the entries to evict.
+     *
+     * @param <T> The value type
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static final class EvictionCandidate<T> {
+
+        private final Key key;
+        private final CacheEntry<T> entry;
+        private final long lastAccess;
+
+        public EvictionCandidate(Key key, CacheEntry<T> entry) {
+            this.key = key;
+            this.entry = entry;
+            this.lastAccess = entry.lastAccess;
+        }
+    }
+}
@@ -16,8 +16,6 @@
 
 package com.blazebit.persistence.parser.expression;
 
-import java.util.Objects;
-
 /**
  *
  * @author Christian Beikov
@@ -41,6 +39,7 @@ public interface ExpressionCache<T> {
 
         private final String expression;
         private final byte flags;
+        private final int hashCode;
 
         public Key(String expression, boolean allowOuter, boolean allowQuantifiedPredicates, boolean allowObjectExpression) {
             this.expression = expression;
@@ -48,13 +47,15 @@ public interface ExpressionCache<T> {
             if (allowOuter) {
                 flags |= ALLOW_OUTER_MASK;
             }
-            if (allowOuter) {
+            if (allowQuantifiedPredicates) {
                 flags |= ALLOW_QUANTIFIED_PREDICATES_MASK;
             }
             if (allowObjectExpression) {
                 flags |= ALLOW_OBJECT_EXPRESSION_MASK;
             }
             this.flags = flags;
+            // Keys are created for every lookup, so we avoid the varargs allocation of Objects.hash
+            this.hashCode = 31 * expression.hashCode() + flags;
         }
 
         public boolean isAllowOuter() {
@@ -78,13 +79,12 @@ public interface ExpressionCache<T> {
                 return false;
             }
             Key key = (Key) o;
-            return flags == key.flags &&
-                    expression.equals(key.expression);
+            return flags == key.flags && hashCode == key.hashCode && expression.equals(key.expression);
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(expression, flags);
+            return hashCode;
         }
     }
 
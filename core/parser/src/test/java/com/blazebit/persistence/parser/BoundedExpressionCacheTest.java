@@ -0,0 +1,88 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.parser;
+
+import com.blazebit.persistence.parser.expression.BoundedExpressionCache;
+import com.blazebit.persistence.parser.expression.ExpressionCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class BoundedExpressionCacheTest {
+
+    private static final String CACHE_NAME = "test";
+
+    private static ExpressionCache.Key key(String expression) {
+        return new ExpressionCache.Key(expression, false, false, false);
+    }
+
+    @Test
+    public void testHitAndMissStatistics() {
+        BoundedExpressionCache<String> cache = new BoundedExpressionCache<>(10);
+
+        Assert.assertNull(cache.get(CACHE_NAME, key("a")));
+        Assert.assertEquals("a", cache.putIfAbsent(CACHE_NAME, key("a"), "a"));
+        Assert.assertEquals("a", cache.putIfAbsent(CACHE_NAME, key("a"), "b"));
+        Assert.assertEquals("a", cache.get(CACHE_NAME, key("a")));
+
+        Assert.assertEquals(1L, cache.getHitCount(CACHE_NAME));
+        Assert.assertEquals(1L, cache.getMissCount(CACHE_NAME));
+        Assert.assertEquals(1, cache.getSize(CACHE_NAME));
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        BoundedExpressionCache<String> cache = new BoundedExpressionCache<>(10);
+
+        for (int i = 0; i < 10; i++) {
+            cache.putIfAbsent(CACHE_NAME, key("e" + i), "e" + i);
+        }
+        // Touch the oldest entry so that it survives the eviction
+        cache.get(CACHE_NAME, key("e0"));
+        cache.putIfAbsent(CACHE_NAME, key("e10"), "e10");
+
+        Assert.assertEquals(9, cache.getSize(CACHE_NAME));
+        Assert.assertEquals(2L, cache.getEvictionCount(CACHE_NAME));
+        Assert.assertEquals("e0", cache.get(CACHE_NAME, key("e0")));
+        Assert.assertNull(cache.get(CACHE_NAME, key("e1")));
+        Assert.assertNull(cache.get(CACHE_NAME, key("e2")));
+        Assert.assertEquals("e10", cache.get(CACHE_NAME, key("e10")));
+    }
+
+    @Test
+    public void testPerCacheNameMaxSize() {
+        BoundedExpressionCache<String> cache = new BoundedExpressionCache<>(10, Collections.singletonMap("small", 1));
+
+        cache.putIfAbsent("small", key("a"), "a");
+        cache.putIfAbsent("small", key("b"), "b");
+        for (int i = 0; i < 5; i++) {
+            cache.putIfAbsent(CACHE_NAME, key("e" + i), "e" + i);
+        }
+
+        Assert.assertEquals(1, cache.getSize("small"));
+        Assert.assertEquals("b", cache.get("small", key("b")));
+        Assert.assertEquals(5, cache.getSize(CACHE_NAME));
+        Assert.assertEquals(1, cache.getMaxSize("small"));
+        Assert.assertEquals(10, cache.getMaxSize(CACHE_NAME));
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.blazebit.persistence.parser;
 
+import com.blazebit.persistence.parser.expression.ArithmeticExpression;
 import com.blazebit.persistence.parser.expression.ArrayExpression;
 import com.blazebit.persistence.parser.expression.Expression;
 import com.blazebit.persistence.parser.expression.ExpressionFactory;
@@ -25,6 +26,7 @@ import com.blazebit.persistence.parser.expression.MacroFunction;
 import com.blazebit.persistence.parser.expression.PathElementExpression;
 import com.blazebit.persistence.parser.expression.PathExpression;
 import com.blazebit.persistence.parser.expression.PropertyExpression;
+import com.blazebit.persistence.parser.expression.SyntaxErrorException;
 import com.blazebit.persistence.parser.expression.SimpleCachingExpressionFactory;
 import org.junit.Assert;
 import org.junit.Test;
@@ -104,4 +106,31 @@ public class SimpleCachingExpressionFactoryTest {
         Assert.assertFalse(expr1 == expr2);
         Assert.assertEquals(expr1, expr2);
     }
+
+    @Test
+    public void testCacheHitSharesImmutableLiterals() {
+        ExpressionFactory ef = new SimpleCachingExpressionFactory(new ExpressionFactoryImpl(new HashMap<String, Boolean>(), true, true));
+        String expressionString = "a.b + 1";
+
+        ArithmeticExpression expr1 = (ArithmeticExpression) ef.createSimpleExpression(expressionString, false, false, false, null, null);
+        ArithmeticExpression expr2 = (ArithmeticExpression) ef.createSimpleExpression(expressionString, false, false, false, null, null);
+
+        Assert.assertFalse(expr1 == expr2);
+        Assert.assertFalse(expr1.getLeft() == expr2.getLeft());
+        Assert.assertSame(expr1.getRight(), expr2.getRight());
+    }
+
+    @Test
+    public void testCacheDistinguishesAllowQuantifiedPredicates() {
+        ExpressionFactory ef = new SimpleCachingExpressionFactory(new ExpressionFactoryImpl(new HashMap<String, Boolean>(), true, true));
+        String expressionString = "x > ALL(a)";
+
+        ef.createBooleanExpression(expressionString, true, null, null);
+        try {
+            ef.createBooleanExpression(expressionString, false, null, null);
+            Assert.fail("Expected the cached quantified predicate not to be returned when quantified predicates are disallowed");
+        } catch (SyntaxErrorException ex) {
+            // Expected
+        }
+    }
 }
@@ -204,6 +204,21 @@ public class DelegatingDbmsDialect implements DbmsDialect {
         return delegate.cast(expression, sqlType);
     }
 
+    @Override
+    public boolean supportsTemporaryTables() {
+        return delegate.supportsTemporaryTables();
+    }
+
+    @Override
+    public String getCreateTemporaryTableStatement(String tableName, String columnDefinitions) {
+        return delegate.getCreateTemporaryTableStatement(tableName, columnDefinitions);
+    }
+
+    @Override
+    public boolean supportsArrayParameters() {
+        return delegate.supportsArrayParameters();
+    }
+
     @Override
     public boolean needsReturningSqlTypes() {
         return delegate.needsReturningSqlTypes();
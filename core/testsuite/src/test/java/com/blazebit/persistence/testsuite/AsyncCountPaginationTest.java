@@ -0,0 +1,220 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.PaginatedTypedQuery;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class AsyncCountPaginationTest extends AbstractCoreTest {
+
+    private ExecutorService executorService;
+    private AtomicInteger executions;
+    private Executor executor;
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person o1 = new Person("Karl1");
+                Person o2 = new Person("Karl2");
+                em.persist(o1);
+                em.persist(o2);
+
+                for (int i = 1; i <= 5; i++) {
+                    Document doc = new Document("doc" + i, i);
+                    doc.setOwner(i % 2 == 0 ? o2 : o1);
+                    for (int j = 1; j <= 2; j++) {
+                        Person contact = new Person("Contact" + i + "_" + j);
+                        em.persist(contact);
+                        doc.getContacts().put(j, contact);
+                    }
+                    em.persist(doc);
+                }
+            }
+        });
+    }
+
+    @Before
+    public void setUpExecutor() {
+        executorService = Executors.newSingleThreadExecutor();
+        executions = new AtomicInteger();
+        executor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                executions.incrementAndGet();
+                executorService.execute(command);
+            }
+        };
+    }
+
+    @After
+    public void tearDownExecutor() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testAsyncCount() {
+        PaginatedCriteriaBuilder<Document> cb = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(2, 2)
+                .withAsyncCountQuery(executor, emf);
+
+        assertTrue(cb.isWithAsyncCountQuery());
+        PagedList<Document> result = cb.getResultList();
+        assertEquals(1, executions.get());
+        assertEquals(2, result.size());
+        assertEquals(5, result.getTotalSize());
+        assertEquals(2, result.getPage());
+        assertEquals("doc3", result.get(0).getName());
+        assertEquals("doc4", result.get(1).getName());
+    }
+
+    @Test
+    public void testAsyncCountWithIdQueryAndParameters() {
+        PagedList<Document> result = cbf.create(em, Document.class, "d")
+                .leftJoin("d.contacts", "c")
+                .where("d.owner.name").eqExpression(":owner")
+                .where("d.age").inExpressions(":ages")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .setParameter("owner", "Karl1")
+                .setParameter("ages", Arrays.asList(1L, 3L, 4L))
+                .page(0, 1)
+                .withAsyncCountQuery(executor, emf)
+                .getResultList();
+
+        assertEquals(1, executions.get());
+        assertEquals(1, result.size());
+        assertEquals(2, result.getTotalSize());
+        assertEquals("doc1", result.get(0).getName());
+    }
+
+    @Test
+    public void testAsyncCountNotUsedAfterParameterChange() {
+        PaginatedTypedQuery<Document> query = cbf.create(em, Document.class, "d")
+                .where("d.owner.name").eqExpression(":owner")
+                .orderByAsc("d.id")
+                .setParameter("owner", "Karl1")
+                .page(0, 2)
+                .withAsyncCountQuery(executor, emf)
+                .getQuery();
+        query.setParameter("owner", "Karl2");
+        PagedList<Document> result = query.getResultList();
+
+        assertEquals(0, executions.get());
+        assertEquals(2, result.getTotalSize());
+        assertEquals("doc2", result.get(0).getName());
+    }
+
+    @Test
+    public void testAsyncCountEmptyPage() {
+        PagedList<Document> result = cbf.create(em, Document.class, "d")
+                .where("d.name").eq("unknown")
+                .orderByAsc("d.id")
+                .page(0, 2)
+                .withAsyncCountQuery(executor, emf)
+                .getResultList();
+
+        assertEquals(0, result.size());
+        assertEquals(0, result.getTotalSize());
+    }
+
+    @Test
+    public void testAsyncCountDisabled() {
+        PaginatedCriteriaBuilder<Document> cb = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.id")
+                .page(0, 2)
+                .withAsyncCountQuery(executor, emf)
+                .withAsyncCountQuery(null, null);
+
+        assertFalse(cb.isWithAsyncCountQuery());
+        assertEquals(5, cb.getResultList().getTotalSize());
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    public void testAsyncCountNotUsedForPageAndNavigate() {
+        Long id = cbf.create(em, Long.class)
+                .from(Document.class, "d")
+                .where("d.name").eq("doc3")
+                .select("d.id")
+                .getSingleResult();
+        PagedList<Document> result = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .pageAndNavigate(id, 2)
+                .withAsyncCountQuery(executor, emf)
+                .getResultList();
+
+        assertEquals(0, executions.get());
+        assertEquals(5, result.getTotalSize());
+        assertEquals("doc3", result.get(0).getName());
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testAsyncCountNotUsedForBoundedCount() {
+        PagedList<Document> result = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.id")
+                .page(0, 2)
+                .withBoundedCount(3)
+                .withAsyncCountQuery(executor, emf)
+                .getResultList();
+
+        assertEquals(0, executions.get());
+        assertEquals(3, result.getTotalSize());
+        assertTrue(result.isBoundedCountReached());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAsyncCountRequiresEntityManagerFactory() {
+        cbf.create(em, Document.class, "d")
+                .orderByAsc("d.id")
+                .page(0, 2)
+                .withAsyncCountQuery(executor, null);
+    }
+}
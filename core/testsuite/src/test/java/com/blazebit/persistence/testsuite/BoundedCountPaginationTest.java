@@ -0,0 +1,190 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+@Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+public class BoundedCountPaginationTest extends AbstractCoreTest {
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person o1 = new Person("Karl1");
+                Person o2 = new Person("Karl2");
+                em.persist(o1);
+                em.persist(o2);
+
+                for (int i = 1; i <= 5; i++) {
+                    Document doc = new Document("doc" + i);
+                    doc.setOwner(i % 2 == 0 ? o2 : o1);
+                    for (int j = 1; j <= 2; j++) {
+                        Person contact = new Person("Contact" + i + "_" + j);
+                        em.persist(contact);
+                        doc.getContacts().put(j, contact);
+                    }
+                    em.persist(doc);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testBoundedCountReached() {
+        PaginatedCriteriaBuilder<Document> cb = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(0, 2)
+                .withBoundedCount(3);
+
+        assertEquals("SELECT " + function("BOUNDED_COUNT", "3") + " FROM Document d", cb.getPageCountQueryString());
+        PagedList<Document> result = cb.getResultList();
+        assertEquals(2, result.size());
+        assertEquals(3, result.getTotalSize());
+        assertEquals(2, result.getTotalPages());
+        assertTrue(result.isBoundedCountReached());
+        assertEquals("doc1", result.get(0).getName());
+        assertEquals("doc2", result.get(1).getName());
+    }
+
+    @Test
+    public void testBoundedCountNotReached() {
+        PagedList<Document> result = cbf.create(em, Document.class, "d")
+                .where("d.owner.name").eq("Karl1")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(0, 2)
+                .withBoundedCount(10)
+                .getResultList();
+
+        assertEquals(2, result.size());
+        assertEquals(3, result.getTotalSize());
+        assertFalse(result.isBoundedCountReached());
+    }
+
+    @Test
+    public void testBoundedCountEqualToTotalCount() {
+        PagedList<Document> result = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(4, 2)
+                .withBoundedCount(5)
+                .getResultList();
+
+        assertEquals(1, result.size());
+        assertEquals(5, result.getTotalSize());
+        assertTrue(result.isBoundedCountReached());
+        assertEquals("doc5", result.get(0).getName());
+    }
+
+    @Test
+    public void testBoundedCountWithCollectionJoin() {
+        PaginatedCriteriaBuilder<Document> cb = cbf.create(em, Document.class, "d")
+                .leftJoin("d.contacts", "c")
+                .where("c.name").like().value("Contact%").noEscape()
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(0, 2);
+
+        // The joined rows must be grouped by the document id so that the count is not based on the joined rows
+        assertTrue(cb.withBoundedCount(7).getPageCountQueryString().endsWith(" GROUP BY d.id"));
+        PagedList<Document> result = cb.getResultList();
+        assertEquals(5, result.getTotalSize());
+        assertFalse(result.isBoundedCountReached());
+
+        result = cb.withBoundedCount(4).getResultList();
+        assertEquals(4, result.getTotalSize());
+        assertTrue(result.isBoundedCountReached());
+        assertEquals("doc1", result.get(0).getName());
+        assertEquals("doc2", result.get(1).getName());
+    }
+
+    @Test
+    public void testBoundedTotalCount() {
+        PaginatedCriteriaBuilder<Document> cb = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.id")
+                .page(0, 2);
+
+        assertEquals(5L, cb.getQuery().getTotalCount());
+        assertEquals(2L, cb.withBoundedCount(2).getQuery().getTotalCount());
+        assertEquals(2L, cb.getCountQuery().getSingleResult().longValue());
+    }
+
+    @Test
+    public void testBoundedCountNotInlined() {
+        PaginatedCriteriaBuilder<Document> cb = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.id")
+                .page(0, 2)
+                .withInlineCountQuery(true)
+                .withBoundedCount(3);
+
+        assertFalse(cb.getQueryString().contains(function("WINDOW_COUNT")));
+        PagedList<Document> result = cb.getResultList();
+        assertEquals(3, result.getTotalSize());
+        assertTrue(result.isBoundedCountReached());
+    }
+
+    @Test
+    public void testUnboundedCount() {
+        PaginatedCriteriaBuilder<Document> cb = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.id")
+                .page(0, 2);
+
+        assertEquals(Long.MAX_VALUE, cb.getBoundedCount());
+        PagedList<Document> result = cb.getResultList();
+        assertEquals(5, result.getTotalSize());
+        assertFalse(result.isBoundedCountReached());
+    }
+
+    @Test
+    public void testInvalidBoundedCount() {
+        try {
+            cbf.create(em, Document.class, "d")
+                    .orderByAsc("d.id")
+                    .page(0, 2)
+                    .withBoundedCount(0);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.impl.query.CustomQuerySqlCache;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoMySQLOld;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.entity.RecursiveEntity;
+import com.blazebit.persistence.testsuite.entity.TestCTE;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class CustomQuerySqlCacheTest extends AbstractCoreTest {
+
+    @Override
+    protected Class<?>[] getEntityClasses() {
+        return concat(super.getEntityClasses(), RecursiveEntity.class, TestCTE.class);
+    }
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person p1 = new Person("p1");
+                Document d1 = new Document("doc1", 1);
+                Document d2 = new Document("doc2", 2);
+                Document d3 = new Document("doc3", 3);
+                d1.setOwner(p1);
+                d2.setOwner(p1);
+                d3.setOwner(p1);
+
+                em.persist(p1);
+                em.persist(d1);
+                em.persist(d2);
+                em.persist(d3);
+
+                RecursiveEntity root1 = new RecursiveEntity("root1");
+                RecursiveEntity child1 = new RecursiveEntity("child1", root1);
+                em.persist(root1);
+                em.persist(child1);
+            }
+        });
+    }
+
+    @Before
+    public void setUp() {
+        getCache().clear();
+    }
+
+    private CustomQuerySqlCache getCache() {
+        return cbf.getService(CustomQuerySqlCache.class);
+    }
+
+    private CriteriaBuilder<String> createValuesQuery(List<Long> ages) {
+        return cbf.create(em, String.class)
+                .fromValues(Long.class, "allowedAge", ages)
+                .from(Document.class, "doc")
+                .where("doc.age").eqExpression("allowedAge")
+                .select("doc.name")
+                .orderByAsc("doc.name");
+    }
+
+    private CriteriaBuilder<String> createCteQuery() {
+        return cbf.create(em, String.class)
+                .with(TestCTE.class)
+                    .from(RecursiveEntity.class, "e")
+                    .bind("id").select("e.id")
+                    .bind("name").select("e.name")
+                    .bind("level").select("0")
+                    .where("e.parent").isNull()
+                .end()
+                .from(TestCTE.class, "t")
+                .select("t.name");
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void sameValuesQueryShapeHitsCache() {
+        List<String> result1 = createValuesQuery(Arrays.asList(1L, 3L)).getResultList();
+        List<String> result2 = createValuesQuery(Arrays.asList(2L, 3L)).getResultList();
+
+        assertEquals(Arrays.asList("doc1", "doc3"), result1);
+        assertEquals(Arrays.asList("doc2", "doc3"), result2);
+        assertEquals(1, getCache().getMissCount());
+        assertEquals(1, getCache().getHitCount());
+        assertEquals(1, getCache().getSize());
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void differentValuesCountMissesCache() {
+        List<String> result1 = createValuesQuery(Arrays.asList(1L, 3L)).getResultList();
+        List<String> result2 = createValuesQuery(Arrays.asList(1L, 2L, 3L)).getResultList();
+
+        assertEquals(Arrays.asList("doc1", "doc3"), result1);
+        assertEquals(Arrays.asList("doc1", "doc2", "doc3"), result2);
+        assertEquals(2, getCache().getMissCount());
+        assertEquals(0, getCache().getHitCount());
+        assertEquals(2, getCache().getSize());
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class, NoMySQLOld.class })
+    public void sameCteQueryShapeHitsCache() {
+        List<String> result1 = createCteQuery().getResultList();
+        long missCount = getCache().getMissCount();
+        int size = getCache().getSize();
+        List<String> result2 = createCteQuery().getResultList();
+
+        assertEquals(Arrays.asList("root1"), result1);
+        assertEquals(result1, result2);
+        assertTrue(missCount > 0);
+        assertEquals(missCount, getCache().getMissCount());
+        assertEquals(missCount, getCache().getHitCount());
+        assertEquals(size, getCache().getSize());
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.Criteria;
+import com.blazebit.persistence.CriteriaBuilderFactory;
+import com.blazebit.persistence.JoinType;
+import com.blazebit.persistence.impl.EntityMetamodelImpl;
+import com.blazebit.persistence.impl.EntityMetamodelSnapshot;
+import com.blazebit.persistence.impl.EntityMetamodelSnapshotGenerator;
+import com.blazebit.persistence.spi.BootstrapStatistics;
+import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import com.blazebit.persistence.spi.ExtendedAttribute;
+import com.blazebit.persistence.spi.ExtendedManagedType;
+import com.blazebit.persistence.spi.JoinTable;
+import com.blazebit.persistence.spi.JpaProviderFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.Metamodel;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class EntityMetamodelSnapshotTest extends AbstractCoreTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void metamodelFromSnapshotEqualsExtractedMetamodel() throws IOException {
+        EntityMetamodelImpl extractedMetamodel = (EntityMetamodelImpl) cbf.getService(Metamodel.class);
+        EntityMetamodelImpl snapshotMetamodel = new EntityMetamodelImpl(emf, cbf.getService(JpaProviderFactory.class), dbms, 1, roundTrip(extractedMetamodel.createSnapshot(), false));
+
+        assertFalse(extractedMetamodel.isSnapshotUsed());
+        assertTrue(snapshotMetamodel.isSnapshotUsed());
+        for (ManagedType<?> managedType : extractedMetamodel.getManagedTypes()) {
+            ExtendedManagedType<?> expected = extractedMetamodel.getManagedType(ExtendedManagedType.class, managedType);
+            ExtendedManagedType<?> actual = snapshotMetamodel.getManagedType(ExtendedManagedType.class, managedType);
+            assertEquals(expected.hasCascadingDeleteCycle(), actual.hasCascadingDeleteCycle());
+            assertEquals(expected.getAttributes().keySet(), actual.getAttributes().keySet());
+            for (Map.Entry<String, ? extends ExtendedAttribute<?, ?>> entry : expected.getAttributes().entrySet()) {
+                assertAttributeEquals(entry.getValue(), actual.getAttributes().get(entry.getKey()));
+            }
+        }
+    }
+
+    @Test
+    public void snapshotOfDifferentMetamodelIsIgnored() throws IOException {
+        EntityMetamodelImpl extractedMetamodel = (EntityMetamodelImpl) cbf.getService(Metamodel.class);
+        EntityMetamodelImpl snapshotMetamodel = new EntityMetamodelImpl(emf, cbf.getService(JpaProviderFactory.class), dbms, 1, roundTrip(extractedMetamodel.createSnapshot(), true));
+
+        assertFalse(snapshotMetamodel.isSnapshotUsed());
+    }
+
+    @Test
+    public void snapshotOfDifferentDbmsIsIgnored() throws IOException {
+        EntityMetamodelImpl extractedMetamodel = (EntityMetamodelImpl) cbf.getService(Metamodel.class);
+        String otherDbms = "oracle".equals(dbms) ? "postgresql" : "oracle";
+        EntityMetamodelImpl snapshotMetamodel = new EntityMetamodelImpl(emf, cbf.getService(JpaProviderFactory.class), otherDbms, 1, roundTrip(extractedMetamodel.createSnapshot(), false));
+
+        assertFalse(snapshotMetamodel.isSnapshotUsed());
+    }
+
+    @Test
+    public void snapshotOfDifferentMappingFileIsIgnored() throws IOException {
+        EntityMetamodelImpl extractedMetamodel = (EntityMetamodelImpl) cbf.getService(Metamodel.class);
+        EntityMetamodelSnapshot snapshot = roundTrip(extractedMetamodel.createSnapshot(), false);
+        File directory = temporaryFolder.newFolder();
+        File ormXml = new File(directory, "META-INF/orm.xml");
+        assertTrue(ormXml.getParentFile().mkdirs());
+        Writer writer = new OutputStreamWriter(new FileOutputStream(ormXml), StandardCharsets.UTF_8);
+        try {
+            writer.write("<entity-mappings xmlns=\"http://xmlns.jcp.org/xml/ns/persistence/orm\" version=\"2.1\"/>");
+        } finally {
+            writer.close();
+        }
+
+        Thread thread = Thread.currentThread();
+        ClassLoader originalClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(new URLClassLoader(new URL[]{ directory.toURI().toURL() }, originalClassLoader));
+        try {
+            EntityMetamodelImpl snapshotMetamodel = new EntityMetamodelImpl(emf, cbf.getService(JpaProviderFactory.class), dbms, 1, snapshot);
+
+            assertFalse(snapshotMetamodel.isSnapshotUsed());
+        } finally {
+            thread.setContextClassLoader(originalClassLoader);
+        }
+    }
+
+    @Test
+    public void snapshotOfDifferentNamingStrategyIsIgnored() throws IOException {
+        EntityMetamodelImpl extractedMetamodel = (EntityMetamodelImpl) cbf.getService(Metamodel.class);
+        EntityMetamodelSnapshot snapshot = roundTrip(extractedMetamodel.createSnapshot(), false);
+        final Map<String, Object> properties = new HashMap<>(emf.getProperties());
+        properties.put("hibernate.physical_naming_strategy", "com.example.UpperCaseNamingStrategy");
+        EntityManagerFactory namingStrategyEmf = (EntityManagerFactory) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ EntityManagerFactory.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("getProperties".equals(method.getName())) {
+                    return properties;
+                }
+                try {
+                    return method.invoke(emf, args);
+                } catch (InvocationTargetException ex) {
+                    throw ex.getCause();
+                }
+            }
+        });
+
+        EntityMetamodelImpl snapshotMetamodel = new EntityMetamodelImpl(namingStrategyEmf, cbf.getService(JpaProviderFactory.class), dbms, 1, snapshot);
+
+        assertFalse(snapshotMetamodel.isSnapshotUsed());
+    }
+
+    @Test
+    public void criteriaBuilderFactoryLoadsSnapshotFromClassPath() throws IOException {
+        File directory = temporaryFolder.newFolder();
+        EntityMetamodelSnapshotGenerator.generate(cbf, new File(directory, "META-INF/metamodel.snapshot"));
+
+        Thread thread = Thread.currentThread();
+        ClassLoader originalClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(new URLClassLoader(new URL[]{ directory.toURI().toURL() }, originalClassLoader));
+        try {
+            CriteriaBuilderConfiguration config = Criteria.getDefault();
+            config.setProperty(ConfigurationProperties.METAMODEL_SNAPSHOT, "META-INF/metamodel.snapshot");
+            CriteriaBuilderFactory snapshotCbf = config.createCriteriaBuilderFactory(emf);
+
+            assertTrue(snapshotCbf.getService(BootstrapStatistics.class).isMetamodelSnapshotUsed());
+        } finally {
+            thread.setContextClassLoader(originalClassLoader);
+        }
+    }
+
+    @Test
+    public void missingSnapshotIsIgnored() {
+        CriteriaBuilderConfiguration config = Criteria.getDefault();
+        config.setProperty(ConfigurationProperties.METAMODEL_SNAPSHOT, "META-INF/non-existing.snapshot");
+        CriteriaBuilderFactory snapshotCbf = config.createCriteriaBuilderFactory(emf);
+
+        assertFalse(snapshotCbf.getService(BootstrapStatistics.class).isMetamodelSnapshotUsed());
+    }
+
+    private static EntityMetamodelSnapshot roundTrip(EntityMetamodelSnapshot snapshot, boolean corruptFingerprint) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        snapshot.write(outputStream);
+        byte[] bytes = outputStream.toByteArray();
+        if (corruptFingerprint) {
+            // The fingerprint starts after the magic number, the version and the fingerprint length
+            bytes[12] ^= 1;
+        }
+        return EntityMetamodelSnapshot.read(new ByteArrayInputStream(bytes));
+    }
+
+    private static void assertAttributeEquals(ExtendedAttribute<?, ?> expected, ExtendedAttribute<?, ?> actual) {
+        assertEquals(expected.getAttributePathString(), actual.getAttributePathString());
+        assertEquals(expected.hasCascadingDeleteCycle(), actual.hasCascadingDeleteCycle());
+        assertEquals(expected.isForeignJoinColumn(), actual.isForeignJoinColumn());
+        assertEquals(expected.isColumnShared(), actual.isColumnShared());
+        assertEquals(expected.isBag(), actual.isBag());
+        assertEquals(expected.isOrphanRemoval(), actual.isOrphanRemoval());
+        assertEquals(expected.isDeleteCascaded(), actual.isDeleteCascaded());
+        assertEquals(expected.getMappedBy(), actual.getMappedBy());
+        assertArrayEquals(expected.getColumnNames(), actual.getColumnNames());
+        assertArrayEquals(expected.getColumnTypes(), actual.getColumnTypes());
+        for (JoinType joinType : JoinType.values()) {
+            assertEquals(expected.getJoinTypeIndexedRequiresTreatFilter(joinType), actual.getJoinTypeIndexedRequiresTreatFilter(joinType));
+        }
+        JoinTable expectedJoinTable = expected.getJoinTable();
+        JoinTable actualJoinTable = actual.getJoinTable();
+        if (expectedJoinTable == null) {
+            assertNull(actualJoinTable);
+        } else {
+            assertEquals(expectedJoinTable.getTableName(), actualJoinTable.getTableName());
+            assertEquals(expectedJoinTable.getIdAttributeNames(), actualJoinTable.getIdAttributeNames());
+            assertEquals(expectedJoinTable.getIdColumnMappings(), actualJoinTable.getIdColumnMappings());
+            assertEquals(expectedJoinTable.getKeyColumnMappings(), actualJoinTable.getKeyColumnMappings());
+            assertEquals(expectedJoinTable.getKeyColumnTypes(), actualJoinTable.getKeyColumnTypes());
+            assertEquals(expectedJoinTable.getTargetAttributeNames(), actualJoinTable.getTargetAttributeNames());
+            assertEquals(expectedJoinTable.getTargetColumnMappings(), actualJoinTable.getTargetColumnMappings());
+        }
+    }
+}
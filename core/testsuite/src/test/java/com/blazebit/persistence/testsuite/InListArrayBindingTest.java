@@ -0,0 +1,197 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.spi.ExtendedQuerySupport;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class InListArrayBindingTest extends AbstractCoreTest {
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person p1 = new Person("p1");
+                Person p2 = new Person("p2");
+                Document d1 = new Document("doc1", 1);
+                Document d2 = new Document("doc2", 2);
+                Document d3 = new Document("doc3", 3);
+                d1.setOwner(p1);
+                d2.setOwner(p1);
+                d3.setOwner(p2);
+
+                em.persist(p1);
+                em.persist(p2);
+                em.persist(d1);
+                em.persist(d2);
+                em.persist(d3);
+            }
+        });
+    }
+
+    @Test
+    public void testInListArrayBinding() {
+        CriteriaBuilder<String> cb = cbf.create(em, String.class);
+        cb.setProperty(ConfigurationProperties.IN_LIST_ARRAY_BINDING, "true");
+        cb.from(Document.class, "doc");
+        cb.where("doc.name").in(Arrays.asList("doc1", "doc3"));
+        cb.select("doc.name");
+        cb.orderByAsc("doc.name");
+
+        String expected = ""
+                + "SELECT doc.name FROM Document doc WHERE doc.name IN (:param_0) ORDER BY doc.name ASC";
+
+        assertEquals(expected, cb.getQueryString());
+        List<String> resultList = cb.getResultList();
+        assertEquals(Arrays.asList("doc1", "doc3"), resultList);
+    }
+
+    @Test
+    public void testInListArrayBindingPrimitiveAttribute() {
+        CriteriaBuilder<String> cb = cbf.create(em, String.class);
+        cb.setProperty(ConfigurationProperties.IN_LIST_ARRAY_BINDING, "true");
+        cb.from(Document.class, "doc");
+        cb.where("doc.age").in(Arrays.asList(1L, 3L, 4L));
+        cb.select("doc.name");
+        cb.orderByAsc("doc.name");
+
+        List<String> resultList = cb.getResultList();
+        assertEquals(Arrays.asList("doc1", "doc3"), resultList);
+    }
+
+    // Negated predicates are not array bound but must still work when array binding is enabled
+    @Test
+    public void testNotInListWithArrayBinding() {
+        CriteriaBuilder<String> cb = cbf.create(em, String.class);
+        cb.setProperty(ConfigurationProperties.IN_LIST_ARRAY_BINDING, "true");
+        cb.from(Document.class, "doc");
+        cb.where("doc.age").notIn(Arrays.asList(1L, 3L, 4L));
+        cb.select("doc.name");
+
+        List<String> resultList = cb.getResultList();
+        assertEquals(Collections.singletonList("doc2"), resultList);
+    }
+
+    // A parameter that is also used in a position that can't be array bound must be rendered as expanded list everywhere
+    @Test
+    public void testInAndNotInListWithSameParameter() {
+        CriteriaBuilder<String> cb = cbf.create(em, String.class);
+        cb.setProperty(ConfigurationProperties.IN_LIST_ARRAY_BINDING, "true");
+        cb.from(Document.class, "doc");
+        cb.whereOr()
+                .where("doc.name").inExpressions(":names")
+                .where("doc.age").eq(3L)
+            .endOr();
+        cb.where("doc.name").notInExpressions(":names");
+        cb.select("doc.name");
+        cb.setParameter("names", Arrays.asList("doc1", "doc2"));
+
+        List<String> resultList = cb.getResultList();
+        assertEquals(Collections.singletonList("doc3"), resultList);
+    }
+
+    // Only Hibernate provides the expanded SQL of a query
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testInAndNotInListWithSameParameterIsNotArrayBound() {
+        CriteriaBuilder<String> cb = cbf.create(em, String.class);
+        cb.setProperty(ConfigurationProperties.IN_LIST_ARRAY_BINDING, "true");
+        cb.from(Document.class, "doc");
+        cb.where("doc.name").in(Arrays.asList("doc1", "doc2"));
+        cb.where("doc.name").notInExpressions(":param_0");
+        cb.select("doc.name");
+
+        TypedQuery<String> query = cb.getQuery();
+        String sql = cbf.getService(ExtendedQuerySupport.class).getSql(em, query);
+        // Both usages must be rendered as expanded IN lists with one placeholder per element
+        assertEquals(4, countPlaceholders(sql));
+        assertEquals(0, query.getResultList().size());
+    }
+
+    private static int countPlaceholders(String sql) {
+        int count = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) == '?') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void testInListArrayBindingEmptyCollection() {
+        CriteriaBuilder<String> cb = cbf.create(em, String.class);
+        cb.setProperty(ConfigurationProperties.IN_LIST_ARRAY_BINDING, "true");
+        cb.from(Document.class, "doc");
+        cb.where("doc.name").in(Collections.emptyList());
+        cb.select("doc.name");
+
+        List<String> resultList = cb.getResultList();
+        assertEquals(0, resultList.size());
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testInListArrayBindingRebindCustomQuery() {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                CriteriaBuilder<String> cb = cbf.create(em, String.class);
+                cb.setProperty(ConfigurationProperties.IN_LIST_ARRAY_BINDING, "true");
+                cb.fromValues(Long.class, "allowedAge", Arrays.asList(1L, 2L, 3L));
+                cb.from(Document.class, "doc");
+                cb.where("doc.age").eqExpression("allowedAge");
+                cb.where("doc.name").in(Arrays.asList("doc1", "doc3"));
+                cb.select("doc.name");
+                cb.orderByAsc("doc.name");
+
+                TypedQuery<String> query = cb.getQuery();
+                List<String> resultList = query.getResultList();
+                assertEquals(Arrays.asList("doc1", "doc3"), resultList);
+
+                // Binding a collection of a different size reuses the same statement
+                query.setParameter("param_0", Arrays.asList("doc1", "doc2", "doc3"));
+                resultList = query.getResultList();
+                assertEquals(Arrays.asList("doc1", "doc2", "doc3"), resultList);
+            }
+        });
+    }
+}
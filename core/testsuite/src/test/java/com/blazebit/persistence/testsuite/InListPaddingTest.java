@@ -0,0 +1,162 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.impl.query.CustomSQLTypedQuery;
+import com.blazebit.persistence.spi.ExtendedQuerySupport;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class InListPaddingTest extends AbstractCoreTest {
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person p1 = new Person("p1");
+                Document d1 = new Document("doc1", 1);
+                Document d2 = new Document("doc2", 2);
+                Document d3 = new Document("doc3", 3);
+                d1.setOwner(p1);
+                d2.setOwner(p1);
+                d3.setOwner(p1);
+
+                em.persist(p1);
+                em.persist(d1);
+                em.persist(d2);
+                em.persist(d3);
+            }
+        });
+    }
+
+    @Test
+    public void testInListPaddingPowerOfTwo() {
+        CriteriaBuilder<String> cb = cbf.create(em, String.class);
+        cb.setProperty(ConfigurationProperties.IN_LIST_PADDING, "power_of_two");
+        cb.from(Document.class, "doc");
+        cb.where("doc.name").in(Arrays.asList("doc1", "doc2", "doc3"));
+        cb.select("doc.name");
+        cb.orderByAsc("doc.name");
+
+        assertEquals(Arrays.asList("doc1", "doc2", "doc3"), cb.getResultList());
+    }
+
+    @Test
+    public void testInListPaddingBuckets() {
+        CriteriaBuilder<String> cb = cbf.create(em, String.class);
+        cb.setProperty(ConfigurationProperties.IN_LIST_PADDING, "5,10");
+        cb.from(Document.class, "doc");
+        cb.where("doc.name").in(Arrays.asList("doc1", "doc3"));
+        cb.select("doc.name");
+        cb.orderByAsc("doc.name");
+
+        assertEquals(Arrays.asList("doc1", "doc3"), cb.getResultList());
+    }
+
+    // Only Hibernate provides the expanded SQL of a query
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testInListPaddingExpandsToBucketSize() {
+        CriteriaBuilder<String> cb = cbf.create(em, String.class);
+        cb.setProperty(ConfigurationProperties.IN_LIST_PADDING, "5,10");
+        cb.from(Document.class, "doc");
+        cb.where("doc.name").in(Arrays.asList("doc1", "doc2", "doc3"));
+        cb.select("doc.name");
+
+        TypedQuery<String> query = cb.getQuery();
+        String sql = cbf.getService(ExtendedQuerySupport.class).getSql(em, query);
+        assertEquals(5, countPlaceholders(sql));
+        assertEquals(3, query.getResultList().size());
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testInListPaddingCustomQuery() {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                CriteriaBuilder<String> cb = cbf.create(em, String.class);
+                cb.setProperty(ConfigurationProperties.IN_LIST_PADDING, "power_of_two");
+                cb.fromValues(Long.class, "allowedAge", Arrays.asList(1L, 2L, 3L));
+                cb.from(Document.class, "doc");
+                cb.where("doc.age").eqExpression("allowedAge");
+                cb.where("doc.name").in(Arrays.asList("doc1", "doc2", "doc3"));
+                cb.select("doc.name");
+                cb.orderByAsc("doc.name");
+
+                TypedQuery<String> query = cb.getQuery();
+                String sql = ((CustomSQLTypedQuery<?>) query).getQuerySpecification().getSql();
+                assertEquals(Arrays.asList("doc1", "doc2", "doc3"), query.getResultList());
+
+                // Binding a collection that is padded to the same size reuses the same statement
+                query.setParameter("param_0", Arrays.asList("doc1", "doc2", "doc3", "doc4"));
+                assertEquals(sql, ((CustomSQLTypedQuery<?>) query).getQuerySpecification().getSql());
+                assertEquals(Arrays.asList("doc1", "doc2", "doc3"), query.getResultList());
+            }
+        });
+    }
+
+    private static int countPlaceholders(String sql) {
+        int count = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) == '?') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void testInListPaddingPaginatedIds() {
+        PaginatedCriteriaBuilder<String> cb = cbf.create(em, String.class)
+                .setProperty(ConfigurationProperties.IN_LIST_PADDING, "power_of_two")
+                .from(Document.class, "doc")
+                .select("doc.name")
+                .orderByAsc("doc.name")
+                .orderByAsc("doc.id")
+                .page(0, 3)
+                .withForceIdQuery(true);
+
+        PagedList<String> resultList = cb.getResultList();
+        assertEquals(Arrays.asList("doc1", "doc2", "doc3"), resultList);
+        assertEquals(3, resultList.getTotalSize());
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.KeysetPage;
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoMySQLOld;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+@Category({ NoMySQLOld.class })
+public class InlineCountPaginationTest extends AbstractCoreTest {
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person o1 = new Person("Karl1");
+                Person o2 = new Person("Karl2");
+                em.persist(o1);
+                em.persist(o2);
+
+                for (int i = 1; i <= 5; i++) {
+                    Document doc = new Document("doc" + i);
+                    doc.setOwner(i % 2 == 0 ? o2 : o1);
+                    for (int j = 1; j <= 2; j++) {
+                        Person contact = new Person("Contact" + i + "_" + j);
+                        em.persist(contact);
+                        doc.getContacts().put(j, contact);
+                    }
+                    em.persist(doc);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testInlineCountInObjectQuery() {
+        PaginatedCriteriaBuilder<Document> cb = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(0, 2)
+                .withInlineCountQuery(true);
+
+        assertTrue(cb.getQueryString().contains(", " + function("WINDOW_COUNT") + " FROM"));
+        PagedList<Document> result = cb.getResultList();
+        assertEquals(2, result.size());
+        assertEquals(5, result.getTotalSize());
+        assertEquals("doc1", result.get(0).getName());
+        assertEquals("doc2", result.get(1).getName());
+    }
+
+    @Test
+    public void testInlineCountInObjectQueryWithScalarSelect() {
+        PagedList<String> result = cbf.create(em, String.class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .orderByDesc("d.name")
+                .orderByAsc("d.id")
+                .page(2, 2)
+                .withInlineCountQuery(true)
+                .getResultList();
+
+        assertEquals(2, result.size());
+        assertEquals(5, result.getTotalSize());
+        assertEquals("doc3", result.get(0));
+        assertEquals("doc2", result.get(1));
+    }
+
+    @Test
+    public void testInlineCountInIdQuery() {
+        PaginatedCriteriaBuilder<Document> cb = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(0, 2)
+                .withForceIdQuery(true)
+                .withInlineCountQuery(true);
+
+        assertTrue(cb.getPageIdQueryString().contains(", " + function("WINDOW_COUNT") + " FROM"));
+        assertFalse(cb.getQueryString().contains(function("WINDOW_COUNT")));
+        PagedList<Document> result = cb.getResultList();
+        assertEquals(2, result.size());
+        assertEquals(5, result.getTotalSize());
+        assertEquals("doc1", result.get(0).getName());
+        assertEquals("doc2", result.get(1).getName());
+    }
+
+    @Test
+    public void testInlineCountInIdQueryWithCollectionJoin() {
+        PagedList<Document> result = cbf.create(em, Document.class, "d")
+                .leftJoin("d.contacts", "c")
+                .where("c.name").like().value("Contact%").noEscape()
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(2, 2)
+                .withInlineCountQuery(true)
+                .getResultList();
+
+        // The count must be based on the grouped id rows rather than the joined rows
+        assertEquals(2, result.size());
+        assertEquals(5, result.getTotalSize());
+        assertEquals("doc3", result.get(0).getName());
+        assertEquals("doc4", result.get(1).getName());
+    }
+
+    @Test
+    public void testInlineCountInIdQueryWithKeysetExtraction() {
+        PagedList<Document> result = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(0, 2)
+                .withForceIdQuery(true)
+                .withKeysetExtraction(true)
+                .withInlineCountQuery(true)
+                .getResultList();
+
+        assertEquals(2, result.size());
+        assertEquals(5, result.getTotalSize());
+        assertEquals("doc1", result.getKeysetPage().getLowest().getTuple()[0]);
+        assertEquals("doc2", result.getKeysetPage().getHighest().getTuple()[0]);
+    }
+
+    @Test
+    public void testInlineCountFallbackForEmptyPage() {
+        PagedList<Document> result = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(10, 2)
+                .withInlineCountQuery(true)
+                .getResultList();
+
+        assertEquals(0, result.size());
+        assertEquals(5, result.getTotalSize());
+    }
+
+    @Test
+    public void testInlineCountEmptyResult() {
+        PagedList<Document> result = cbf.create(em, Document.class, "d")
+                .where("d.name").isNull()
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(0, 2)
+                .withInlineCountQuery(true)
+                .getResultList();
+
+        assertEquals(0, result.size());
+        assertEquals(0, result.getTotalSize());
+    }
+
+    @Test
+    public void testInlineCountNotUsedWithKeysetPagination() {
+        PagedList<Document> firstPage = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(0, 2)
+                .withKeysetExtraction(true)
+                .withInlineCountQuery(true)
+                .getResultList();
+        KeysetPage keysetPage = firstPage.getKeysetPage();
+
+        PaginatedCriteriaBuilder<Document> cb = cbf.create(em, Document.class, "d")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(keysetPage, 2, 2)
+                .withKeysetExtraction(true)
+                .withInlineCountQuery(true);
+
+        // The keyset predicate would restrict the count, so the separate count query is used
+        assertFalse(cb.getQueryString().contains(function("WINDOW_COUNT")));
+        PagedList<Document> result = cb.getResultList();
+        assertEquals(2, result.size());
+        assertEquals(5, result.getTotalSize());
+        assertEquals("doc3", result.get(0).getName());
+    }
+}
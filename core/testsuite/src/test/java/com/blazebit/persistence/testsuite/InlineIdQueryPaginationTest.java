@@ -0,0 +1,214 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.KeysetPage;
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.impl.PaginatedCriteriaBuilderImpl;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoMySQLOld;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+@Category({ NoMySQLOld.class, NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+public class InlineIdQueryPaginationTest extends AbstractCoreTest {
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person o1 = new Person("Karl1");
+                Person o2 = new Person("Karl2");
+                em.persist(o1);
+                em.persist(o2);
+
+                for (int i = 1; i <= 5; i++) {
+                    Document doc = new Document("doc" + i);
+                    doc.setOwner(i % 2 == 0 ? o2 : o1);
+                    for (int j = 1; j <= 2; j++) {
+                        Person contact = new Person("Contact" + i + "_" + j);
+                        em.persist(contact);
+                        doc.getContacts().put(j, contact);
+                    }
+                    em.persist(doc);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testInlineIdQueryWithCollectionJoin() {
+        PaginatedCriteriaBuilder<Document> cb = cbf.create(em, Document.class, "d")
+                .leftJoin("d.contacts", "c")
+                .where("c.name").like().value("Contact%").noEscape()
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(2, 2)
+                .withInlineIdQuery(true);
+
+        assertTrue(cb.isWithInlineIdQuery());
+        assertNull(cb.getPageIdQueryString());
+        PagedList<Document> result = cb.getResultList();
+        assertEquals(2, result.size());
+        assertEquals(5, result.getTotalSize());
+        assertEquals("doc3", result.get(0).getName());
+        assertEquals("doc4", result.get(1).getName());
+    }
+
+    @Test
+    public void testInlineIdQueryReuseBuilderForNextPage() {
+        PaginatedCriteriaBuilder<Document> cb = cbf.create(em, Document.class, "d")
+                .leftJoin("d.contacts", "c")
+                .where("c.name").like().value("Contact%").noEscape()
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(0, 2)
+                .withInlineIdQuery(true);
+
+        PagedList<Document> firstPage = cb.getResultList();
+        assertEquals(2, firstPage.size());
+        assertEquals("doc1", firstPage.get(0).getName());
+        assertEquals("doc2", firstPage.get(1).getName());
+
+        // The rank range must be bound for the current page although the query string is cached
+        ((PaginatedCriteriaBuilderImpl<Document>) cb).setFirstResult(2);
+        PagedList<Document> secondPage = cb.getResultList();
+        assertEquals(2, secondPage.size());
+        assertEquals(2, secondPage.getFirstResult());
+        assertEquals("doc3", secondPage.get(0).getName());
+        assertEquals("doc4", secondPage.get(1).getName());
+    }
+
+    @Test
+    public void testInlineIdQueryWithCollectionFetch() {
+        PagedList<Document> result = cbf.create(em, Document.class, "d")
+                .fetch("d.contacts")
+                .orderByDesc("d.name")
+                .orderByAsc("d.id")
+                .page(0, 2)
+                .withInlineIdQuery(true)
+                .getResultList();
+
+        assertEquals(5, result.getTotalSize());
+        assertEquals("doc5", result.get(0).getName());
+        assertEquals("doc4", result.get(result.size() - 1).getName());
+        assertEquals(2, result.get(0).getContacts().size());
+    }
+
+    @Test
+    public void testInlineIdQueryWithKeysetExtraction() {
+        PagedList<Document> firstPage = cbf.create(em, Document.class, "d")
+                .leftJoin("d.contacts", "c")
+                .where("c.name").like().value("Contact%").noEscape()
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(0, 2)
+                .withKeysetExtraction(true)
+                .withInlineIdQuery(true)
+                .getResultList();
+
+        assertEquals(2, firstPage.size());
+        assertEquals("doc1", firstPage.getKeysetPage().getLowest().getTuple()[0]);
+        assertEquals("doc2", firstPage.getKeysetPage().getHighest().getTuple()[0]);
+
+        KeysetPage keysetPage = firstPage.getKeysetPage();
+        PaginatedCriteriaBuilder<Document> cb = cbf.create(em, Document.class, "d")
+                .leftJoin("d.contacts", "c")
+                .where("c.name").like().value("Contact%").noEscape()
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(keysetPage, 2, 2)
+                .withKeysetExtraction(true)
+                .withInlineIdQuery(true);
+
+        // Keyset pagination uses the id query
+        assertNotNull(cb.getPageIdQueryString());
+        PagedList<Document> result = cb.getResultList();
+        assertEquals(2, result.size());
+        assertEquals("doc3", result.get(0).getName());
+        assertEquals("doc4", result.get(1).getName());
+    }
+
+    @Test
+    public void testInlineIdQueryLastPage() {
+        PagedList<Document> result = cbf.create(em, Document.class, "d")
+                .leftJoin("d.contacts", "c")
+                .where("c.name").like().value("Contact%").noEscape()
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(4, 2)
+                .withInlineIdQuery(true)
+                .getResultList();
+
+        assertEquals(1, result.size());
+        assertEquals(5, result.getTotalSize());
+        assertEquals("doc5", result.get(0).getName());
+    }
+
+    @Test
+    public void testInlineIdQueryEmptyPage() {
+        PagedList<Document> result = cbf.create(em, Document.class, "d")
+                .leftJoin("d.contacts", "c")
+                .where("c.name").like().value("Contact%").noEscape()
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(10, 2)
+                .withInlineIdQuery(true)
+                .getResultList();
+
+        assertEquals(0, result.size());
+        assertEquals(5, result.getTotalSize());
+    }
+
+    @Test
+    public void testInlineIdQueryMaxPageSize() {
+        PagedList<Document> result = cbf.create(em, Document.class, "d")
+                .leftJoin("d.contacts", "c")
+                .where("c.name").like().value("Contact%").noEscape()
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(2, Integer.MAX_VALUE)
+                .withInlineIdQuery(true)
+                .getResultList();
+
+        assertEquals(3, result.size());
+        assertEquals(5, result.getTotalSize());
+        assertEquals("doc3", result.get(0).getName());
+        assertEquals("doc5", result.get(2).getName());
+    }
+}
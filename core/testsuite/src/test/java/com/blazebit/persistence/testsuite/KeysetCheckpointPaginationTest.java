@@ -0,0 +1,174 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.PaginatedTypedQuery;
+import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import com.blazebit.persistence.spi.KeysetCheckpointCache;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class KeysetCheckpointPaginationTest extends AbstractCoreTest {
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person o1 = new Person("Karl1");
+                em.persist(o1);
+
+                for (int i = 1; i <= 12; i++) {
+                    em.persist(new Document(String.format("doc%02d", i), o1));
+                }
+            }
+        });
+    }
+
+    @Before
+    public void setUp() {
+        cbf.getService(KeysetCheckpointCache.class).clear();
+    }
+
+    @Override
+    protected CriteriaBuilderConfiguration configure(CriteriaBuilderConfiguration config) {
+        config = super.configure(config);
+        config.setProperty(ConfigurationProperties.KEYSET_CHECKPOINT_INTERVAL, "4");
+        return config;
+    }
+
+    private PaginatedCriteriaBuilder<Document> createBuilder(String namePattern, int firstResult, int maxResults, boolean forceIdQuery) {
+        return cbf.create(em, Document.class, "d")
+                .where("d.name").like().value(namePattern).noEscape()
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(firstResult, maxResults)
+                .withKeysetExtraction(true)
+                .withForceIdQuery(forceIdQuery);
+    }
+
+    private static boolean seeksFromCheckpoint(PaginatedCriteriaBuilder<Document> builder, boolean forceIdQuery) {
+        String queryString = forceIdQuery ? builder.getPageIdQueryString() : builder.getQueryString();
+        return queryString.contains(":_keysetParameter");
+    }
+
+    @Test
+    public void deepPageSeeksFromCheckpoint() {
+        assertDeepPageSeeksFromCheckpoint(false);
+    }
+
+    @Test
+    public void deepPageSeeksFromCheckpointWithIdQuery() {
+        assertDeepPageSeeksFromCheckpoint(true);
+    }
+
+    private void assertDeepPageSeeksFromCheckpoint(boolean forceIdQuery) {
+        PaginatedCriteriaBuilder<Document> firstBuilder = createBuilder("doc%", 0, 4, forceIdQuery);
+        PagedList<Document> firstPage = firstBuilder.getResultList();
+        assertFalse(seeksFromCheckpoint(firstBuilder, forceIdQuery));
+        assertEquals("doc01", firstPage.get(0).getName());
+
+        // The checkpoint of the last row of the first page is used with an offset of 5
+        PaginatedCriteriaBuilder<Document> deepBuilder = createBuilder("doc%", 9, 2, forceIdQuery);
+        PagedList<Document> deepPage = deepBuilder.getResultList();
+        assertTrue(seeksFromCheckpoint(deepBuilder, forceIdQuery));
+        assertEquals(2, deepPage.size());
+        assertEquals(12, deepPage.getTotalSize());
+        assertEquals(9, deepPage.getFirstResult());
+        assertEquals("doc10", deepPage.get(0).getName());
+        assertEquals("doc11", deepPage.get(1).getName());
+        assertEquals(9, deepPage.getKeysetPage().getFirstResult());
+    }
+
+    @Test
+    public void sequentialPagesRecordCheckpoints() {
+        // Every page records the keyset of its last row, so the following page is sought without offset
+        for (int i = 0; i < 3; i++) {
+            PaginatedCriteriaBuilder<Document> builder = createBuilder("doc%", i * 4, 4, false);
+            PagedList<Document> page = builder.getResultList();
+            assertEquals(i != 0, seeksFromCheckpoint(builder, false));
+            assertEquals(4, page.size());
+            for (int j = 0; j < 4; j++) {
+                assertEquals(String.format("doc%02d", i * 4 + j + 1), page.get(j).getName());
+            }
+        }
+    }
+
+    @Test
+    public void differentParameterValuesDontShareCheckpoints() {
+        createBuilder("doc%", 0, 4, false).getResultList();
+
+        PaginatedCriteriaBuilder<Document> builder = createBuilder("doc1%", 1, 2, false);
+        PagedList<Document> page = builder.getResultList();
+        assertFalse(seeksFromCheckpoint(builder, false));
+        assertEquals(2, page.size());
+        assertEquals("doc11", page.get(0).getName());
+        assertEquals("doc12", page.get(1).getName());
+    }
+
+    @Test
+    public void noCheckpointsWithoutKeysetExtraction() {
+        createBuilder("doc%", 0, 4, false).withKeysetExtraction(false).getResultList();
+
+        PaginatedCriteriaBuilder<Document> builder = createBuilder("doc%", 8, 2, false).withKeysetExtraction(false);
+        PagedList<Document> page = builder.getResultList();
+        assertFalse(seeksFromCheckpoint(builder, false));
+        assertEquals("doc09", page.get(0).getName());
+    }
+
+    @Test
+    public void settingParameterOnSeekingQueryFallsBackToOffset() {
+        assertSettingParameterOnSeekingQueryFallsBackToOffset(false);
+    }
+
+    @Test
+    public void settingParameterOnSeekingQueryWithIdQueryFallsBackToOffset() {
+        assertSettingParameterOnSeekingQueryFallsBackToOffset(true);
+    }
+
+    private void assertSettingParameterOnSeekingQueryFallsBackToOffset(boolean forceIdQuery) {
+        createBuilder("doc%", 0, 4, forceIdQuery).getResultList();
+
+        // Seeking from the checkpoint after doc04 would skip doc01 for the new parameter value and return doc10 and doc11
+        PaginatedCriteriaBuilder<Document> builder = createBuilder("doc%", 4, 2, forceIdQuery);
+        PaginatedTypedQuery<Document> query = builder.getQuery();
+        query.setParameter("param_0", "%1%");
+        PagedList<Document> page = query.getResultList();
+        assertTrue(seeksFromCheckpoint(builder, forceIdQuery));
+        assertTrue(page.isEmpty());
+        assertEquals(4, page.getTotalSize());
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.spi.ExtendedQuerySupport;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDB2;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoFirebird;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoMSSQL;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoMySQL;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOracle;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoPostgreSQL;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoSQLite;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the H2 execution plans of the optimized keyset predicate with the nested OR/AND keyset predicate.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+@Category({ NoPostgreSQL.class, NoMySQL.class, NoOracle.class, NoMSSQL.class, NoDB2.class, NoFirebird.class, NoSQLite.class, NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+public class KeysetPredicatePlanTest extends AbstractCoreTest {
+
+    private static final int DOCUMENT_COUNT = 200;
+    private static final Pattern SCAN_COUNT_PATTERN = Pattern.compile("scanCount: (\\d+)");
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person owner = new Person("Karl1");
+                em.persist(owner);
+
+                for (int i = 0; i < DOCUMENT_COUNT; i++) {
+                    Document doc = new Document(String.format("doc%03d", i));
+                    doc.setOwner(owner);
+                    em.persist(doc);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testRowValueKeysetPredicateUsesIndexRange() {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                em.createNativeQuery("CREATE INDEX document_name_id_idx ON document(name, id)").executeUpdate();
+            }
+        });
+
+        try {
+            Long keysetId = cbf.create(em, Long.class).from(Document.class, "d").select("d.id").where("d.name").eq("doc150").getSingleResult();
+
+            String rowValuePlan = explain(createKeysetQuery("doc150", keysetId, true), keysetId);
+            String orChainPlan = explain(createKeysetQuery("doc150", keysetId, false), keysetId);
+
+            // The leading range predicate of the row value rendering is used to access the index
+            assertTrue(rowValuePlan, rowValuePlan.contains("DOCUMENT_NAME_ID_IDX: NAME >= 'doc150'"));
+            assertTrue(rowValuePlan, rowValuePlan.contains("ROW ("));
+            // The nested OR/AND predicate can only be used as filter while scanning the whole index
+            assertFalse(orChainPlan, orChainPlan.contains("DOCUMENT_NAME_ID_IDX: NAME"));
+            assertTrue(scanCount(rowValuePlan) + " < " + scanCount(orChainPlan), scanCount(rowValuePlan) < scanCount(orChainPlan));
+        } finally {
+            transactional(new TxVoidWork() {
+                @Override
+                public void work(EntityManager em) {
+                    em.createNativeQuery("DROP INDEX document_name_id_idx").executeUpdate();
+                }
+            });
+        }
+    }
+
+    private CriteriaBuilder<Long> createKeysetQuery(String name, Long id, boolean optimized) {
+        return cbf.create(em, Long.class)
+                .setProperty(ConfigurationProperties.OPTIMIZED_KEYSET_PREDICATE_RENDERING, Boolean.toString(optimized))
+                .from(Document.class, "d")
+                .select("d.id")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .afterKeyset(name, id);
+    }
+
+    private String explain(CriteriaBuilder<Long> cb, Long keysetId) {
+        String sql = cbf.getService(ExtendedQuerySupport.class).getSql(em, cb.getQuery());
+        // All placeholders are keyset parameters for the name except for the last one which is the id
+        int lastPlaceholder = sql.lastIndexOf('?');
+        sql = sql.substring(0, lastPlaceholder) + keysetId + sql.substring(lastPlaceholder + 1);
+        sql = sql.replace("?", "'doc150'");
+        return (String) em.createNativeQuery("EXPLAIN ANALYZE " + sql).getSingleResult();
+    }
+
+    private static int scanCount(String plan) {
+        Matcher matcher = SCAN_COUNT_PATTERN.matcher(plan);
+        assertTrue(plan, matcher.find());
+        return Integer.parseInt(matcher.group(1));
+    }
+}
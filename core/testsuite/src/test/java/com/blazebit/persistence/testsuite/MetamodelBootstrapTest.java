@@ -0,0 +1,96 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.impl.EntityMetamodelImpl;
+import com.blazebit.persistence.spi.BootstrapStatistics;
+import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import com.blazebit.persistence.spi.ExtendedAttribute;
+import com.blazebit.persistence.spi.ExtendedManagedType;
+import com.blazebit.persistence.spi.JpaProviderFactory;
+import org.junit.Test;
+
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.Metamodel;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class MetamodelBootstrapTest extends AbstractCoreTest {
+
+    @Override
+    protected CriteriaBuilderConfiguration configure(CriteriaBuilderConfiguration config) {
+        config = super.configure(config);
+        config.setProperty(ConfigurationProperties.METAMODEL_EXTRACTION_PARALLELISM, "4");
+        return config;
+    }
+
+    @Test
+    public void bootstrapStatisticsAreAvailable() {
+        BootstrapStatistics statistics = cbf.getService(BootstrapStatistics.class);
+        assertNotNull(statistics);
+        assertEquals(4, statistics.getMetamodelExtractionParallelism());
+        assertEquals(cbf.getService(Metamodel.class).getManagedTypes().size(), statistics.getManagedTypeCount());
+        assertTrue(statistics.getMetamodelExtractionTime() >= 0);
+        assertTrue(statistics.getFunctionRegistrationTime() >= 0);
+        assertTrue(statistics.getTotalTime() >= statistics.getMetamodelExtractionTime());
+    }
+
+    @Test
+    public void parallelExtractionProducesSameMetamodelAsSequentialExtraction() {
+        EntityMetamodelImpl parallelMetamodel = (EntityMetamodelImpl) cbf.getService(Metamodel.class);
+        EntityMetamodelImpl sequentialMetamodel = new EntityMetamodelImpl(emf, cbf.getService(JpaProviderFactory.class), 1);
+
+        assertEquals(sequentialMetamodel.getEntityTypes(), parallelMetamodel.getEntityTypes());
+        assertEquals(sequentialMetamodel.getEnumTypes(), parallelMetamodel.getEnumTypes());
+        for (ManagedType<?> managedType : sequentialMetamodel.getManagedTypes()) {
+            ExtendedManagedType<?> expected = sequentialMetamodel.getManagedType(ExtendedManagedType.class, managedType);
+            ExtendedManagedType<?> actual = parallelMetamodel.getManagedType(ExtendedManagedType.class, managedType);
+            assertEquals(expected.hasCascadingDeleteCycle(), actual.hasCascadingDeleteCycle());
+            assertOwnerEquals(expected.getEmbeddableSingularOwner(), actual.getEmbeddableSingularOwner());
+            assertOwnerEquals(expected.getEmbeddablePluralOwner(), actual.getEmbeddablePluralOwner());
+            assertEquals(expected.getAttributes().keySet(), actual.getAttributes().keySet());
+            for (Map.Entry<String, ? extends ExtendedAttribute<?, ?>> entry : expected.getAttributes().entrySet()) {
+                ExtendedAttribute<?, ?> expectedAttribute = entry.getValue();
+                ExtendedAttribute<?, ?> actualAttribute = actual.getAttributes().get(entry.getKey());
+                assertEquals(expectedAttribute.getAttributePathString(), actualAttribute.getAttributePathString());
+                assertEquals(expectedAttribute.getElementClass(), actualAttribute.getElementClass());
+                assertEquals(expectedAttribute.hasCascadingDeleteCycle(), actualAttribute.hasCascadingDeleteCycle());
+                assertArrayEquals(expectedAttribute.getColumnNames(), actualAttribute.getColumnNames());
+            }
+        }
+    }
+
+    private static void assertOwnerEquals(Map.Entry<?, String> expected, Map.Entry<?, String> actual) {
+        if (expected == null) {
+            assertEquals(null, actual);
+        } else {
+            assertEquals(Arrays.asList(expected.getKey(), expected.getValue()), Arrays.asList(actual.getKey(), actual.getValue()));
+        }
+    }
+}
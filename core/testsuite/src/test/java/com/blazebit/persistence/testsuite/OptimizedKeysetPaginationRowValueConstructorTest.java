@@ -171,7 +171,7 @@ public class OptimizedKeysetPaginationRowValueConstructorTest extends AbstractCo
         pcb = crit.page(result.getKeysetPage(), 4, 2);
         assertEquals(
                 "SELECT d.name, owner_1.name, CASE WHEN d.age = 18 THEN true ELSE false END AS underaged, d.id FROM Document d JOIN d.owner owner_1 "
-                        + "WHERE " + function("compare_row_value", "'<'", "CASE WHEN (1=NULLIF(1,1) AND 1=NULLIF(1,1)) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND 1=NULLIF(1,1)) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND :_keysetParameter_2=CASE WHEN d.age = 18 THEN true ELSE false END) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND :_keysetParameter_3=d.id) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND owner_1.name=:_keysetParameter_0) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND d.name=:_keysetParameter_1) THEN 1 ELSE 0 END") + " = true"
+                        + "WHERE owner_1.name <= :_keysetParameter_0 AND NOT (owner_1.name = :_keysetParameter_0 AND (d.name > :_keysetParameter_1 OR (d.name = :_keysetParameter_1 AND (CASE WHEN d.age = 18 THEN true ELSE false END < :_keysetParameter_2 OR (CASE WHEN d.age = 18 THEN true ELSE false END = :_keysetParameter_2 AND d.id <= :_keysetParameter_3)))))"
                         + " ORDER BY owner_1.name DESC, d.name DESC, underaged ASC, d.id ASC",
                 pcb.getQueryString()
         );
@@ -185,7 +185,7 @@ public class OptimizedKeysetPaginationRowValueConstructorTest extends AbstractCo
         pcb = crit.page(result.getKeysetPage(), 2, 2);
         assertEquals(
                 "SELECT d.name, owner_1.name, CASE WHEN d.age = 18 THEN true ELSE false END AS underaged, d.id FROM Document d JOIN d.owner owner_1 "
-                        + "WHERE " + function("compare_row_value", "'<'", "CASE WHEN (1=NULLIF(1,1) AND :_keysetParameter_0=owner_1.name) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND :_keysetParameter_1=d.name) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND 1=NULLIF(1,1)) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND 1=NULLIF(1,1)) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND CASE WHEN d.age = 18 THEN true ELSE false END=:_keysetParameter_2) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND d.id=:_keysetParameter_3) THEN 1 ELSE 0 END") + " = true"
+                        + "WHERE owner_1.name >= :_keysetParameter_0 AND NOT (owner_1.name = :_keysetParameter_0 AND (d.name < :_keysetParameter_1 OR (d.name = :_keysetParameter_1 AND (CASE WHEN d.age = 18 THEN true ELSE false END > :_keysetParameter_2 OR (CASE WHEN d.age = 18 THEN true ELSE false END = :_keysetParameter_2 AND d.id >= :_keysetParameter_3)))))"
                         + " ORDER BY owner_1.name ASC, d.name ASC, underaged DESC, d.id DESC",
                 pcb.getQueryString()
         );
@@ -202,6 +202,95 @@ public class OptimizedKeysetPaginationRowValueConstructorTest extends AbstractCo
         assertEquals("doc1", result.get(1).get(0));
     }
 
+    @Test
+    public void uniformAscendingOrderTest() {
+        CriteriaBuilder<Tuple> crit = cbf.create(em, Tuple.class).from(Document.class, "d")
+                .select("d.name").select("d.owner.name");
+        crit.orderByAsc("d.owner.name")
+                .orderByAsc("d.name")
+                .orderByAsc("d.id");
+
+        PagedList<Tuple> result = crit.page(null, 2, 2).getResultList();
+        assertEquals("doc3", result.get(0).get(0));
+        assertEquals("doc4", result.get(1).get(0));
+
+        // scroll forward
+        PaginatedCriteriaBuilder<Tuple> pcb = crit.page(result.getKeysetPage(), 4, 2);
+        assertEquals(
+                "SELECT d.name, owner_1.name, d.id FROM Document d JOIN d.owner owner_1 "
+                        + "WHERE owner_1.name >= :_keysetParameter_0 AND " + function("compare_row_value", "'>'", "CASE WHEN (1=NULLIF(1,1) AND owner_1.name=:_keysetParameter_0) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND d.name=:_keysetParameter_1) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND d.id=:_keysetParameter_2) THEN 1 ELSE 0 END") + " = true"
+                        + " ORDER BY owner_1.name ASC, d.name ASC, d.id ASC",
+                pcb.getQueryString()
+        );
+        PagedList<Tuple> nextResult = pcb.getResultList();
+        assertEquals(2, nextResult.size());
+        assertEquals("doc5", nextResult.get(0).get(0));
+        assertEquals("doc6", nextResult.get(1).get(0));
+
+        // same page again
+        pcb = crit.page(result.getKeysetPage(), 2, 2);
+        assertEquals(
+                "SELECT d.name, owner_1.name, d.id FROM Document d JOIN d.owner owner_1 "
+                        + "WHERE owner_1.name >= :_keysetParameter_0 AND " + function("compare_row_value", "'>='", "CASE WHEN (1=NULLIF(1,1) AND owner_1.name=:_keysetParameter_0) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND d.name=:_keysetParameter_1) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND d.id=:_keysetParameter_2) THEN 1 ELSE 0 END") + " = true"
+                        + " ORDER BY owner_1.name ASC, d.name ASC, d.id ASC",
+                pcb.getQueryString()
+        );
+        PagedList<Tuple> sameResult = pcb.getResultList();
+        assertEquals("doc3", sameResult.get(0).get(0));
+        assertEquals("doc4", sameResult.get(1).get(0));
+
+        // scroll backwards
+        pcb = crit.page(nextResult.getKeysetPage(), 2, 2);
+        assertEquals(
+                "SELECT d.name, owner_1.name, d.id FROM Document d JOIN d.owner owner_1 "
+                        + "WHERE owner_1.name <= :_keysetParameter_0 AND " + function("compare_row_value", "'<'", "CASE WHEN (1=NULLIF(1,1) AND owner_1.name=:_keysetParameter_0) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND d.name=:_keysetParameter_1) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND d.id=:_keysetParameter_2) THEN 1 ELSE 0 END") + " = true"
+                        + " ORDER BY owner_1.name DESC, d.name DESC, d.id DESC",
+                pcb.getQueryString()
+        );
+        result = pcb.getResultList();
+        assertEquals("doc3", result.get(0).get(0));
+        assertEquals("doc4", result.get(1).get(0));
+    }
+
+    @Test
+    public void uniformDescendingOrderTest() {
+        CriteriaBuilder<Tuple> crit = cbf.create(em, Tuple.class).from(Document.class, "d")
+                .select("d.name").select("d.owner.name");
+        crit.orderByDesc("d.owner.name")
+                .orderByDesc("d.name")
+                .orderByDesc("d.id");
+
+        PagedList<Tuple> result = crit.page(null, 4, 2).getResultList();
+        assertEquals("doc2", result.get(0).get(0));
+        assertEquals("doc1", result.get(1).get(0));
+
+        // scroll backwards
+        PaginatedCriteriaBuilder<Tuple> pcb = crit.page(result.getKeysetPage(), 2, 2);
+        assertEquals(
+                "SELECT d.name, owner_1.name, d.id FROM Document d JOIN d.owner owner_1 "
+                        + "WHERE owner_1.name >= :_keysetParameter_0 AND " + function("compare_row_value", "'>'", "CASE WHEN (1=NULLIF(1,1) AND owner_1.name=:_keysetParameter_0) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND d.name=:_keysetParameter_1) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND d.id=:_keysetParameter_2) THEN 1 ELSE 0 END") + " = true"
+                        + " ORDER BY owner_1.name ASC, d.name ASC, d.id ASC",
+                pcb.getQueryString()
+        );
+        PagedList<Tuple> previousResult = pcb.getResultList();
+        assertEquals(2, previousResult.size());
+        assertEquals("doc4", previousResult.get(0).get(0));
+        assertEquals("doc3", previousResult.get(1).get(0));
+
+        // scroll forward
+        pcb = crit.page(previousResult.getKeysetPage(), 4, 2);
+        assertEquals(
+                "SELECT d.name, owner_1.name, d.id FROM Document d JOIN d.owner owner_1 "
+                        + "WHERE owner_1.name <= :_keysetParameter_0 AND " + function("compare_row_value", "'<'", "CASE WHEN (1=NULLIF(1,1) AND owner_1.name=:_keysetParameter_0) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND d.name=:_keysetParameter_1) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND d.id=:_keysetParameter_2) THEN 1 ELSE 0 END") + " = true"
+                        + " ORDER BY owner_1.name DESC, d.name DESC, d.id DESC",
+                pcb.getQueryString()
+        );
+        result = pcb.getResultList();
+        assertEquals(2, result.size());
+        assertEquals("doc2", result.get(0).get(0));
+        assertEquals("doc1", result.get(1).get(0));
+    }
+
     @Test
     @Category(NoEclipselink.class)
     // TODO: report eclipselink does not support subqueries in functions
@@ -298,7 +387,7 @@ public class OptimizedKeysetPaginationRowValueConstructorTest extends AbstractCo
         result = pcb.getResultList();
         // Finally we can use the key set
         expectedObjectQuery = "SELECT d.name, owner_1.name, d.id FROM Document d JOIN d.owner owner_1 "
-                + "WHERE " + function("compare_row_value", "'<'", "CASE WHEN (1=NULLIF(1,1) AND 1=NULLIF(1,1)) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND :_keysetParameter_1=d.name) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND :_keysetParameter_2=d.id) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND owner_1.name=:_keysetParameter_0) THEN 1 ELSE 0 END") + " = true"
+                + "WHERE owner_1.name <= :_keysetParameter_0 AND NOT (owner_1.name = :_keysetParameter_0 AND (d.name < :_keysetParameter_1 OR (d.name = :_keysetParameter_1 AND d.id <= :_keysetParameter_2)))"
                 + " ORDER BY owner_1.name DESC, d.name ASC, d.id ASC";
         assertEquals(expectedObjectQuery, pcb.getQueryString());
 
@@ -306,7 +395,7 @@ public class OptimizedKeysetPaginationRowValueConstructorTest extends AbstractCo
         result = pcb.getResultList();
         // Same page again key set
         expectedObjectQuery = "SELECT d.name, owner_1.name, d.id FROM Document d JOIN d.owner owner_1 "
-                + "WHERE " + function("compare_row_value", "'<='", "CASE WHEN (1=NULLIF(1,1) AND 1=NULLIF(1,1)) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND :_keysetParameter_1=d.name) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND :_keysetParameter_2=d.id) THEN 1 ELSE 0 END,CASE WHEN (1=NULLIF(1,1) AND owner_1.name=:_keysetParameter_0) THEN 1 ELSE 0 END") + " = true"
+                + "WHERE owner_1.name <= :_keysetParameter_0 AND NOT (owner_1.name = :_keysetParameter_0 AND (d.name < :_keysetParameter_1 OR (d.name = :_keysetParameter_1 AND d.id < :_keysetParameter_2)))"
                 + " ORDER BY owner_1.name DESC, d.name ASC, d.id ASC";
         assertEquals(expectedObjectQuery, pcb.getQueryString());
 
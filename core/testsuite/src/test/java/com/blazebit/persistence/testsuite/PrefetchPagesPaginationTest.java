@@ -0,0 +1,207 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.KeysetPage;
+import com.blazebit.persistence.PagedList;
+import com.blazebit.persistence.PaginatedCriteriaBuilder;
+import com.blazebit.persistence.PaginatedTypedQuery;
+import com.blazebit.persistence.impl.keyset.KeysetPageImpl;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class PrefetchPagesPaginationTest extends AbstractCoreTest {
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person o1 = new Person("Karl1");
+                em.persist(o1);
+
+                for (int i = 1; i <= 5; i++) {
+                    Document doc = new Document("doc" + i);
+                    doc.setOwner(o1);
+                    for (int j = 1; j <= 2; j++) {
+                        Person contact = new Person("Contact" + i + "_" + j);
+                        em.persist(contact);
+                        doc.getContacts().put(j, contact);
+                    }
+                    em.persist(doc);
+                }
+            }
+        });
+    }
+
+    private PaginatedCriteriaBuilder<Document> createBuilder(KeysetPage keysetPage, int firstResult, int prefetchPages) {
+        return cbf.create(em, Document.class, "d")
+                .leftJoin("d.contacts", "c")
+                .where("c.name").like().value("Contact%").noEscape()
+                .orderByAsc("d.name")
+                .orderByAsc("d.id")
+                .page(keysetPage, firstResult, 2)
+                .withKeysetExtraction(true)
+                .withPrefetchPages(prefetchPages);
+    }
+
+    @Test
+    public void testPrefetchNextPage() {
+        PagedList<Document> firstPage = createBuilder(null, 0, 1).getResultList();
+        assertEquals(2, firstPage.size());
+        assertEquals(5, firstPage.getTotalSize());
+        assertEquals("doc1", firstPage.get(0).getName());
+        assertEquals("doc2", firstPage.get(1).getName());
+        KeysetPageImpl firstKeysetPage = (KeysetPageImpl) firstPage.getKeysetPage();
+        assertEquals(2, firstKeysetPage.getPrefetchedIds().size());
+        assertFalse(firstKeysetPage.isPrefetchComplete());
+
+        PagedList<Document> secondPage = createBuilder(firstKeysetPage, 2, 1).getResultList();
+        assertEquals(2, secondPage.size());
+        assertEquals("doc3", secondPage.get(0).getName());
+        assertEquals("doc4", secondPage.get(1).getName());
+        // Nothing is left after the prefetched page, so the id query has to run for the next page
+        assertNull(((KeysetPageImpl) secondPage.getKeysetPage()).getPrefetchedIds());
+
+        PagedList<Document> thirdPage = createBuilder(secondPage.getKeysetPage(), 4, 1).getResultList();
+        assertEquals(1, thirdPage.size());
+        assertEquals("doc5", thirdPage.get(0).getName());
+        KeysetPageImpl thirdKeysetPage = (KeysetPageImpl) thirdPage.getKeysetPage();
+        assertTrue(thirdKeysetPage.getPrefetchedIds().isEmpty());
+        assertTrue(thirdKeysetPage.isPrefetchComplete());
+    }
+
+    @Test
+    public void testPrefetchedPagesSkipIdQuery() {
+        PagedList<Document> firstPage = createBuilder(null, 0, 3).getResultList();
+        KeysetPageImpl firstKeysetPage = (KeysetPageImpl) firstPage.getKeysetPage();
+        assertEquals(3, firstKeysetPage.getPrefetchedIds().size());
+        assertTrue(firstKeysetPage.isPrefetchComplete());
+
+        // A document inserted after prefetching is not visible as the id query is skipped
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Document doc = new Document("doc2a");
+                doc.setOwner(em.createQuery("SELECT p FROM Person p WHERE p.name = 'Karl1'", Person.class).getSingleResult());
+                Person contact = new Person("Contact2a");
+                em.persist(contact);
+                doc.getContacts().put(1, contact);
+                em.persist(doc);
+            }
+        });
+
+        try {
+            PagedList<Document> secondPage = createBuilder(firstKeysetPage, 2, 3).getResultList();
+            assertEquals(2, secondPage.size());
+            assertEquals("doc3", secondPage.get(0).getName());
+            assertEquals("doc4", secondPage.get(1).getName());
+
+            PagedList<Document> thirdPage = createBuilder(secondPage.getKeysetPage(), 4, 3).getResultList();
+            assertEquals(1, thirdPage.size());
+            assertEquals("doc5", thirdPage.get(0).getName());
+
+            // Scrolling over the last page reuses the keyset page
+            PagedList<Document> emptyPage = createBuilder(thirdPage.getKeysetPage(), 6, 3).getResultList();
+            assertTrue(emptyPage.isEmpty());
+            assertSame(thirdPage.getKeysetPage(), emptyPage.getKeysetPage());
+
+            // Without prefetching, the id query sees the new document
+            PagedList<Document> queriedPage = createBuilder(firstKeysetPage, 2, 0).getResultList();
+            assertEquals("doc2a", queriedPage.get(0).getName());
+            assertEquals("doc3", queriedPage.get(1).getName());
+        } finally {
+            transactional(new TxVoidWork() {
+                @Override
+                public void work(EntityManager em) {
+                    em.remove(em.createQuery("SELECT d FROM Document d WHERE d.name = 'doc2a'", Document.class).getSingleResult());
+                    em.flush();
+                    em.remove(em.createQuery("SELECT p FROM Person p WHERE p.name = 'Contact2a'", Person.class).getSingleResult());
+                }
+            });
+        }
+    }
+
+    @Test
+    public void testNoPrefetchForChangedParameter() {
+        PaginatedTypedQuery<Document> firstPageQuery = createBuilder(null, 0, 1)
+                .where("d.name").notEqExpression(":excluded")
+                .getQuery();
+        firstPageQuery.setParameter("excluded", "none");
+        PagedList<Document> firstPage = firstPageQuery.getResultList();
+        assertEquals("doc1", firstPage.get(0).getName());
+        assertEquals("doc2", firstPage.get(1).getName());
+        assertEquals(2, ((KeysetPageImpl) firstPage.getKeysetPage()).getPrefetchedIds().size());
+
+        // The prefetched ids were fetched for a different parameter value, so the id query has to run
+        PagedList<Document> secondPage = createBuilder(firstPage.getKeysetPage(), 2, 1)
+                .where("d.name").notEqExpression(":excluded")
+                .setParameter("excluded", "doc3")
+                .getResultList();
+        assertEquals(2, secondPage.size());
+        assertEquals("doc4", secondPage.get(0).getName());
+        assertEquals("doc5", secondPage.get(1).getName());
+    }
+
+    @Test
+    public void testNoPrefetchForDifferentQuery() {
+        PagedList<Document> firstPage = createBuilder(null, 0, 1).getResultList();
+        assertEquals(2, ((KeysetPageImpl) firstPage.getKeysetPage()).getPrefetchedIds().size());
+
+        PagedList<Document> secondPage = createBuilder(firstPage.getKeysetPage(), 2, 1)
+                .where("d.name").notEq("doc3")
+                .getResultList();
+        assertEquals(2, secondPage.size());
+        assertEquals("doc4", secondPage.get(0).getName());
+        assertEquals("doc5", secondPage.get(1).getName());
+    }
+
+    @Test
+    public void testNoPrefetchForPreviousPage() {
+        PagedList<Document> secondPage = createBuilder(null, 2, 1).getResultList();
+        assertEquals("doc3", secondPage.get(0).getName());
+        assertEquals(1, ((KeysetPageImpl) secondPage.getKeysetPage()).getPrefetchedIds().size());
+
+        PagedList<Document> previousPage = createBuilder(secondPage.getKeysetPage(), 1, 1).getResultList();
+        assertEquals(2, previousPage.size());
+        assertEquals("doc1", previousPage.get(0).getName());
+        assertEquals("doc2", previousPage.get(1).getName());
+        assertNull(((KeysetPageImpl) previousPage.getKeysetPage()).getPrefetchedIds());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativePrefetchPages() {
+        createBuilder(null, 0, -1);
+    }
+}
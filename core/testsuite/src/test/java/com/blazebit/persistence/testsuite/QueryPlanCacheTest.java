@@ -0,0 +1,158 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.spi.CriteriaBuilderConfiguration;
+import com.blazebit.persistence.spi.QueryPlanCacheStatistics;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class QueryPlanCacheTest extends AbstractCoreTest {
+
+    private Person p1;
+    private Person p2;
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person o1 = new Person("Karl1");
+                Person o2 = new Person("Karl2");
+                em.persist(o1);
+                em.persist(o2);
+
+                Document doc1 = new Document("doc1", o1);
+                Document doc2 = new Document("doc2", o1);
+                Document doc3 = new Document("doc3", o2);
+                em.persist(doc1);
+                em.persist(doc2);
+                em.persist(doc3);
+            }
+        });
+    }
+
+    @Before
+    public void setUp() {
+        p1 = cbf.create(em, Person.class).where("name").eq("Karl1").getSingleResult();
+        p2 = cbf.create(em, Person.class).where("name").eq("Karl2").getSingleResult();
+        getStatistics().clear();
+    }
+
+    @Override
+    protected CriteriaBuilderConfiguration configure(CriteriaBuilderConfiguration config) {
+        config = super.configure(config);
+        config.setProperty(ConfigurationProperties.QUERY_PLAN_CACHE_ENABLED, "true");
+        return config;
+    }
+
+    private QueryPlanCacheStatistics getStatistics() {
+        return cbf.getService(QueryPlanCacheStatistics.class);
+    }
+
+    private CriteriaBuilder<String> createNameQuery(String ownerName) {
+        return cbf.create(em, String.class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .where("d.owner.name").eq(ownerName)
+                .orderByAsc("d.name");
+    }
+
+    @Test
+    public void sameStructureWithDifferentParameterValuesHitsCache() {
+        List<String> result1 = createNameQuery("Karl1").getResultList();
+        List<String> result2 = createNameQuery("Karl2").getResultList();
+
+        assertEquals(2, result1.size());
+        assertEquals("doc1", result1.get(0));
+        assertEquals("doc2", result1.get(1));
+        assertEquals(1, result2.size());
+        assertEquals("doc3", result2.get(0));
+        assertEquals(1, getStatistics().getMissCount());
+        assertEquals(1, getStatistics().getHitCount());
+        assertEquals(1, getStatistics().getSize());
+    }
+
+    @Test
+    public void differentStructureMissesCache() {
+        createNameQuery("Karl1").getResultList();
+        cbf.create(em, String.class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .where("d.owner.name").eq("Karl1")
+                .orderByDesc("d.name")
+                .getResultList();
+
+        assertEquals(2, getStatistics().getMissCount());
+        assertEquals(0, getStatistics().getHitCount());
+        assertEquals(2, getStatistics().getSize());
+    }
+
+    @Test
+    public void entityParameterTransformerIsReappliedOnCacheHit() {
+        List<String> result1 = cbf.create(em, String.class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .where("d.owner").eq(p1)
+                .orderByAsc("d.name")
+                .getResultList();
+        List<String> result2 = cbf.create(em, String.class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .where("d.owner").eq(p2)
+                .orderByAsc("d.name")
+                .getResultList();
+
+        assertEquals(2, result1.size());
+        assertEquals(1, result2.size());
+        assertEquals("doc3", result2.get(0));
+        assertEquals(1, getStatistics().getHitCount());
+    }
+
+    @Test
+    public void subqueryIsNotCached() {
+        CriteriaBuilder<String> crit = cbf.create(em, String.class)
+                .from(Document.class, "d")
+                .select("d.name")
+                .where("d.owner.id").in()
+                    .from(Person.class, "p")
+                    .select("p.id")
+                    .where("p.name").eq("Karl2")
+                .end();
+        List<String> result = crit.getResultList();
+
+        assertEquals(1, result.size());
+        assertEquals(0, getStatistics().getMissCount());
+        assertEquals(0, getStatistics().getSize());
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.QueryTemplate;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.model.DocumentViewModel;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class QueryTemplateTest extends AbstractCoreTest {
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person p1 = new Person("p1");
+                Document d1 = new Document("doc1", 1);
+                Document d2 = new Document("doc2", 2);
+                Document d3 = new Document("doc3", 3);
+                d1.setOwner(p1);
+                d2.setOwner(p1);
+                d3.setOwner(p1);
+
+                em.persist(p1);
+                em.persist(d1);
+                em.persist(d2);
+                em.persist(d3);
+            }
+        });
+    }
+
+    private CriteriaBuilder<String> createNameQuery() {
+        return cbf.create(em, String.class)
+                .from(Document.class, "doc")
+                .where("doc.name").eqExpression(":name")
+                .select("doc.name");
+    }
+
+    @Test
+    public void templateBindsParameters() {
+        QueryTemplate<String> template = createNameQuery().toTemplate();
+
+        assertEquals(Collections.singleton("name"), template.getParameterNames());
+        assertEquals(Arrays.asList("doc1"), template.bind("name", "doc1").getResultList(em));
+        assertEquals(Arrays.asList("doc2"), template.bind("name", "doc2").getResultList(em));
+        assertEquals("doc3", template.bind("name", "doc3").getSingleResult(em));
+    }
+
+    @Test
+    public void templateUsesParameterValuesOfBuilderAsDefaults() {
+        QueryTemplate<String> template = createNameQuery()
+                .setParameter("name", "doc1")
+                .toTemplate();
+
+        assertEquals(Arrays.asList("doc1"), template.getResultList(em));
+        assertEquals(Arrays.asList("doc2"), template.bind("name", "doc2").getResultList(em));
+        // Bindings don't alter the template
+        assertEquals(Arrays.asList("doc1"), template.getResultList(em));
+    }
+
+    @Test
+    public void templateIsNotBoundToEntityManager() {
+        QueryTemplate<String> template = createNameQuery().toTemplate();
+        EntityManager otherEm = emf.createEntityManager();
+        try {
+            assertEquals(Arrays.asList("doc2"), template.bind("name", "doc2").getResultList(otherEm));
+        } finally {
+            otherEm.close();
+        }
+    }
+
+    @Test
+    public void templateBindsCollectionParameters() {
+        QueryTemplate<String> template = cbf.create(em, String.class)
+                .from(Document.class, "doc")
+                .where("doc.age").inExpressions(":ages")
+                .select("doc.name")
+                .orderByAsc("doc.name")
+                .toTemplate();
+
+        assertEquals(Arrays.asList("doc1", "doc3"), template.bind("ages", Arrays.asList(1L, 3L)).getResultList(em));
+        assertEquals(Arrays.asList("doc2"), template.bind("ages", Arrays.asList(2L)).getResultList(em));
+    }
+
+    @Test
+    public void templateAppliesObjectBuilder() {
+        QueryTemplate<DocumentViewModel> template = cbf.create(em, Document.class, "doc")
+                .where("doc.age").gtExpression(":minAge")
+                .selectNew(DocumentViewModel.class).with("doc.name").end()
+                .orderByAsc("doc.name")
+                .toTemplate();
+
+        List<DocumentViewModel> result = template.bind("minAge", 1L).getResultList(em);
+        assertEquals(2, result.size());
+        assertEquals("doc2", result.get(0).getName());
+        assertEquals("doc3", result.get(1).getName());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bindUnknownParameterFails() {
+        createNameQuery().toTemplate().bind("unknown", "doc1");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void templateForCustomSqlQueryFails() {
+        cbf.create(em, String.class)
+                .fromValues(Long.class, "allowedAge", Arrays.asList(1L, 3L))
+                .from(Document.class, "doc")
+                .where("doc.age").eqExpression("allowedAge")
+                .select("doc.name")
+                .toTemplate();
+    }
+}
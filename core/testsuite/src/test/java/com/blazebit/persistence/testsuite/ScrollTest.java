@@ -0,0 +1,150 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.CloseableIterator;
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.model.DocumentViewModel;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class ScrollTest extends AbstractCoreTest {
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person p1 = new Person("p1");
+                Document d1 = new Document("doc1", 1);
+                Document d2 = new Document("doc2", 2);
+                Document d3 = new Document("doc3", 3);
+                d1.setOwner(p1);
+                d2.setOwner(p1);
+                d3.setOwner(p1);
+
+                em.persist(p1);
+                em.persist(d1);
+                em.persist(d2);
+                em.persist(d3);
+            }
+        });
+    }
+
+    @Test
+    public void scrollPlainQuery() {
+        CriteriaBuilder<String> cb = cbf.create(em, String.class)
+                .from(Document.class, "doc")
+                .select("doc.name")
+                .orderByAsc("doc.name");
+
+        assertEquals(Arrays.asList("doc1", "doc2", "doc3"), toList(cb.scroll(2)));
+    }
+
+    @Test
+    public void scrollAppliesLimit() {
+        CriteriaBuilder<String> cb = cbf.create(em, String.class)
+                .from(Document.class, "doc")
+                .select("doc.name")
+                .orderByAsc("doc.name")
+                .setFirstResult(1)
+                .setMaxResults(1);
+
+        assertEquals(Arrays.asList("doc2"), toList(cb.scroll(10)));
+    }
+
+    @Test
+    public void scrollAppliesObjectBuilder() {
+        CriteriaBuilder<DocumentViewModel> cb = cbf.create(em, Document.class, "doc")
+                .selectNew(DocumentViewModel.class).with("doc.name").end()
+                .orderByAsc("doc.name");
+
+        List<DocumentViewModel> result = toList(cb.scroll(1));
+        assertEquals(3, result.size());
+        assertEquals("doc1", result.get(0).getName());
+        assertEquals("doc2", result.get(1).getName());
+        assertEquals("doc3", result.get(2).getName());
+    }
+
+    @Test
+    public void scrollCanBeClosedEarly() {
+        CriteriaBuilder<String> cb = cbf.create(em, String.class)
+                .from(Document.class, "doc")
+                .select("doc.name")
+                .orderByAsc("doc.name");
+
+        CloseableIterator<String> iterator = cb.scroll(1);
+        try {
+            assertTrue(iterator.hasNext());
+            assertEquals("doc1", iterator.next());
+        } finally {
+            iterator.close();
+        }
+        // The entity manager is still usable after closing the cursor
+        assertEquals(3, cb.getResultList().size());
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void scrollValuesQuery() {
+        CriteriaBuilder<String> cb = cbf.create(em, String.class)
+                .fromValues(Long.class, "allowedAge", Arrays.asList(1L, 3L))
+                .from(Document.class, "doc")
+                .where("doc.age").eqExpression("allowedAge")
+                .select("doc.name")
+                .orderByAsc("doc.name");
+
+        assertEquals(Arrays.asList("doc1", "doc3"), toList(cb.scroll(1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void scrollWithInvalidFetchSizeFails() {
+        cbf.create(em, Document.class, "doc").scroll(0);
+    }
+
+    private static <T> List<T> toList(CloseableIterator<T> iterator) {
+        List<T> list = new ArrayList<>();
+        try {
+            while (iterator.hasNext()) {
+                list.add(iterator.next());
+            }
+        } finally {
+            iterator.close();
+        }
+        return list;
+    }
+}
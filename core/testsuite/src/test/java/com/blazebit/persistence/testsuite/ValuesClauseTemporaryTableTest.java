@@ -0,0 +1,146 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blazebit.persistence.testsuite;
+
+import com.blazebit.persistence.ConfigurationProperties;
+import com.blazebit.persistence.CriteriaBuilder;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoDatanucleus;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoEclipselink;
+import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.testsuite.entity.Person;
+import com.blazebit.persistence.testsuite.tx.TxVoidWork;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class ValuesClauseTemporaryTableTest extends AbstractCoreTest {
+
+    private Person p2;
+
+    @Override
+    public void setUpOnce() {
+        cleanDatabase();
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                Person p1 = new Person("p1");
+                Person p2 = new Person("p2");
+                Document d1 = new Document("doc1", 1);
+                Document d2 = new Document("doc2", 2);
+                Document d3 = new Document("doc3", 3);
+                d1.setOwner(p1);
+                d2.setOwner(p1);
+                d3.setOwner(p2);
+
+                em.persist(p1);
+                em.persist(p2);
+                em.persist(d1);
+                em.persist(d2);
+                em.persist(d3);
+            }
+        });
+    }
+
+    @Before
+    public void setUp() {
+        p2 = cbf.create(em, Person.class).where("name").eq("p2").getSingleResult();
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testValuesTemporaryTable() {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                CriteriaBuilder<String> cb = cbf.create(em, String.class);
+                cb.setProperty(ConfigurationProperties.VALUES_CLAUSE_TEMPORARY_TABLE_THRESHOLD, "1");
+                cb.fromValues(Long.class, "allowedAge", Arrays.asList(1L, 3L, null));
+                cb.from(Document.class, "doc");
+                cb.where("doc.age").eqExpression("allowedAge");
+                cb.select("doc.name");
+                cb.orderByAsc("doc.name");
+
+                String expected = ""
+                        + "SELECT doc.name FROM Document doc, Long(3 VALUES) allowedAge WHERE doc.age = allowedAge ORDER BY doc.name ASC";
+
+                assertEquals(expected, cb.getQueryString());
+                TypedQuery<String> query = cb.getQuery();
+                List<String> resultList = query.getResultList();
+                assertEquals(2, resultList.size());
+                assertEquals("doc1", resultList.get(0));
+                assertEquals("doc3", resultList.get(1));
+
+                // Executing again with different values must not see the rows of the previous execution
+                query.setParameter("allowedAge", Arrays.asList(2L));
+                resultList = query.getResultList();
+                assertEquals(1, resultList.size());
+                assertEquals("doc2", resultList.get(0));
+            }
+        });
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testIdentifiableValuesTemporaryTable() {
+        transactional(new TxVoidWork() {
+            @Override
+            public void work(EntityManager em) {
+                CriteriaBuilder<String> cb = cbf.create(em, String.class);
+                cb.setProperty(ConfigurationProperties.VALUES_CLAUSE_TEMPORARY_TABLE_THRESHOLD, "1");
+                cb.fromIdentifiableValues(Person.class, "owner", Arrays.asList(p2));
+                cb.from(Document.class, "doc");
+                cb.where("doc.owner.id").eqExpression("owner.id");
+                cb.select("doc.name");
+
+                List<String> resultList = cb.getResultList();
+                assertEquals(1, resultList.size());
+                assertEquals("doc3", resultList.get(0));
+            }
+        });
+    }
+
+    @Test
+    @Category({ NoDatanucleus.class, NoEclipselink.class, NoOpenJPA.class })
+    public void testValuesBelowTemporaryTableThreshold() {
+        CriteriaBuilder<String> cb = cbf.create(em, String.class);
+        cb.setProperty(ConfigurationProperties.VALUES_CLAUSE_TEMPORARY_TABLE_THRESHOLD, "3");
+        cb.fromValues(Long.class, "allowedAge", Arrays.asList(1L, 2L));
+        cb.from(Document.class, "doc");
+        cb.where("doc.age").eqExpression("allowedAge");
+        cb.select("doc.name");
+        cb.orderByAsc("doc.name");
+
+        List<String> resultList = cb.getResultList();
+        assertEquals(2, resultList.size());
+        assertEquals("doc1", resultList.get(0));
+        assertEquals("doc2", resultList.get(1));
+    }
+}
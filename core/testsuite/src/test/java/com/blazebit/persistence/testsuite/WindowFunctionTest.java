@@ -657,5 +657,19 @@ public class WindowFunctionTest extends AbstractCoreTest {
         assertNotNull(resultList);
     }
 
+    /**
+     * WINDOW DEF that references a window which was never registered should fail
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testReferenceUnregisteredWindowFails() {
+        CriteriaBuilder<Tuple> criteria = cbf.create(em, Tuple.class)
+                .from(Person.class, "per")
+                .select("per.age")
+                .select("SUM(per.age) OVER (x ORDER BY per.id)")
+                .orderByAsc("per.age")
+                ;
+
+        criteria.getQueryString();
+    }
 
 }
@@ -21,7 +21,9 @@ import com.blazebit.persistence.KeysetPage;
 import com.blazebit.persistence.PaginatedCriteriaBuilder;
 import com.blazebit.persistence.FullQueryBuilder;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.*;
+import java.util.concurrent.Executor;
 
 /**
  * A {@linkplain EntityViewSetting} is a set of filters and sorters that can be
@@ -52,6 +54,8 @@ public final class EntityViewSetting<T, Q extends FullQueryBuilder<T, Q>> {
     
     private KeysetPage keysetPage;
     private boolean keysetPaginated;
+    private Executor correlationExecutor;
+    private EntityManagerFactory correlationEntityManagerFactory;
 
     private EntityViewSetting(Class<T> entityViewClass, Object entityId, int maxResults, boolean paginate, String viewConstructorName) {
         this.entityViewClass = entityViewClass;
@@ -94,6 +98,8 @@ public final class EntityViewSetting<T, Q extends FullQueryBuilder<T, Q>> {
         this.paginated = original.paginated;
         this.keysetPage = original.keysetPage;
         this.keysetPaginated = original.keysetPaginated;
+        this.correlationExecutor = original.correlationExecutor;
+        this.correlationEntityManagerFactory = original.correlationEntityManagerFactory;
         this.viewNamedFilters = new LinkedHashSet<>(original.viewNamedFilters);
         this.attributeSorters = new LinkedHashMap<>(original.attributeSorters);
         this.attributeFilters = new LinkedHashMap<>(original.attributeFilters);
@@ -284,6 +290,59 @@ public final class EntityViewSetting<T, Q extends FullQueryBuilder<T, Q>> {
         return keysetPaginated;
     }
 
+    /**
+     * Executes the batch queries of independent correlated attributes that use the {@link FetchStrategy#SELECT} strategy
+     * concurrently on the given executor. Every batch query is run with a separate entity manager created from the given entity manager factory,
+     * so the latency of the correlations is roughly the maximum rather than the sum of the correlation query latencies.
+     * Note that the correlation queries therefore don't see uncommitted changes of the current transaction and that correlated entities are detached.
+     *
+     * Only the correlations of the entity view query are executed concurrently, correlations nested within correlated subviews
+     * and correlations with a different fetch strategy are executed as usual.
+     *
+     * @param executor The executor to run the correlation queries on or <code>null</code> to disable concurrent execution
+     * @param entityManagerFactory The entity manager factory to create the entity managers for the correlation queries
+     * @return this setting for chaining
+     * @since 1.4.0
+     */
+    public EntityViewSetting<T, Q> withParallelCorrelations(Executor executor, EntityManagerFactory entityManagerFactory) {
+        if (executor != null && entityManagerFactory == null) {
+            throw new IllegalArgumentException("Invalid null entity manager factory for parallel correlations");
+        }
+        this.correlationExecutor = executor;
+        this.correlationEntityManagerFactory = executor == null ? null : entityManagerFactory;
+        return this;
+    }
+
+    /**
+     * Returns whether the correlation queries are executed concurrently.
+     *
+     * @return true when enabled, false otherwise
+     * @since 1.4.0
+     */
+    public boolean isWithParallelCorrelations() {
+        return correlationExecutor != null;
+    }
+
+    /**
+     * Returns the executor on which the correlation queries are executed concurrently or <code>null</code>.
+     *
+     * @return the executor for the correlation queries
+     * @since 1.4.0
+     */
+    public Executor getCorrelationExecutor() {
+        return correlationExecutor;
+    }
+
+    /**
+     * Returns the entity manager factory that creates the entity managers for concurrently executed correlation queries or <code>null</code>.
+     *
+     * @return the entity manager factory for the correlation queries
+     * @since 1.4.0
+     */
+    public EntityManagerFactory getCorrelationEntityManagerFactory() {
+        return correlationEntityManagerFactory;
+    }
+
     /**
      * Adds the given attribute sorters to the attribute sorters of this
      * setting. Note that the attribute sorter order is retained.
@@ -21,9 +21,11 @@ import com.blazebit.persistence.parser.expression.ExpressionFactory;
 import com.blazebit.persistence.view.ConfigurationProperties;
 import com.blazebit.persistence.view.impl.macro.EmbeddingViewJpqlMacro;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * @author Christian Beikov
@@ -37,8 +39,15 @@ public final class EntityViewConfiguration {
     private final Map<String, Object> optionalParameters;
     private final Map<String, Integer> batchSizeConfiguration;
     private final Map<String, BatchCorrelationMode> expectBatchCorrelationValuesConfiguration;
+    private final Executor correlationExecutor;
+    private final EntityManagerFactory correlationEntityManagerFactory;
 
     public EntityViewConfiguration(FullQueryBuilder<?, ?> criteriaBuilder, ExpressionFactory expressionFactory, EmbeddingViewJpqlMacro embeddingViewJpqlMacro, Map<String, Object> optionalParameters, Map<String, Object> properties) {
+        this(criteriaBuilder, expressionFactory, embeddingViewJpqlMacro, optionalParameters, properties, null, null);
+    }
+
+    public EntityViewConfiguration(FullQueryBuilder<?, ?> criteriaBuilder, ExpressionFactory expressionFactory, EmbeddingViewJpqlMacro embeddingViewJpqlMacro, Map<String, Object> optionalParameters, Map<String, Object> properties,
+                                   Executor correlationExecutor, EntityManagerFactory correlationEntityManagerFactory) {
         Map<String, Integer> batchSizeConfiguration = new HashMap<String, Integer>(properties.size());
         Map<String, BatchCorrelationMode> expectBatchCorrelationValuesConfiguration = new HashMap<>(properties.size());
 
@@ -83,6 +92,8 @@ public final class EntityViewConfiguration {
         this.optionalParameters = new HashMap<String, Object>(optionalParameters);
         this.batchSizeConfiguration = Collections.unmodifiableMap(batchSizeConfiguration);
         this.expectBatchCorrelationValuesConfiguration = Collections.unmodifiableMap(expectBatchCorrelationValuesConfiguration);
+        this.correlationExecutor = correlationExecutor;
+        this.correlationEntityManagerFactory = correlationEntityManagerFactory;
         this.criteriaBuilder.registerMacro("embedding_view", embeddingViewJpqlMacro);
     }
 
@@ -93,6 +104,9 @@ public final class EntityViewConfiguration {
         this.optionalParameters = original.optionalParameters;
         this.batchSizeConfiguration = original.batchSizeConfiguration;
         this.expectBatchCorrelationValuesConfiguration = original.expectBatchCorrelationValuesConfiguration;
+        // Correlations of subviews are executed within the correlation of the parent, so we don't want to block another thread of the executor
+        this.correlationExecutor = null;
+        this.correlationEntityManagerFactory = null;
     }
 
     public EntityViewConfiguration forSubview(FullQueryBuilder<?, ?> criteriaBuilder, String attributePath, EmbeddingViewJpqlMacro embeddingViewJpqlMacro) {
@@ -115,6 +129,14 @@ public final class EntityViewConfiguration {
         return embeddingViewJpqlMacro;
     }
 
+    public Executor getCorrelationExecutor() {
+        return correlationExecutor;
+    }
+
+    public EntityManagerFactory getCorrelationEntityManagerFactory() {
+        return correlationEntityManagerFactory;
+    }
+
     public int getBatchSize() {
         return getBatchSize("");
     }
@@ -64,7 +64,8 @@ public final class EntityViewSettingHelper {
         }
 
         ExpressionFactory ef = criteriaBuilder.getService(ExpressionFactory.class);
-        EntityViewConfiguration configuration = new EntityViewConfiguration(criteriaBuilder, ef, new MutableEmbeddingViewJpqlMacro(), setting.getOptionalParameters(), setting.getProperties());
+        EntityViewConfiguration configuration = new EntityViewConfiguration(criteriaBuilder, ef, new MutableEmbeddingViewJpqlMacro(), setting.getOptionalParameters(), setting.getProperties(),
+                setting.getCorrelationExecutor(), setting.getCorrelationEntityManagerFactory());
         boolean isQueryRoot = entityViewRoot == null || entityViewRoot.isEmpty();
         entityViewRoot = evm.applyObjectBuilder(setting.getEntityViewClass(), setting.getViewConstructorName(), entityViewRoot, configuration);
         applyAttributeFilters(setting, evm, criteriaBuilder, ef, managedView);
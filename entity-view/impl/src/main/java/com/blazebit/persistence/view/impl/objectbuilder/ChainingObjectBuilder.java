@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import com.blazebit.persistence.ChunkAwareObjectBuilder;
 import com.blazebit.persistence.ObjectBuilder;
 import com.blazebit.persistence.ParameterHolder;
 import com.blazebit.persistence.SelectBuilder;
@@ -32,14 +33,16 @@ import com.blazebit.persistence.view.impl.objectbuilder.transformator.TupleTrans
  * @author Christian Beikov
  * @since 1.0.0
  */
-public class ChainingObjectBuilder<T> implements ObjectBuilder<T> {
+public class ChainingObjectBuilder<T> implements ChunkAwareObjectBuilder<T> {
 
     private final TupleTransformator transformator;
     private final ObjectBuilder<T> objectBuilder;
+    private final int[] idPositions;
 
-    public ChainingObjectBuilder(TupleTransformatorFactory transformatorFactory, ObjectBuilder<T> objectBuilder, ParameterHolder<?> parameterHolder, Map<String, Object> optionalParameters, EntityViewConfiguration entityViewConfiguration, int startIndex) {
+    public ChainingObjectBuilder(TupleTransformatorFactory transformatorFactory, ObjectBuilder<T> objectBuilder, ParameterHolder<?> parameterHolder, Map<String, Object> optionalParameters, EntityViewConfiguration entityViewConfiguration, int startIndex, int[] idPositions) {
         this.transformator = transformatorFactory.create(parameterHolder, optionalParameters, entityViewConfiguration);
         this.objectBuilder = objectBuilder;
+        this.idPositions = idPositions;
     }
 
     @Override
@@ -53,10 +56,34 @@ public class ChainingObjectBuilder<T> implements ObjectBuilder<T> {
         return (T) tuple;
     }
 
+    @Override
+    public boolean isSameChunk(Object[] tuple, Object[] nextTuple) {
+        // The tuples of a view with join fetched collections share the view id and must be reduced together
+        if (idPositions == null) {
+            return false;
+        }
+        for (int i = 0; i < idPositions.length; i++) {
+            Object id = tuple[idPositions[i]];
+            if (id == null ? nextTuple[idPositions[i]] != null : !id.equals(nextTuple[idPositions[i]])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public List<T> buildList(List<T> list) {
-        List<Object[]> currentTuples = transformator.transformAll((List<Object[]>) list);
+        return buildObjects(transformator.transformAll((List<Object[]>) list));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<T> buildChunk(List<T> chunk) {
+        return buildObjects(transformator.transformChunk((List<Object[]>) chunk));
+    }
+
+    private List<T> buildObjects(List<Object[]> currentTuples) {
         List<T> resultList = new ArrayList<T>(currentTuples.size());
         for (Object[] tuple : currentTuples) {
             resultList.add(objectBuilder.build(tuple));
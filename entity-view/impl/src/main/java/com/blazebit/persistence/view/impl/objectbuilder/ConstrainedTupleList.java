@@ -16,77 +16,48 @@
 
 package com.blazebit.persistence.view.impl.objectbuilder;
 
-import java.util.AbstractList;
 import java.util.Arrays;
-import java.util.List;
-import java.util.NoSuchElementException;
 
 /**
+ * A view on the tuples of a {@link TupleList} that belong to the given subtypes.
+ * Updates and removals are propagated to the underlying tuple list.
+ *
  * @author Christian Beikov
  * @since 1.0.0
  */
-public class ConstrainedTupleList extends AbstractList<Object[]> {
+public class ConstrainedTupleList extends TupleList {
 
-    private final int classMappingIndex;
-    private final int[] subtypeIndexes;
-    private final List<Object[]> tupleList;
+    private final TupleList tupleList;
+    private int[] tupleListIndexes;
 
-    public ConstrainedTupleList(int classMappingIndex, int[] subtypeIndexes, List<Object[]> tupleList) {
-        this.classMappingIndex = classMappingIndex;
-        this.subtypeIndexes = subtypeIndexes;
+    public ConstrainedTupleList(int classMappingIndex, int[] subtypeIndexes, TupleList tupleList) {
+        super(tupleList.size());
         this.tupleList = tupleList;
-    }
-
-    @Override
-    public Object[] get(int index) {
-        int count = 0;
+        int[] tupleListIndexes = new int[tupleList.size()];
         for (int i = 0; i < tupleList.size(); i++) {
-            if (Arrays.binarySearch(subtypeIndexes, ((Number) tupleList.get(i)[classMappingIndex]).intValue()) >= 0) {
-                if (count == index) {
-                    return tupleList.get(i);
-                }
-                count++;
+            Object[] tuple = tupleList.get(i);
+            if (Arrays.binarySearch(subtypeIndexes, ((Number) tuple[classMappingIndex]).intValue()) >= 0) {
+                tupleListIndexes[size()] = i;
+                add(tuple);
             }
         }
-        throw new NoSuchElementException();
+        this.tupleListIndexes = tupleListIndexes;
     }
 
     @Override
-    public Object[] set(int index, Object[] element) {
-        int count = 0;
-        for (int i = 0; i < tupleList.size(); i++) {
-            if (Arrays.binarySearch(subtypeIndexes, ((Number) tupleList.get(i)[classMappingIndex]).intValue()) >= 0) {
-                if (count == index) {
-                    return tupleList.set(i, element);
-                }
-                count++;
-            }
-        }
-        throw new IndexOutOfBoundsException();
+    public Object[] set(int index, Object[] tuple) {
+        tupleList.set(tupleListIndexes[index], tuple);
+        return super.set(index, tuple);
     }
 
     @Override
-    public Object[] remove(int index) {
-        int count = 0;
-        for (int i = 0; i < tupleList.size(); i++) {
-            if (Arrays.binarySearch(subtypeIndexes, ((Number) tupleList.get(i)[classMappingIndex]).intValue()) >= 0) {
-                if (count == index) {
-                    return tupleList.remove(i);
-                }
-                count++;
-            }
-        }
-        throw new IndexOutOfBoundsException();
+    public void markRemoved(int index) {
+        super.markRemoved(index);
+        tupleList.markRemoved(tupleListIndexes[index]);
     }
 
     @Override
-    public int size() {
-        int count = 0;
-        for (int i = 0; i < tupleList.size(); i++) {
-            if (Arrays.binarySearch(subtypeIndexes, ((Number) tupleList.get(i)[classMappingIndex]).intValue()) >= 0) {
-                count++;
-            }
-        }
-        return count;
+    protected void moved(int oldIndex, int newIndex) {
+        tupleListIndexes[newIndex] = tupleListIndexes[oldIndex];
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.impl.objectbuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Groups tuples by the id at the given positions.
+ * Ids that consist of a single {@link Long} or {@link Integer} are grouped in an open addressing table with primitive keys,
+ * which avoids allocating a {@link TupleId} per tuple. All other ids are grouped by {@link TupleId}.
+ *
+ * @param <V> The value type
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class TupleIndex<V> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final int[] idPositions;
+    private final int numericIdPosition;
+    private Class<?> numericIdType;
+    private long[] numericKeys;
+    private Object[] numericValues;
+    private int numericSize;
+    private Map<TupleId, V> values;
+
+    public TupleIndex(int[] idPositions) {
+        this.idPositions = idPositions;
+        if (idPositions.length == 1 && idPositions[0] >= 0) {
+            this.numericIdPosition = idPositions[0];
+        } else {
+            this.numericIdPosition = -1;
+        }
+    }
+
+    /**
+     * Returns whether the id of the given tuple is empty i.e. all id elements are <code>null</code>.
+     *
+     * @param tuple The tuple
+     * @return true if the id is empty, false otherwise
+     */
+    public boolean isEmptyId(Object[] tuple) {
+        for (int i = 0; i < idPositions.length; i++) {
+            int idPosition = idPositions[i];
+            if (idPosition < 0 || tuple[idPosition] != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(Object[] tuple) {
+        if (isNumericId(tuple)) {
+            if (numericKeys == null) {
+                return null;
+            }
+            long key = ((Number) tuple[numericIdPosition]).longValue();
+            int mask = numericKeys.length - 1;
+            for (int i = hash(key) & mask; numericValues[i] != null; i = (i + 1) & mask) {
+                if (numericKeys[i] == key) {
+                    return (V) numericValues[i];
+                }
+            }
+            return null;
+        }
+        if (values == null) {
+            return null;
+        }
+        return values.get(new TupleId(idPositions, tuple));
+    }
+
+    public void put(Object[] tuple, V value) {
+        if (isNumericId(tuple)) {
+            if (numericKeys == null) {
+                numericKeys = new long[MIN_CAPACITY];
+                numericValues = new Object[MIN_CAPACITY];
+            } else if ((numericSize + 1) << 1 > numericKeys.length) {
+                resize();
+            }
+            if (putNumeric(((Number) tuple[numericIdPosition]).longValue(), value)) {
+                numericSize++;
+            }
+            return;
+        }
+        if (values == null) {
+            values = new HashMap<>();
+        }
+        values.put(new TupleId(idPositions, tuple), value);
+    }
+
+    private boolean isNumericId(Object[] tuple) {
+        if (numericIdPosition == -1) {
+            return false;
+        }
+        Object id = tuple[numericIdPosition];
+        if (numericIdType == null) {
+            if (id instanceof Long || id instanceof Integer) {
+                numericIdType = id.getClass();
+                return true;
+            }
+            return false;
+        }
+        // Only ids of the same type are grouped by their primitive value, since e.g. Long and Integer ids are never equal
+        return id != null && id.getClass() == numericIdType;
+    }
+
+    private boolean putNumeric(long key, Object value) {
+        int mask = numericKeys.length - 1;
+        int i = hash(key) & mask;
+        while (numericValues[i] != null) {
+            if (numericKeys[i] == key) {
+                numericValues[i] = value;
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        numericKeys[i] = key;
+        numericValues[i] = value;
+        return true;
+    }
+
+    private void resize() {
+        long[] oldKeys = numericKeys;
+        Object[] oldValues = numericValues;
+        numericKeys = new long[oldKeys.length << 1];
+        numericValues = new Object[oldKeys.length << 1];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                putNumeric(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        int h = (int) (key ^ (key >>> 32));
+        // Spread the bits so that sequential ids don't form long probe sequences
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
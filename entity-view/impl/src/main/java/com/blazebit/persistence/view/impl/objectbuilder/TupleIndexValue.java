@@ -27,11 +27,16 @@ import java.util.Set;
 public class TupleIndexValue {
 
     private final Object tupleValue;
-    private final Set<TupleRest> restTuples = new HashSet<TupleRest>();
+    private final TupleRest firstRestTuple;
+    // Usually the elements after the offset were consumed by subview transformers, so the rests of all tuples match
+    // In that case we avoid allocating and hashing rest tuples until we encounter a rest that wasn't consumed
+    private final boolean firstRestConsumed;
+    private Set<TupleRest> restTuples;
 
     public TupleIndexValue(Object targetValue, Object[] tuple, int restTupleIndex, int offset) {
         this.tupleValue = targetValue;
-        restTuples.add(new TupleRest(tuple, restTupleIndex, offset));
+        this.firstRestTuple = new TupleRest(tuple, restTupleIndex, offset);
+        this.firstRestConsumed = isConsumed(tuple, restTupleIndex + offset);
     }
 
     public Object getTupleValue() {
@@ -39,11 +44,35 @@ public class TupleIndexValue {
     }
 
     public boolean addRestTuple(Object[] tuple, int tupleIndex, int offset) {
-        return restTuples.add(new TupleRest(tuple, tupleIndex, offset));
+        if (firstRestConsumed && isConsumed(tuple, tupleIndex + offset)) {
+            // The tuple is removed anyway, as its rest matches the rest of the first tuple
+            return true;
+        }
+        return getRestTuples().add(new TupleRest(tuple, tupleIndex, offset));
     }
 
     public boolean containsRestTuple(Object[] tuple, int tupleIndex, int offset) {
-        return restTuples.contains(new TupleRest(tuple, tupleIndex + offset));
+        if (firstRestConsumed && isConsumed(tuple, tupleIndex + offset)) {
+            return true;
+        }
+        return getRestTuples().contains(new TupleRest(tuple, tupleIndex + offset));
+    }
+
+    private Set<TupleRest> getRestTuples() {
+        if (restTuples == null) {
+            restTuples = new HashSet<TupleRest>();
+            restTuples.add(firstRestTuple);
+        }
+        return restTuples;
+    }
+
+    private static boolean isConsumed(Object[] tuple, int index) {
+        for (int i = index; i < tuple.length; i++) {
+            if (tuple[i] != TupleReuse.CONSUMED) {
+                return false;
+            }
+        }
+        return true;
     }
 
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.impl.objectbuilder;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * An array backed list of tuples that is reduced by the tuple list transformers.
+ * Instead of removing tuples one by one, a transformer marks the tuples it consumed as removed
+ * and compacts the list in a single pass at the end. Marked tuples are <code>null</code> until the list is compacted.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class TupleList extends AbstractList<Object[]> implements RandomAccess {
+
+    private Object[][] tuples;
+    private int size;
+    private int removedCount;
+
+    public TupleList(int initialCapacity) {
+        this.tuples = new Object[initialCapacity][];
+    }
+
+    public TupleList(Collection<Object[]> tuples) {
+        this.tuples = tuples.toArray(new Object[tuples.size()][]);
+        this.size = this.tuples.length;
+    }
+
+    @Override
+    public Object[] get(int index) {
+        rangeCheck(index);
+        return tuples[index];
+    }
+
+    @Override
+    public Object[] set(int index, Object[] tuple) {
+        rangeCheck(index);
+        Object[] oldTuple = tuples[index];
+        tuples[index] = tuple;
+        return oldTuple;
+    }
+
+    @Override
+    public boolean add(Object[] tuple) {
+        if (size == tuples.length) {
+            tuples = Arrays.copyOf(tuples, Math.max(16, size + (size >> 1)));
+        }
+        tuples[size++] = tuple;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Marks the tuple at the given index as removed. The indexes of the other tuples stay stable until {@link #compact()} is called.
+     *
+     * @param index The index of the tuple to remove
+     */
+    public void markRemoved(int index) {
+        rangeCheck(index);
+        if (tuples[index] != null) {
+            tuples[index] = null;
+            removedCount++;
+        }
+    }
+
+    /**
+     * Removes all tuples that were marked as removed.
+     */
+    public void compact() {
+        if (removedCount == 0) {
+            return;
+        }
+        int newSize = 0;
+        for (int i = 0; i < size; i++) {
+            Object[] tuple = tuples[i];
+            if (tuple != null) {
+                moved(i, newSize);
+                tuples[newSize++] = tuple;
+            }
+        }
+        Arrays.fill(tuples, newSize, size, null);
+        size = newSize;
+        removedCount = 0;
+        modCount++;
+    }
+
+    /**
+     * Called during {@link #compact()} when the tuple at the old index is moved to the new index.
+     *
+     * @param oldIndex The old index of the tuple
+     * @param newIndex The new index of the tuple
+     */
+    protected void moved(int oldIndex, int newIndex) {
+    }
+
+    private void rangeCheck(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
@@ -17,6 +17,8 @@
 package com.blazebit.persistence.view.impl.objectbuilder;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
 
 /**
  *
@@ -26,6 +28,7 @@ import java.util.Arrays;
 public class TupleRest {
 
     private static final Object[] ANY_OFFSET_TUPLE = new Object[0];
+    private static final Object[] EMPTY_OFFSET_TUPLE = new Object[0];
 
     private final Object[] tuple;
     // We need to keep a separate reference to that element since it will be replaced by a collection during flattening
@@ -33,8 +36,13 @@ public class TupleRest {
     private final int index;
 
     public TupleRest(Object[] tuple, int index, int offset) {
-        Object[] offsetTuple = new Object[offset];
-        System.arraycopy(tuple, index, offsetTuple, 0, offset);
+        Object[] offsetTuple;
+        if (offset == 0) {
+            offsetTuple = EMPTY_OFFSET_TUPLE;
+        } else {
+            offsetTuple = new Object[offset];
+            System.arraycopy(tuple, index, offsetTuple, 0, offset);
+        }
         this.tuple = tuple;
         this.offsetTuple = offsetTuple;
         this.index = index + offset;
@@ -78,6 +86,11 @@ public class TupleRest {
             return Arrays.hashCode((double[]) element);
         } else if (element instanceof boolean[]) {
             return Arrays.hashCode((boolean[]) element);
+        } else if (element instanceof Collection<?>) {
+            // Hashing the elements of reduced collections is expensive, but equal collections have the same size anyway
+            return ((Collection<?>) element).size();
+        } else if (element instanceof Map<?, ?>) {
+            return ((Map<?, ?>) element).size();
         } else if (element != null) {
             return element.hashCode();
         }
@@ -76,10 +76,8 @@ import com.blazebit.persistence.view.impl.objectbuilder.transformer.correlation.
 import com.blazebit.persistence.view.impl.objectbuilder.transformer.correlation.CorrelatedSubviewJoinTupleTransformerFactory;
 import com.blazebit.persistence.view.impl.objectbuilder.transformer.correlation.SubviewCorrelator;
 import com.blazebit.persistence.view.impl.proxy.AbstractReflectionInstantiator;
-import com.blazebit.persistence.view.impl.proxy.ConstructorReflectionInstantiator;
 import com.blazebit.persistence.view.impl.proxy.ObjectInstantiator;
 import com.blazebit.persistence.view.impl.proxy.ProxyFactory;
-import com.blazebit.persistence.view.impl.proxy.StaticFactoryReflectionInstantiator;
 import com.blazebit.persistence.view.impl.type.NormalMapUserTypeWrapper;
 import com.blazebit.persistence.view.impl.type.NormalSetUserTypeWrapper;
 import com.blazebit.persistence.view.impl.type.OrderedCollectionUserTypeWrapper;
@@ -429,11 +427,7 @@ public class ViewTypeObjectBuilderTemplate<T> {
     @SuppressWarnings("unchecked")
     private ObjectInstantiator<T> createInstantiator(ManagedViewType<? extends T> managedViewType, ManagedViewTypeImplementor<T> viewTypeBase, int inheritanceConfigurationIndex, MappingConstructorImpl<? extends T> mappingConstructor, Class<?>[] constructorParameterTypes,
                                                      EntityViewManagerImpl entityViewManager, List<AbstractReflectionInstantiator.MutableBasicUserTypeEntry> mutableBasicUserTypes, List<AbstractReflectionInstantiator.TypeConverterEntry> typeConverterEntries) {
-        if (viewTypeBase == null) {
-            return new ConstructorReflectionInstantiator<>((MappingConstructorImpl<T>) mappingConstructor, proxyFactory, (ManagedViewTypeImplementor<T>) managedViewType, viewTypeBase, constructorParameterTypes, entityViewManager, mutableBasicUserTypes, typeConverterEntries);
-        } else {
-            return new StaticFactoryReflectionInstantiator<>((MappingConstructorImpl<T>) mappingConstructor, proxyFactory, (ManagedViewTypeImplementor<T>) managedViewType, viewTypeBase, inheritanceConfigurationIndex, constructorParameterTypes, entityViewManager, mutableBasicUserTypes, typeConverterEntries);
-        }
+        return proxyFactory.createInstantiator(entityViewManager, (ManagedViewTypeImplementor<T>) managedViewType, viewTypeBase, (MappingConstructorImpl<T>) mappingConstructor, inheritanceConfigurationIndex, constructorParameterTypes, mutableBasicUserTypes, typeConverterEntries);
     }
 
     private TupleElementMapper createMapper(String expression, String embeddingViewPath, String[] fetches) {
@@ -1149,7 +1143,7 @@ public class ViewTypeObjectBuilderTemplate<T> {
         }
 
         if (tupleTransformatorFactory.hasTransformers() && !isSubview) {
-            result = new ChainingObjectBuilder<T>(tupleTransformatorFactory, result, parameterHolder, optionalParameters, entityViewConfiguration, tupleOffset);
+            result = new ChainingObjectBuilder<T>(tupleTransformatorFactory, result, parameterHolder, optionalParameters, entityViewConfiguration, tupleOffset, hasId ? idPositions : null);
         }
 
         return result;
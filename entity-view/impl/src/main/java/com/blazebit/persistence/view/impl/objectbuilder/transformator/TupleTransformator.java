@@ -16,12 +16,25 @@
 
 package com.blazebit.persistence.view.impl.objectbuilder.transformator;
 
-import java.util.*;
-
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import com.blazebit.persistence.view.impl.objectbuilder.TupleList;
 import com.blazebit.persistence.view.impl.objectbuilder.TupleRest;
 import com.blazebit.persistence.view.impl.objectbuilder.transformer.TupleListTransformer;
 import com.blazebit.persistence.view.impl.objectbuilder.transformer.TupleTransformer;
 
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceException;
+
 /**
  * @author Christian Beikov
  * @since 1.0.0
@@ -29,52 +42,135 @@ import com.blazebit.persistence.view.impl.objectbuilder.transformer.TupleTransfo
 public class TupleTransformator {
 
     private final List<TupleTransformatorLevel> transformatorLevels;
+    private final Executor correlationExecutor;
+    private final EntityManagerFactory correlationEntityManagerFactory;
 
     public TupleTransformator(List<TupleTransformatorLevel> transformatorLevels) {
+        this(transformatorLevels, null, null);
+    }
+
+    public TupleTransformator(List<TupleTransformatorLevel> transformatorLevels, Executor correlationExecutor, EntityManagerFactory correlationEntityManagerFactory) {
         this.transformatorLevels = transformatorLevels;
+        this.correlationExecutor = correlationExecutor;
+        this.correlationEntityManagerFactory = correlationEntityManagerFactory;
     }
 
     public List<Object[]> transformAll(List<Object[]> tupleList) {
-        List<Object[]> newTupleList;
+        return transformAll(tupleList, false);
+    }
+
+    public List<Object[]> transformChunk(List<Object[]> tupleList) {
+        return transformAll(tupleList, true);
+    }
+
+    private List<Object[]> transformAll(List<Object[]> tupleList, boolean chunk) {
+        TupleList newTupleList;
         UpdatableViewMap updatableViewMap = new UpdatableViewMap();
 
         // Performance optimization
-        // LinkedList can remove elements from the list very fast
-        // This is important because transformers avoid copying of tuples and instead remove elements from the tupleList
-        if (tupleList instanceof LinkedList<?>) {
-            newTupleList = tupleList;
+        // Transformers avoid copying of tuples and instead mark consumed tuples as removed in the array backed TupleList
+        // The list is then compacted in a single pass which is a lot cheaper than removing elements one by one
+        if (tupleList instanceof TupleList) {
+            newTupleList = (TupleList) tupleList;
         } else {
-            newTupleList = new LinkedList<Object[]>(tupleList);
+            newTupleList = new TupleList(tupleList);
         }
 
         for (int i = 0; i < transformatorLevels.size(); i++) {
             if (transformatorLevels.get(i).tupleTransformers.length != 0) {
-                ListIterator<Object[]> newTupleListIter = newTupleList.listIterator();
-
-                while (newTupleListIter.hasNext()) {
-                    Object[] tuple = newTupleListIter.next();
-                    newTupleListIter.set(transform(i, tuple, updatableViewMap));
+                for (int j = 0; j < newTupleList.size(); j++) {
+                    newTupleList.set(j, transform(i, newTupleList.get(j), updatableViewMap));
+                }
+            }
+            if (correlationExecutor != null) {
+                int concurrentLevelsEnd = getConcurrentLevelsEnd(i);
+                if (concurrentLevelsEnd - i > 1) {
+                    transformConcurrently(i, concurrentLevelsEnd, newTupleList);
+                    i = concurrentLevelsEnd - 1;
+                    continue;
                 }
             }
-            newTupleList = transform(i, newTupleList);
+            transform(i, newTupleList, chunk);
+            // Transformers for subtypes only mark the tuples as removed in the underlying list
+            newTupleList.compact();
         }
 
         // if we have multiple levels, we must filter duplicates afterwards
         if (transformatorLevels.size() > 1) {
             Set<TupleRest> tupleSet = new HashSet<>(newTupleList.size());
 
-            Iterator<Object[]> tupleListIter = newTupleList.iterator();
-
-            while (tupleListIter.hasNext()) {
-                if (!tupleSet.add(new TupleRest(tupleListIter.next(), 0, 0))) {
-                    tupleListIter.remove();
+            for (int i = 0; i < newTupleList.size(); i++) {
+                if (!tupleSet.add(new TupleRest(newTupleList.get(i), 0, 0))) {
+                    newTupleList.markRemoved(i);
                 }
             }
+            newTupleList.compact();
         }
 
         return newTupleList;
     }
 
+    private int getConcurrentLevelsEnd(int level) {
+        int end = level;
+        // Subsequent levels are independent of each other if they have no tuple transformers that consume the results of previous levels
+        while (end < transformatorLevels.size()) {
+            TupleTransformatorLevel transformatorLevel = transformatorLevels.get(end);
+            if (transformatorLevel.tupleListTransformer == null || !transformatorLevel.tupleListTransformer.supportsConcurrentTransform()
+                    || end != level && transformatorLevel.tupleTransformers.length != 0) {
+                break;
+            }
+            end++;
+        }
+        return end;
+    }
+
+    private void transformConcurrently(int startLevel, int endLevel, final List<Object[]> tupleList) {
+        List<FutureTask<List<Object[]>>> tasks = new ArrayList<>(endLevel - startLevel);
+        for (int i = startLevel; i < endLevel; i++) {
+            final TupleListTransformer tupleListTransformer = transformatorLevels.get(i).tupleListTransformer;
+            FutureTask<List<Object[]>> task = new FutureTask<>(new Callable<List<Object[]>>() {
+                @Override
+                public List<Object[]> call() {
+                    EntityManager em = correlationEntityManagerFactory.createEntityManager();
+                    try {
+                        return tupleListTransformer.transform(tupleList, em);
+                    } finally {
+                        em.close();
+                    }
+                }
+            });
+            tasks.add(task);
+            correlationExecutor.execute(task);
+        }
+
+        // The transformers only set the values at their own tuple index, so joining the tasks is all we need to see the results
+        Throwable failure = null;
+        for (int i = 0; i < tasks.size(); i++) {
+            Future<List<Object[]>> task = tasks.get(i);
+            try {
+                task.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                for (int j = i; j < tasks.size(); j++) {
+                    tasks.get(j).cancel(true);
+                }
+                throw new PersistenceException("Interrupted while waiting for the correlation queries", ex);
+            } catch (ExecutionException ex) {
+                if (failure == null) {
+                    failure = ex.getCause();
+                }
+            }
+        }
+
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new PersistenceException("Could not execute the correlation queries", failure);
+        }
+    }
+
     private Object[] transform(int level, Object[] tuple, UpdatableViewMap updatableViewMap) {
         TupleTransformer[] tupleTransformers = transformatorLevels.get(level).tupleTransformers;
         Object[] currentTuple = tuple;
@@ -84,11 +180,16 @@ public class TupleTransformator {
         return currentTuple;
     }
 
-    private List<Object[]> transform(int level, List<Object[]> tupleList) {
+    private void transform(int level, TupleList tupleList, boolean chunk) {
         TupleListTransformer tupleListTransformer = transformatorLevels.get(level).tupleListTransformer;
         if (tupleListTransformer == null) {
-            return tupleList;
+            return;
+        }
+        // The transformers work on the tuple list in place
+        if (chunk) {
+            tupleListTransformer.transformChunk(tupleList);
+        } else {
+            tupleListTransformer.transform(tupleList);
         }
-        return tupleListTransformer.transform(tupleList);
     }
 }
\ No newline at end of file
@@ -19,11 +19,13 @@ package com.blazebit.persistence.view.impl.objectbuilder.transformator;
 import com.blazebit.persistence.ParameterHolder;
 import com.blazebit.persistence.view.impl.EntityViewConfiguration;
 import com.blazebit.persistence.view.impl.objectbuilder.ConstrainedTupleList;
+import com.blazebit.persistence.view.impl.objectbuilder.TupleList;
 import com.blazebit.persistence.view.impl.objectbuilder.transformer.TupleListTransformer;
 import com.blazebit.persistence.view.impl.objectbuilder.transformer.TupleListTransformerFactory;
 import com.blazebit.persistence.view.impl.objectbuilder.transformer.TupleTransformer;
 import com.blazebit.persistence.view.impl.objectbuilder.transformer.TupleTransformerFactory;
 
+import javax.persistence.EntityManager;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -193,12 +195,35 @@ public class TupleTransformatorFactory {
 
         @Override
         public List<Object[]> transform(List<Object[]> tuples) {
-            ConstrainedTupleList tupleList = new ConstrainedTupleList(classMappingIndex, subtypeIndexes, tuples);
+            ConstrainedTupleList tupleList = new ConstrainedTupleList(classMappingIndex, subtypeIndexes, (TupleList) tuples);
             if (!tupleList.isEmpty()) {
                 delegate.transform(tupleList);
             }
             return tuples;
         }
+
+        @Override
+        public List<Object[]> transformChunk(List<Object[]> tuples) {
+            ConstrainedTupleList tupleList = new ConstrainedTupleList(classMappingIndex, subtypeIndexes, (TupleList) tuples);
+            if (!tupleList.isEmpty()) {
+                delegate.transformChunk(tupleList);
+            }
+            return tuples;
+        }
+
+        @Override
+        public boolean supportsConcurrentTransform() {
+            return delegate.supportsConcurrentTransform();
+        }
+
+        @Override
+        public List<Object[]> transform(List<Object[]> tuples, EntityManager entityManager) {
+            ConstrainedTupleList tupleList = new ConstrainedTupleList(classMappingIndex, subtypeIndexes, (TupleList) tuples);
+            if (!tupleList.isEmpty()) {
+                delegate.transform(tupleList, entityManager);
+            }
+            return tuples;
+        }
     }
 
     /**
@@ -271,6 +296,6 @@ public class TupleTransformatorFactory {
             newTransformatorLevels.add(new TupleTransformatorLevel(tupleTransformers, tupleListTransformer));
         }
         
-        return new TupleTransformator(newTransformatorLevels);
+        return new TupleTransformator(newTransformatorLevels, entityViewConfiguration.getCorrelationExecutor(), entityViewConfiguration.getCorrelationEntityManagerFactory());
     }
 }
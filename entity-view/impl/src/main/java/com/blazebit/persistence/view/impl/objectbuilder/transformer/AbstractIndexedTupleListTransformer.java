@@ -16,13 +16,11 @@
 
 package com.blazebit.persistence.view.impl.objectbuilder.transformer;
 
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 
-import com.blazebit.persistence.view.impl.objectbuilder.TupleId;
+import com.blazebit.persistence.view.impl.objectbuilder.TupleIndex;
 import com.blazebit.persistence.view.impl.objectbuilder.TupleIndexValue;
+import com.blazebit.persistence.view.impl.objectbuilder.TupleList;
 import com.blazebit.persistence.view.impl.objectbuilder.TupleReuse;
 import com.blazebit.persistence.view.spi.type.TypeConverter;
 
@@ -55,16 +53,15 @@ public abstract class AbstractIndexedTupleListTransformer<C, K> extends TupleLis
 
     @Override
     public List<Object[]> transform(List<Object[]> tuples) {
-        Map<TupleId, TupleIndexValue> tupleIndex = new HashMap<TupleId, TupleIndexValue>(tuples.size());
-        // Implementation detail: the tuple list is a LinkedList
-        Iterator<Object[]> tupleListIter = tuples.iterator();
+        TupleIndex<TupleIndexValue> tupleIndex = new TupleIndex<>(parentIdPositions);
+        // Implementation detail: the tuple list is a TupleList
+        TupleList tupleList = (TupleList) tuples;
 
-        while (tupleListIter.hasNext()) {
-            Object[] tuple = tupleListIter.next();
-            TupleId id = new TupleId(parentIdPositions, tuple);
+        for (int i = 0; i < tupleList.size(); i++) {
+            Object[] tuple = tupleList.get(i);
             // Skip constructing the collection and removing tuples when the parent is empty i.e. null
-            if (!id.isEmpty()) {
-                TupleIndexValue tupleIndexValue = tupleIndex.get(id);
+            if (!tupleIndex.isEmptyId(tuple)) {
+                TupleIndexValue tupleIndexValue = tupleIndex.get(tuple);
 
                 // At startIndex we have the index/key of the list/map
                 // At valueStartIndex is the actual element that should be put into the collection
@@ -75,7 +72,7 @@ public abstract class AbstractIndexedTupleListTransformer<C, K> extends TupleLis
                     add(collection, key, tuple[valueStartIndex]);
                     tuple[startIndex] = collection;
                     tuple[valueStartIndex] = TupleReuse.CONSUMED;
-                    tupleIndex.put(id, tupleIndexValue);
+                    tupleIndex.put(tuple, tupleIndexValue);
                 } else if (tupleIndexValue.addRestTuple(tuple, startIndex, valueOffset + 1)) {
                     Object collection = tupleIndexValue.getTupleValue();
                     Object key = tuple[startIndex];
@@ -84,17 +81,18 @@ public abstract class AbstractIndexedTupleListTransformer<C, K> extends TupleLis
                     tuple[valueStartIndex] = TupleReuse.CONSUMED;
                     // Check if the tuple after the offset is contained
                     if (tupleIndexValue.containsRestTuple(tuple, startIndex, valueOffset + 1)) {
-                        tupleListIter.remove();
+                        tupleList.markRemoved(i);
                     }
                 } else {
                     Object key = tuple[startIndex];
                     add(tupleIndexValue.getTupleValue(), key, tuple[valueStartIndex]);
                     tuple[valueStartIndex] = TupleReuse.CONSUMED;
-                    tupleListIter.remove();
+                    tupleList.markRemoved(i);
                 }
             }
         }
 
+        tupleList.compact();
         return tuples;
     }
 
@@ -16,13 +16,11 @@
 
 package com.blazebit.persistence.view.impl.objectbuilder.transformer;
 
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 
-import com.blazebit.persistence.view.impl.objectbuilder.TupleId;
+import com.blazebit.persistence.view.impl.objectbuilder.TupleIndex;
 import com.blazebit.persistence.view.impl.objectbuilder.TupleIndexValue;
+import com.blazebit.persistence.view.impl.objectbuilder.TupleList;
 import com.blazebit.persistence.view.spi.type.TypeConverter;
 
 /**
@@ -48,38 +46,38 @@ public abstract class AbstractNonIndexedTupleListTransformer<C> extends TupleLis
 
     @Override
     public List<Object[]> transform(List<Object[]> tuples) {
-        Map<TupleId, TupleIndexValue> tupleIndex = new HashMap<>(tuples.size());
-        // Implementation detail: the tuple list is a LinkedList
-        Iterator<Object[]> tupleListIter = tuples.iterator();
+        TupleIndex<TupleIndexValue> tupleIndex = new TupleIndex<>(parentIdPositions);
+        // Implementation detail: the tuple list is a TupleList
+        TupleList tupleList = (TupleList) tuples;
 
-        while (tupleListIter.hasNext()) {
-            Object[] tuple = tupleListIter.next();
-            TupleId id = new TupleId(parentIdPositions, tuple);
+        for (int i = 0; i < tupleList.size(); i++) {
+            Object[] tuple = tupleList.get(i);
             // Skip constructing the collection and removing tuples when the parent is empty i.e. null
-            if (!id.isEmpty()) {
-                TupleIndexValue tupleIndexValue = tupleIndex.get(id);
+            if (!tupleIndex.isEmptyId(tuple)) {
+                TupleIndexValue tupleIndexValue = tupleIndex.get(tuple);
 
                 if (tupleIndexValue == null) {
                     Object collection = createCollection();
                     tupleIndexValue = new TupleIndexValue(collection, tuple, startIndex, 1);
                     add(collection, tuple[startIndex]);
                     tuple[startIndex] = collection;
-                    tupleIndex.put(id, tupleIndexValue);
+                    tupleIndex.put(tuple, tupleIndexValue);
                 } else if (tupleIndexValue.addRestTuple(tuple, startIndex, 1)) {
                     Object collection = tupleIndexValue.getTupleValue();
                     add(collection, tuple[startIndex]);
                     tuple[startIndex] = collection;
                     // Check if the tuple after the offset is contained
                     if (tupleIndexValue.containsRestTuple(tuple, startIndex, 1)) {
-                        tupleListIter.remove();
+                        tupleList.markRemoved(i);
                     }
                 } else {
                     add(tupleIndexValue.getTupleValue(), tuple[startIndex]);
-                    tupleListIter.remove();
+                    tupleList.markRemoved(i);
                 }
             }
         }
 
+        tupleList.compact();
         return tuples;
     }
 
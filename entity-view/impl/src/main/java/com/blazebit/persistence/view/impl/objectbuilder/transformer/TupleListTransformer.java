@@ -16,6 +16,7 @@
 
 package com.blazebit.persistence.view.impl.objectbuilder.transformer;
 
+import javax.persistence.EntityManager;
 import java.util.List;
 
 /**
@@ -34,4 +35,40 @@ public abstract class TupleListTransformer {
     public abstract int getConsumableIndex();
 
     public abstract List<Object[]> transform(List<Object[]> tuples);
+
+    /**
+     * Like {@link #transform(List)}, but the tuples are only a chunk of the result that is scrolled through.
+     * Transformers that fetch data for the whole result should restrict it to the given tuples.
+     *
+     * @param tuples The tuples of the chunk to transform
+     * @return The transformed tuples
+     * @since 1.4.0
+     */
+    public List<Object[]> transformChunk(List<Object[]> tuples) {
+        return transform(tuples);
+    }
+
+    /**
+     * Returns whether the transformer only sets the values of tuple elements at its own index and can thus run concurrently
+     * with other such transformers via {@link #transform(List, EntityManager)}.
+     *
+     * @return true if the transformer can run concurrently, false otherwise
+     * @since 1.4.0
+     */
+    public boolean supportsConcurrentTransform() {
+        return false;
+    }
+
+    /**
+     * Like {@link #transform(List)}, but runs all queries with the given entity manager.
+     * The tuple list must not be structurally modified. Transformers that don't run queries ignore the entity manager.
+     *
+     * @param tuples The tuples to transform
+     * @param entityManager The entity manager to use for queries
+     * @return The transformed tuples
+     * @since 1.4.0
+     */
+    public List<Object[]> transform(List<Object[]> tuples, EntityManager entityManager) {
+        return transform(tuples);
+    }
 }
@@ -19,6 +19,9 @@ package com.blazebit.persistence.view.impl.objectbuilder.transformer.correlation
 import com.blazebit.persistence.CTEBuilder;
 import com.blazebit.persistence.CriteriaBuilder;
 import com.blazebit.persistence.FullQueryBuilder;
+import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.QueryTemplate;
+import com.blazebit.persistence.QueryTemplateBinding;
 import com.blazebit.persistence.parser.expression.ExpressionFactory;
 import com.blazebit.persistence.view.CorrelationProvider;
 import com.blazebit.persistence.view.impl.BatchCorrelationMode;
@@ -31,11 +34,13 @@ import com.blazebit.persistence.view.metamodel.ManagedViewType;
 import javax.persistence.EntityManager;
 import javax.persistence.Parameter;
 import javax.persistence.Query;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  *
@@ -59,15 +64,52 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
     protected CorrelatedSubqueryViewRootJpqlMacro viewRootJpqlMacro;
     protected CorrelatedSubqueryEmbeddingViewJpqlMacro embeddingViewJpqlMacro;
     protected Query query;
+    protected CorrelationQueryTemplate queryTemplate;
+    private final ConcurrentMap<List<Object>, CorrelationQueryTemplate> queryTemplates;
+    private EntityManager entityManager;
 
     public AbstractCorrelatedBatchTupleListTransformer(ExpressionFactory ef, Correlator correlator, ManagedViewType<?> viewRootType, ManagedViewType<?> embeddingViewType, String correlationResult, CorrelationProviderFactory correlationProviderFactory, String attributePath, String[] fetches,
-                                                       boolean correlatesThis, int viewRootIndex, int embeddingViewIndex, int tupleIndex, int defaultBatchSize, Class<?> correlationBasisType, Class<?> correlationBasisEntity, EntityViewConfiguration entityViewConfiguration) {
+                                                       boolean correlatesThis, int viewRootIndex, int embeddingViewIndex, int tupleIndex, int defaultBatchSize, Class<?> correlationBasisType, Class<?> correlationBasisEntity, EntityViewConfiguration entityViewConfiguration,
+                                                       ConcurrentMap<List<Object>, CorrelationQueryTemplate> queryTemplates) {
         super(ef, correlator, viewRootType, embeddingViewType, correlationResult, correlationProviderFactory, attributePath, fetches, viewRootIndex, embeddingViewIndex, tupleIndex, correlationBasisType, correlationBasisEntity, entityViewConfiguration);
         this.batchSize = entityViewConfiguration.getBatchSize(attributePath, defaultBatchSize);
         this.correlatesThis = correlatesThis;
         this.expectBatchCorrelationMode = entityViewConfiguration.getExpectBatchCorrelationValues(attributePath);
         this.valueIndex = correlator.getElementOffset();
         this.keyIndex = valueIndex + 1;
+        this.queryTemplates = queryTemplates;
+    }
+
+    /**
+     * The correlation query of an attribute compiled to a query template that only needs parameter binding.
+     *
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    public static final class CorrelationQueryTemplate {
+
+        static final CorrelationQueryTemplate NONE = new CorrelationQueryTemplate(null, null);
+
+        private final QueryTemplate<?> queryTemplate;
+        private final String correlationParamName;
+        private final boolean correlationParamUsed;
+
+        CorrelationQueryTemplate(QueryTemplate<?> queryTemplate, String correlationParamName) {
+            this.queryTemplate = queryTemplate;
+            this.correlationParamName = correlationParamName;
+            this.correlationParamUsed = queryTemplate != null && queryTemplate.getParameterNames().contains(correlationParamName);
+        }
+    }
+
+    private EntityManager getEntityManager() {
+        if (entityManager != null) {
+            return entityManager;
+        }
+        return entityViewConfiguration.getCriteriaBuilder().getEntityManager();
+    }
+
+    private boolean isParameterNameUsed(String paramName) {
+        return entityViewConfiguration.getCriteriaBuilder().getParameter(paramName) != null || entityViewConfiguration.getOptionalParameters().containsKey(paramName);
     }
 
     private String generateCorrelationParamName() {
@@ -115,7 +157,7 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
             embeddingViewExpression = CORRELATION_KEY_ALIAS;
         }
 
-        this.criteriaBuilder = queryBuilder.getCriteriaBuilderFactory().create(queryBuilder.getEntityManager(), Object[].class);
+        this.criteriaBuilder = queryBuilder.getCriteriaBuilderFactory().create(getEntityManager(), Object[].class);
         if (queryBuilder instanceof CTEBuilder<?>) {
             this.criteriaBuilder.withCtesFrom((CTEBuilder<?>) queryBuilder);
         }
@@ -167,15 +209,38 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
         return correlationBuilder.getCorrelationRoot();
     }
 
+    @Override
+    public boolean supportsConcurrentTransform() {
+        return true;
+    }
+
+    @Override
+    public List<Object[]> transform(List<Object[]> tuples, EntityManager entityManager) {
+        // The correlation query and the references to correlation basis entities are created with the given entity manager
+        this.entityManager = entityManager;
+        return transform(tuples);
+    }
+
     @Override
     public List<Object[]> transform(List<Object[]> tuples) {
         FixedArrayList correlationParams = new FixedArrayList(batchSize);
         // We have the correlation key on the first position if we do batching
         int tupleOffset = batchSize > 1 ? 1 : 0;
 
+        // The shape of the correlation query only depends on the batch size and mode, so we can reuse a template if possible
+        List<Object> queryTemplateKey = Arrays.<Object>asList(batchSize, expectBatchCorrelationMode);
+        CorrelationQueryTemplate cachedTemplate = queryTemplates.get(queryTemplateKey);
+        if (cachedTemplate != null && cachedTemplate != CorrelationQueryTemplate.NONE && !isParameterNameUsed(cachedTemplate.correlationParamName)) {
+            this.queryTemplate = cachedTemplate;
+            this.correlationParamName = cachedTemplate.correlationParamName;
+            this.query = createQuery(cachedTemplate.queryTemplate);
+            transformValues(tuples, correlationParams);
+            return tuples;
+        }
+
         final String correlationRoot = applyAndGetCorrelationRoot(expectBatchCorrelationMode);
         // Add select items so that macros are properly used and we can query usage
-        correlator.finish(criteriaBuilder, entityViewConfiguration, tupleOffset, correlationRoot, embeddingViewJpqlMacro);
+        ObjectBuilder<?> objectBuilder = correlator.finish(criteriaBuilder, entityViewConfiguration, tupleOffset, correlationRoot, embeddingViewJpqlMacro);
         if (batchSize > 1) {
             criteriaBuilder.select(correlationSelectExpression);
         }
@@ -186,63 +251,111 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
         } else if (viewRootJpqlMacro.usesViewMacro()) {
             transformViewMacroAware(tuples, correlationParams, tupleOffset, correlationRoot, viewRootJpqlMacro, BatchCorrelationMode.VIEW_ROOTS, viewRootType, viewRootIndex);
         } else {
-            EntityManager em = criteriaBuilder.getEntityManager();
-            // Implementation detail: the tuple list is a LinkedList
-            Iterator<Object[]> tupleListIter = tuples.iterator();
             if (batchSize > 1) {
                 // If the expectation was wrong, we have to create a new criteria builder
                 if (expectBatchCorrelationMode != BatchCorrelationMode.VALUES) {
                     applyAndGetCorrelationRoot(BatchCorrelationMode.VALUES);
-                    correlator.finish(criteriaBuilder, entityViewConfiguration, tupleOffset, correlationRoot, embeddingViewJpqlMacro);
+                    objectBuilder = correlator.finish(criteriaBuilder, entityViewConfiguration, tupleOffset, correlationRoot, embeddingViewJpqlMacro);
                     criteriaBuilder.select(correlationSelectExpression);
                 }
             }
+            if (cachedTemplate == null) {
+                queryTemplates.putIfAbsent(queryTemplateKey, createQueryTemplate(objectBuilder));
+            }
             populateParameters(criteriaBuilder);
             query = criteriaBuilder.getQuery();
+            transformValues(tuples, correlationParams);
+        }
 
-            Map<Object, TuplePromise> correlationValues = new HashMap<>(tuples.size());
-            while (tupleListIter.hasNext()) {
-                Object[] tuple = tupleListIter.next();
-                Object correlationValue = tuple[startIndex];
+        return tuples;
+    }
 
-                TuplePromise tupleIndexValue = correlationValues.get(correlationValue);
+    private CorrelationQueryTemplate createQueryTemplate(ObjectBuilder<?> objectBuilder) {
+        // Subview correlations create object builders and nested transformers that are bound to the current query
+        // and a parameterized correlation provider might produce a different query for other parameter values
+        if (objectBuilder != null || correlationProviderFactory.isParameterized()) {
+            return CorrelationQueryTemplate.NONE;
+        }
+        try {
+            return new CorrelationQueryTemplate(criteriaBuilder.toTemplate(), correlationParamName);
+        } catch (IllegalStateException ex) {
+            // Queries that require SQL processing i.e. for CTEs or VALUES clauses can't be templated
+            return CorrelationQueryTemplate.NONE;
+        }
+    }
 
-                if (tupleIndexValue == null) {
-                    tupleIndexValue = new TuplePromise(startIndex);
-                    tupleIndexValue.add(tuple);
-                    correlationValues.put(correlationValue, tupleIndexValue);
+    private Query createQuery(QueryTemplate<?> template) {
+        FullQueryBuilder<?, ?> mainBuilder = entityViewConfiguration.getCriteriaBuilder();
+        Map<String, Object> optionalParameters = entityViewConfiguration.getOptionalParameters();
+        QueryTemplateBinding<?> binding = null;
+        for (String parameterName : template.getParameterNames()) {
+            if (!parameterName.equals(correlationParamName)) {
+                Object value;
+                if (mainBuilder.containsParameter(parameterName)) {
+                    value = mainBuilder.getParameterValue(parameterName);
+                } else if (optionalParameters.containsKey(parameterName)) {
+                    value = optionalParameters.get(parameterName);
+                } else {
+                    continue;
+                }
+                if (binding == null) {
+                    binding = template.bind(parameterName, value);
+                } else {
+                    binding.bind(parameterName, value);
+                }
+            }
+        }
+        EntityManager em = getEntityManager();
+        if (binding == null) {
+            return template.createQuery(em);
+        }
+        return binding.createQuery(em);
+    }
+
+    private void transformValues(List<Object[]> tuples, FixedArrayList correlationParams) {
+        EntityManager em = getEntityManager();
+        // Implementation detail: the tuple list is a LinkedList
+        Iterator<Object[]> tupleListIter = tuples.iterator();
+        Map<Object, TuplePromise> correlationValues = new HashMap<>(tuples.size());
+        while (tupleListIter.hasNext()) {
+            Object[] tuple = tupleListIter.next();
+            Object correlationValue = tuple[startIndex];
+
+            TuplePromise tupleIndexValue = correlationValues.get(correlationValue);
+
+            if (tupleIndexValue == null) {
+                tupleIndexValue = new TuplePromise(startIndex);
+                tupleIndexValue.add(tuple);
+                correlationValues.put(correlationValue, tupleIndexValue);
+
+                // Can't correlate null
+                if (correlationValue != null) {
+                    if (correlationBasisEntity != null) {
+                        correlationParams.add(em.getReference(correlationBasisEntity, correlationValue));
+                    } else {
+                        correlationParams.add(correlationValue);
+                    }
 
-                    // Can't correlate null
-                    if (correlationValue != null) {
+                    if (batchSize == correlationParams.realSize()) {
+                        Object defaultKey;
                         if (correlationBasisEntity != null) {
-                            correlationParams.add(em.getReference(correlationBasisEntity, correlationValue));
+                            defaultKey = jpaProvider.getIdentifier(correlationParams.get(0));
                         } else {
-                            correlationParams.add(correlationValue);
-                        }
-
-                        if (batchSize == correlationParams.realSize()) {
-                            Object defaultKey;
-                            if (correlationBasisEntity != null) {
-                                defaultKey = jpaProvider.getIdentifier(correlationParams.get(0));
-                            } else {
-                                defaultKey = correlationParams.get(0);
-                            }
-                            batchLoad(correlationValues, correlationParams, null, defaultKey, viewRootJpqlMacro, BatchCorrelationMode.VALUES);
+                            defaultKey = correlationParams.get(0);
                         }
+                        batchLoad(correlationValues, correlationParams, null, defaultKey, viewRootJpqlMacro, BatchCorrelationMode.VALUES);
                     }
-                } else {
-                    tupleIndexValue.add(tuple);
                 }
+            } else {
+                tupleIndexValue.add(tuple);
             }
+        }
 
-            if (correlationParams.realSize() > 0) {
-                batchLoad(correlationValues, correlationParams, null, null, viewRootJpqlMacro, BatchCorrelationMode.VALUES);
-            }
-
-            fillDefaultValues(Collections.singletonMap(null, correlationValues));
+        if (correlationParams.realSize() > 0) {
+            batchLoad(correlationValues, correlationParams, null, null, viewRootJpqlMacro, BatchCorrelationMode.VALUES);
         }
 
-        return tuples;
+        fillDefaultValues(Collections.singletonMap(null, correlationValues));
     }
 
     @Override
@@ -398,7 +511,16 @@ public abstract class AbstractCorrelatedBatchTupleListTransformer extends Abstra
 
     private void batchLoad(Map<Object, TuplePromise> correlationValues, FixedArrayList batchParameters, FixedArrayList viewRootIds, Object defaultKey, CorrelatedSubqueryViewRootJpqlMacro macro, BatchCorrelationMode batchCorrelationMode) {
         batchParameters.clearRest();
-        if (criteriaBuilder.containsParameter(correlationParamName)) {
+        if (queryTemplate != null) {
+            // The query was created from a template, so there is no criteria builder
+            if (queryTemplate.correlationParamUsed) {
+                if (batchSize > 1 && batchCorrelationMode == BatchCorrelationMode.VALUES) {
+                    query.setParameter(correlationParamName, batchParameters);
+                } else {
+                    query.setParameter(correlationParamName, batchParameters.get(0));
+                }
+            }
+        } else if (criteriaBuilder.containsParameter(correlationParamName)) {
             if (batchSize > 1 && batchCorrelationMode == BatchCorrelationMode.VALUES) {
                 criteriaBuilder.setParameter(correlationParamName, batchParameters);
                 query.setParameter(correlationParamName, batchParameters);
@@ -20,6 +20,10 @@ import com.blazebit.persistence.view.impl.CorrelationProviderFactory;
 import com.blazebit.persistence.view.impl.objectbuilder.transformer.TupleListTransformerFactory;
 import com.blazebit.persistence.view.metamodel.ManagedViewType;
 
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 /**
  *
  * @author Christian Beikov
@@ -41,6 +45,8 @@ public abstract class AbstractCorrelatedBatchTupleListTransformerFactory impleme
     protected final int tupleIndex;
     protected final Class<?> correlationBasisType;
     protected final Class<?> correlationBasisEntity;
+    // The correlation query templates are shared by all transformers created for the attribute
+    protected final ConcurrentMap<List<Object>, AbstractCorrelatedBatchTupleListTransformer.CorrelationQueryTemplate> queryTemplates = new ConcurrentHashMap<>();
 
     public AbstractCorrelatedBatchTupleListTransformerFactory(Correlator correlator, ManagedViewType<?> viewRootType, ManagedViewType<?> embeddingViewType, String correlationResult, CorrelationProviderFactory correlationProviderFactory, String attributePath, String[] fetches,
                                                               boolean correlatesThis, int viewRootIndex, int embeddingViewIndex, int tupleIndex, int batchSize, Class<?> correlationBasisType, Class<?> correlationBasisEntity) {
@@ -19,6 +19,7 @@ package com.blazebit.persistence.view.impl.objectbuilder.transformer.correlation
 import com.blazebit.persistence.FullQueryBuilder;
 import com.blazebit.persistence.LimitBuilder;
 import com.blazebit.persistence.ObjectBuilder;
+import com.blazebit.persistence.parser.EntityMetamodel;
 import com.blazebit.persistence.parser.expression.ExpressionFactory;
 import com.blazebit.persistence.view.CorrelationProvider;
 import com.blazebit.persistence.view.impl.CorrelationProviderFactory;
@@ -36,8 +37,10 @@ import com.blazebit.persistence.view.metamodel.ViewType;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  *
@@ -63,6 +66,7 @@ public abstract class AbstractCorrelatedSubselectTupleListTransformer extends Ab
     protected FullQueryBuilder<?, ?> criteriaBuilder;
     protected CorrelatedSubqueryViewRootJpqlMacro viewRootJpqlMacro;
     protected MutableEmbeddingViewJpqlMacro embeddingViewJpqlMacro;
+    private boolean restrictToChunk;
 
     public AbstractCorrelatedSubselectTupleListTransformer(ExpressionFactory ef, Correlator correlator, EntityViewManagerImpl evm, ManagedViewType<?> viewRootType, String viewRootAlias, ManagedViewType<?> embeddingViewType, String embeddingViewPath, String correlationResult, String correlationBasisExpression, String correlationKeyExpression,
                                                            CorrelationProviderFactory correlationProviderFactory, String attributePath, String[] fetches, int viewRootIndex, int embeddingViewIndex, int tupleIndex, Class<?> correlationBasisType, Class<?> correlationBasisEntity, EntityViewConfiguration entityViewConfiguration) {
@@ -119,6 +123,15 @@ public abstract class AbstractCorrelatedSubselectTupleListTransformer extends Ab
         return (ObjectBuilder<Object[]>) evm.createObjectBuilder((ManagedViewTypeImplementor<?>) idViewType, null, viewName, viewRoot, "", criteriaBuilder, configuration, 1, 1);
     }
 
+    @Override
+    public List<Object[]> transformChunk(List<Object[]> tuples) {
+        // Without a restriction, the subselect would fetch the correlated values for the whole result for every chunk
+        // We can't restrict by embeddable correlation keys, because JPA providers don't support them in IN predicates
+        this.restrictToChunk = correlationBasisEntity != null
+                || correlationBasisType != null && entityViewConfiguration.getCriteriaBuilder().getService(EntityMetamodel.class).getManagedType(correlationBasisType) == null;
+        return transform(tuples);
+    }
+
     @Override
     public List<Object[]> transform(List<Object[]> tuples) {
         Class<?> viewRootEntityClass = viewRootType.getEntityClass();
@@ -259,6 +272,19 @@ public abstract class AbstractCorrelatedSubselectTupleListTransformer extends Ab
             }
         }
 
+        if (restrictToChunk) {
+            Set<Object> correlationKeys = new HashSet<>();
+            for (Map<Object, TuplePromise> viewRootCorrelationValues : viewRoots.values()) {
+                correlationKeys.addAll(viewRootCorrelationValues.keySet());
+            }
+            if (correlationKeys.isEmpty()) {
+                embeddingViewJpqlMacro.setEmbeddingViewPath(oldEmbeddingViewPath);
+                fillDefaultValues(viewRoots);
+                return tuples;
+            }
+            criteriaBuilder.where(correlationKeyExpression).in(correlationKeys);
+        }
+
         criteriaBuilder.select(correlationKeyExpression);
 
         populateParameters(criteriaBuilder);
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blazebit.persistence.view.impl.proxy;
+
+import com.blazebit.persistence.view.spi.type.TypeConverter;
+
+import java.util.Arrays;
+
+/**
+ * The base class for object instantiators that are generated by the {@link ProxyFactory}.
+ * A generated instantiator invokes the proxy constructor or static factory method directly and does the type conversion
+ * and unboxing of the tuple elements in generated code.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public abstract class AbstractGeneratedInstantiator<T> implements ObjectInstantiator<T> {
+
+    protected final TypeConverter<Object, Object>[] typeConverters;
+    private final AbstractReflectionInstantiator.MutableBasicUserTypeEntry[] mutableBasicUserTypes;
+    private final String target;
+
+    protected AbstractGeneratedInstantiator(TypeConverter<Object, Object>[] typeConverters, AbstractReflectionInstantiator.MutableBasicUserTypeEntry[] mutableBasicUserTypes, String target) {
+        this.typeConverters = typeConverters;
+        this.mutableBasicUserTypes = mutableBasicUserTypes;
+        this.target = target;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final T newInstance(Object[] tuple) {
+        try {
+            Object instance = create(tuple);
+            AbstractReflectionInstantiator.finalizeInstance(mutableBasicUserTypes, instance);
+            return (T) instance;
+        } catch (RuntimeException ex) {
+            String[] types = new String[tuple.length];
+
+            for (int i = 0; i < types.length; i++) {
+                if (tuple[i] == null) {
+                    types[i] = null;
+                } else {
+                    types[i] = tuple[i].getClass().getName();
+                }
+            }
+            throw new RuntimeException("Could not invoke the proxy " + target + " with the given tuple: " + Arrays.toString(tuple) + " with the types: " + Arrays.toString(types), ex);
+        }
+    }
+
+    /**
+     * Creates the proxy instance for the given tuple. Implemented by generated code.
+     *
+     * @param tuple The tuple
+     * @return The proxy instance
+     */
+    protected abstract Object create(Object[] tuple);
+
+    // The following methods are invoked by the generated code to unbox tuple elements for primitive parameters
+
+    public static boolean toBoolean(Object value) {
+        return value != null && (Boolean) value;
+    }
+
+    public static byte toByte(Object value) {
+        return value == null ? 0 : ((Number) value).byteValue();
+    }
+
+    public static char toChar(Object value) {
+        return value == null ? '\0' : (Character) value;
+    }
+
+    public static short toShort(Object value) {
+        return value == null ? 0 : ((Number) value).shortValue();
+    }
+
+    public static int toInt(Object value) {
+        return value == null ? 0 : ((Number) value).intValue();
+    }
+
+    public static long toLong(Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+
+    public static float toFloat(Object value) {
+        return value == null ? 0F : ((Number) value).floatValue();
+    }
+
+    public static double toDouble(Object value) {
+        return value == null ? 0D : ((Number) value).doubleValue();
+    }
+}
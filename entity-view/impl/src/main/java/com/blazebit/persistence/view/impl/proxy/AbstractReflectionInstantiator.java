@@ -94,7 +94,6 @@ public abstract class AbstractReflectionInstantiator<T> implements ObjectInstant
     }
 
     protected final void prepareTuple(Object[] tuple) {
-        // TODO: move this into proxy generated code by setting user types on a static AtomicReferenceArray
         // type conversion
         for (int i = 0; i < typeConverters.length; i++) {
             TypeConverterEntry entry = typeConverters[i];
@@ -103,6 +102,10 @@ public abstract class AbstractReflectionInstantiator<T> implements ObjectInstant
     }
 
     protected final void finalizeInstance(Object instance) {
+        finalizeInstance(mutableBasicUserTypes, instance);
+    }
+
+    static void finalizeInstance(MutableBasicUserTypeEntry[] mutableBasicUserTypes, Object instance) {
         if (mutableBasicUserTypes.length != 0) {
             Object[] initialState = ((DirtyStateTrackable) instance).$$_getInitialState();
             for (int i = 0; i < mutableBasicUserTypes.length; i++) {
@@ -51,6 +51,7 @@ import com.blazebit.persistence.view.metamodel.Type;
 import com.blazebit.persistence.view.metamodel.ViewType;
 import com.blazebit.persistence.view.spi.type.BasicDirtyTracker;
 import com.blazebit.persistence.view.spi.type.EntityViewProxy;
+import com.blazebit.persistence.view.spi.type.TypeConverter;
 import com.blazebit.reflection.ReflectionUtils;
 import javassist.CannotCompileException;
 import javassist.ClassClassPath;
@@ -60,6 +61,7 @@ import javassist.CtClass;
 import javassist.CtConstructor;
 import javassist.CtField;
 import javassist.CtMethod;
+import javassist.CtNewConstructor;
 import javassist.Modifier;
 import javassist.NotFoundException;
 import javassist.bytecode.AccessFlag;
@@ -89,11 +91,13 @@ import javax.persistence.metamodel.ManagedType;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -106,6 +110,7 @@ import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -118,10 +123,12 @@ public class ProxyFactory {
     private static final Logger LOG = Logger.getLogger(ProxyFactory.class.getName());
     // This has to be static since runtime generated correlation providers can't be matched in a later run, so we always create a new one with a unique name
     private static final ConcurrentMap<Class<?>, AtomicInteger> CORRELATION_PROVIDER_CLASS_COUNT = new ConcurrentHashMap<>();
+    private static final AtomicInteger INSTANTIATOR_CLASS_COUNT = new AtomicInteger();
     private static final Path DEBUG_DUMP_DIRECTORY;
     private final ConcurrentMap<Class<?>, Class<?>> baseClasses = new ConcurrentHashMap<>();
     private final ConcurrentMap<ProxyClassKey, Class<?>> proxyClasses = new ConcurrentHashMap<>();
     private final ConcurrentMap<ProxyClassKey, Class<?>> unsafeProxyClasses = new ConcurrentHashMap<>();
+    private final ConcurrentMap<List<Object>, Class<?>> instantiatorClasses = new ConcurrentHashMap<>();
     private final Object proxyLock = new Object();
     private final ClassPool pool;
     private final boolean unsafeDisabled;
@@ -243,6 +250,195 @@ public class ProxyFactory {
         }
     }
     
+    /**
+     * Creates an instantiator that invokes the proxy constructor or, for inheritance subtypes, the static factory method of the proxy
+     * for the given mapping constructor. The instantiator class is generated so that the type conversion and unboxing of tuple elements
+     * doesn't need any reflection. If no instantiator can be generated, a reflection based instantiator is returned.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ObjectInstantiator<T> createInstantiator(EntityViewManager entityViewManager, ManagedViewTypeImplementor<T> viewType, ManagedViewTypeImplementor<T> viewTypeBase, MappingConstructor<T> mappingConstructor, int inheritanceConfigurationIndex,
+                                                        Class<?>[] parameterTypes, List<AbstractReflectionInstantiator.MutableBasicUserTypeEntry> mutableBasicUserTypes, List<AbstractReflectionInstantiator.TypeConverterEntry> typeConverterEntries) {
+        Class<? extends T> proxyClass = getProxy(entityViewManager, viewType, viewTypeBase);
+        String factoryMethodName = null;
+        String target = null;
+        try {
+            Member member;
+            if (viewTypeBase == null) {
+                member = proxyClass.getDeclaredConstructor(parameterTypes);
+                target = "constructor '" + member + "'";
+            } else {
+                if (mappingConstructor == null || mappingConstructor.getParameterAttributes().isEmpty()) {
+                    factoryMethodName = "create" + inheritanceConfigurationIndex;
+                } else {
+                    factoryMethodName = "create" + inheritanceConfigurationIndex + "_" + mappingConstructor.getName();
+                }
+                member = proxyClass.getDeclaredMethod(factoryMethodName, parameterTypes);
+                target = "static factory method '" + member + "'";
+            }
+            if (!java.lang.reflect.Modifier.isPublic(member.getModifiers())) {
+                target = null;
+            }
+        } catch (NoSuchMethodException ex) {
+            // Let the reflection based instantiator report the error
+            target = null;
+        }
+
+        if (target != null && isAccessible(proxyClass) && isAccessible(parameterTypes)) {
+            TypeConverter<Object, Object>[] typeConverters = new TypeConverter[parameterTypes.length];
+            for (AbstractReflectionInstantiator.TypeConverterEntry typeConverterEntry : typeConverterEntries) {
+                typeConverters[typeConverterEntry.index] = typeConverterEntry.typeConverter;
+            }
+            List<Object> key = new ArrayList<>(4);
+            key.add(proxyClass);
+            key.add(factoryMethodName);
+            key.add(Arrays.asList(parameterTypes));
+            key.add(Arrays.toString(convertedIndexes(typeConverters)));
+
+            try {
+                Class<?> instantiatorClass = instantiatorClasses.get(key);
+                // Double checked locking since we can only define the class once
+                if (instantiatorClass == null) {
+                    synchronized (proxyLock) {
+                        instantiatorClass = instantiatorClasses.get(key);
+                        if (instantiatorClass == null) {
+                            instantiatorClass = createInstantiatorClass(viewType.getJavaType(), proxyClass, factoryMethodName, parameterTypes, typeConverters);
+                            instantiatorClasses.put(key, instantiatorClass);
+                        }
+                    }
+                }
+                AbstractReflectionInstantiator.MutableBasicUserTypeEntry[] mutableBasicUserTypeArray = mutableBasicUserTypes.toArray(new AbstractReflectionInstantiator.MutableBasicUserTypeEntry[mutableBasicUserTypes.size()]);
+                return (ObjectInstantiator<T>) instantiatorClass.getConstructor(TypeConverter[].class, AbstractReflectionInstantiator.MutableBasicUserTypeEntry[].class, String.class)
+                        .newInstance(typeConverters, mutableBasicUserTypeArray, target);
+            } catch (Exception | LinkageError ex) {
+                LOG.log(Level.WARNING, "Could not generate an instantiator for the proxy " + target + ", falling back to reflection", ex);
+            }
+        }
+
+        if (viewTypeBase == null) {
+            return new ConstructorReflectionInstantiator<>(mappingConstructor, this, viewType, viewTypeBase, parameterTypes, entityViewManager, mutableBasicUserTypes, typeConverterEntries);
+        } else {
+            return new StaticFactoryReflectionInstantiator<>(mappingConstructor, this, viewType, viewTypeBase, inheritanceConfigurationIndex, parameterTypes, entityViewManager, mutableBasicUserTypes, typeConverterEntries);
+        }
+    }
+
+    private static boolean isAccessible(Class<?>[] parameterTypes) {
+        // The generated code casts to the parameter types, so they must be accessible from the generated class
+        for (Class<?> parameterType : parameterTypes) {
+            if (!isAccessible(parameterType)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAccessible(Class<?> type) {
+        Class<?> c = type;
+        while (c.isArray()) {
+            c = c.getComponentType();
+        }
+        for (; c != null; c = c.getDeclaringClass()) {
+            if (!c.isPrimitive() && !java.lang.reflect.Modifier.isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean[] convertedIndexes(TypeConverter<Object, Object>[] typeConverters) {
+        boolean[] convertedIndexes = new boolean[typeConverters.length];
+        for (int i = 0; i < typeConverters.length; i++) {
+            convertedIndexes[i] = typeConverters[i] != null;
+        }
+        return convertedIndexes;
+    }
+
+    private Class<?> createInstantiatorClass(Class<?> clazz, Class<?> proxyClass, String factoryMethodName, Class<?>[] parameterTypes, TypeConverter<Object, Object>[] typeConverters) throws Exception {
+        String instantiatorClassName = proxyClass.getName() + "Instantiator_" + INSTANTIATOR_CLASS_COUNT.getAndIncrement();
+        ClassPath classPath = new ClassClassPath(AbstractGeneratedInstantiator.class);
+        pool.insertClassPath(classPath);
+
+        try {
+            CtClass cc = pool.makeClass(instantiatorClassName, pool.get(AbstractGeneratedInstantiator.class.getName()));
+            cc.setModifiers(Modifier.PUBLIC | Modifier.FINAL);
+            CtClass[] constructorParameterTypes = {
+                pool.get(TypeConverter.class.getName() + "[]"),
+                pool.get(AbstractReflectionInstantiator.MutableBasicUserTypeEntry.class.getName() + "[]"),
+                pool.get(String.class.getName())
+            };
+            cc.addConstructor(CtNewConstructor.make(constructorParameterTypes, new CtClass[0], "{ super($$); }", cc));
+
+            ConstPool constPool = cc.getClassFile().getConstPool();
+            Bytecode bytecode = new Bytecode(constPool, 0, 2);
+            String proxyClassName = proxyClass.getName();
+            int stackDepth = 0;
+            int maxStackDepth = 0;
+            if (factoryMethodName == null) {
+                bytecode.addNew(proxyClassName);
+                bytecode.addOpcode(Opcode.DUP);
+                stackDepth = 2;
+            }
+            StringBuilder descriptor = new StringBuilder("(");
+            for (int i = 0; i < parameterTypes.length; i++) {
+                Class<?> parameterType = parameterTypes[i];
+                descriptor.append(getDescriptor(parameterType));
+                if (typeConverters[i] == null) {
+                    maxStackDepth = Math.max(maxStackDepth, stackDepth + 2);
+                } else {
+                    // Load the type converter of the parameter before the tuple element
+                    bytecode.addAload(0);
+                    bytecode.addGetfield(AbstractGeneratedInstantiator.class.getName(), "typeConverters", "[" + getDescriptor(TypeConverter.class));
+                    bytecode.addIconst(i);
+                    bytecode.addOpcode(Opcode.AALOAD);
+                    maxStackDepth = Math.max(maxStackDepth, stackDepth + 3);
+                }
+                bytecode.addAload(1);
+                bytecode.addIconst(i);
+                bytecode.addOpcode(Opcode.AALOAD);
+                if (typeConverters[i] != null) {
+                    bytecode.addInvokeinterface(TypeConverter.class.getName(), "convertToViewType", "(Ljava/lang/Object;)Ljava/lang/Object;", 2);
+                }
+                if (parameterType.isPrimitive()) {
+                    String typeName = parameterType.getName();
+                    String methodName = "to" + Character.toUpperCase(typeName.charAt(0)) + typeName.substring(1);
+                    bytecode.addInvokestatic(AbstractGeneratedInstantiator.class.getName(), methodName, "(Ljava/lang/Object;)" + getDescriptor(parameterType));
+                    stackDepth += parameterType == long.class || parameterType == double.class ? 2 : 1;
+                } else {
+                    if (parameterType != Object.class) {
+                        bytecode.addCheckcast(parameterType.getName());
+                    }
+                    stackDepth++;
+                }
+                maxStackDepth = Math.max(maxStackDepth, stackDepth);
+            }
+            descriptor.append(')');
+            if (factoryMethodName == null) {
+                bytecode.addInvokespecial(proxyClassName, "<init>", descriptor.append('V').toString());
+            } else {
+                bytecode.addInvokestatic(proxyClassName, factoryMethodName, descriptor.append(getDescriptor(proxyClass)).toString());
+            }
+            bytecode.addOpcode(Opcode.ARETURN);
+            bytecode.setMaxStack(Math.max(1, maxStackDepth));
+
+            MethodInfo methodInfo = new MethodInfo(constPool, "create", "([Ljava/lang/Object;)Ljava/lang/Object;");
+            methodInfo.setAccessFlags(AccessFlag.PROTECTED | AccessFlag.FINAL);
+            methodInfo.setCodeAttribute(bytecode.toCodeAttribute());
+            cc.addMethod(CtMethod.make(methodInfo, cc));
+
+            return defineOrGetClass(clazz, cc);
+        } finally {
+            pool.removeClassPath(classPath);
+        }
+    }
+
+    private static String getDescriptor(Class<?> type) {
+        if (type.isArray()) {
+            return type.getName().replace('.', '/');
+        } else if (type.isPrimitive()) {
+            return Descriptor.of(type.getName());
+        }
+        return "L" + type.getName().replace('.', '/') + ";";
+    }
+
     @SuppressWarnings("unchecked")
     private <T> Class<? extends T> getProxy(EntityViewManager entityViewManager, ManagedViewTypeImplementor<T> viewType, ManagedViewTypeImplementor<? super T> inheritanceBase, boolean unsafe) {
         Class<T> clazz = viewType.getJavaType();
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.impl.objectbuilder;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class TupleIndexTest {
+
+    @Test
+    public void numericIds() {
+        TupleIndex<String> index = new TupleIndex<>(new int[]{ 1 });
+        for (long i = -1000; i < 1000; i++) {
+            index.put(new Object[]{ "a", i }, "v" + i);
+        }
+        index.put(new Object[]{ "b", 5L }, "overwritten");
+
+        for (long i = -1000; i < 1000; i++) {
+            assertEquals(i == 5L ? "overwritten" : "v" + i, index.get(new Object[]{ "c", i }));
+        }
+        assertNull(index.get(new Object[]{ "a", 1000L }));
+    }
+
+    @Test
+    public void differentlyTypedIdsAreNotEqual() {
+        TupleIndex<String> index = new TupleIndex<>(new int[]{ 0 });
+        index.put(new Object[]{ 1L }, "long");
+        index.put(new Object[]{ 1 }, "int");
+        index.put(new Object[]{ "1" }, "string");
+
+        assertEquals("long", index.get(new Object[]{ 1L }));
+        assertEquals("int", index.get(new Object[]{ 1 }));
+        assertEquals("string", index.get(new Object[]{ "1" }));
+        assertNull(index.get(new Object[]{ (short) 1 }));
+    }
+
+    @Test
+    public void compositeIds() {
+        TupleIndex<String> index = new TupleIndex<>(new int[]{ 0, 1 });
+        index.put(new Object[]{ 1L, 2L }, "a");
+        index.put(new Object[]{ 1L, 3L }, "b");
+
+        assertEquals("a", index.get(new Object[]{ 1L, 2L }));
+        assertEquals("b", index.get(new Object[]{ 1L, 3L }));
+        assertNull(index.get(new Object[]{ 2L, 2L }));
+    }
+
+    @Test
+    public void emptyIds() {
+        TupleIndex<String> index = new TupleIndex<>(new int[]{ 0, 1 });
+        assertTrue(index.isEmptyId(new Object[]{ null, null }));
+        assertFalse(index.isEmptyId(new Object[]{ null, 1L }));
+        assertFalse(new TupleIndex<String>(new int[]{ -1 }).isEmptyId(new Object[]{ null }));
+    }
+}
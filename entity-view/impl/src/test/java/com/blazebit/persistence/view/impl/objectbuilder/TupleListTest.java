@@ -0,0 +1,74 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.impl.objectbuilder;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class TupleListTest {
+
+    @Test
+    public void markAndCompact() {
+        Object[] t0 = { 0 };
+        Object[] t1 = { 1 };
+        Object[] t2 = { 2 };
+        Object[] t3 = { 3 };
+        TupleList tupleList = new TupleList(Arrays.asList(t0, t1, t2, t3));
+
+        tupleList.markRemoved(1);
+        tupleList.markRemoved(3);
+        assertEquals(4, tupleList.size());
+
+        tupleList.compact();
+        assertEquals(2, tupleList.size());
+        assertSame(t0, tupleList.get(0));
+        assertSame(t2, tupleList.get(1));
+    }
+
+    @Test
+    public void constrainedTupleListPropagatesToTupleList() {
+        // The first element is the subtype index
+        Object[] t0 = { 0, "a" };
+        Object[] t1 = { 1, "b" };
+        Object[] t2 = { 1, "c" };
+        Object[] t3 = { 0, "d" };
+        Object[] t4 = { 1, "e" };
+        TupleList tupleList = new TupleList(Arrays.asList(t0, t1, t2, t3, t4));
+        ConstrainedTupleList constrainedTupleList = new ConstrainedTupleList(0, new int[]{ 1 }, tupleList);
+        assertEquals(3, constrainedTupleList.size());
+
+        constrainedTupleList.markRemoved(0);
+        constrainedTupleList.compact();
+        assertEquals(2, constrainedTupleList.size());
+
+        // Indexes into the underlying list must survive the compaction
+        Object[] replacement = { 1, "f" };
+        constrainedTupleList.set(1, replacement);
+
+        tupleList.compact();
+        assertEquals(Arrays.asList(t0, t2, t3, replacement), tupleList);
+    }
+}
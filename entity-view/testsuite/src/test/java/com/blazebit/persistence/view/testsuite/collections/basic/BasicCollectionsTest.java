@@ -18,6 +18,7 @@ package com.blazebit.persistence.view.testsuite.collections.basic;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -33,6 +34,7 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.CriteriaBuilder;
 import com.blazebit.persistence.view.EntityViewManager;
 import com.blazebit.persistence.view.EntityViewSetting;
@@ -153,6 +155,33 @@ public class BasicCollectionsTest<T extends BasicDocumentCollectionsView> extend
         CriteriaBuilder<T> cb = evm.applySetting(EntityViewSetting.create(viewType), criteria);
         List<T> results = cb.getResultList();
 
+        assertResults(results);
+    }
+
+    @Test
+    // NOTE: DataNucleus renders joins wrong: https://github.com/datanucleus/datanucleus-rdbms/issues/177
+    // Eclipselink has a result set mapping bug in case of map keys
+    @Category({ NoEclipselink.class, NoDatanucleus.class })
+    public void testCollectionsScroll() {
+        EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
+        cfg.addEntityView(viewType);
+        EntityViewManager evm = cfg.createEntityViewManager(cbf);
+
+        CriteriaBuilder<DocumentForCollections> criteria = cbf.create(em, DocumentForCollections.class, "d")
+            .orderByAsc("id");
+        CriteriaBuilder<T> cb = evm.applySetting(EntityViewSetting.create(viewType), criteria);
+        List<T> results = new ArrayList<>();
+        // Every document has multiple rows, which must all end up in the same chunk
+        try (CloseableIterator<T> iterator = cb.scroll(1)) {
+            while (iterator.hasNext()) {
+                results.add(iterator.next());
+            }
+        }
+
+        assertResults(results);
+    }
+
+    private void assertResults(List<T> results) {
         assertEquals(2, results.size());
         // Doc1
         assertEquals(doc1.getName(), results.get(0).getName());
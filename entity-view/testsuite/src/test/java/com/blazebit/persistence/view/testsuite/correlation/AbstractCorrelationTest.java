@@ -16,6 +16,7 @@
 
 package com.blazebit.persistence.view.testsuite.correlation;
 
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.CriteriaBuilder;
 import com.blazebit.persistence.testsuite.tx.TxVoidWork;
 import com.blazebit.persistence.view.EntityViewManager;
@@ -33,9 +34,11 @@ import org.junit.Assert;
 import org.junit.Before;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import static org.junit.Assert.assertEquals;
 
@@ -92,20 +95,49 @@ public abstract class AbstractCorrelationTest extends AbstractEntityViewTest {
     }
 
     protected <T extends DocumentCorrelationView> void testCorrelation(Class<T> entityView, Integer batchSize) {
+        testCorrelation(createEntityViewManager(entityView), entityView, batchSize);
+    }
+
+    protected EntityViewManager createEntityViewManager(Class<? extends DocumentCorrelationView> entityView) {
         EntityViewConfiguration cfg = EntityViews.createDefaultConfiguration();
         cfg.addEntityView(entityView);
         cfg.addEntityView(SimpleDocumentCorrelatedView.class);
         cfg.addEntityView(SimplePersonCorrelatedSubView.class);
-        EntityViewManager evm = cfg.createEntityViewManager(cbf);
+        return cfg.createEntityViewManager(cbf);
+    }
+
+    protected <T extends DocumentCorrelationView> void testCorrelation(EntityViewManager evm, Class<T> entityView, Integer batchSize) {
+        testCorrelation(evm, entityView, batchSize, null);
+    }
+
+    protected <T extends DocumentCorrelationView> void testCorrelation(EntityViewManager evm, Class<T> entityView, Integer batchSize, Executor correlationExecutor) {
+        assertCorrelationResults(createCorrelationQuery(evm, entityView, batchSize, correlationExecutor).getResultList());
+    }
 
+    protected <T extends DocumentCorrelationView> void testCorrelationScroll(Class<T> entityView, int fetchSize) {
+        CriteriaBuilder<T> cb = createCorrelationQuery(createEntityViewManager(entityView), entityView, null, null);
+        List<T> results = new ArrayList<>();
+        try (CloseableIterator<T> iterator = cb.scroll(fetchSize)) {
+            while (iterator.hasNext()) {
+                results.add(iterator.next());
+            }
+        }
+        assertCorrelationResults(results);
+    }
+
+    private <T extends DocumentCorrelationView> CriteriaBuilder<T> createCorrelationQuery(EntityViewManager evm, Class<T> entityView, Integer batchSize, Executor correlationExecutor) {
         CriteriaBuilder<Document> criteria = cbf.create(em, Document.class, "d").orderByAsc("id");
         EntityViewSetting<T, CriteriaBuilder<T>> setting = EntityViewSetting.create(entityView);
         if (batchSize != null) {
             setting.setProperty(ConfigurationProperties.DEFAULT_BATCH_SIZE + ".ownerRelatedDocumentIds", batchSize);
         }
-        CriteriaBuilder<T> cb = evm.applySetting(setting, criteria);
-        List<T> results = cb.getResultList();
+        if (correlationExecutor != null) {
+            setting.withParallelCorrelations(correlationExecutor, emf);
+        }
+        return evm.applySetting(setting, criteria);
+    }
 
+    private <T extends DocumentCorrelationView> void assertCorrelationResults(List<T> results) {
         assertEquals(4, results.size());
 
         // Doc1
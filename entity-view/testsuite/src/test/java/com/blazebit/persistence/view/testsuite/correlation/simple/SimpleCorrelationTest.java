@@ -23,16 +23,27 @@ import com.blazebit.persistence.testsuite.base.jpa.category.NoHibernate42;
 import com.blazebit.persistence.testsuite.base.jpa.category.NoHibernate43;
 import com.blazebit.persistence.testsuite.base.jpa.category.NoHibernate50;
 import com.blazebit.persistence.testsuite.base.jpa.category.NoOpenJPA;
+import com.blazebit.persistence.view.EntityViewManager;
 import com.blazebit.persistence.view.testsuite.correlation.AbstractCorrelationTest;
+import com.blazebit.persistence.view.testsuite.correlation.simple.model.CountingOwnerCorrelationProvider;
 import com.blazebit.persistence.view.testsuite.correlation.simple.model.DocumentSimpleCorrelationViewJoinId;
 import com.blazebit.persistence.view.testsuite.correlation.simple.model.DocumentSimpleCorrelationViewJoinNormal;
 import com.blazebit.persistence.view.testsuite.correlation.simple.model.DocumentSimpleCorrelationViewSubqueryId;
+import com.blazebit.persistence.view.testsuite.correlation.simple.model.DocumentSimpleCorrelationViewSubqueryIdCounting;
 import com.blazebit.persistence.view.testsuite.correlation.simple.model.DocumentSimpleCorrelationViewSubqueryNormal;
 import com.blazebit.persistence.view.testsuite.correlation.simple.model.DocumentSimpleCorrelationViewSubselectId;
 import com.blazebit.persistence.view.testsuite.correlation.simple.model.DocumentSimpleCorrelationViewSubselectNormal;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
 /**
  *
  * @author Christian Beikov
@@ -54,6 +65,50 @@ public class SimpleCorrelationTest extends AbstractCorrelationTest {
         testCorrelation(DocumentSimpleCorrelationViewSubqueryId.class, null);
     }
 
+    @Test
+    // NOTE: Datenucleus issue: https://github.com/datanucleus/datanucleus-api-jpa/issues/77
+    @Category({ NoDatanucleus.class })
+    public void testSubqueryCorrelationIdRepeated() {
+        EntityViewManager evm = createEntityViewManager(DocumentSimpleCorrelationViewSubqueryIdCounting.class);
+        CountingOwnerCorrelationProvider.APPLY_COUNT.set(0);
+        testCorrelation(evm, DocumentSimpleCorrelationViewSubqueryIdCounting.class, null);
+        int applyCount = CountingOwnerCorrelationProvider.APPLY_COUNT.get();
+        assertTrue(applyCount > 0);
+        // The second execution reuses the correlation query templates instead of building the correlation queries again
+        testCorrelation(evm, DocumentSimpleCorrelationViewSubqueryIdCounting.class, null);
+        assertEquals(applyCount, CountingOwnerCorrelationProvider.APPLY_COUNT.get());
+    }
+
+    @Test
+    // NOTE: Datenucleus issue: https://github.com/datanucleus/datanucleus-api-jpa/issues/77
+    @Category({ NoDatanucleus.class })
+    public void testSubqueryCorrelationNormalScroll() {
+        testCorrelationScroll(DocumentSimpleCorrelationViewSubqueryNormal.class, 3);
+    }
+
+    @Test
+    // NOTE: Datenucleus issue: https://github.com/datanucleus/datanucleus-api-jpa/issues/77
+    @Category({ NoDatanucleus.class })
+    public void testSubqueryCorrelationNormalParallel() {
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        final AtomicInteger executions = new AtomicInteger();
+        Executor executor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                executions.incrementAndGet();
+                executorService.execute(command);
+            }
+        };
+        try {
+            EntityViewManager evm = createEntityViewManager(DocumentSimpleCorrelationViewSubqueryNormal.class);
+            testCorrelation(evm, DocumentSimpleCorrelationViewSubqueryNormal.class, null, executor);
+            // The correlated attributes of the view are independent and thus all fetched concurrently
+            assertTrue(executions.get() > 1);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
     @Test
     // NOTE: Requires values clause which currently is only available for Hibernate
     @Category({ NoDatanucleus4.class, NoDatanucleus.class, NoOpenJPA.class, NoEclipselink.class})
@@ -104,6 +159,12 @@ public class SimpleCorrelationTest extends AbstractCorrelationTest {
         testCorrelation(DocumentSimpleCorrelationViewSubselectNormal.class, null);
     }
 
+    @Test
+    public void testSubselectCorrelationNormalScroll() {
+        // Every chunk only contains a single view, so the subselect is restricted to the correlation keys of that view
+        testCorrelationScroll(DocumentSimpleCorrelationViewSubselectNormal.class, 1);
+    }
+
     @Test
     public void testSubselectCorrelationId() {
         testCorrelation(DocumentSimpleCorrelationViewSubselectId.class, null);
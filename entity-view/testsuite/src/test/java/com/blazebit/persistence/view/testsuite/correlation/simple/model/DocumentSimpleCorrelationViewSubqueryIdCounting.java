@@ -0,0 +1,36 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.view.testsuite.correlation.simple.model;
+
+import com.blazebit.persistence.testsuite.entity.Document;
+import com.blazebit.persistence.view.EntityView;
+import com.blazebit.persistence.view.FetchStrategy;
+import com.blazebit.persistence.view.MappingCorrelated;
+
+/**
+ * Adds a correlation with a counting correlation provider to observe whether the correlation query is built again.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+@EntityView(Document.class)
+public interface DocumentSimpleCorrelationViewSubqueryIdCounting extends DocumentSimpleCorrelationViewSubqueryId {
+
+    @MappingCorrelated(correlationBasis = "owner.id", correlationResult = "id", correlator = CountingOwnerCorrelationProvider.class, fetch = FetchStrategy.SELECT)
+    public Long getCountedCorrelatedOwnerId();
+
+}
@@ -19,12 +19,15 @@ package com.blazebit.persistence.view.testsuite.proxy;
 import com.blazebit.persistence.spi.PackageOpener;
 import com.blazebit.persistence.testsuite.entity.Person;
 import com.blazebit.persistence.view.impl.metamodel.ManagedViewTypeImplementor;
+import com.blazebit.persistence.view.impl.proxy.AbstractGeneratedInstantiator;
+import com.blazebit.persistence.view.impl.proxy.AbstractReflectionInstantiator;
 import com.blazebit.persistence.view.impl.proxy.ConstructorReflectionInstantiator;
 import com.blazebit.persistence.view.impl.proxy.ObjectInstantiator;
 import com.blazebit.persistence.view.impl.proxy.ProxyFactory;
 import com.blazebit.persistence.view.metamodel.FlatViewType;
 import com.blazebit.persistence.view.metamodel.ViewMetamodel;
 import com.blazebit.persistence.view.metamodel.ViewType;
+import com.blazebit.persistence.view.spi.type.TypeConverter;
 import com.blazebit.persistence.view.testsuite.AbstractEntityViewTest;
 import com.blazebit.persistence.view.testsuite.proxy.model.DocumentClassView;
 import com.blazebit.persistence.view.testsuite.proxy.model.DocumentCreateView;
@@ -38,8 +41,10 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.*;
@@ -100,6 +105,60 @@ public class ProxyFactoryTest extends AbstractEntityViewTest {
         assertTrue(expectedId == instance.getId());
     }
 
+    @Test
+    public void testGeneratedInstantiator() throws Exception {
+        ViewType<DocumentClassView> viewType = getViewMetamodel().view(DocumentClassView.class);
+
+        // The parameter order is _id, contacts, firstContactPerson, id, name
+        Class<?>[] parameterTypes = new Class[]{ Long.class, Map.class, Person.class, Person.class, String.class, Long.class, Integer.class};
+        List<AbstractReflectionInstantiator.TypeConverterEntry> typeConverterEntries = Collections.singletonList(new AbstractReflectionInstantiator.TypeConverterEntry(4, new TypeConverter<Object, Object>() {
+            @Override
+            public Class<?> getUnderlyingType(Class<?> owningClass, Type declaredType) {
+                return String.class;
+            }
+
+            @Override
+            public Object convertToViewType(Object object) {
+                return object == null ? null : object.toString().toUpperCase();
+            }
+
+            @Override
+            public Object convertToUnderlyingType(Object object) {
+                return object;
+            }
+        }));
+        ObjectInstantiator<DocumentClassView> instantiator = proxyFactory.createInstantiator(evm, (ManagedViewTypeImplementor<DocumentClassView>) viewType, null, viewType.getConstructor(parameterTypes), 0, parameterTypes, Collections.EMPTY_LIST, typeConverterEntries);
+        ObjectInstantiator<DocumentClassView> otherInstantiator = proxyFactory.createInstantiator(evm, (ManagedViewTypeImplementor<DocumentClassView>) viewType, null, viewType.getConstructor(parameterTypes), 0, parameterTypes, Collections.EMPTY_LIST, typeConverterEntries);
+        assertTrue(instantiator instanceof AbstractGeneratedInstantiator);
+        assertEquals(instantiator.getClass(), otherInstantiator.getClass());
+
+        Map<Integer, Person> expectedContacts = new HashMap<Integer, Person>();
+        Person expectedFirstContactPerson = new Person("pers");
+        Long expectedId = 1L;
+        long expectedAge = 10;
+        Person expectedMyContactPerson = new Person("my-pers");
+        Integer expectedContactPersonNumber = 2;
+
+        DocumentClassView instance = instantiator.newInstance(new Object[] {expectedId, expectedContacts, expectedFirstContactPerson,
+                expectedMyContactPerson, "doc", expectedAge, expectedContactPersonNumber});
+
+        assertTrue(expectedContacts == instance.getContacts());
+        assertTrue(expectedFirstContactPerson == instance.getFirstContactPerson());
+        assertTrue(expectedId == instance.getId());
+        assertTrue(expectedMyContactPerson == instance.getMyContactPerson());
+        assertEquals("DOC", instance.getName());
+        assertTrue(expectedAge == instance.getAge());
+        assertTrue(expectedContactPersonNumber == instance.getContactPersonNumber());
+
+        try {
+            instantiator.newInstance(new Object[] {"invalid", expectedContacts, expectedFirstContactPerson,
+                    expectedMyContactPerson, "doc", expectedAge, expectedContactPersonNumber});
+            fail("Expected a failure because of the invalid id type");
+        } catch (RuntimeException ex) {
+            assertTrue(ex.getCause() instanceof ClassCastException);
+        }
+    }
+
     @Test
     public void testInterfaceProxy() throws Exception {
         ViewType<DocumentInterfaceView> viewType = getViewMetamodel().view(DocumentInterfaceView.class);
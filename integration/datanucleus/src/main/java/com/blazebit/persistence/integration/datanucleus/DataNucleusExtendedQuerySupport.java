@@ -17,6 +17,7 @@
 package com.blazebit.persistence.integration.datanucleus;
 
 import com.blazebit.apt.service.ServiceProvider;
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.ReturningResult;
 import com.blazebit.persistence.spi.ExtendedQuerySupport;
 import org.datanucleus.store.rdbms.query.JPQLQuery;
@@ -25,6 +26,7 @@ import org.datanucleus.store.rdbms.query.RDBMSQueryCompilation;
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
 import java.lang.reflect.Field;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -93,6 +95,19 @@ public class DataNucleusExtendedQuerySupport implements ExtendedQuerySupport {
         return query.getSingleResult();
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public CloseableIterator<Object> scroll(com.blazebit.persistence.spi.ServiceProvider serviceProvider, List<Query> participatingQueries, Query query, String sqlOverride, int fetchSize) {
+        applySql(query, sqlOverride);
+        org.datanucleus.store.query.Query<?> dnQuery = query.unwrap(org.datanucleus.store.query.Query.class);
+        if (fetchSize > 0) {
+            dnQuery.getFetchPlan().setFetchSize(fetchSize);
+        }
+        // The result list of DataNucleus is lazily loaded from the open result set, so iterating it streams the results
+        List<Object> resultList = query.getResultList();
+        return new ResultListIterator(dnQuery, resultList);
+    }
+
     @Override
     public int executeUpdate(com.blazebit.persistence.spi.ServiceProvider serviceProvider, List<Query> participatingQueries, Query baseQuery, Query query, String sqlOverride) {
         applySql(query, sqlOverride);
@@ -104,6 +119,12 @@ public class DataNucleusExtendedQuerySupport implements ExtendedQuerySupport {
         // TODO: implement
         throw new UnsupportedOperationException("Not yet implemeneted!");
     }
+
+    @Override
+    public void executeBatch(com.blazebit.persistence.spi.ServiceProvider serviceProvider, String sql, List<Object[]> arguments, int batchSize) {
+        // TODO: implement
+        throw new UnsupportedOperationException("Not yet implemeneted!");
+    }
     
     private void applySql(Query query, String sqlOverride) {
         // TODO: parameter handling
@@ -118,4 +139,40 @@ public class DataNucleusExtendedQuerySupport implements ExtendedQuerySupport {
         }
     }
 
+    /**
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static class ResultListIterator implements CloseableIterator<Object> {
+
+        private final org.datanucleus.store.query.Query<?> query;
+        private final List<Object> resultList;
+        private final Iterator<Object> iterator;
+
+        public ResultListIterator(org.datanucleus.store.query.Query<?> query, List<Object> resultList) {
+            this.query = query;
+            this.resultList = resultList;
+            this.iterator = resultList.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public Object next() {
+            return iterator.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            query.close(resultList);
+        }
+    }
 }
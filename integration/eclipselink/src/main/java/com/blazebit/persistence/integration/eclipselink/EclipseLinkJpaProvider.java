@@ -47,6 +47,7 @@ import javax.persistence.metamodel.PluralAttribute;
 import javax.persistence.metamodel.SingularAttribute;
 import javax.persistence.metamodel.Type;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -593,6 +594,16 @@ public class EclipseLinkJpaProvider implements JpaProvider {
         query.setHint("eclipselink.query-results-cache", true);
     }
 
+    @Override
+    public boolean supportsArrayParameters() {
+        return false;
+    }
+
+    @Override
+    public void setArrayParameter(Query query, String parameterName, Collection<?> values, String elementSqlType) {
+        throw new UnsupportedOperationException("Array parameters are not supported!");
+    }
+
     @Override
     public List<String> getIdentifierOrUniqueKeyEmbeddedPropertyNames(EntityType<?> ownerType, String attributeName) {
         AttributeImpl<?, ?> attribute = getAttribute(ownerType, attributeName);
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.integration.hibernate.base;
+
+import org.hibernate.type.AbstractSingleColumnStandardBasicType;
+import org.hibernate.type.descriptor.ValueBinder;
+import org.hibernate.type.descriptor.ValueExtractor;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.AbstractTypeDescriptor;
+import org.hibernate.type.descriptor.java.JavaTypeDescriptor;
+import org.hibernate.type.descriptor.sql.BasicBinder;
+import org.hibernate.type.descriptor.sql.BasicExtractor;
+import org.hibernate.type.descriptor.sql.SqlTypeDescriptor;
+
+import java.sql.Array;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+
+/**
+ * A type for binding an object array as JDBC array parameter with a specific element sql type.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class ArrayParameterType extends AbstractSingleColumnStandardBasicType<Object[]> {
+
+    private final String elementSqlType;
+
+    public ArrayParameterType(String elementSqlType) {
+        super(new ArraySqlTypeDescriptor(elementSqlType), ObjectArrayTypeDescriptor.INSTANCE);
+        this.elementSqlType = elementSqlType;
+    }
+
+    @Override
+    public String getName() {
+        return elementSqlType + "[]";
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static final class ArraySqlTypeDescriptor implements SqlTypeDescriptor {
+
+        private final String elementSqlType;
+
+        public ArraySqlTypeDescriptor(String elementSqlType) {
+            this.elementSqlType = elementSqlType;
+        }
+
+        @Override
+        public int getSqlType() {
+            return Types.ARRAY;
+        }
+
+        @Override
+        public boolean canBeRemapped() {
+            return false;
+        }
+
+        @Override
+        public <X> ValueBinder<X> getBinder(final JavaTypeDescriptor<X> javaTypeDescriptor) {
+            return new BasicBinder<X>(javaTypeDescriptor, this) {
+                @Override
+                protected void doBind(PreparedStatement st, X value, int index, WrapperOptions options) throws SQLException {
+                    st.setArray(index, st.getConnection().createArrayOf(elementSqlType, javaTypeDescriptor.unwrap(value, Object[].class, options)));
+                }
+
+                // Hibernate 5+ binds named parameters of callable statements
+                protected void doBind(CallableStatement st, X value, String name, WrapperOptions options) throws SQLException {
+                    st.setObject(name, st.getConnection().createArrayOf(elementSqlType, javaTypeDescriptor.unwrap(value, Object[].class, options)));
+                }
+            };
+        }
+
+        @Override
+        public <X> ValueExtractor<X> getExtractor(final JavaTypeDescriptor<X> javaTypeDescriptor) {
+            return new BasicExtractor<X>(javaTypeDescriptor, this) {
+                @Override
+                protected X doExtract(ResultSet rs, String name, WrapperOptions options) throws SQLException {
+                    return javaTypeDescriptor.wrap(rs.getArray(name), options);
+                }
+
+                // Hibernate 5+ extracts from callable statements
+                protected X doExtract(CallableStatement statement, int index, WrapperOptions options) throws SQLException {
+                    return javaTypeDescriptor.wrap(statement.getArray(index), options);
+                }
+
+                // Hibernate 5+ extracts from callable statements
+                protected X doExtract(CallableStatement statement, String name, WrapperOptions options) throws SQLException {
+                    return javaTypeDescriptor.wrap(statement.getArray(name), options);
+                }
+            };
+        }
+    }
+
+    /**
+     * @author Christian Beikov
+     * @since 1.4.0
+     */
+    private static final class ObjectArrayTypeDescriptor extends AbstractTypeDescriptor<Object[]> {
+
+        private static final ObjectArrayTypeDescriptor INSTANCE = new ObjectArrayTypeDescriptor();
+
+        private ObjectArrayTypeDescriptor() {
+            super(Object[].class);
+        }
+
+        @Override
+        public String toString(Object[] value) {
+            return Arrays.toString(value);
+        }
+
+        @Override
+        public Object[] fromString(String string) {
+            throw new UnsupportedOperationException("Parsing arrays from strings is not supported!");
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <X> X unwrap(Object[] value, Class<X> type, WrapperOptions options) {
+            if (value == null) {
+                return null;
+            }
+            if (Object[].class.isAssignableFrom(type)) {
+                return (X) value;
+            }
+            throw unknownUnwrap(type);
+        }
+
+        @Override
+        public <X> Object[] wrap(X value, WrapperOptions options) {
+            if (value == null) {
+                return null;
+            }
+            if (value instanceof Object[]) {
+                return (Object[]) value;
+            }
+            if (value instanceof Array) {
+                try {
+                    return (Object[]) ((Array) value).getArray();
+                } catch (SQLException ex) {
+                    throw new IllegalArgumentException("Could not read array", ex);
+                }
+            }
+            throw unknownWrap(value.getClass());
+        }
+    }
+}
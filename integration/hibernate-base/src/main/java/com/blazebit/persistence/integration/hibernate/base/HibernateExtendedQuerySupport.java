@@ -18,6 +18,7 @@ package com.blazebit.persistence.integration.hibernate.base;
 
 import antlr.collections.AST;
 import com.blazebit.apt.service.ServiceProvider;
+import com.blazebit.persistence.CloseableIterator;
 import com.blazebit.persistence.ConfigurationProperties;
 import com.blazebit.persistence.ReturningResult;
 import com.blazebit.persistence.spi.ConfigurationSource;
@@ -29,6 +30,9 @@ import com.blazebit.reflection.ReflectionUtils;
 import org.hibernate.HibernateException;
 import org.hibernate.LockMode;
 import org.hibernate.LockOptions;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
 import org.hibernate.TypeMismatchException;
 import org.hibernate.engine.query.spi.HQLQueryPlan;
 import org.hibernate.engine.query.spi.QueryPlanCache;
@@ -55,6 +59,7 @@ import org.hibernate.hql.internal.ast.tree.SelectClause;
 import org.hibernate.hql.spi.ParameterTranslations;
 import org.hibernate.hql.spi.QueryTranslator;
 import org.hibernate.internal.util.collections.BoundedConcurrentHashMap;
+import org.hibernate.jdbc.Work;
 import org.hibernate.loader.hql.QueryLoader;
 import org.hibernate.param.ParameterSpecification;
 import org.hibernate.persister.entity.AbstractEntityPersister;
@@ -68,6 +73,10 @@ import javax.persistence.PersistenceException;
 import javax.persistence.Query;
 import java.io.Serializable;
 import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
@@ -352,6 +361,23 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         }
     }
 
+    @Override
+    public CloseableIterator<Object> scroll(com.blazebit.persistence.spi.ServiceProvider serviceProvider, List<Query> participatingQueries, Query query, String sqlOverride, int fetchSize) {
+        EntityManager em = serviceProvider.getService(EntityManager.class);
+        try {
+            return new ScrollableResultsIterator(scroll(serviceProvider, em, participatingQueries, query, sqlOverride, fetchSize));
+        } catch (QueryExecutionRequestException he) {
+            LOG.severe("Could not execute the following SQL query: " + sqlOverride);
+            throw new IllegalStateException(he);
+        } catch (TypeMismatchException e) {
+            LOG.severe("Could not execute the following SQL query: " + sqlOverride);
+            throw new IllegalArgumentException(e);
+        } catch (HibernateException he) {
+            LOG.severe("Could not execute the following SQL query: " + sqlOverride);
+            throw hibernateAccess.convert(em, he);
+        }
+    }
+
     @SuppressWarnings("rawtypes")
     private List list(com.blazebit.persistence.spi.ServiceProvider serviceProvider, EntityManager em, List<Query> participatingQueries, Query query, String finalSql) {
         SessionImplementor session = em.unwrap(SessionImplementor.class);
@@ -380,6 +406,36 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         return hibernateAccess.performList(queryPlan, session, queryParameters);
     }
 
+    private ScrollableResults scroll(com.blazebit.persistence.spi.ServiceProvider serviceProvider, EntityManager em, List<Query> participatingQueries, Query query, String finalSql, int fetchSize) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        SessionFactoryImplementor sfi = session.getFactory();
+
+        if (session.isClosed()) {
+            throw new PersistenceException("Entity manager is closed!");
+        }
+
+        // Create combined query parameters
+        List<String> queryStrings = new ArrayList<>(participatingQueries.size());
+        Set<String> querySpaces = new HashSet<>();
+        QueryParamEntry queryParametersEntry = createQueryParameters(em, participatingQueries, queryStrings, querySpaces);
+        QueryParameters queryParameters = queryParametersEntry.queryParameters;
+        // Read the rows one after another with the given fetch size
+        queryParameters.getRowSelection().setFetchSize(fetchSize);
+        queryParameters.setScrollMode(ScrollMode.FORWARD_ONLY);
+
+        QueryPlanCacheKey cacheKey = createCacheKey(queryStrings);
+        CacheEntry<HQLQueryPlan> queryPlanEntry = getQueryPlan(sfi, query, cacheKey);
+        HQLQueryPlan queryPlan = queryPlanEntry.getValue();
+
+        if (!queryPlanEntry.isFromCache()) {
+            prepareQueryPlan(queryPlan, queryParametersEntry.specifications, finalSql, session, null, false, serviceProvider.getService(DbmsDialect.class));
+            queryPlan = putQueryPlanIfAbsent(sfi, cacheKey, queryPlan);
+        }
+
+        autoFlush(querySpaces, session);
+        return hibernateAccess.performScroll(queryPlan, session, queryParameters);
+    }
+
     @Override
     public int executeUpdate(com.blazebit.persistence.spi.ServiceProvider serviceProvider, List<Query> participatingQueries, Query baseQuery, Query query, String finalSql) {
         DbmsDialect dbmsDialect = serviceProvider.getService(DbmsDialect.class);
@@ -548,6 +604,53 @@ public class HibernateExtendedQuerySupport implements ExtendedQuerySupport {
         }
     }
 
+    @Override
+    public void executeBatch(com.blazebit.persistence.spi.ServiceProvider serviceProvider, final String sql, final List<Object[]> arguments, final int batchSize) {
+        EntityManager em = serviceProvider.getService(EntityManager.class);
+        Session session = em.unwrap(Session.class);
+
+        if (!session.isOpen()) {
+            throw new PersistenceException("Entity manager is closed!");
+        }
+
+        try {
+            // We use the connection of the session so that the statements run in the same transaction as the queries
+            session.doWork(new Work() {
+                @Override
+                public void execute(Connection connection) throws SQLException {
+                    try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                        if (arguments.isEmpty()) {
+                            ps.executeUpdate();
+                            return;
+                        }
+
+                        int batchCount = 0;
+                        for (Object[] row : arguments) {
+                            for (int i = 0; i < row.length; i++) {
+                                if (row[i] == null) {
+                                    ps.setNull(i + 1, Types.NULL);
+                                } else {
+                                    ps.setObject(i + 1, row[i]);
+                                }
+                            }
+                            ps.addBatch();
+                            if (++batchCount == batchSize) {
+                                ps.executeBatch();
+                                batchCount = 0;
+                            }
+                        }
+                        if (batchCount != 0) {
+                            ps.executeBatch();
+                        }
+                    }
+                }
+            });
+        } catch (HibernateException he) {
+            LOG.severe("Could not execute the following SQL statement: " + sql);
+            hibernateAccess.throwPersistenceException(em, he);
+        }
+    }
+
     public void autoFlush(Set<String> querySpaces, SessionImplementor sessionImplementor) {
         AutoFlushEvent event = new AutoFlushEvent(querySpaces, (EventSource) sessionImplementor);
         for (AutoFlushEventListener listener : sessionImplementor.getFactory().getServiceRegistry().getService(EventListenerRegistry.class).getEventListenerGroup(EventType.AUTO_FLUSH).listeners()) {
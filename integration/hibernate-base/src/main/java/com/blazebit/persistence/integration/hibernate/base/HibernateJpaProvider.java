@@ -1366,6 +1366,16 @@ public class HibernateJpaProvider implements JpaProvider {
         query.setHint("org.hibernate.cacheable", true);
     }
 
+    @Override
+    public boolean supportsArrayParameters() {
+        return true;
+    }
+
+    @Override
+    public void setArrayParameter(Query query, String parameterName, Collection<?> values, String elementSqlType) {
+        query.unwrap(org.hibernate.Query.class).setParameter(parameterName, values.toArray(), new ArrayParameterType(elementSqlType));
+    }
+
     @Override
     public List<String> getIdentifierOrUniqueKeyEmbeddedPropertyNames(EntityType<?> owner, String attributeName) {
         AbstractEntityPersister entityPersister = getEntityPersister(owner);
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2014 - 2019 Blazebit.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blazebit.persistence.integration.hibernate.base;
+
+import com.blazebit.persistence.CloseableIterator;
+import org.hibernate.ScrollableResults;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Adapts scrollable results to a closeable iterator, unwrapping single element rows like {@link org.hibernate.Query#list()} does.
+ * The scrollable results are closed as soon as the last row was read.
+ *
+ * @author Christian Beikov
+ * @since 1.4.0
+ */
+public class ScrollableResultsIterator implements CloseableIterator<Object> {
+
+    private final ScrollableResults scrollableResults;
+    private Boolean hasNext;
+    private boolean closed;
+
+    public ScrollableResultsIterator(ScrollableResults scrollableResults) {
+        this.scrollableResults = scrollableResults;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (hasNext == null) {
+            if (closed) {
+                hasNext = false;
+            } else {
+                hasNext = scrollableResults.next();
+                if (!hasNext) {
+                    close();
+                }
+            }
+        }
+        return hasNext;
+    }
+
+    @Override
+    public Object next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        hasNext = null;
+        Object[] row = scrollableResults.get();
+        return row.length == 1 ? row[0] : row;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            scrollableResults.close();
+        }
+    }
+}
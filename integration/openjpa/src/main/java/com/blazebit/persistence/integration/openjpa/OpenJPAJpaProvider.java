@@ -32,6 +32,7 @@ import javax.persistence.metamodel.ManagedType;
 import javax.persistence.metamodel.SingularAttribute;
 import javax.persistence.metamodel.Type;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -354,6 +355,16 @@ public class OpenJPAJpaProvider implements JpaProvider {
         }
     }
 
+    @Override
+    public boolean supportsArrayParameters() {
+        return false;
+    }
+
+    @Override
+    public void setArrayParameter(Query query, String parameterName, Collection<?> values, String elementSqlType) {
+        throw new UnsupportedOperationException("Array parameters are not supported!");
+    }
+
     private Attribute<?, ?> getAttribute(ManagedType<?> ownerType, String attributeName) {
         if (attributeName.indexOf('.') == -1) {
             return ownerType.getAttribute(attributeName);
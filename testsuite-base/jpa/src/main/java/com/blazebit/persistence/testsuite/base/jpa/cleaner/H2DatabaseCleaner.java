@@ -99,7 +99,7 @@ public class H2DatabaseCleaner implements DatabaseCleaner {
             LOG.log(Level.FINEST, "Deleting data: START");
             if (cachedTableNames == null) {
                 cachedTableNames = new ArrayList<>();
-                ResultSet rs = s.executeQuery("SELECT TABLE_SCHEMA, TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA NOT IN (" + SYSTEM_SCHEMAS + ")");
+                ResultSet rs = s.executeQuery("SELECT TABLE_SCHEMA, TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA NOT IN (" + SYSTEM_SCHEMAS + ") AND STORAGE_TYPE NOT LIKE '%TEMPORARY'");
                 while (rs.next()) {
                     String tableSchema = rs.getString(1);
                     String tableName = rs.getString(2);